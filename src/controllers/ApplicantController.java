@@ -2,21 +2,22 @@ package controllers;
 
 import enumeration.FlatType;
 import enumeration.BTOApplicationStatus;
-import java.util.Scanner;
 import java.util.List;
 import models.Applicant;
 import models.BTOApplication;
 import models.BTOProject;
 import models.ProjectFilter;
 import models.User;
+import profiling.MenuActionEvent;
 import stores.AuthStore;
 import stores.FilterStore;
 import view.BTOProjectAvailableView;
 import view.BTOApplicationView;
 import view.BTOProjectFilterView;
 import services.BTOProjectService;
+import utils.OperationTimer;
 import utils.TextDecorationUtils;
-import java.time.LocalDate;
+import utils.SessionScanner;
 import models.Enquiry;
 import stores.DataStore;
 import java.util.stream.Collectors;
@@ -38,7 +39,7 @@ import models.WithdrawalRequest;
  */
 public class ApplicantController extends UserController {
 
-    private static final Scanner sc = new Scanner(System.in);
+    private static final SessionScanner sc = new SessionScanner();
     private BTOProjectService projectService;
     private BTOProjectAvailableView projectView;
     private BTOApplicationView applicationView;
@@ -100,44 +101,54 @@ public class ApplicantController extends UserController {
                 continue;
             }
 
-            switch (choice) {
-                case 1:
-                    if (changePassword()) {
-                        System.out.println("Restarting session...");
-                        AuthController.endSession();
+            MenuActionEvent event = new MenuActionEvent("Applicant", choice);
+            event.begin();
+            OperationTimer timer = OperationTimer.start("ApplicantController.menu" + choice, AuthStore.getCurrentUser());
+            try {
+                switch (choice) {
+                    case 1:
+                        if (changePassword()) {
+                            System.out.println("Restarting session...");
+                            AuthController.endSession();
+                            return;
+                        }
+                        break;
+                    case 2:
+                        viewAvailableBTOProjects();
+                        break;
+                    case 3:
+                        applyForBTOProject();
+                        break;
+                    case 4:
+                        viewMyBTOApplications();
+                        break;
+                    case 5:
+                        viewAppliedProjectDetails();
+                        break;
+                    case 6:
+                        withdrawBTOApplication();
+                        break;
+                    case 7:
+                        requestFlatBooking();
+                        break;
+                    case 8:
+                        submitEnquiry();
+                        break;
+                    case 9:
+                        viewMyEnquiries();
+                        break;
+                    case 0:
+                        System.out.println("Logging out...");
+                        event.finish();
+                        timer.stop();
+                        AuthController.startSession();
                         return;
-                    }
-                    break;
-                case 2:
-                    viewAvailableBTOProjects();
-                    break;
-                case 3:
-                    applyForBTOProject();
-                    break;
-                case 4:
-                    viewMyBTOApplications();
-                    break;
-                case 5:
-                    viewAppliedProjectDetails();
-                    break;
-                case 6:
-                    withdrawBTOApplication();
-                    break;
-                case 7:
-                    requestFlatBooking();
-                    break;
-                case 8:
-                    submitEnquiry();
-                    break;
-                case 9:
-                    viewMyEnquiries();
-                    break;
-                case 0:
-                    System.out.println("Logging out...");
-                    AuthController.startSession();
-                    return;
-                default:
-                    System.out.println("Invalid choice. Please try again.");
+                    default:
+                        System.out.println("Invalid choice. Please try again.");
+                }
+            } finally {
+                event.finish();
+                timer.stop();
             }
         } while (true);
     }
@@ -376,8 +387,7 @@ public class ApplicantController extends UserController {
             if (!selectedProject.isVisible()) {
                 System.out.println("This project is not visible.");
             }
-            if (LocalDate.now().isBefore(selectedProject.getApplicationOpeningDate()) || 
-                LocalDate.now().isAfter(selectedProject.getApplicationClosingDate())) {
+            if (!selectedProject.isApplicationOpen()) {
                 System.out.println("This project is not within its application period.");
                 System.out.println("Application period: " + selectedProject.getApplicationOpeningDate() + 
                                  " to " + selectedProject.getApplicationClosingDate());
@@ -752,7 +762,7 @@ private void deleteEnquiry(List<Enquiry> enquiries) {
         
         // Create withdrawal request
         WithdrawalRequest request = new WithdrawalRequest(selectedApplication);
-        DataStore.getWithdrawalRequestsData().put(request.getRequestId(), request);
+        DataStore.addWithdrawalRequest(request);
         DataStore.saveData();
         
         System.out.println("\nWithdrawal request submitted successfully!");
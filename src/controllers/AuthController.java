@@ -1,19 +1,28 @@
 package controllers;
 
-import java.util.Scanner;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
+import enumeration.LoginResult;
+import enumeration.UserType;
 import interfaces.IAuthService;
+import profiling.StartupProfiler;
 
 import services.AuthApplicantService;
 import services.AuthHDBOfficerService;
 import services.AuthHDBManagerService;
+import services.AuthService;
+import utils.AuditLogWriter;
+import utils.MetricsRegistry;
 import utils.TextDecorationUtils;
+import utils.SessionScanner;
 import stores.AuthStore;
 import stores.DataStore;
+import stores.SessionContext;
 
 /**
  * The {@link AuthController} class provides utility methods for managing
@@ -24,18 +33,33 @@ import stores.DataStore;
  */
 public class AuthController {
     /**
-     * {@link Scanner} object to get input from the user.
+     * {@link SessionScanner} object to get input from the current session.
      */
-    private static final Scanner sc = new Scanner(System.in);
+    private static final SessionScanner sc = new SessionScanner();
+
+    private static final int MAX_LOGIN_ATTEMPTS = 3;
+    private static final String FAILED_LOGIN_LOG = "data/FailedLoginAttempts.csv";
+    private static final DateTimeFormatter FAILED_LOGIN_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     /**
-     * {@link IAuthService} object to authenticate the user.
+     * {@link AuditLogWriter} that appends failed login attempts in the background,
+     * flushing every 200 ms and rotating the log once it reaches 1 MB.
      */
-    private static IAuthService authService;
+    private static final AuditLogWriter failedLoginLog = new AuditLogWriter(FAILED_LOGIN_LOG,
+            List.of("Timestamp", "NRIC", "RoleAttempted", "IPAddress"), 4096, 200, TimeUnit.MILLISECONDS,
+            1024 * 1024, 5);
 
-    private static final int MAX_LOGIN_ATTEMPTS = 3;
-    private static int failedAttempts = 0;
-    private static final String FAILED_LOGIN_LOG = "data/FailedLoginAttempts.csv";
+    static {
+        // Restore recent failures so that restarting does not lift a lockout
+        AuthService.getLoginThrottle().replay(failedLoginLog.getBackupPath(1), Paths.get(FAILED_LOGIN_LOG));
+
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("FailedLoginLog.written", failedLoginLog::getWrittenCount);
+        metrics.gauge("FailedLoginLog.dropped", failedLoginLog::getDroppedCount);
+        metrics.gauge("FailedLoginLog.failed", failedLoginLog::getFailedCount);
+        metrics.gauge("FailedLoginLog.queueDepth", failedLoginLog::getQueueDepth);
+        metrics.gauge("FailedLoginLog.maxFlushLatencyNanos", failedLoginLog::getMaxFlushLatencyNanos);
+    }
 
     private static AuthApplicantService authApplicantService = new AuthApplicantService();
     private static AuthHDBOfficerService authHDBOfficerService = new AuthHDBOfficerService();
@@ -48,36 +72,41 @@ public class AuthController {
     };
 
     /**
-     * Logs a failed login attempt to the CSV file
+     * Logs a failed login attempt to the CSV file. The attempt is queued and
+     * written in the background, so a burst of failed logins does not wait on the disk.
      */
     private static void logFailedAttempt(String nric, String roleAttempted) {
-        try {
-            FileWriter writer = new FileWriter(FAILED_LOGIN_LOG, true);
-            String timestamp = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date());
-            String ipAddress = "127.0.0.1"; // In a real system, this would be the actual IP
-            
-            writer.append(timestamp)
-                  .append(",")
-                  .append(nric)
-                  .append(",")
-                  .append(roleAttempted)
-                  .append(",")
-                  .append(ipAddress)
-                  .append("\n");
-            
-            writer.flush();
-            writer.close();
-        } catch (IOException e) {
-            System.err.println("Error logging failed login attempt: " + e.getMessage());
+        String timestamp = LocalDateTime.now().format(FAILED_LOGIN_TIMESTAMP);
+        String ipAddress = SessionContext.current().getRemoteAddress();
+        if (!failedLoginLog.append(List.of(timestamp, nric, roleAttempted, ipAddress))) {
+            System.err.println("Error logging failed login attempt: audit log queue is full");
         }
     }
 
+    /**
+     * Gets the writer of the failed login log, for its counters.
+     *
+     * @return the failed login log writer
+     */
+    public static AuditLogWriter getFailedLoginLog() {
+        return failedLoginLog;
+    }
+
+    /**
+     * Writes the failed login attempts still queued and closes the log. Called
+     * when the system shuts down.
+     */
+    public static void closeFailedLoginLog() {
+        failedLoginLog.close();
+    }
+
     /**
      * Starts a user session by prompting the user to select their role and
      * enter their credentials. The method loops until valid credentials are
      * provided or the system is shut down.
      */
     public static void startSession() {
+        SessionContext session = SessionContext.current();
         int choice;
         boolean authenticated = false;
 
@@ -97,6 +126,7 @@ public class AuthController {
                 System.out.println(TextDecorationUtils.underlineText("EXIT"));
                 System.out.println("0. Shutdown System");
                 System.out.println("==========================================");
+                StartupProfiler.getInstance().finish("First menu render");
                 System.out.print("Enter your choice: ");
 
                 String input = sc.nextLine();
@@ -115,7 +145,7 @@ public class AuthController {
             if (choice == 0) {
                 System.out.println("Shutting down BTOMS...");
                 DataStore.saveData();
-                System.exit(0);
+                exitSession();
                 return;
             }
 
@@ -132,26 +162,41 @@ public class AuthController {
 
             if (!isValidNRIC(nric)) {
                 System.out.println("Invalid NRIC format! NRIC must start with S or T, followed by 7 digits and end with a letter.\n");
-                failedAttempts++;
-                if (failedAttempts >= MAX_LOGIN_ATTEMPTS) {
+                if (session.incrementFailedAttempts() >= MAX_LOGIN_ATTEMPTS) {
+                    System.out.println("\n==========================================");
+                    System.out.println(TextDecorationUtils.boldText("Maximum login attempts reached!"));
+                    System.out.println("System shutting down for security reasons.");
+                    System.out.println("==========================================");
+                    exitSession();
+                    return;
+                }
+                continue;
+            }
+
+            Duration retryAfter = AuthService.getLoginThrottle().getRetryAfter(nric);
+            if (!retryAfter.isZero()) {
+                System.out.println("Too many failed login attempts. Please try again in " +
+                                   Math.max(1, (retryAfter.getSeconds() + 59) / 60) + " minute(s).\n");
+                if (session.incrementFailedAttempts() >= MAX_LOGIN_ATTEMPTS) {
                     System.out.println("\n==========================================");
                     System.out.println(TextDecorationUtils.boldText("Maximum login attempts reached!"));
                     System.out.println("System shutting down for security reasons.");
                     System.out.println("==========================================");
-                    System.exit(0);
+                    exitSession();
+                    return;
                 }
                 continue;
             }
 
             if (!isNRICExists(nric, choice)) {
                 System.out.println("Invalid NRIC! This NRIC is not registered in the system.\n");
-                failedAttempts++;
-                if (failedAttempts >= MAX_LOGIN_ATTEMPTS) {
+                if (session.incrementFailedAttempts() >= MAX_LOGIN_ATTEMPTS) {
                     System.out.println("\n==========================================");
                     System.out.println(TextDecorationUtils.boldText("Maximum login attempts reached!"));
                     System.out.println("System shutting down for security reasons.");
                     System.out.println("==========================================");
-                    System.exit(0);
+                    exitSession();
+                    return;
                 }
                 continue;
             }
@@ -159,32 +204,49 @@ public class AuthController {
             System.out.print("Enter Password: ");
             String password = sc.nextLine();
 
-            boolean loginSuccess = false;
+            IAuthService authService = null;
             String roleAttempted = "";
             switch (choice) {
                 case 1:
-                    loginSuccess = authApplicantService.login(nric, password);
+                    authService = authApplicantService;
                     roleAttempted = "Applicant";
                     break;
                 case 2:
-                    loginSuccess = authHDBOfficerService.login(nric, password);
+                    authService = authHDBOfficerService;
                     roleAttempted = "HDB Officer";
                     break;
                 case 3:
-                    loginSuccess = authHDBManagerService.login(nric, password);
+                    authService = authHDBManagerService;
                     roleAttempted = "HDB Manager";
                     break;
             }
+            LoginResult loginResult = authService.login(nric, password);
 
-            if (loginSuccess) {
+            if (loginResult == LoginResult.BUSY) {
+                // The password was not checked, so this is not a failed attempt
+                System.out.println("\nToo many logins at once. Please try again shortly.\n");
+                continue;
+            } else if (loginResult == LoginResult.THROTTLED) {
+                System.out.println("Too many failed login attempts. Please try again later.\n");
+                if (session.incrementFailedAttempts() >= MAX_LOGIN_ATTEMPTS) {
+                    System.out.println("\n==========================================");
+                    System.out.println(TextDecorationUtils.boldText("Maximum login attempts reached!"));
+                    System.out.println("System shutting down for security reasons.");
+                    System.out.println("==========================================");
+                    exitSession();
+                    return;
+                }
+                continue;
+            } else if (loginResult == LoginResult.SUCCESS) {
                 System.out.println("\n==========================================");
                 System.out.println(TextDecorationUtils.boldText("Login successful!"));
                 System.out.println("==========================================");
-                failedAttempts = 0;
+                session.resetFailedAttempts();
+                session.setAuthService(authService);
                 startUserSession();
                 return;
             } else {
-                failedAttempts++;
+                int failedAttempts = session.incrementFailedAttempts();
                 logFailedAttempt(nric, roleAttempted);
                 
                 System.out.println("\n==========================================");
@@ -195,7 +257,8 @@ public class AuthController {
                     System.out.println("\nMaximum login attempts reached!");
                     System.out.println("System shutting down for security reasons.");
                     System.out.println("==========================================");
-                    System.exit(0);
+                    exitSession();
+                    return;
                 } else {
                     System.out.println("Attempts remaining: " + (MAX_LOGIN_ATTEMPTS - failedAttempts));
                 }
@@ -205,14 +268,30 @@ public class AuthController {
     }
 
     /**
-     * Ends the current user session by logging the user out and displaying a
-     * logout message.
+     * Leaves the application. The local console shuts the system down, while a
+     * remote session is only closed so that other sessions keep running.
+     */
+    private static void exitSession() {
+        SessionContext session = SessionContext.current();
+        if (!session.isRemote()) {
+            System.exit(0);
+        }
+
+        System.out.println("Disconnecting from BTOMS...");
+        session.close();
+    }
+
+    /**
+     * Ends the current user session by logging the user out through the
+     * {@link IAuthService} that logged them in.
      */
     public static void endSession() {
+        SessionContext session = SessionContext.current();
+        IAuthService authService = session.getAuthService();
         if (authService != null) {
             authService.logout();
         }
-        authService = null;
+        session.setAuthService(null);
     }
 
     /**
@@ -254,11 +333,11 @@ public class AuthController {
     private static boolean isNRICExists(String nric, int role) {
         switch (role) {
             case 1: // Applicant
-                return DataStore.getApplicantsData().containsKey(nric);
+                return DataStore.userExists(UserType.APPLICANT, nric);
             case 2: // HDB Officer
-                return DataStore.getHDBOfficersData().containsKey(nric);
+                return DataStore.userExists(UserType.HDB_OFFICER, nric);
             case 3: // HDB Manager
-                return DataStore.getHDBManagersData().containsKey(nric);
+                return DataStore.userExists(UserType.HDB_MANAGER, nric);
             default:
                 return false;
         }
@@ -287,6 +366,11 @@ public class AuthController {
             System.out.println("Invalid NRIC format! NRIC must start with S or T, followed by 7 digits and end with a letter.\n");
             return;
         }
+
+        if (DataStore.userExists(UserType.APPLICANT, nric)) {
+            System.out.println("This NRIC is already registered.\n");
+            return;
+        }
         
         System.out.print("Age: ");
         try {
@@ -334,7 +418,7 @@ public class AuthController {
         if (applicantService.register(name, nric, age, maritalStatus, password)) {
             System.out.println("Registration successful! You can now login with your credentials.\n");
         } else {
-            System.out.println("Registration failed. The NRIC might already be registered.\n");
+            System.out.println("Registration failed. The NRIC might already be registered, or the system is busy; please try again shortly.\n");
         }
     }
 
@@ -1,18 +1,23 @@
 package controllers;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
+import java.util.Random;
 import java.util.stream.Collectors;
 
 import enumeration.BTOApplicationStatus;
 import enumeration.FlatType;
 import enumeration.RegistrationStatus;
 import enumeration.MaritalStatus;
+import events.EventBus;
+import events.ProjectUpdated;
 import models.BTOApplication;
+import models.BallotPlan;
+import models.BallotSimulationResult;
 import models.BTOProject;
 import models.FlatTypeDetails;
 import models.HDBManager;
@@ -23,13 +28,22 @@ import models.Enquiry;
 import models.ProjectFilter;
 import models.User;
 import models.WithdrawalRequest;
+import profiling.MenuActionEvent;
+import services.BTOApplicationService;
+import services.BallotService;
+import services.BallotSimulationService;
 import services.BTOProjectService;
 import services.EnquiryService;
 import services.ReportService;
+import services.WaitlistService;
+import stores.ApplicationWorkQueue;
 import stores.DataStore;
 import stores.FilterStore;
 import view.ReportView;
+import utils.MetricsRegistry;
+import utils.OperationTimer;
 import utils.TextDecorationUtils;
+import utils.SessionScanner;
 import services.BTOProjectManagementService;
 import view.BTOProjectManagementView;
 
@@ -47,17 +61,21 @@ import view.BTOProjectManagementView;
  */
 public class HDBManagerController extends UserController {
 
-    private static final Scanner sc = new Scanner(System.in);
+    private static final SessionScanner sc = new SessionScanner();
     private final HDBManager hdbManager;
     private final BTOProjectService btoProjectService;
+    private final BTOApplicationService applicationService;
+    private final BallotService ballotService;
+    private final BallotSimulationService ballotSimulationService;
+    private final WaitlistService waitlistService;
     private final ReportView reportView;
     private final EnquiryService enquiryService;
     private final ReportService reportService;
     private final BTOProjectManagementService projectManagementService;
     private final BTOProjectManagementView projectManagementView;
     
-    // Currently handled application by this manager
-    private BTOApplication currentApplication;
+    // Claim on the application this manager is currently reviewing
+    private ApplicationWorkQueue.Lease currentLease;
 
     /**
      * Constructor for HDBManagerController
@@ -66,49 +84,28 @@ public class HDBManagerController extends UserController {
     public HDBManagerController(HDBManager hdbManager) {
         this.hdbManager = hdbManager;
         this.btoProjectService = new BTOProjectService();
+        this.applicationService = new BTOApplicationService();
+        this.ballotService = new BallotService();
+        this.ballotSimulationService = new BallotSimulationService();
+        this.waitlistService = new WaitlistService();
         this.reportView = new ReportView();
         this.enquiryService = new EnquiryService();
         this.reportService = new ReportService();
         this.projectManagementService = new BTOProjectManagementService();
         this.projectManagementView = new BTOProjectManagementView();
-        this.currentApplication = null;
+        this.currentLease = null;
     }
     
     /**
-     * Checks if this HDB Manager is already handling an application within the application period.
+     * Checks if this HDB Manager still holds a claim on an application.
      * 
      * @return true if already handling an application, false otherwise
      */
     private boolean isHandlingApplication() {
-        if (currentApplication == null) {
-            return false;
-        }
-        
-        // Check if the application's project is within the application period
-        BTOProject project = currentApplication.getProject();
-        LocalDate today = LocalDate.now();
-        boolean inApplicationPeriod = today.isAfter(project.getApplicationOpeningDate()) && 
-                                     today.isBefore(project.getApplicationClosingDate());
-        
-        return inApplicationPeriod;
-    }
-    
-    /**
-     * Sets the current application being handled by this manager.
-     * 
-     * @param application The application to handle
-     */
-    private void setCurrentApplication(BTOApplication application) {
-        this.currentApplication = application;
+        return currentLease != null &&
+               DataStore.getApplicationQueue(currentLease.getApplication().getProject()).isHeld(currentLease);
     }
     
-    /**
-     * Clears the current application being handled by this manager.
-     */
-    private void clearCurrentApplication() {
-        this.currentApplication = null;
-    }
-
     /**
      * Start the HDB Manager menu
      */
@@ -141,6 +138,8 @@ do {
             System.out.println("└─ 10. Approve/Reject BTO Application");
             System.out.println("└─ 11. Approve/Reject Application Withdrawal");
             System.out.println("└─ 12. Generate Applicant Report");
+            System.out.println("└─ 16. Run Ballot for Project");
+            System.out.println("└─ 17. Simulate Ballots for All Projects");
             System.out.println();
 
             System.out.println(TextDecorationUtils.underlineText("ENQUIRY MANAGEMENT"));
@@ -150,6 +149,8 @@ do {
 
             System.out.println(TextDecorationUtils.underlineText("SETTINGS"));
             System.out.println("└─ 15. Change Password");
+            System.out.println("└─ 18. Diagnostics");
+            System.out.println("└─ 19. Heap Footprint");
             System.out.println();
 
             System.out.println(TextDecorationUtils.underlineText("LOGOUT"));
@@ -159,8 +160,8 @@ do {
             
             // Display current application if handling one
             if (isHandlingApplication()) {
-                System.out.println("Currently handling application: " + currentApplication.getApplicationId());
-                System.out.println("Project: " + currentApplication.getProject().getProjectName());
+                System.out.println("Currently handling application: " + currentLease.getApplication().getApplicationId());
+                System.out.println("Project: " + currentLease.getApplication().getProject().getProjectName());
                 System.out.println("==========================================");
             }
             
@@ -168,8 +169,8 @@ do {
             String input = sc.nextLine();
             if (input.matches("[0-9]+")) {
                 choice = Integer.parseInt(input);
-                if (choice < 0 || choice > 15) {
-                    System.out.println("Invalid input. Please enter 0-15!");
+                if (choice < 0 || choice > 19) {
+                    System.out.println("Invalid input. Please enter 0-19!");
                     continue;
                 }
             } else {
@@ -177,59 +178,81 @@ do {
                 continue;
             }
             
-            switch (choice) {
-                case 0:
-                    System.out.println("Logging out...");
-                    AuthController.startSession();
-                    return;
-                case 1:
-                    createBTOProject();
-                    break;
-                case 2:
-                    editBTOProject();
-                    break;
-                case 3:
-                    deleteBTOProject();
-                    break;
-                case 4:
-                    viewAllProjects();
-                    break;
-                case 5:
-                    viewMyProjects();
-                    break;
-                case 6:
-                    toggleProjectVisibility();
-                    break;
-                case 7:
-                    viewHDBOfficerRegistrations();
-                    break;
-                case 8:
-                    approveRejectHDBOfficerRegistration();
-                    break;
-                case 9:
-                    viewBTOApplications();
-                    break;
-                case 10:
-                    approveRejectBTOApplication();
-                    break;
-                case 11:
-                    approveRejectApplicationWithdrawal();
-                    break;
-                case 12:
-                    generateApplicantReport();
-                    break;
-                case 13:
-                    viewAllEnquiries();
-                    break;
-                case 14:
-                    viewAndReplyToProjectEnquiries();
-                    break;
-                case 15:
-                    changePassword();
-                    break;
-                default:
-                    System.out.println("Invalid choice. Please try again.");
-                    break;
+            MenuActionEvent event = new MenuActionEvent("HDB Manager", choice);
+            event.begin();
+            OperationTimer timer = OperationTimer.start("HDBManagerController.menu" + choice, hdbManager);
+            try {
+                switch (choice) {
+                    case 0:
+                        System.out.println("Logging out...");
+                        event.finish();
+                        timer.stop();
+                        AuthController.startSession();
+                        return;
+                    case 1:
+                        createBTOProject();
+                        break;
+                    case 2:
+                        editBTOProject();
+                        break;
+                    case 3:
+                        deleteBTOProject();
+                        break;
+                    case 4:
+                        viewAllProjects();
+                        break;
+                    case 5:
+                        viewMyProjects();
+                        break;
+                    case 6:
+                        toggleProjectVisibility();
+                        break;
+                    case 7:
+                        viewHDBOfficerRegistrations();
+                        break;
+                    case 8:
+                        approveRejectHDBOfficerRegistration();
+                        break;
+                    case 9:
+                        viewBTOApplications();
+                        break;
+                    case 10:
+                        approveRejectBTOApplication();
+                        break;
+                    case 11:
+                        approveRejectApplicationWithdrawal();
+                        break;
+                    case 12:
+                        generateApplicantReport();
+                        break;
+                    case 13:
+                        viewAllEnquiries();
+                        break;
+                    case 14:
+                        viewAndReplyToProjectEnquiries();
+                        break;
+                    case 15:
+                        changePassword();
+                        break;
+                    case 16:
+                        runBallot();
+                        break;
+                    case 17:
+                        simulateBallots();
+                        break;
+                    case 18:
+                        viewDiagnostics();
+                        break;
+                    case 19:
+                        viewHeapFootprint();
+                        break;
+                    default:
+                        System.out.println("Invalid choice. Please try again.");
+                        break;
+                }
+            } finally {
+                event.finish();
+                timer.stop();
             }
         } while(true);
     }
@@ -288,6 +311,10 @@ do {
             (int) details[5]
         );
         
+        if (project == null) {
+            System.out.println("A project with this name already exists.");
+            return;
+        }
         System.out.println("BTO Project created successfully!");
     }
 
@@ -323,7 +350,10 @@ do {
                 return;
             case 1:
                 String newName = projectManagementView.getNewProjectName();
-                projectManagementService.updateProjectName(project, newName);
+                if (!projectManagementService.updateProjectName(project, newName)) {
+                    System.out.println("A project with this name already exists.");
+                    return;
+                }
                 break;
             case 2:
                 String newNeighborhood = projectManagementView.getNewNeighborhood();
@@ -743,6 +773,7 @@ do {
             registration.setStatus(RegistrationStatus.APPROVED);
             project.addHDBOfficer(officer);
             officer.addHandledProject(project);
+            EventBus.getInstance().publish(new ProjectUpdated(project, false));
             System.out.println("Registration approved successfully!");
         } else {
             registration.setStatus(RegistrationStatus.REJECTED);
@@ -852,12 +883,11 @@ do {
     private void approveRejectBTOApplication() {
         System.out.println("\n===== Approve/Reject BTO Application =====");
         
-        // Check if manager is already handling an application within the application period
+        // Check if manager is already handling an application
         if (isHandlingApplication()) {
-            BTOProject currentProject = currentApplication.getProject();
             System.out.println("You are already handling an application for " + 
-                              currentProject.getProjectName() + 
-                              " (ID: " + currentApplication.getApplicationId() + ").");
+                              currentLease.getApplication().getProject().getProjectName() + 
+                              " (ID: " + currentLease.getApplication().getApplicationId() + ").");
             System.out.println("You cannot handle another application until you complete this one.");
             return;
         }
@@ -872,68 +902,24 @@ do {
             return;
         }
         
-        // Get pending applications for these projects
-        List<BTOApplication> pendingApplications = DataStore.getBTOApplicationsData().values().stream()
-            .filter(application -> myProjects.contains(application.getProject()) && 
-                                 application.getStatus() == BTOApplicationStatus.PENDING)
-            .collect(Collectors.toList());
-        
-        if (pendingApplications.isEmpty()) {
-            System.out.println("No pending BTO applications found for your projects.");
-            return;
-        }
-        
-        // Display pending applications
-        for (int i = 0; i < pendingApplications.size(); i++) {
-            BTOApplication application = pendingApplications.get(i);
-            User applicantUser = application.getApplicant();
-            System.out.println("\nApplication " + (i + 1) + ":");
-            System.out.println("Application ID: " + application.getApplicationId());
-            System.out.println("Applicant: " + applicantUser.getName() + " (" + applicantUser.getNric() + ")");
-            System.out.println("Project: " + application.getProject().getProjectName());
-            
-            // Get eligible flat types for this applicant - safely check type
-            Map<FlatType, FlatTypeDetails> eligibleFlatTypes;
-            
-            if (applicantUser instanceof Applicant) {
-                eligibleFlatTypes = btoProjectService.getEligibleFlatTypes(
-                    application.getProject(), 
-                    (Applicant) applicantUser
-                );
-            } else if (applicantUser instanceof HDBOfficer) {
-                eligibleFlatTypes = btoProjectService.getEligibleFlatTypes(
-                    application.getProject(), 
-                    (HDBOfficer) applicantUser
-                );
-            } else {
-                System.out.println("Unsupported user type for applicant. Skipping eligibility check.");
-                continue;
-            }
-            
-            if (eligibleFlatTypes.isEmpty()) {
-                System.out.println("No eligible flat types for this applicant.");
-            } else {
-                // Display eligible flat types
-                System.out.println("Eligible Flat Types:");
-                for (Map.Entry<FlatType, FlatTypeDetails> entry : eligibleFlatTypes.entrySet()) {
-                    if (entry.getValue().getUnits() > 0) {
-                        System.out.println(entry.getKey().getDisplayName() + " (" + entry.getValue().getUnits() + " units available)");
-                    }
-                }
-            }
-            System.out.println();
+        // Display the review queue of each project
+        for (int i = 0; i < myProjects.size(); i++) {
+            BTOProject project = myProjects.get(i);
+            ApplicationWorkQueue queue = DataStore.getApplicationQueue(project);
+            System.out.println((i + 1) + ". " + project.getProjectName() + " - " + queue.getDepth() +
+                               " pending, " + queue.getLeasedCount() + " being reviewed, oldest waiting " +
+                               formatDuration(queue.getOldestWait()));
         }
         
-        // Select application to approve/reject
-        System.out.print("Enter application number (1-" + pendingApplications.size() +") to approve/reject (0 to cancel): ");
+        System.out.print("Enter project number to review the next application (0 to cancel): ");
         int choice = 0;
         try {
             choice = Integer.parseInt(sc.nextLine());
             if (choice == 0) {
                 return;
             }
-            if (choice < 1 || choice > pendingApplications.size()) {
-                System.out.println("Invalid application number.");
+            if (choice < 1 || choice > myProjects.size()) {
+                System.out.println("Invalid project number.");
                 return;
             }
         } catch (NumberFormatException e) {
@@ -941,19 +927,27 @@ do {
             return;
         }
         
-        BTOApplication application = pendingApplications.get(choice - 1);
+        // Claim the oldest application nobody else is reviewing
+        ApplicationWorkQueue queue = DataStore.getApplicationQueue(myProjects.get(choice - 1));
+        ApplicationWorkQueue.Lease lease = queue.claim(hdbManager.getName());
+        if (lease == null) {
+            System.out.println("No pending BTO applications found for this project.");
+            return;
+        }
+        currentLease = lease;
+        
+        BTOApplication application = lease.getApplication();
         BTOProject project = application.getProject();
         User applicantUser = application.getApplicant();
         
-        // Check if the project is in application period
-        LocalDate today = LocalDate.now();
-        boolean inApplicationPeriod = today.isAfter(project.getApplicationOpeningDate()) && 
-                                     today.isBefore(project.getApplicationClosingDate());
+        // Remember the state being reviewed; the decision only applies if it is unchanged
+        int version = application.getVersion();
+        BTOApplicationStatus status = application.getStatus();
         
-        // Set this as the current application being handled if in application period
-        if (inApplicationPeriod) {
-            setCurrentApplication(application);
-        }
+        System.out.println("\nApplication ID: " + application.getApplicationId());
+        System.out.println("Applicant: " + applicantUser.getName() + " (" + applicantUser.getNric() + ")");
+        System.out.println("Project: " + project.getProjectName());
+        System.out.println("Waited in queue: " + formatDuration(lease.getWait()));
         
         // Get eligible flat types for this applicant based on user type
         Map<FlatType, FlatTypeDetails> eligibleFlatTypes;
@@ -966,43 +960,92 @@ do {
                 project, (HDBOfficer) applicantUser);
         } else {
             System.out.println("Unsupported user type for application.");
-            clearCurrentApplication();
+            queue.release(lease);
+            currentLease = null;
             return;
         }
         
         // Check if there are any available units for eligible flat types
         boolean hasAvailableUnits = false;
-        for (Map.Entry<FlatType, FlatTypeDetails> entry : eligibleFlatTypes.entrySet()) {
-            if (entry.getValue().getUnits() > 0) {
-                hasAvailableUnits = true;
-                break;
+        if (eligibleFlatTypes.isEmpty()) {
+            System.out.println("No eligible flat types for this applicant.");
+        } else {
+            System.out.println("Eligible Flat Types:");
+            for (Map.Entry<FlatType, FlatTypeDetails> entry : eligibleFlatTypes.entrySet()) {
+                if (entry.getValue().getUnits() > 0) {
+                    System.out.println(entry.getKey().getDisplayName() + " (" + entry.getValue().getUnits() + " units available)");
+                    hasAvailableUnits = true;
+                }
             }
         }
         
-        
-        System.out.print("Approve application? (yes/no): ");
+        System.out.print("Approve application? (yes/no, or skip to return it to the queue): ");
         String approval = sc.nextLine().toLowerCase();
         
+        // The claim must still be held, or the application may be with another reviewer
+        if (!queue.heartbeat(lease)) {
+            System.out.println("Your claim on this application expired and it was returned to the queue.");
+            currentLease = null;
+            return;
+        }
+        
+        if (approval.equals("skip")) {
+            queue.release(lease);
+            currentLease = null;
+            System.out.println("Application returned to the queue.");
+            return;
+        }
+        
         if (approval.equals("yes")) {
             if (!hasAvailableUnits) {
                 System.out.println("No units available for any eligible flat type in this project.");
-                clearCurrentApplication();
+                queue.release(lease);
+                currentLease = null;
+                return;
+            }
+            if (!applicationService.changeStatus(application, status, version, BTOApplicationStatus.SUCCESSFUL)) {
+                System.out.println("This application was updated by someone else while you were reviewing it. Please try again.");
+                queue.complete(lease);
+                currentLease = null;
                 return;
             }
-            application.setStatus(BTOApplicationStatus.SUCCESSFUL);
             System.out.println("Application approved successfully!");
             System.out.println("The applicant can now request to book a flat.");
         } else {
-            application.setStatus(BTOApplicationStatus.UNSUCCESSFUL);
+            if (!applicationService.changeStatus(application, status, version, BTOApplicationStatus.UNSUCCESSFUL)) {
+                System.out.println("This application was updated by someone else while you were reviewing it. Please try again.");
+                queue.complete(lease);
+                currentLease = null;
+                return;
+            }
             System.out.println("Application rejected.");
         }
         
-        // Clear the current application being handled
-        clearCurrentApplication();
+        // The application has been decided and leaves the queue
+        queue.complete(lease);
+        currentLease = null;
         
         DataStore.saveData();
     }
 
+    /**
+     * Formats a waiting time for display
+     * @param duration The waiting time
+     * @return The waiting time in days, hours, minutes or seconds
+     */
+    private static String formatDuration(Duration duration) {
+        if (duration.toDays() > 0) {
+            return duration.toDays() + "d " + duration.toHoursPart() + "h";
+        }
+        if (duration.toHours() > 0) {
+            return duration.toHours() + "h " + duration.toMinutesPart() + "m";
+        }
+        if (duration.toMinutes() > 0) {
+            return duration.toMinutes() + "m " + duration.toSecondsPart() + "s";
+        }
+        return duration.toSeconds() + "s";
+    }
+
     /**
      * Approve or reject an application withdrawal request
      */
@@ -1062,8 +1105,12 @@ do {
         WithdrawalRequest selectedRequest = pendingRequests.get(choice - 1);
         BTOApplication application = selectedRequest.getApplication();
         
+        // Remember the state being reviewed; the approval only applies if it is unchanged
+        int version = application.getVersion();
+        BTOApplicationStatus status = application.getStatus();
+        
         // Check if application is already booked
-        if (application.getStatus() == BTOApplicationStatus.BOOKED) {
+        if (status == BTOApplicationStatus.BOOKED) {
             System.out.println("\nCannot process withdrawal for an application that has already been booked.");
             return;
         }
@@ -1072,9 +1119,21 @@ do {
         String approval = sc.nextLine().toLowerCase();
         
         if (approval.equals("yes")) {
-            selectedRequest.approve(hdbManager.getName());
+            if (!applicationService.approveWithdrawal(selectedRequest, status, version, hdbManager.getName())) {
+                System.out.println("The application was updated by someone else while you were reviewing it. Please try again.");
+                return;
+            }
             System.out.println("Withdrawal request approved successfully!");
             System.out.println("The application has been marked as unsuccessful.");
+            
+            // The released unit goes to the next applicant on the waitlist, saved together below
+            if (status == BTOApplicationStatus.SUCCESSFUL && application.getFlatType() != null) {
+                BTOApplication promoted = waitlistService.promoteNext(application.getProject(), application.getFlatType());
+                if (promoted != null) {
+                    System.out.println("Application " + promoted.getApplicationId() + " by " +
+                                       promoted.getApplicant().getName() + " has been promoted from the waitlist.");
+                }
+            }
         } else {
             selectedRequest.reject(hdbManager.getName());
             System.out.println("Withdrawal request rejected.");
@@ -1083,6 +1142,137 @@ do {
         DataStore.saveData();
     }
 
+    /**
+     * Ballot all pending applications of a project at once
+     */
+    private void runBallot() {
+        System.out.println("\n===== Run Ballot for Project =====");
+        
+        BTOProject project = selectProject("Select project to ballot: ", true);
+        if (project == null) {
+            return;
+        }
+        
+        int pendingCount = ballotService.getPendingApplications(project).size();
+        if (pendingCount == 0) {
+            System.out.println("No pending applications found for this project.");
+            return;
+        }
+        System.out.println(pendingCount + " pending application(s) for " + project.getProjectName() + ".");
+        
+        // The seed makes the ballot reproducible; a new one is drawn if none is given
+        System.out.print("Enter ballot seed (leave blank for a new seed): ");
+        String seedInput = sc.nextLine().trim();
+        long seed;
+        if (seedInput.isEmpty()) {
+            seed = new Random().nextLong();
+        } else {
+            try {
+                seed = Long.parseLong(seedInput);
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please enter a number.");
+                return;
+            }
+        }
+        
+        BallotPlan plan = ballotService.planBallot(project, seed);
+        
+        System.out.println("\nBallot seed: " + plan.getSeed());
+        for (Map.Entry<FlatType, Integer> entry : plan.getCapacity().entrySet()) {
+            System.out.println(entry.getKey().getDisplayName() + ": " + plan.getAllocatedUnits().get(entry.getKey()) +
+                               " of " + entry.getValue() + " units allocated");
+        }
+        System.out.println("Successful: " + plan.getSuccessfulCount());
+        System.out.println("Unsuccessful: " + plan.getUnsuccessfulCount());
+        
+        System.out.print("\nCommit ballot results? (yes/no): ");
+        if (!sc.nextLine().trim().equalsIgnoreCase("yes")) {
+            System.out.println("Ballot discarded.");
+            return;
+        }
+        
+        int committed = ballotService.commitBallot(plan);
+        System.out.println("Ballot committed: " + committed + " application(s) updated.");
+        if (committed < plan.getAllocations().size()) {
+            System.out.println((plan.getAllocations().size() - committed) +
+                               " application(s) were updated by someone else during the ballot and were left unchanged.");
+        }
+    }
+
+    /**
+     * View the timings of service and persistence calls, and the counters and gauges
+     * kept by the application
+     */
+    private void viewDiagnostics() {
+        System.out.println("\n===== Diagnostics =====");
+        MetricsRegistry.getInstance().getReport().forEach(System.out::println);
+        System.out.println("\nThe same metrics are available over JMX as " + MetricsRegistry.OBJECT_NAME);
+    }
+
+    /**
+     * View the estimated heap footprint of each type of data and each index
+     */
+    private void viewHeapFootprint() {
+        System.out.println("\n===== Heap Footprint =====");
+        DataStore.getHeapFootprintReport().forEach(System.out::println);
+        System.out.println("\nThe estimates are available over JMX as the DataStore.footprint attributes of " + MetricsRegistry.OBJECT_NAME);
+    }
+
+    /**
+     * Simulate ballots for every project without changing any data
+     */
+    private void simulateBallots() {
+        System.out.println("\n===== Simulate Ballots for All Projects =====");
+        
+        System.out.print("Enter simulation seed (leave blank for a new seed): ");
+        String seedInput = sc.nextLine().trim();
+        System.out.print("Enter number of ballots per project (leave blank for 100): ");
+        String trialsInput = sc.nextLine().trim();
+        long seed;
+        int trials;
+        try {
+            seed = seedInput.isEmpty() ? new Random().nextLong() : Long.parseLong(seedInput);
+            trials = trialsInput.isEmpty() ? 100 : Integer.parseInt(trialsInput);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid input. Please enter a number.");
+            return;
+        }
+        if (trials < 1) {
+            System.out.println("Invalid input. Please enter at least 1 ballot.");
+            return;
+        }
+        
+        BallotSimulationResult result = ballotSimulationService.simulate(seed, trials);
+        if (result.getApplicationCount() == 0) {
+            System.out.println("No pending applications found.");
+            return;
+        }
+        
+        System.out.printf("%nSimulated %d ballot(s) per project for %d pending application(s) in %.2f s (seed %d)%n",
+                          result.getTrials(), result.getApplicationCount(), result.getElapsedNanos() / 1e9, result.getSeed());
+        
+        System.out.println("\nSubscription by flat type:");
+        System.out.printf("%-24s %-8s %8s %10s %12s%n", "Project", "Type", "Units", "Applicants", "Subscription");
+        for (BallotSimulationResult.FlatTypeDemand demand : result.getDemand()) {
+            System.out.printf("%-24s %-8s %8d %10d %11.2fx%n", demand.getProjectName(), demand.getFlatType().getDisplayName(),
+                              demand.getUnits(), demand.getApplicants(), demand.getSubscriptionRate());
+        }
+        
+        System.out.println("\nSuccess probability by applicant profile:");
+        System.out.printf("%-24s %10s", "Profile", "Applicants");
+        for (FlatType flatType : FlatType.values()) {
+            System.out.printf(" %8s", flatType.getDisplayName());
+        }
+        System.out.printf(" %8s%n", "Any");
+        for (BallotSimulationResult.ProfileOutcome outcome : result.getOutcomes()) {
+            System.out.printf("%-24s %10d", outcome.getProfile(), outcome.getApplicants());
+            for (FlatType flatType : FlatType.values()) {
+                System.out.printf(" %7.1f%%", outcome.getSuccessProbability(flatType) * 100);
+            }
+            System.out.printf(" %7.1f%%%n", outcome.getSuccessProbability() * 100);
+        }
+    }
+
     /**
      * Generate a report of applicants
      */
@@ -1,14 +1,12 @@
 package controllers;
 
 import enumeration.BTOApplicationStatus;
+import enumeration.BookingResult;
 import enumeration.FlatType;
-import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Scanner;
 import java.util.stream.Collectors;
 import models.Applicant;
 import models.BTOApplication;
@@ -18,12 +16,16 @@ import models.FlatTypeDetails;
 import models.HDBOfficer;
 import models.HDBOfficerRegistration;
 import models.ProjectFilter;
+import profiling.MenuActionEvent;
 import services.BTOProjectService;
 import services.EnquiryService;
+import services.FlatBookingService;
 import stores.AuthStore;
 import stores.DataStore;
 import stores.FilterStore;
+import utils.OperationTimer;
 import utils.TextDecorationUtils;
+import utils.SessionScanner;
 import view.BTOApplicationView;
 import view.BTOProjectAvailableView;
 import view.BTOProjectFilterView;
@@ -42,12 +44,13 @@ import view.BTOProjectFilterView;
  */
 public class HDBOfficerController extends ApplicantController {
 
-    private static final Scanner sc = new Scanner(System.in);
+    private static final SessionScanner sc = new SessionScanner();
     private BTOProjectService projectService;
     private BTOProjectAvailableView projectView;
     private BTOApplicationView applicationView;
     private BTOProjectFilterView filterView;
     private final EnquiryService enquiryService;
+    private final FlatBookingService bookingService;
 
     /**
      * Constructs a new HDBOfficerController with the necessary services and views.
@@ -58,6 +61,7 @@ public class HDBOfficerController extends ApplicantController {
         this.applicationView = new BTOApplicationView();
         this.filterView = new BTOProjectFilterView();
         this.enquiryService = new EnquiryService();
+        this.bookingService = new FlatBookingService();
     }
 
     /**
@@ -115,50 +119,60 @@ do {
                 continue;
             }
 
-            switch (choice) {
-                case 1:
-                    if (changePassword()) {
-                        System.out.println("Restarting session...");
-                        AuthController.endSession();
+            MenuActionEvent event = new MenuActionEvent("HDB Officer", choice);
+            event.begin();
+            OperationTimer timer = OperationTimer.start("HDBOfficerController.menu" + choice, AuthStore.getCurrentUser());
+            try {
+                switch (choice) {
+                    case 1:
+                        if (changePassword()) {
+                            System.out.println("Restarting session...");
+                            AuthController.endSession();
+                            return;
+                        }
+                        break;
+                    case 2:
+                        viewAvailableBTOProjects();
+                        break;
+                    case 3:
+                        applyForBTOProject();
+                        break;
+                    case 4:
+                        viewMyBTOApplications();
+                        break;
+                    case 5:
+                        viewJoinableBTOProjects();
+                        break;
+                    case 6:
+                        joinBTOProjectAsOfficer();
+                        break;
+                    case 7:
+                        viewJoinedBTOProjects();
+                        break;
+                    case 8:
+                        viewHDBOfficerRegistrations();
+                        break;
+                    case 9:
+                        processFlatBookingRequests();
+                        break;
+                    case 10:
+                        generateBookingReceipt();
+                        break;
+                    case 11:
+                        viewAndReplyToEnquiries();
+                        break;
+                    case 0:
+                        System.out.println("Logging out...");
+                        event.finish();
+                        timer.stop();
+                        AuthController.startSession();
                         return;
-                    }
-                    break;
-                case 2:
-                    viewAvailableBTOProjects();
-                    break;
-                case 3:
-                    applyForBTOProject();
-                    break;
-                case 4:
-                    viewMyBTOApplications();
-                    break;
-                case 5:
-                    viewJoinableBTOProjects();
-                    break;
-                case 6:
-                    joinBTOProjectAsOfficer();
-                    break;
-                case 7:
-                    viewJoinedBTOProjects();
-                    break;
-                case 8:
-                    viewHDBOfficerRegistrations();
-                    break;
-                case 9:
-                    processFlatBookingRequests();
-                    break;
-                case 10:
-                    generateBookingReceipt();
-                    break;
-                case 11:
-                    viewAndReplyToEnquiries();
-                    break;
-                case 0:
-                    System.out.println("Logging out...");
-                    AuthController.startSession();
-                    return;
-                default:
-                    System.out.println("Invalid choice. Please try again.");
+                    default:
+                        System.out.println("Invalid choice. Please try again.");
+                }
+            } finally {
+                event.finish();
+                timer.stop();
             }
         } while (true);
     }
@@ -329,9 +343,7 @@ do {
         BTOProject selectedProject = joinableProjects.get(projectChoice - 1);
 
         // Check if project is within application period
-        LocalDate today = LocalDate.now();
-        if (today.isBefore(selectedProject.getApplicationOpeningDate()) || 
-            today.isAfter(selectedProject.getApplicationClosingDate())) {
+        if (!selectedProject.isApplicationOpen()) {
             System.out.println("\nThis project is not within its application period.");
             System.out.println("Application period: " + selectedProject.getApplicationOpeningDate() + 
                              " to " + selectedProject.getApplicationClosingDate());
@@ -360,9 +372,8 @@ do {
         
         // Create a new HDBOfficerRegistration with pending status
         HDBOfficerRegistration registration = new HDBOfficerRegistration(hdbOfficer, selectedProject);
-        Map<String, HDBOfficerRegistration> registrations = DataStore.getHDBOfficerRegistrationsData();
-        registrations.put(registration.getRegistrationId(), registration);
-        DataStore.setHDBOfficerRegistrationsData(registrations);
+        DataStore.addHDBOfficerRegistration(registration);
+        DataStore.saveData();
         
         System.out.println("Registration request submitted successfully. Please wait for HDB Manager's approval.");
     }
@@ -744,6 +755,7 @@ do {
         }
         
         BTOApplication selectedApplication = successfulApplications.get(choice - 1);
+        int version = selectedApplication.getVersion();
         BTOProject project = selectedApplication.getProject();
         Applicant applicant = (Applicant) selectedApplication.getApplicant();
         
@@ -758,8 +770,7 @@ do {
         }
         
         // Check if flat type is still available
-        FlatTypeDetails flatTypeDetails = project.getFlatTypes().get(selectedApplication.getFlatType());
-        if (flatTypeDetails == null || flatTypeDetails.getUnits() <= 0) {
+        if (bookingService.getAvailableUnits(project, selectedApplication.getFlatType()) <= 0) {
             System.out.println("\nNo units available for the selected flat type.");
             return;
         }
@@ -773,11 +784,17 @@ do {
             return;
         }
         
-        // Update application status to BOOKED
-        selectedApplication.setStatus(BTOApplicationStatus.BOOKED);
-        
-        // Decrease available units
-        flatTypeDetails.setUnits(flatTypeDetails.getUnits() - 1);
+        // Take a unit and mark the application as BOOKED; another officer may have
+        // booked the last unit or this application while we waited for confirmation
+        BookingResult result = bookingService.bookFlat(selectedApplication, version);
+        if (result == BookingResult.NO_UNITS_LEFT) {
+            System.out.println("\nNo units available for the selected flat type.");
+            return;
+        }
+        if (result == BookingResult.NOT_BOOKABLE) {
+            System.out.println("\nThis application was updated by someone else. Please try again.");
+            return;
+        }
         
         // Save changes
         DataStore.saveData();
@@ -1,9 +1,10 @@
 package controllers;
 
-import java.util.Scanner;
 
+import enumeration.CredentialResult;
 import interfaces.IUserService;
 import services.UserService;
+import utils.SessionScanner;
 
 /**
  * The {@link UserController} class is responsible for handling user-related
@@ -12,9 +13,9 @@ import services.UserService;
  */
 public class UserController {
     /**
-     * {@link Scanner} object to get input from the user.
+     * {@link SessionScanner} object to get input from the current session.
      */
-    private static final Scanner sc = new Scanner(System.in);
+    private static final SessionScanner sc = new SessionScanner();
 
     /**
      * Constructs an instance of the {@link UserController} class.
@@ -62,10 +63,13 @@ public class UserController {
             }
 
             // Change password
-            success = userService.changePassword(oldPassword, newPassword);
+            CredentialResult result = userService.changePassword(oldPassword, newPassword);
+            success = result == CredentialResult.OK;
 
-            if (!success) {
+            if (result == CredentialResult.WRONG) {
                 System.out.println("Old password does not match!");
+            } else if (result == CredentialResult.BUSY) {
+                System.out.println("The system is busy and could not check your password. Please try again shortly.");
             }
         } while (!success);
 
@@ -0,0 +1,25 @@
+package enumeration;
+
+/**
+ * Enumeration representing the outcomes of a flat booking
+ */
+public enum BookingResult {
+    BOOKED("Booked"),
+    NO_UNITS_LEFT("No units left"),
+    NOT_BOOKABLE("Not bookable");
+
+    private final String displayName;
+
+    BookingResult(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,25 @@
+package enumeration;
+
+/**
+ * Enumeration representing the outcomes of checking a password
+ */
+public enum CredentialResult {
+    OK("Correct"),
+    WRONG("Wrong password"),
+    BUSY("Not checked, too busy");
+
+    private final String displayName;
+
+    CredentialResult(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,26 @@
+package enumeration;
+
+/**
+ * Enumeration representing the outcomes of a login attempt
+ */
+public enum LoginResult {
+    SUCCESS("Success"),
+    WRONG_CREDENTIALS("Wrong credentials"),
+    THROTTLED("Throttled"),
+    BUSY("Busy");
+
+    private final String displayName;
+
+    LoginResult(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,24 @@
+package enumeration;
+
+/**
+ * Enumeration representing the edges of a project's application window
+ */
+public enum WindowTransition {
+    OPENED("Opened"),
+    CLOSED("Closed");
+
+    private final String displayName;
+
+    WindowTransition(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    @Override
+    public String toString() {
+        return displayName;
+    }
+}
@@ -0,0 +1,31 @@
+package events;
+
+import models.BTOApplication;
+
+/**
+ * Published when an applicant submits a BTO application.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public class ApplicationSubmitted extends DomainEvent {
+    private final BTOApplication application;
+
+    /**
+     * Constructs the event.
+     *
+     * @param application The application submitted
+     */
+    public ApplicationSubmitted(BTOApplication application) {
+        this.application = application;
+    }
+
+    /**
+     * Gets the application submitted.
+     *
+     * @return The BTO application
+     */
+    public BTOApplication getApplication() {
+        return application;
+    }
+}
@@ -0,0 +1,44 @@
+package events;
+
+import enumeration.WindowTransition;
+import models.BTOProject;
+
+/**
+ * Published when a project's application window opens or closes.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public class ApplicationWindowChanged extends DomainEvent {
+    private final BTOProject project;
+    private final WindowTransition transition;
+
+    /**
+     * Constructs the event.
+     *
+     * @param project The project whose window opened or closed
+     * @param transition Whether the window opened or closed
+     */
+    public ApplicationWindowChanged(BTOProject project, WindowTransition transition) {
+        this.project = project;
+        this.transition = transition;
+    }
+
+    /**
+     * Gets the project whose window opened or closed.
+     *
+     * @return The BTO project
+     */
+    public BTOProject getProject() {
+        return project;
+    }
+
+    /**
+     * Gets whether the window opened or closed.
+     *
+     * @return The transition
+     */
+    public WindowTransition getTransition() {
+        return transition;
+    }
+}
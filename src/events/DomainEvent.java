@@ -0,0 +1,33 @@
+package events;
+
+import java.time.LocalDateTime;
+
+/**
+ * Base class of the events published on the {@link EventBus} when an entity
+ * changes.
+ *
+ * Events describe a change that has already happened, so listeners can update
+ * what they derive from the entity instead of rescanning the data.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public abstract class DomainEvent {
+    private final LocalDateTime occurredAt;
+
+    /**
+     * Constructs an event that occurred now.
+     */
+    protected DomainEvent() {
+        this.occurredAt = LocalDateTime.now();
+    }
+
+    /**
+     * Gets the time the change happened.
+     *
+     * @return The time of the change
+     */
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+}
@@ -0,0 +1,24 @@
+package events;
+
+import java.util.List;
+
+/**
+ * Receives the events of one type published on the {@link EventBus}.
+ *
+ * Events are delivered in batches, in the order they were published, on the
+ * event bus's dispatcher thread. A listener should be quick and must not wait
+ * for locks a publisher may hold, such as a project lock.
+ *
+ * @param <E> The type of event received
+ * @author BTOMS Team
+ * @version 1.0
+ */
+@FunctionalInterface
+public interface DomainEventListener<E extends DomainEvent> {
+    /**
+     * Handles a batch of events.
+     *
+     * @param events The events, oldest first; never empty
+     */
+    void onEvents(List<E> events);
+}
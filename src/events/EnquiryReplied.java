@@ -0,0 +1,31 @@
+package events;
+
+import models.Enquiry;
+
+/**
+ * Published when an enquiry is replied to.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public class EnquiryReplied extends DomainEvent {
+    private final Enquiry enquiry;
+
+    /**
+     * Constructs the event.
+     *
+     * @param enquiry The enquiry replied to
+     */
+    public EnquiryReplied(Enquiry enquiry) {
+        this.enquiry = enquiry;
+    }
+
+    /**
+     * Gets the enquiry replied to.
+     *
+     * @return The enquiry
+     */
+    public Enquiry getEnquiry() {
+        return enquiry;
+    }
+}
@@ -0,0 +1,268 @@
+package events;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import utils.MetricsRegistry;
+
+/**
+ * In-process bus that delivers {@link DomainEvent}s to the listeners that derive
+ * data from the entities, such as indexes and queues.
+ *
+ * Publishing writes the event into a fixed-size ring buffer and returns; the
+ * buffer has a single writer at a time, so a slot is claimed by a plain counter
+ * rather than a compare-and-set. One dispatcher thread drains everything
+ * published since its last pass as a batch and hands each listener the events
+ * of its type in publish order. When the buffer is full, publishers wait for the
+ * dispatcher instead of dropping events. Call {@link #flush()} before reading
+ * derived data that must reflect every change published so far.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public class EventBus {
+    private static final int DEFAULT_CAPACITY = 4096;
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final EventBus instance = new EventBus(DEFAULT_CAPACITY);
+
+    static {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("EventBus.published", instance::getPublishedCount);
+        metrics.gauge("EventBus.delivered", instance::getDeliveredCount);
+        metrics.gauge("EventBus.batches", instance::getBatchCount);
+        metrics.gauge("EventBus.largestBatch", instance::getLargestBatch);
+    }
+
+    private final DomainEvent[] ring;
+    private final int mask;
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final List<Subscription<?>> subscriptions = new CopyOnWriteArrayList<>();
+    private final Thread dispatcher;
+    private final Object flushMonitor = new Object();
+    private final AtomicInteger flushWaiters = new AtomicInteger();
+
+    // Number of events written to the ring, and number delivered to listeners
+    private volatile long published = 0;
+    private volatile long consumed = 0;
+    private volatile boolean dispatcherWaiting = false;
+
+    private volatile long batches = 0;
+    private volatile int largestBatch = 0;
+
+    /**
+     * Constructs an event bus and starts its dispatcher thread.
+     *
+     * @param capacity The minimum number of events the ring buffer holds, rounded
+     *                 up to a power of two
+     */
+    public EventBus(int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.ring = new DomainEvent[size];
+        this.mask = size - 1;
+        this.dispatcher = new Thread(this::dispatchLoop, "event-bus");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Gets the event bus shared by the whole application.
+     *
+     * @return The shared event bus
+     */
+    public static EventBus getInstance() {
+        return instance;
+    }
+
+    /**
+     * Registers a listener for events of a type and its subtypes.
+     *
+     * @param <E> The type of event
+     * @param type The class of the events to receive
+     * @param listener The listener
+     */
+    public <E extends DomainEvent> void subscribe(Class<E> type, DomainEventListener<E> listener) {
+        subscriptions.add(new Subscription<E>(type, listener));
+    }
+
+    /**
+     * Publishes an event. Returns once the event is in the ring buffer, waiting
+     * only if the buffer is full.
+     *
+     * @param event The event to publish
+     */
+    public void publish(DomainEvent event) {
+        // A listener publishing into a full buffer would wait for itself
+        if (Thread.currentThread() == dispatcher && published - consumed >= ring.length) {
+            deliver(Collections.singletonList(event));
+            return;
+        }
+
+        publishLock.lock();
+        try {
+            long sequence = published;
+            while (sequence - consumed >= ring.length) {
+                LockSupport.unpark(dispatcher);
+                LockSupport.parkNanos(10_000);
+            }
+            ring[(int) sequence & mask] = event;
+            published = sequence + 1;
+        } finally {
+            publishLock.unlock();
+        }
+
+        if (dispatcherWaiting) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    /**
+     * Waits until every event published before the call has been delivered.
+     * Returns at once when called from a listener.
+     */
+    public void flush() {
+        long target = published;
+        if (consumed >= target || Thread.currentThread() == dispatcher) {
+            return;
+        }
+
+        flushWaiters.incrementAndGet();
+        try {
+            synchronized (flushMonitor) {
+                while (consumed < target) {
+                    flushMonitor.wait();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            flushWaiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * Takes batches of events off the ring buffer and delivers them, sleeping
+     * while the buffer is empty.
+     */
+    private void dispatchLoop() {
+        List<DomainEvent> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (true) {
+            long from = consumed;
+            long available = published;
+            if (available == from) {
+                dispatcherWaiting = true;
+                if (published == from) {
+                    LockSupport.park(this);
+                }
+                dispatcherWaiting = false;
+                continue;
+            }
+
+            int size = (int) Math.min(available - from, MAX_BATCH_SIZE);
+            batch.clear();
+            for (int i = 0; i < size; i++) {
+                int index = (int) (from + i) & mask;
+                batch.add(ring[index]);
+                ring[index] = null;
+            }
+            deliver(batch);
+
+            consumed = from + size;
+            batches++;
+            largestBatch = Math.max(largestBatch, size);
+            if (flushWaiters.get() > 0) {
+                synchronized (flushMonitor) {
+                    flushMonitor.notifyAll();
+                }
+            }
+        }
+    }
+
+    /**
+     * Hands each listener the events of its type in a batch. A failing listener
+     * does not stop the others.
+     *
+     * @param batch The events to deliver, oldest first
+     */
+    private void deliver(List<DomainEvent> batch) {
+        for (Subscription<?> subscription : subscriptions) {
+            try {
+                subscription.deliver(batch);
+            } catch (RuntimeException e) {
+                System.out.println("Event listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gets the number of events published.
+     *
+     * @return The number of events published
+     */
+    public long getPublishedCount() {
+        return published;
+    }
+
+    /**
+     * Gets the number of events delivered to the listeners.
+     *
+     * @return The number of events delivered
+     */
+    public long getDeliveredCount() {
+        return consumed;
+    }
+
+    /**
+     * Gets the number of batches delivered.
+     *
+     * @return The number of batches
+     */
+    public long getBatchCount() {
+        return batches;
+    }
+
+    /**
+     * Gets the largest batch delivered.
+     *
+     * @return The number of events in the largest batch
+     */
+    public int getLargestBatch() {
+        return largestBatch;
+    }
+
+    /**
+     * A listener and the type of events it receives.
+     *
+     * @param <E> The type of event
+     */
+    private static class Subscription<E extends DomainEvent> {
+        private final Class<E> type;
+        private final DomainEventListener<E> listener;
+
+        private Subscription(Class<E> type, DomainEventListener<E> listener) {
+            this.type = type;
+            this.listener = listener;
+        }
+
+        /**
+         * Delivers the events of the subscribed type in a batch.
+         *
+         * @param batch The events to pick from, oldest first
+         */
+        private void deliver(List<DomainEvent> batch) {
+            List<E> events = new ArrayList<>();
+            for (DomainEvent event : batch) {
+                if (type.isInstance(event)) {
+                    events.add(type.cast(event));
+                }
+            }
+            if (!events.isEmpty()) {
+                listener.onEvents(Collections.unmodifiableList(events));
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package events;
+
+import models.BTOProject;
+
+/**
+ * Published when a BTO project is created, changed or deleted.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public class ProjectUpdated extends DomainEvent {
+    private final BTOProject project;
+    private final boolean deleted;
+
+    /**
+     * Constructs the event.
+     *
+     * @param project The project created, changed or deleted
+     * @param deleted Whether the project was deleted
+     */
+    public ProjectUpdated(BTOProject project, boolean deleted) {
+        this.project = project;
+        this.deleted = deleted;
+    }
+
+    /**
+     * Gets the project created, changed or deleted.
+     *
+     * @return The BTO project
+     */
+    public BTOProject getProject() {
+        return project;
+    }
+
+    /**
+     * Checks whether the project was deleted.
+     *
+     * @return true if the project was deleted, false otherwise
+     */
+    public boolean isDeleted() {
+        return deleted;
+    }
+}
@@ -0,0 +1,56 @@
+package events;
+
+import enumeration.BTOApplicationStatus;
+import models.BTOApplication;
+
+/**
+ * Published when the status of a BTO application changes.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public class StatusChanged extends DomainEvent {
+    private final BTOApplication application;
+    private final BTOApplicationStatus oldStatus;
+    private final BTOApplicationStatus newStatus;
+
+    /**
+     * Constructs the event.
+     *
+     * @param application The application whose status changed
+     * @param oldStatus The status before the change
+     * @param newStatus The status after the change
+     */
+    public StatusChanged(BTOApplication application, BTOApplicationStatus oldStatus, BTOApplicationStatus newStatus) {
+        this.application = application;
+        this.oldStatus = oldStatus;
+        this.newStatus = newStatus;
+    }
+
+    /**
+     * Gets the application whose status changed.
+     *
+     * @return The BTO application
+     */
+    public BTOApplication getApplication() {
+        return application;
+    }
+
+    /**
+     * Gets the status before the change.
+     *
+     * @return The old status
+     */
+    public BTOApplicationStatus getOldStatus() {
+        return oldStatus;
+    }
+
+    /**
+     * Gets the status after the change.
+     *
+     * @return The new status
+     */
+    public BTOApplicationStatus getNewStatus() {
+        return newStatus;
+    }
+}
@@ -0,0 +1,56 @@
+package events;
+
+import enumeration.FlatType;
+import models.BTOApplication;
+
+/**
+ * Published when a flat is booked for a successful application.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public class UnitsBooked extends DomainEvent {
+    private final BTOApplication application;
+    private final FlatType flatType;
+    private final int unitsLeft;
+
+    /**
+     * Constructs the event.
+     *
+     * @param application The application the flat was booked for
+     * @param flatType The flat type booked
+     * @param unitsLeft The units of the flat type left after the booking
+     */
+    public UnitsBooked(BTOApplication application, FlatType flatType, int unitsLeft) {
+        this.application = application;
+        this.flatType = flatType;
+        this.unitsLeft = unitsLeft;
+    }
+
+    /**
+     * Gets the application the flat was booked for.
+     *
+     * @return The BTO application
+     */
+    public BTOApplication getApplication() {
+        return application;
+    }
+
+    /**
+     * Gets the flat type booked.
+     *
+     * @return The flat type
+     */
+    public FlatType getFlatType() {
+        return flatType;
+    }
+
+    /**
+     * Gets the units of the flat type left after the booking.
+     *
+     * @return The number of units left
+     */
+    public int getUnitsLeft() {
+        return unitsLeft;
+    }
+}
@@ -0,0 +1,18 @@
+package interfaces;
+
+import models.BTOProject;
+
+/**
+ * The {@link IApplicationWindowJob} interface defines a job run when a project's
+ * application window opens or closes. Jobs run on the scheduler's thread one at
+ * a time, in the order they were added.
+ */
+@FunctionalInterface
+public interface IApplicationWindowJob {
+    /**
+     * Runs the job for a project.
+     *
+     * @param project the project whose application window opened or closed
+     */
+    public void run(BTOProject project);
+}
@@ -1,5 +1,7 @@
 package interfaces;
 
+import enumeration.LoginResult;
+
 /**
  * The {@link IAuthService} interface defines a contract for managing
  * authentication services, such as login and logout.
@@ -10,9 +12,9 @@ public interface IAuthService {
      *
      * @param nric   the ID of the user
      * @param password the user's password
-     * @return true if the login was successful, false otherwise
+     * @return the {@link LoginResult} of the attempt
      */
-    public boolean login(String nric, String password);
+    public LoginResult login(String nric, String password);
 
     /**
      * Logs out the currently logged in user.
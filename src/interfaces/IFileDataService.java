@@ -10,10 +10,13 @@ import models.BTOApplication;
 import models.HDBOfficerRegistration;
 import models.Enquiry;
 import models.WithdrawalRequest;
+import models.Waitlist;
 
 /**
  * The {@link IFileDataService} interface defines a contract for importing and
- * exporting data to and from files.
+ * exporting data to and from files. An import throws
+ * {@link java.io.UncheckedIOException} rather than return part of a file it
+ * could not read in full.
  */
 public interface IFileDataService {
 	// ---------- Student ---------- //
@@ -104,9 +107,26 @@ public interface IFileDataService {
 	 * @param btoApplicationMap       a {@link Map} of {@link BTOApplication} objects with
 	 *                                their IDs as keys
 	 * @return a {@link Map} of {@link BTOApplication} objects with their IDs as keys
+	 * @throws java.io.UncheckedIOException if the file cannot be read in full
 	 */
 	Map<String, BTOApplication> importBTOApplicationData(String btoApplicationFilePath);
 
+	/**
+	 * Imports BTO Application data from the specified file path by splitting the
+	 * file into chunks that end on row boundaries and parsing them concurrently.
+	 * Memory used for parsing is bounded by the chunk size and the number of
+	 * workers rather than by the size of the file.
+	 *
+	 * @param btoApplicationFilePath the file path of the BTO Applications file
+	 * @param chunkSize              the minimum size of a chunk in bytes
+	 * @param workers                the number of chunks parsed concurrently
+	 * @param progressListener       notified after each chunk, or {@code null}
+	 * @return a {@link Map} of {@link BTOApplication} objects with their IDs as keys
+	 * @throws java.io.UncheckedIOException if the file cannot be read in full
+	 */
+	Map<String, BTOApplication> importBTOApplicationData(String btoApplicationFilePath, int chunkSize, int workers,
+			IImportProgressListener progressListener);
+
 	/**
 	 * Exports BTO Application data to the specified file paths.
 	 *
@@ -117,6 +137,26 @@ public interface IFileDataService {
 	 */
 	boolean exportBTOApplicationData(String btoApplicationFilePath, Map<String, BTOApplication> btoApplicationMap);
 
+	/**
+	 * Imports BTO Application data from a directory holding one shard file per
+	 * {@link BTOProject}.
+	 *
+	 * @param btoApplicationShardDirectoryPath the directory of the BTO Application shards
+	 * @return a {@link Map} of {@link BTOApplication} objects with their IDs as keys
+	 */
+	Map<String, BTOApplication> importBTOApplicationShards(String btoApplicationShardDirectoryPath);
+
+	/**
+	 * Exports BTO Application data into one shard file per {@link BTOProject}.
+	 * Shards of projects whose applications did not change are not rewritten.
+	 *
+	 * @param btoApplicationShardDirectoryPath the directory of the BTO Application shards
+	 * @param btoApplicationMap                a {@link Map} of {@link BTOApplication}
+	 *                                         objects with their IDs as keys
+	 * @return true if the data was exported successfully, false otherwise
+	 */
+	boolean exportBTOApplicationShards(String btoApplicationShardDirectoryPath, Map<String, BTOApplication> btoApplicationMap);
+
 	/**
 	 * Imports HDB officer registration data from a CSV file.
 	 * @param hdbOfficerRegistrationsFilePath The file path of the CSV file
@@ -148,6 +188,37 @@ public interface IFileDataService {
 	 */
 	boolean exportEnquiryData(String enquiryFilePath, Map<String, Enquiry> enquiryMap);
 
+	/**
+	 * Imports enquiry data from a directory holding one shard file per project.
+	 * @param enquiryShardDirectoryPath The directory of the enquiry shards
+	 * @return A map of enquiry data
+	 */
+	Map<String, Enquiry> importEnquiryShards(String enquiryShardDirectoryPath);
+
+	/**
+	 * Imports the enquiry data of a single project from its shard file.
+	 * @param enquiryShardDirectoryPath The directory of the enquiry shards
+	 * @param projectName The name of the project whose shard to read
+	 * @return A map of enquiry data, empty if the project has no shard
+	 */
+	Map<String, Enquiry> importEnquiryShard(String enquiryShardDirectoryPath, String projectName);
+
+	/**
+	 * Exports enquiry data into one shard file per project. Shards of projects
+	 * whose enquiries did not change are not rewritten.
+	 * @param enquiryShardDirectoryPath The directory of the enquiry shards
+	 * @param enquiryMap The map of enquiry data
+	 * @return true if the export was successful, false otherwise
+	 */
+	boolean exportEnquiryShards(String enquiryShardDirectoryPath, Map<String, Enquiry> enquiryMap);
+
+	/**
+	 * Checks whether the given shard directory already holds shard files.
+	 * @param shardDirectoryPath The directory of the shards
+	 * @return true if at least one shard file exists, false otherwise
+	 */
+	boolean hasShards(String shardDirectoryPath);
+
 	// ---------- Withdrawal Request ---------- //
 	/**
 	 * Imports withdrawal request data from a CSV file.
@@ -163,4 +234,21 @@ public interface IFileDataService {
 	 * @return true if the export was successful, false otherwise
 	 */
 	boolean exportWithdrawalRequestData(String withdrawalRequestFilePath, Map<String, WithdrawalRequest> withdrawalRequestMap);
-}
\ No newline at end of file
+
+	// ---------- Waitlist ---------- //
+	/**
+	 * Imports the waitlists of BTO projects from a CSV file. Must be called after
+	 * the BTO applications are imported.
+	 * @param waitlistFilePath The file path of the CSV file
+	 * @return A map of project name to the project's waitlist
+	 */
+	Map<String, Waitlist> importWaitlistData(String waitlistFilePath);
+
+	/**
+	 * Exports the waitlists of BTO projects to a CSV file.
+	 * @param waitlistFilePath The file path of the CSV file
+	 * @param btoProjectMap The map of BTO project data
+	 * @return true if the export was successful, false otherwise
+	 */
+	boolean exportWaitlistData(String waitlistFilePath, Map<String, BTOProject> btoProjectMap);
+}
@@ -0,0 +1,19 @@
+package interfaces;
+
+/**
+ * The {@link IImportProgressListener} interface defines a callback that reports
+ * the progress of a chunked import. It is called once per parsed chunk, never
+ * concurrently, so implementations do not need to be thread-safe.
+ */
+@FunctionalInterface
+public interface IImportProgressListener {
+    /**
+     * Called after a chunk of the file has been parsed.
+     *
+     * @param bytesParsed  the number of bytes parsed so far
+     * @param totalBytes   the size of the file in bytes
+     * @param rowsParsed   the number of rows parsed so far
+     * @param elapsedNanos the time since the import started, in nanoseconds
+     */
+    public void onProgress(long bytesParsed, long totalBytes, long rowsParsed, long elapsedNanos);
+}
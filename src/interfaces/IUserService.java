@@ -1,5 +1,7 @@
 package interfaces;
 
+import enumeration.CredentialResult;
+
 /**
  * The {@link IUserService} interface defines a contract for user services.
  */
@@ -10,7 +12,10 @@ public interface IUserService {
      *
      * @param oldPassword the current password of the user
      * @param newPassword the new password the user wants to set
-     * @return true if the password was changed successfully, false otherwise
+     * @return {@link CredentialResult#OK} if the password was changed,
+     *         {@link CredentialResult#WRONG} if the old password does not match,
+     *         or {@link CredentialResult#BUSY} if the system was too busy to
+     *         check it
      */
-    public boolean changePassword(String oldPassword, String newPassword);
+    public CredentialResult changePassword(String oldPassword, String newPassword);
 }
\ No newline at end of file
@@ -1,14 +1,21 @@
 package main;
 
+import java.io.IOException;
+import java.time.Duration;
+
 import controllers.AuthController;
 import controllers.ApplicantController;
 import controllers.HDBOfficerController;
 import controllers.HDBManagerController;
 import models.User;
+import profiling.StartupProfiler;
+import services.ApplicationWindowScheduler;
 import services.CsvDataService;
+import services.WarmUpService;
 import stores.AuthStore;
 import stores.DataStore;
 import utils.FilePathsUtils;
+import utils.SlowOperationLog;
 import view.CommonView;
 
 /**
@@ -30,21 +37,42 @@ public class BtomsApp {
 	/**
 	 * The entry point for the BTOMS application. This method is responsible for
 	 * running an infinite loop to allow multiple users to operate the application.
+	 * Run with {@code -Dbtoms.profileStartup=true} to print how long each phase
+	 * of startup took, down to each data type loaded, once the first menu is
+	 * shown; see {@link StartupProfiler}. Run with
+	 * {@code -Dbtoms.warmUpMillis=<ms>} to warm up the hot service paths for
+	 * that long before the first menu; see {@link WarmUpService}. Run with
+	 * {@code -Dbtoms.windowJobs=ballot,archive} to ballot and hide projects
+	 * automatically when their application window closes; see
+	 * {@link ApplicationWindowScheduler}. Service calls and menu actions taking
+	 * longer than {@code -Dbtoms.slowOpMillis=<ms>} (default 100) are appended
+	 * to {@code data/SlowOperations.csv}; see {@link SlowOperationLog}. Run with
+	 * {@code --server [port]} to serve terminal sessions over a local TCP socket
+	 * instead of the console; see {@link BtomsServer}.
 	 * 
 	 * @param args an array of String arguments passed to this method
 	 */
 	public static void main(String[] args) {
+		StartupProfiler.getInstance();
+
 		// Add shutdown hook to handle Ctrl+C
 		Runtime.getRuntime().addShutdownHook(new Thread(() -> {
 			System.out.println("\nBTOMS is shutting down...");
 			DataStore.saveData();
 			AuthController.endSession();
+			AuthController.closeFailedLoginLog();
+			SlowOperationLog.getInstance().close();
 		}));
 
+		if (args.length > 0 && args[0].equals("--server")) {
+			runServer(args.length > 1 ? Integer.parseInt(args[1]) : BtomsServer.DEFAULT_PORT);
+			return;
+		}
+
 		try {
 			do {
 				// Initialize DataStore
-				DataStore.initDataStore(new CsvDataService(), FilePathsUtils.csvFilePaths());
+				loadData();
 
 				// Display Splash Screen
 				CommonView.printSplashScreen();
@@ -80,4 +108,44 @@ public class BtomsApp {
 			System.out.println("Error: " + e.getMessage());
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Initializes the data store once and serves terminal sessions over a local
+	 * TCP socket until the process is stopped.
+	 *
+	 * @param port the port to listen on
+	 */
+	private static void runServer(int port) {
+		loadData();
+		StartupProfiler.getInstance().finish("Start server");
+
+		try {
+			new BtomsServer(port).run();
+		} catch (IOException e) {
+			System.out.println("BTOMS server stopped: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Loads the data and schedules the application windows of the projects. The
+	 * first time, also warms up the hot service paths if asked to, and marks each
+	 * step as a phase of startup.
+	 *
+	 * @throws IllegalStateException if the data could not be loaded in full
+	 */
+	private static void loadData() {
+		StartupProfiler profiler = StartupProfiler.getInstance();
+		if (!DataStore.initDataStore(new CsvDataService(), FilePathsUtils.csvFilePaths())) {
+			throw new IllegalStateException("The data files could not be loaded.");
+		}
+		profiler.mark("Load data", DataStore.getLoadReport());
+		ApplicationWindowScheduler.getInstance().scheduleAll();
+		profiler.mark("Schedule application windows");
+
+		long warmUpMillis = Long.getLong("btoms.warmUpMillis", 0);
+		if (warmUpMillis > 0 && !profiler.isFinished()) {
+			int rounds = new WarmUpService().run(Duration.ofMillis(warmUpMillis));
+			profiler.mark("Warm-up (" + rounds + " rounds)");
+		}
+	}
+}
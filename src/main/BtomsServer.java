@@ -0,0 +1,192 @@
+package main;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import controllers.ApplicantController;
+import controllers.AuthController;
+import controllers.HDBManagerController;
+import controllers.HDBOfficerController;
+import models.HDBManager;
+import models.User;
+import stores.AuthStore;
+import stores.SessionContext;
+import utils.SessionPrintStream;
+import view.CommonView;
+
+/**
+ * The {@link BtomsServer} class serves BTOMS terminal sessions over a local TCP
+ * socket, so one instance can serve many applicants, officers and managers at
+ * the same time against the shared {@link stores.DataStore}.
+ *
+ * <p>
+ * Each connection runs the same controllers as the console on its own thread
+ * with its own {@link SessionContext}. Virtual threads are used when the Java
+ * runtime provides them, otherwise a cached pool of platform threads. The
+ * {@code System.out} calls of controllers and views are routed to the
+ * connection that made them by a {@link SessionPrintStream}.
+ * </p>
+ */
+public class BtomsServer {
+	/**
+	 * The port used when none is given.
+	 */
+	public static final int DEFAULT_PORT = 5050;
+
+	/**
+	 * The maximum number of pending connections.
+	 */
+	private static final int BACKLOG = 1024;
+
+	/**
+	 * The port to listen on.
+	 */
+	private final int port;
+
+	/**
+	 * The stream of the local console, used for server logs.
+	 */
+	private final PrintStream console;
+
+	/**
+	 * The number of sessions currently connected.
+	 */
+	private final AtomicInteger activeSessions = new AtomicInteger();
+
+	/**
+	 * The number of sessions accepted so far, used for session identifiers.
+	 */
+	private final AtomicLong acceptedSessions = new AtomicLong();
+
+	/**
+	 * Constructs a {@link BtomsServer}.
+	 *
+	 * @param port the port to listen on
+	 */
+	public BtomsServer(int port) {
+		this.port = port;
+		// Capture the console before System.out is replaced
+		this.console = SessionContext.current().getOut();
+	}
+
+	/**
+	 * Accepts connections until the process is stopped. The data store must have
+	 * been initialised beforehand.
+	 *
+	 * @throws IOException if the server socket cannot be opened
+	 */
+	public void run() throws IOException {
+		System.setOut(new SessionPrintStream(console));
+		ExecutorService sessionExecutor = newSessionExecutor();
+
+		try (ServerSocket serverSocket = new ServerSocket(port, BACKLOG, InetAddress.getLoopbackAddress())) {
+			console.println("BTOMS server listening on " + serverSocket.getLocalSocketAddress());
+			while (true) {
+				Socket socket = serverSocket.accept();
+				sessionExecutor.execute(() -> serve(socket));
+			}
+		} finally {
+			sessionExecutor.shutdownNow();
+			System.setOut(console);
+		}
+	}
+
+	/**
+	 * Serves one connection until the client logs out, shuts down its session or
+	 * disconnects.
+	 *
+	 * @param socket the connection to serve
+	 */
+	private void serve(Socket socket) {
+		String sessionId = "session-" + acceptedSessions.incrementAndGet();
+		String remoteAddress = socket.getInetAddress().getHostAddress();
+		activeSessions.incrementAndGet();
+		console.println(sessionId + " connected from " + remoteAddress + " (" + activeSessions.get() + " active)");
+
+		try (socket;
+				PrintStream out = new PrintStream(new BufferedOutputStream(socket.getOutputStream()), true,
+						StandardCharsets.UTF_8)) {
+			SessionContext session = new SessionContext(sessionId, remoteAddress, socket.getInputStream(), out, true);
+			SessionContext.bind(session);
+			runSession(session);
+			out.flush();
+		} catch (NoSuchElementException e) {
+			// The client closed its input
+		} catch (IOException e) {
+			console.println(sessionId + " failed: " + e.getMessage());
+		} catch (RuntimeException e) {
+			console.println(sessionId + " crashed: " + e);
+		} finally {
+			SessionContext.unbind();
+			activeSessions.decrementAndGet();
+			console.println(sessionId + " disconnected (" + activeSessions.get() + " active)");
+		}
+	}
+
+	/**
+	 * Runs the login and role menus of one session, the same way
+	 * {@link BtomsApp} runs them for the console.
+	 *
+	 * @param session the context of the session
+	 */
+	private static void runSession(SessionContext session) {
+		do {
+			// Display Splash Screen
+			CommonView.printSplashScreen();
+
+			// Authentication - Log In
+			AuthController.startSession();
+			if (session.isClosed() || !AuthStore.isLoggedIn())
+				break;
+
+			// Start session
+			User user = AuthStore.getCurrentUser();
+			switch (user.getUserType()) {
+				case APPLICANT:
+					new ApplicantController().start();
+					break;
+				case HDB_OFFICER:
+					new HDBOfficerController().start();
+					break;
+				case HDB_MANAGER:
+					new HDBManagerController((HDBManager) user).start();
+					break;
+			}
+		} while (!session.isClosed());
+	}
+
+	/**
+	 * Creates the executor that runs sessions: one virtual thread per session on
+	 * runtimes that support them, otherwise a cached pool of platform threads.
+	 *
+	 * @return the session {@link ExecutorService}
+	 */
+	private static ExecutorService newSessionExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool();
+		}
+	}
+
+	/**
+	 * Gets the number of sessions currently connected.
+	 *
+	 * @return the number of active sessions
+	 */
+	public int getActiveSessions() {
+		return activeSessions.get();
+	}
+}
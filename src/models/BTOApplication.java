@@ -3,7 +3,9 @@ package models;
 import enumeration.BTOApplicationStatus;
 import enumeration.FlatType;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicStampedReference;
 
 /**
  * Represents a BTO application in the system.
@@ -13,6 +15,11 @@ import java.util.UUID;
  * to eventual booking or rejection. Each application has a unique identifier and
  * maintains a state machine for valid status transitions.
  * 
+ * The status is stored together with a version number that is incremented by every
+ * status change, so a reviewer can change the status only if nobody else has changed
+ * it since the reviewer read it (see {@link #compareAndSetStatus}). The version is
+ * kept in memory only and starts at 0 when the application is loaded.
+ * 
  * @author BTOMS Team
  * @version 1.0
  */
@@ -23,8 +30,9 @@ public class BTOApplication {
     private final User applicant;
     private final BTOProject project;
     private FlatType flatType;  // Now optional
-    private BTOApplicationStatus status;
+    private final AtomicStampedReference<BTOApplicationStatus> status;
     private HDBManager handledBy; // The HDB Manager currently handling this application
+    private final LocalDateTime submittedAt; // May be null for applications saved without it
 
     /**
      * Constructs a BTO application with all attributes specified.
@@ -36,12 +44,27 @@ public class BTOApplication {
      * @param status The current status of the application
      */
     public BTOApplication(String applicationId, User applicant, BTOProject project, FlatType flatType, BTOApplicationStatus status) {
+        this(applicationId, applicant, project, flatType, status, (LocalDateTime) null);
+    }
+
+    /**
+     * Constructs a BTO application with all attributes specified including the submission time.
+     * 
+     * @param applicationId Unique identifier for the application
+     * @param applicant The user applying for the BTO flat
+     * @param project The BTO project being applied for
+     * @param flatType The type of flat requested (can be null initially)
+     * @param status The current status of the application
+     * @param submittedAt When the application was submitted, or null if unknown
+     */
+    public BTOApplication(String applicationId, User applicant, BTOProject project, FlatType flatType, BTOApplicationStatus status, LocalDateTime submittedAt) {
         this.applicationId = applicationId;
         this.applicant = applicant;
         this.project = project;
         this.flatType = flatType;
-        this.status = status;
+        this.status = new AtomicStampedReference<BTOApplicationStatus>(status, 0);
         this.handledBy = null;
+        this.submittedAt = submittedAt;
     }
 
     /**
@@ -59,8 +82,9 @@ public class BTOApplication {
         this.applicant = applicant;
         this.project = project;
         this.flatType = flatType;
-        this.status = status;
+        this.status = new AtomicStampedReference<BTOApplicationStatus>(status, 0);
         this.handledBy = handledBy;
+        this.submittedAt = null;
     }
 
     /**
@@ -70,7 +94,7 @@ public class BTOApplication {
      * @param project The BTO project being applied for
      */
     public BTOApplication(User applicant, BTOProject project) {
-        this(generateApplicationId(), applicant, project, null, BTOApplicationStatus.PENDING);
+        this(generateApplicationId(), applicant, project, null, BTOApplicationStatus.PENDING, LocalDateTime.now());
     }
 
     /**
@@ -81,7 +105,7 @@ public class BTOApplication {
      * @param flatType The type of flat requested
      */
     public BTOApplication(User applicant, BTOProject project, FlatType flatType) {
-        this(generateApplicationId(), applicant, project, flatType, BTOApplicationStatus.PENDING);
+        this(generateApplicationId(), applicant, project, flatType, BTOApplicationStatus.PENDING, LocalDateTime.now());
     }
 
     /**
@@ -130,13 +154,33 @@ public class BTOApplication {
         return flatType;
     }
 
+    /**
+     * Gets the time this application was submitted.
+     * 
+     * @return The submission time, or null if unknown
+     */
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
     /**
      * Gets the current status of this application.
      * 
      * @return The application status
      */
     public BTOApplicationStatus getStatus() {
-        return status;
+        return status.getReference();
+    }
+
+    /**
+     * Gets the version of the application's status, which is incremented by every
+     * status change. Read the version before the status, so the pair passed to
+     * {@link #compareAndSetStatus} can only be stale, never mismatched.
+     * 
+     * @return The status version
+     */
+    public int getVersion() {
+        return status.getStamp();
     }
 
     /**
@@ -174,7 +218,53 @@ public class BTOApplication {
      * @throws IllegalArgumentException If the status transition is not allowed
      */
     public void setStatus(BTOApplicationStatus status) {
-        switch (this.status) {
+        int[] version = new int[1];
+        while (true) {
+            BTOApplicationStatus current = this.status.get(version);
+            validateTransition(current, status);
+            if (this.status.compareAndSet(current, status, version[0], version[0] + 1)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Updates the application status only if it still has the expected status and
+     * version, i.e. nobody else has changed it since they were read.
+     * 
+     * @param expectedStatus The status the caller last saw
+     * @param expectedVersion The version the caller last saw
+     * @param status The new status to set
+     * @return true if the status was changed, false if it was changed by someone else first
+     * @throws IllegalArgumentException If the status transition is not allowed
+     */
+    public boolean compareAndSetStatus(BTOApplicationStatus expectedStatus, int expectedVersion, BTOApplicationStatus status) {
+        validateTransition(expectedStatus, status);
+        return this.status.compareAndSet(expectedStatus, status, expectedVersion, expectedVersion + 1);
+    }
+
+    /**
+     * Reinstates an unsuccessful application as successful if it still has the expected
+     * version. This bypasses the state machine and is only used to promote an application
+     * from a project's waitlist when a unit is released.
+     * 
+     * @param expectedVersion The version the caller last saw
+     * @return true if the application was reinstated, false if it was changed by someone else first
+     */
+    public boolean compareAndReinstate(int expectedVersion) {
+        return this.status.compareAndSet(BTOApplicationStatus.UNSUCCESSFUL, BTOApplicationStatus.SUCCESSFUL,
+            expectedVersion, expectedVersion + 1);
+    }
+
+    /**
+     * Checks a status change against the application state machine.
+     * 
+     * @param current The current status
+     * @param status The new status
+     * @throws IllegalArgumentException If the status transition is not allowed
+     */
+    private static void validateTransition(BTOApplicationStatus current, BTOApplicationStatus status) {
+        switch (current) {
             case PENDING:
                 if (!(status == BTOApplicationStatus.SUCCESSFUL ||
                       status == BTOApplicationStatus.UNSUCCESSFUL)) {
@@ -192,7 +282,6 @@ public class BTOApplication {
             case BOOKED:
                 throw new IllegalArgumentException("Cannot change status of a booked application");
         }
-        this.status = status;
     }
 
     /**
@@ -33,6 +33,10 @@ public class BTOProject {
 
     private boolean visible;
 
+    private Waitlist waitlist = new Waitlist();
+
+    // Whether applications are accepted today; flipped by ApplicationWindowScheduler at the window edges
+    private volatile boolean applicationOpen;
 
     public BTOProject(String projectName, String neighborhood, LocalDate applicationOpeningDate, LocalDate applicationClosingDate, Map<FlatType, FlatTypeDetails> flatTypes, HDBManager hdbManager, int hdbOfficerSlots, List<HDBOfficer> hdbOfficers, boolean visible) {
         this.projectName = projectName;
@@ -44,6 +48,7 @@ public class BTOProject {
         this.hdbOfficerSlots = hdbOfficerSlots;
         this.hdbOfficers = hdbOfficers;
         this.visible = visible;
+        this.applicationOpen = isWithinApplicationPeriod(LocalDate.now());
     }
 
     //Getters
@@ -83,6 +88,14 @@ public class BTOProject {
         return visible;
     }
 
+    public Waitlist getWaitlist() {
+        return waitlist;
+    }
+
+    public boolean isApplicationOpen() {
+        return applicationOpen;
+    }
+
     //Setters
     public void setProjectName(String projectName) {
         this.projectName = projectName;
@@ -94,10 +107,12 @@ public class BTOProject {
 
     public void setApplicationOpeningDate(LocalDate applicationOpeningDate) {
         this.applicationOpeningDate = applicationOpeningDate;
+        this.applicationOpen = isWithinApplicationPeriod(LocalDate.now());
     }
 
     public void setApplicationClosingDate(LocalDate applicationClosingDate) {
         this.applicationClosingDate = applicationClosingDate;
+        this.applicationOpen = isWithinApplicationPeriod(LocalDate.now());
     }
 
     public void setFlatTypes(Map<FlatType, FlatTypeDetails> flatTypes) {
@@ -120,6 +135,14 @@ public class BTOProject {
         this.visible = visible;
     }
 
+    public void setWaitlist(Waitlist waitlist) {
+        this.waitlist = waitlist;
+    }
+
+    public void setApplicationOpen(boolean applicationOpen) {
+        this.applicationOpen = applicationOpen;
+    }
+
     //Other methods
     public void addHDBOfficer(HDBOfficer hdbOfficer) {
         hdbOfficers.add(hdbOfficer);
@@ -128,6 +151,11 @@ public class BTOProject {
     public void removeHDBOfficer(HDBOfficer hdbOfficer) {
         hdbOfficers.remove(hdbOfficer);
     }
+
+    // Opening and closing dates are both inclusive
+    public boolean isWithinApplicationPeriod(LocalDate date) {
+        return !date.isBefore(applicationOpeningDate) && !date.isAfter(applicationClosingDate);
+    }
     
     
 }
\ No newline at end of file
@@ -0,0 +1,171 @@
+package models;
+
+import enumeration.FlatType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents the outcome of a ballot for one BTO project before it is committed.
+ *
+ * A plan lists, for every pending application taking part, whether it was allocated
+ * a unit and of which flat type, together with the application version that was
+ * read when the plan was drawn. Committing the plan only changes applications that
+ * still have that version. The same project, applications and seed always produce
+ * the same plan.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public class BallotPlan {
+    private final BTOProject project;
+    private final long seed;
+    private final List<Allocation> allocations;
+    private final Map<FlatType, Integer> capacity;
+    private final Map<FlatType, Integer> allocatedUnits;
+
+    /**
+     * Constructs a ballot plan.
+     *
+     * @param project The BTO project balloted
+     * @param seed The seed the ballot was drawn with
+     * @param allocations The allocation of every application in ballot order
+     * @param capacity The units available to the ballot per flat type
+     * @param allocatedUnits The units allocated per flat type
+     */
+    public BallotPlan(BTOProject project, long seed, List<Allocation> allocations,
+                      Map<FlatType, Integer> capacity, Map<FlatType, Integer> allocatedUnits) {
+        this.project = project;
+        this.seed = seed;
+        this.allocations = Collections.unmodifiableList(allocations);
+        this.capacity = Collections.unmodifiableMap(new EnumMap<FlatType, Integer>(capacity));
+        this.allocatedUnits = Collections.unmodifiableMap(new EnumMap<FlatType, Integer>(allocatedUnits));
+    }
+
+    /**
+     * Gets the BTO project balloted.
+     *
+     * @return The BTO project
+     */
+    public BTOProject getProject() {
+        return project;
+    }
+
+    /**
+     * Gets the seed the ballot was drawn with.
+     *
+     * @return The seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the allocation of every application in ballot order.
+     *
+     * @return An unmodifiable list of allocations
+     */
+    public List<Allocation> getAllocations() {
+        return allocations;
+    }
+
+    /**
+     * Gets the units that were available to the ballot per flat type.
+     *
+     * @return An unmodifiable map of flat type to units
+     */
+    public Map<FlatType, Integer> getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the units allocated per flat type.
+     *
+     * @return An unmodifiable map of flat type to allocated units
+     */
+    public Map<FlatType, Integer> getAllocatedUnits() {
+        return allocatedUnits;
+    }
+
+    /**
+     * Gets the number of applications allocated a unit.
+     *
+     * @return The number of successful applications
+     */
+    public int getSuccessfulCount() {
+        int count = 0;
+        for (int units : allocatedUnits.values()) {
+            count += units;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of applications not allocated a unit.
+     *
+     * @return The number of unsuccessful applications
+     */
+    public int getUnsuccessfulCount() {
+        return allocations.size() - getSuccessfulCount();
+    }
+
+    /**
+     * The ballot outcome of a single application.
+     */
+    public static class Allocation {
+        private final BTOApplication application;
+        private final int version;
+        private final FlatType flatType;
+
+        /**
+         * Constructs an allocation.
+         *
+         * @param application The application balloted
+         * @param version The application version read when the ballot was drawn
+         * @param flatType The flat type allocated, or null if the application was unsuccessful
+         */
+        public Allocation(BTOApplication application, int version, FlatType flatType) {
+            this.application = application;
+            this.version = version;
+            this.flatType = flatType;
+        }
+
+        /**
+         * Gets the application balloted.
+         *
+         * @return The BTO application
+         */
+        public BTOApplication getApplication() {
+            return application;
+        }
+
+        /**
+         * Gets the application version read when the ballot was drawn.
+         *
+         * @return The application version
+         */
+        public int getVersion() {
+            return version;
+        }
+
+        /**
+         * Gets the flat type allocated.
+         *
+         * @return The flat type, or null if the application was unsuccessful
+         */
+        public FlatType getFlatType() {
+            return flatType;
+        }
+
+        /**
+         * Checks whether the application was allocated a unit.
+         *
+         * @return true if a unit was allocated, false otherwise
+         */
+        public boolean isSuccessful() {
+            return flatType != null;
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package models;
+
+import enumeration.FlatType;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents the outcome of a what-if ballot simulation across all BTO projects.
+ *
+ * The simulation draws many ballots for every project from one seed without
+ * changing any data. The result reports how heavily each flat type of each project
+ * is subscribed, and how likely applicants of each profile are to be allocated a
+ * flat of each type.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public class BallotSimulationResult {
+    private final long seed;
+    private final int trials;
+    private final int applicationCount;
+    private final long elapsedNanos;
+    private final List<FlatTypeDemand> demand;
+    private final List<ProfileOutcome> outcomes;
+
+    /**
+     * Constructs a simulation result.
+     *
+     * @param seed The seed the simulation was run with
+     * @param trials The number of ballots drawn per project
+     * @param applicationCount The number of pending applications taking part
+     * @param elapsedNanos The time the simulation took, in nanoseconds
+     * @param demand The subscription of each flat type of each project
+     * @param outcomes The allocation outcome of each applicant profile
+     */
+    public BallotSimulationResult(long seed, int trials, int applicationCount, long elapsedNanos,
+                                  List<FlatTypeDemand> demand, List<ProfileOutcome> outcomes) {
+        this.seed = seed;
+        this.trials = trials;
+        this.applicationCount = applicationCount;
+        this.elapsedNanos = elapsedNanos;
+        this.demand = Collections.unmodifiableList(demand);
+        this.outcomes = Collections.unmodifiableList(outcomes);
+    }
+
+    /**
+     * Gets the seed the simulation was run with.
+     *
+     * @return The seed
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the number of ballots drawn per project.
+     *
+     * @return The number of trials
+     */
+    public int getTrials() {
+        return trials;
+    }
+
+    /**
+     * Gets the number of pending applications taking part.
+     *
+     * @return The number of applications
+     */
+    public int getApplicationCount() {
+        return applicationCount;
+    }
+
+    /**
+     * Gets the time the simulation took.
+     *
+     * @return The elapsed time in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Gets the subscription of each flat type of each project.
+     *
+     * @return An unmodifiable list of flat type demand, ordered by project name
+     */
+    public List<FlatTypeDemand> getDemand() {
+        return demand;
+    }
+
+    /**
+     * Gets the allocation outcome of each applicant profile.
+     *
+     * @return An unmodifiable list of profile outcomes
+     */
+    public List<ProfileOutcome> getOutcomes() {
+        return outcomes;
+    }
+
+    /**
+     * The subscription of one flat type of one project.
+     */
+    public static class FlatTypeDemand {
+        private final String projectName;
+        private final FlatType flatType;
+        private final int units;
+        private final int applicants;
+
+        /**
+         * Constructs the demand of a flat type.
+         *
+         * @param projectName The name of the project
+         * @param flatType The flat type
+         * @param units The units available to the ballot
+         * @param applicants The pending applications eligible for the flat type
+         */
+        public FlatTypeDemand(String projectName, FlatType flatType, int units, int applicants) {
+            this.projectName = projectName;
+            this.flatType = flatType;
+            this.units = units;
+            this.applicants = applicants;
+        }
+
+        /**
+         * Gets the name of the project.
+         *
+         * @return The project name
+         */
+        public String getProjectName() {
+            return projectName;
+        }
+
+        /**
+         * Gets the flat type.
+         *
+         * @return The flat type
+         */
+        public FlatType getFlatType() {
+            return flatType;
+        }
+
+        /**
+         * Gets the units available to the ballot.
+         *
+         * @return The number of units
+         */
+        public int getUnits() {
+            return units;
+        }
+
+        /**
+         * Gets the number of pending applications eligible for the flat type.
+         *
+         * @return The number of applicants
+         */
+        public int getApplicants() {
+            return applicants;
+        }
+
+        /**
+         * Gets the number of eligible applicants per available unit.
+         *
+         * @return The subscription rate, or infinity if no units are available
+         */
+        public double getSubscriptionRate() {
+            return units == 0 ? Double.POSITIVE_INFINITY : (double) applicants / units;
+        }
+    }
+
+    /**
+     * The allocation outcome of one applicant profile over all simulated ballots.
+     */
+    public static class ProfileOutcome {
+        private final String profile;
+        private final int applicants;
+        private final int trials;
+        private final Map<FlatType, Long> allocations;
+
+        /**
+         * Constructs the outcome of a profile.
+         *
+         * @param profile The description of the profile
+         * @param applicants The pending applications of the profile
+         * @param trials The number of ballots drawn per project
+         * @param allocations The total allocations per flat type over all ballots
+         */
+        public ProfileOutcome(String profile, int applicants, int trials, Map<FlatType, Long> allocations) {
+            this.profile = profile;
+            this.applicants = applicants;
+            this.trials = trials;
+            this.allocations = Collections.unmodifiableMap(new EnumMap<FlatType, Long>(allocations));
+        }
+
+        /**
+         * Gets the description of the profile.
+         *
+         * @return The profile
+         */
+        public String getProfile() {
+            return profile;
+        }
+
+        /**
+         * Gets the number of pending applications of the profile.
+         *
+         * @return The number of applicants
+         */
+        public int getApplicants() {
+            return applicants;
+        }
+
+        /**
+         * Gets the probability that an application of the profile is allocated a flat
+         * of the given type.
+         *
+         * @param flatType The flat type
+         * @return The probability, between 0 and 1
+         */
+        public double getSuccessProbability(FlatType flatType) {
+            if (applicants == 0) {
+                return 0;
+            }
+            return (double) allocations.getOrDefault(flatType, 0L) / ((long) applicants * trials);
+        }
+
+        /**
+         * Gets the probability that an application of the profile is allocated any flat.
+         *
+         * @return The probability, between 0 and 1
+         */
+        public double getSuccessProbability() {
+            double probability = 0;
+            for (FlatType flatType : FlatType.values()) {
+                probability += getSuccessProbability(flatType);
+            }
+            return probability;
+        }
+    }
+}
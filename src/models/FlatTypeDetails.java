@@ -1,11 +1,18 @@
 package models;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * The {@link FlatTypeDetails} class represents the details of a flat type in a BTO project,
  * including the number of units available and their selling price.
+ *
+ * <p>
+ * The unit count is atomic. Bookings take units with {@link #tryReserve()}, which never
+ * lets the count drop below zero however many officers book the same flat type at once.
+ * </p>
  */
 public class FlatTypeDetails {
-    private int units;
+    private final AtomicInteger units;
     private double price;
 
     /**
@@ -15,7 +22,7 @@ public class FlatTypeDetails {
      * @param price the selling price of this flat type
      */
     public FlatTypeDetails(int units, double price) {
-        this.units = units;
+        this.units = new AtomicInteger(units);
         this.price = price;
     }
 
@@ -25,7 +32,7 @@ public class FlatTypeDetails {
      * @return the number of units
      */
     public int getUnits() {
-        return units;
+        return units.get();
     }
 
     /**
@@ -34,7 +41,32 @@ public class FlatTypeDetails {
      * @param units the new number of units
      */
     public void setUnits(int units) {
-        this.units = units;
+        this.units.set(units);
+    }
+
+    /**
+     * Takes one unit if any is left. The count is decremented with a compare-and-set
+     * loop, so concurrent bookings never oversell this flat type.
+     *
+     * @return {@code true} if a unit was reserved, {@code false} if none is left
+     */
+    public boolean tryReserve() {
+        while (true) {
+            int available = units.get();
+            if (available <= 0) {
+                return false;
+            }
+            if (units.compareAndSet(available, available - 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns one previously reserved unit.
+     */
+    public void release() {
+        units.incrementAndGet();
     }
 
     /**
@@ -18,7 +18,8 @@ public class User {
     private String nric;
     private int age;
     private MaritalStatus maritalStatus;
-    private String password;
+    // Replaced by a hash on a credential worker thread, so reads must see the write
+    private volatile String password;
     private UserType userType;
 
     /**
@@ -28,7 +29,7 @@ public class User {
      * @param nric The user's National Registration Identity Card number (unique identifier)
      * @param age The user's age
      * @param maritalStatus The user's marital status (SINGLE or MARRIED)
-     * @param password The user's account password
+     * @param password The user's stored password: a hash from PasswordHasher, or plain text if saved before hashing
      * @param userType The type of user (APPLICANT, HDB_OFFICER, or HDB_MANAGER)
      */
     public User(String name, String nric, int age, MaritalStatus maritalStatus, String password, UserType userType) {
@@ -77,9 +78,9 @@ public class User {
     }
 
     /**
-     * Gets the user's password.
+     * Gets the user's stored password.
      * 
-     * @return The user's account password
+     * @return The hash of the user's password, or the password itself if saved before hashing
      */
     public String getPassword() {
         return password;
@@ -131,18 +132,13 @@ public class User {
     }
 
     /**
-     * Changes the user's password.
+     * Sets the user's stored password. Passwords are checked and changed through
+     * CredentialService, which hashes them first.
      * 
-     * @param oldPassword The current password (for verification)
-     * @param newPassword The new password to set
-     * @return true if the password was successfully changed, false if the old password is incorrect
+     * @param password The hash of the new password
      */
-    public boolean setPassword(String oldPassword, String newPassword) {
-        if (oldPassword.equals(password)) {
-            password = newPassword;
-            return true;
-        }
-        return false;
+    public void setPassword(String password) {
+        this.password = password;
     }
 
     /**
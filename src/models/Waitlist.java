@@ -0,0 +1,104 @@
+package models;
+
+import enumeration.FlatType;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Represents the waitlists of a BTO project, one per flat type.
+ *
+ * A waitlist holds, in ballot order, the applications that were unsuccessful only
+ * because the units of a flat type ran out. An application eligible for several flat
+ * types waits on each of their lists. When a unit is released the first application on
+ * that flat type's list is promoted; adding, removing and promoting the next application
+ * all take constant time.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public class Waitlist {
+    private final Map<FlatType, LinkedHashSet<BTOApplication>> queues = new EnumMap<FlatType, LinkedHashSet<BTOApplication>>(FlatType.class);
+
+    /**
+     * Adds an application to the end of a flat type's waitlist.
+     *
+     * @param flatType The flat type the application waits for
+     * @param application The application to add
+     */
+    public synchronized void add(FlatType flatType, BTOApplication application) {
+        queues.computeIfAbsent(flatType, type -> new LinkedHashSet<BTOApplication>()).add(application);
+    }
+
+    /**
+     * Removes an application from the waitlists of every flat type.
+     *
+     * @param application The application to remove
+     * @return true if the application was on any waitlist, false otherwise
+     */
+    public synchronized boolean remove(BTOApplication application) {
+        boolean removed = false;
+        for (LinkedHashSet<BTOApplication> queue : queues.values()) {
+            removed |= queue.remove(application);
+        }
+        return removed;
+    }
+
+    /**
+     * Takes the first application on a flat type's waitlist that can still be promoted,
+     * dropping those ahead of it that cannot. The application taken is removed from the
+     * waitlists of every flat type.
+     *
+     * @param flatType The flat type whose unit was released
+     * @param canPromote Checks whether an application can still be promoted
+     * @return The application to promote, or null if none is waiting
+     */
+    public synchronized BTOApplication poll(FlatType flatType, Predicate<BTOApplication> canPromote) {
+        LinkedHashSet<BTOApplication> queue = queues.get(flatType);
+        if (queue == null) {
+            return null;
+        }
+
+        Iterator<BTOApplication> iterator = queue.iterator();
+        while (iterator.hasNext()) {
+            BTOApplication application = iterator.next();
+            iterator.remove();
+            if (canPromote.test(application)) {
+                remove(application);
+                return application;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the number of applications waiting for a flat type.
+     *
+     * @param flatType The flat type
+     * @return The length of the flat type's waitlist
+     */
+    public synchronized int size(FlatType flatType) {
+        LinkedHashSet<BTOApplication> queue = queues.get(flatType);
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * Gets a copy of every flat type's waitlist in order.
+     *
+     * @return A map of flat type to the applications waiting for it
+     */
+    public synchronized Map<FlatType, List<BTOApplication>> getEntries() {
+        Map<FlatType, List<BTOApplication>> entries = new EnumMap<FlatType, List<BTOApplication>>(FlatType.class);
+        for (Map.Entry<FlatType, LinkedHashSet<BTOApplication>> queue : queues.entrySet()) {
+            if (!queue.getValue().isEmpty()) {
+                entries.put(queue.getKey(), new ArrayList<BTOApplication>(queue.getValue()));
+            }
+        }
+        return entries;
+    }
+}
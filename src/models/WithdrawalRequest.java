@@ -2,15 +2,15 @@ package models;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
-import enumeration.BTOApplicationStatus;
 
 /**
  * Represents a request to withdraw a BTO application.
  * 
  * This class models the process of an applicant requesting to withdraw their
  * BTO application. It tracks the request status, timestamps, and processing
- * information. When a withdrawal request is approved, the associated BTO
- * application status is updated automatically.
+ * information. The associated BTO application is marked as unsuccessful by
+ * {@link services.BTOApplicationService#approveWithdrawal}, which only approves the
+ * request if nobody else changed the application first.
  * 
  * @author BTOMS Team
  * @version 1.0
@@ -35,6 +35,27 @@ public class WithdrawalRequest {
         this.isApproved = false;
     }
 
+    /**
+     * Constructs a withdrawal request with a known state, e.g. when loading it
+     * from storage. The status of the application is left unchanged.
+     * 
+     * @param requestId The unique identifier for this withdrawal request
+     * @param application The BTO application to be withdrawn
+     * @param requestedAt The date and time the withdrawal was requested
+     * @param isApproved Whether the request has been approved
+     * @param processedAt The date and time the request was processed, or null if pending
+     * @param processedBy The name of the HDB manager who processed the request, or null if pending
+     */
+    public WithdrawalRequest(String requestId, BTOApplication application, LocalDateTime requestedAt,
+                             boolean isApproved, LocalDateTime processedAt, String processedBy) {
+        this.requestId = requestId;
+        this.application = application;
+        this.requestedAt = requestedAt;
+        this.isApproved = isApproved;
+        this.processedAt = processedAt;
+        this.processedBy = processedBy;
+    }
+
     /**
      * Generates a unique withdrawal request ID combining the current date and a UUID.
      * 
@@ -101,7 +122,8 @@ public class WithdrawalRequest {
     }
 
     /**
-     * Approves the withdrawal request and updates the associated application status.
+     * Records the approval of the withdrawal request. The application status is
+     * updated by the service approving the request.
      * 
      * @param processedBy The name of the HDB manager approving the request
      */
@@ -109,8 +131,6 @@ public class WithdrawalRequest {
         this.isApproved = true;
         this.processedAt = LocalDateTime.now();
         this.processedBy = processedBy;
-        // Update application status to UNSUCCESSFUL
-        this.application.setStatus(BTOApplicationStatus.UNSUCCESSFUL);
     }
 
     /**
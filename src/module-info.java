@@ -13,11 +13,17 @@
  *
  */
 module sc2002_btoms {
+    requires transitive java.management;
+    requires transitive jdk.jfr;
+    requires jdk.management;
+
     exports controllers;
     exports enumeration;
+    exports events;
     exports interfaces;
     exports main;
     exports models;
+    exports profiling;
     exports services;
     exports stores;
     exports utils;
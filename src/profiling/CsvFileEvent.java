@@ -0,0 +1,97 @@
+package profiling;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for one CSV file read or written.
+ *
+ * Like every event in this package it costs next to nothing unless a recording is
+ * running, for example one started with {@code jcmd <pid> JFR.start}. The size of the
+ * file is only looked up when the event is recorded.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+@Name("btoms.CsvFile")
+@Label("CSV File")
+@Category({ "BTOMS", "Persistence" })
+@Description("A CSV file read or written")
+@StackTrace(false)
+public class CsvFileEvent extends Event {
+    @Label("Operation")
+    private final String operation;
+
+    @Label("Path")
+    private final String path;
+
+    @Label("Rows")
+    private long rows;
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    /**
+     * Constructs an event for a file about to be read or written. Call {@link #begin()}
+     * next and {@link #finish(long)} once the file is done.
+     * @param operation "read" or "write"
+     * @param path The path of the file
+     */
+    public CsvFileEvent(String operation, String path) {
+        this.operation = operation;
+        this.path = path;
+    }
+
+    /**
+     * Ends the event and records it, with the size of the file, if a recording wants it.
+     * @param rows The number of rows read or written, not counting the headers
+     */
+    public void finish(long rows) {
+        end();
+        if (shouldCommit()) {
+            this.rows = rows;
+            this.bytes = sizeOf(path);
+            commit();
+        }
+    }
+
+    /**
+     * Gets the size of a file, or of the files directly inside a directory.
+     * @param path The path of the file or directory
+     * @return The size in bytes, or 0 if it cannot be read
+     */
+    static long sizeOf(String path) {
+        if (path == null) {
+            return 0;
+        }
+        Path file = Paths.get(path);
+        try {
+            if (!Files.isDirectory(file)) {
+                return Files.exists(file) ? Files.size(file) : 0;
+            }
+            long size = 0;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(file)) {
+                for (Path entry : files) {
+                    if (Files.isRegularFile(entry)) {
+                        size += Files.size(entry);
+                    }
+                }
+            }
+            return size;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
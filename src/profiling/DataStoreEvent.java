@@ -0,0 +1,74 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for one data type loaded into or saved from the
+ * {@code DataStore}, or for a whole load or save when the data type is "all".
+ * The bytes are the size of the files once loaded or saved.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+@Name("btoms.DataStore")
+@Label("Data Store Load or Save")
+@Category({ "BTOMS", "Persistence" })
+@Description("A data type loaded into or saved from the data store")
+@StackTrace(false)
+public class DataStoreEvent extends Event {
+    @Label("Operation")
+    private final String operation;
+
+    @Label("Data Type")
+    private final String dataType;
+
+    @Label("Path")
+    private final String path;
+
+    @Label("Rows")
+    private long rows;
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    /**
+     * The files whose size is recorded as the bytes of the event.
+     */
+    private final transient String[] files;
+
+    /**
+     * Constructs an event for data about to be loaded or saved. Call {@link #begin()}
+     * next and {@link #finish(long)} once it is done.
+     * @param operation "load" or "save"
+     * @param dataType The data type, such as "applicant", or "all"
+     * @param files The file or shard directory of the data type, or every data file for "all"
+     */
+    public DataStoreEvent(String operation, String dataType, String... files) {
+        this.operation = operation;
+        this.dataType = dataType;
+        this.path = files.length == 1 ? files[0] : null;
+        this.files = files;
+    }
+
+    /**
+     * Ends the event and records it, with the size of its files, if a recording wants it.
+     * @param rows The number of entities loaded or saved
+     */
+    public void finish(long rows) {
+        end();
+        if (shouldCommit()) {
+            this.rows = rows;
+            for (String file : files) {
+                this.bytes += CsvFileEvent.sizeOf(file);
+            }
+            commit();
+        }
+    }
+}
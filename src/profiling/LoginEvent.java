@@ -0,0 +1,50 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for one login attempt, including the time spent
+ * checking the password. Only the role and the outcome are recorded, not the
+ * NRIC, since recordings are shared for analysis.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+@Name("btoms.Login")
+@Label("Login Attempt")
+@Category({ "BTOMS", "Security" })
+@Description("A login attempt and its outcome")
+@StackTrace(false)
+public class LoginEvent extends Event {
+    @Label("User Type")
+    private final String userType;
+
+    @Label("Outcome")
+    private String outcome;
+
+    /**
+     * Constructs an event for a login attempt. Call {@link #begin()} next and
+     * {@link #finish(String)} once the outcome is known.
+     * @param userType The role logged in as
+     */
+    public LoginEvent(String userType) {
+        this.userType = userType;
+    }
+
+    /**
+     * Ends the event and records it if a recording wants it.
+     * @param outcome "success", "failure", "busy" or "throttled"
+     */
+    public void finish(String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for one menu action chosen by a logged-in user,
+ * lasting from the choice until the user is back at the menu. The time includes
+ * the user typing at any prompts of the action. The user is identified only by
+ * role, so recordings carry no personal data.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+@Name("btoms.MenuAction")
+@Label("Menu Action")
+@Category({ "BTOMS", "Controllers" })
+@Description("A menu action of an applicant, HDB officer or HDB manager")
+@StackTrace(false)
+public class MenuActionEvent extends Event {
+    @Label("Role")
+    private final String role;
+
+    @Label("Choice")
+    private final int choice;
+
+    /**
+     * Whether {@link #finish()} has been called.
+     */
+    private transient boolean finished;
+
+    /**
+     * Constructs an event for a menu action about to run. Call {@link #begin()} next
+     * and {@link #finish()} once it returns.
+     * @param role The role whose menu the action is on
+     * @param choice The number of the action in the menu
+     */
+    public MenuActionEvent(String role, int choice) {
+        this.role = role;
+        this.choice = choice;
+    }
+
+    /**
+     * Ends the event and records it if a recording wants it. Calling it again does
+     * nothing, so an action that hands over to the login menu can finish first.
+     */
+    public void finish() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        end();
+        if (shouldCommit()) {
+            commit();
+        }
+    }
+}
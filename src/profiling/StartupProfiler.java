@@ -0,0 +1,140 @@
+package profiling;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records how long each phase of starting the application takes, from the start
+ * of the JVM to the first menu shown to a user, with the number of classes loaded
+ * in each phase. The phases are marked as they end; the first phase, from the start
+ * of the JVM to {@code main}, is mostly class loading and JVM initialisation.
+ *
+ * The profile is printed once the first menu is shown if the system property
+ * {@code btoms.profileStartup} is true. Later marks, for example when the data is
+ * reloaded for the next session, are ignored.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public class StartupProfiler {
+    private static final StartupProfiler instance = new StartupProfiler(Boolean.getBoolean("btoms.profileStartup"));
+
+    private final boolean printed;
+    private final ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+    private final List<Phase> phases = new ArrayList<>();
+    private long lastNanos;
+    private long lastClassCount;
+    private boolean finished;
+
+    /**
+     * Constructs a profiler whose first phase ends now, at the start of {@code main}.
+     * @param printed Whether the profile is printed when startup finishes
+     */
+    private StartupProfiler(boolean printed) {
+        this.printed = printed;
+        long uptimeNanos = ManagementFactory.getRuntimeMXBean().getUptime() * 1_000_000L;
+        this.lastNanos = System.nanoTime();
+        this.lastClassCount = classLoading.getTotalLoadedClassCount();
+        phases.add(new Phase("JVM start to main (class loading)", uptimeNanos, lastClassCount, Collections.emptyList()));
+    }
+
+    /**
+     * Gets the profiler of this run of the application. The first call should be made
+     * at the start of {@code main}, which is taken as the end of the first phase.
+     * @return The shared profiler
+     */
+    public static StartupProfiler getInstance() {
+        return instance;
+    }
+
+    /**
+     * Marks the end of a phase that started when the previous one ended.
+     * @param phase The name of the phase
+     */
+    public void mark(String phase) {
+        mark(phase, Collections.emptyList());
+    }
+
+    /**
+     * Marks the end of a phase that started when the previous one ended, with lines
+     * breaking the phase down further.
+     * @param phase The name of the phase
+     * @param details Lines printed under the phase, such as the time of each step
+     */
+    public synchronized void mark(String phase, List<String> details) {
+        if (finished) {
+            return;
+        }
+        long now = System.nanoTime();
+        long classCount = classLoading.getTotalLoadedClassCount();
+        phases.add(new Phase(phase, now - lastNanos, classCount - lastClassCount, details));
+        lastNanos = now;
+        lastClassCount = classCount;
+    }
+
+    /**
+     * Marks the end of the last phase of startup, and prints the profile if asked to.
+     * Only the first call has any effect.
+     * @param phase The name of the last phase
+     */
+    public synchronized void finish(String phase) {
+        if (finished) {
+            return;
+        }
+        mark(phase);
+        finished = true;
+        if (printed) {
+            getReport().forEach(System.out::println);
+        }
+    }
+
+    /**
+     * Checks whether startup has finished.
+     * @return true if the first menu has been shown
+     */
+    public synchronized boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Gets the profile as lines of text: each phase with its time and the classes
+     * loaded during it, and the total.
+     * @return A list of report lines
+     */
+    public synchronized List<String> getReport() {
+        List<String> report = new ArrayList<>();
+        long totalNanos = 0;
+        long totalClasses = 0;
+        report.add(String.format("%-40s %10s %9s", "Startup phase", "Time (ms)", "Classes"));
+        for (Phase phase : phases) {
+            report.add(String.format("%-40s %10.2f %9d", phase.name, phase.nanos / 1e6, phase.classes));
+            for (String detail : phase.details) {
+                report.add("    " + detail);
+            }
+            totalNanos += phase.nanos;
+            totalClasses += phase.classes;
+        }
+        report.add(String.format("%-40s %10.2f %9d", "Total", totalNanos / 1e6, totalClasses));
+        return report;
+    }
+
+    /**
+     * A phase of startup.
+     */
+    private static class Phase {
+        private final String name;
+        private final long nanos;
+        private final long classes;
+        private final List<String> details;
+
+        private Phase(String name, long nanos, long classes, List<String> details) {
+            this.name = name;
+            this.nanos = nanos;
+            this.classes = classes;
+            this.details = details;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package services;
+
+import enumeration.WindowTransition;
+import events.ApplicationWindowChanged;
+import events.EventBus;
+import events.ProjectUpdated;
+import interfaces.IApplicationWindowJob;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import models.BTOProject;
+import models.BallotPlan;
+import stores.DataStore;
+import utils.MetricsRegistry;
+import utils.TimerWheel;
+
+/**
+ * Service class that opens and closes the application windows of BTO projects on time.
+ *
+ * Every project keeps a cached flag saying whether its window is open, so eligibility
+ * checks read a boolean instead of comparing dates. The scheduler sets the flag from the
+ * dates when a project is scheduled, and keeps one timer per project on a
+ * {@link TimerWheel} for the next edge of its window: the start of the opening date, or
+ * the start of the day after the closing date. When the timer fires the flag is flipped,
+ * an {@link ApplicationWindowChanged} event is published and the jobs configured for that
+ * edge are run. Projects are rescheduled whenever a {@link ProjectUpdated} event is
+ * published for them.
+ *
+ * Closing intake is always done by flipping the flag. Further jobs can be added with
+ * {@link #addJob}, or by name with the {@code btoms.windowJobs} system property, e.g.
+ * {@code -Dbtoms.windowJobs=ballot,archive}: "ballot" ballots the pending applications of
+ * a project when its window closes, and "archive" then hides the project.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public class ApplicationWindowScheduler {
+    private static ApplicationWindowScheduler instance;
+
+    private final Clock clock;
+    private final TimerWheel wheel;
+    private final Map<BTOProject, TimerWheel.Timeout> timeouts = new ConcurrentHashMap<>();
+    private final Map<WindowTransition, List<IApplicationWindowJob>> jobs = new EnumMap<>(WindowTransition.class);
+    private final LongAdder transitions = new LongAdder();
+    private final BallotService ballotService = new BallotService();
+    private final BTOProjectManagementService projectManagementService = new BTOProjectManagementService();
+    private final Random seeds = new Random();
+
+    /**
+     * Constructs a scheduler and subscribes it to project updates.
+     * @param clock The clock giving the current date
+     * @param tick The length of a tick of the timer wheel
+     * @param tickUnit The unit of the tick length
+     */
+    public ApplicationWindowScheduler(Clock clock, long tick, TimeUnit tickUnit) {
+        this.clock = clock;
+        this.wheel = new TimerWheel("application-window-scheduler", tick, tickUnit, 512);
+        for (WindowTransition transition : WindowTransition.values()) {
+            jobs.put(transition, new CopyOnWriteArrayList<>());
+        }
+        EventBus.getInstance().subscribe(ProjectUpdated.class, this::onProjectsUpdated);
+    }
+
+    /**
+     * Gets the scheduler shared by the whole application, creating it with the jobs
+     * named in the {@code btoms.windowJobs} system property on first use.
+     * @return The shared scheduler
+     */
+    public static synchronized ApplicationWindowScheduler getInstance() {
+        if (instance == null) {
+            instance = new ApplicationWindowScheduler(Clock.systemDefaultZone(), 1, TimeUnit.SECONDS);
+            instance.configureJobs(System.getProperty("btoms.windowJobs", ""));
+            MetricsRegistry.getInstance().gauge("ApplicationWindowScheduler.scheduled", instance::getScheduledCount);
+            MetricsRegistry.getInstance().gauge("ApplicationWindowScheduler.transitions", instance::getTransitionCount);
+        }
+        return instance;
+    }
+
+    /**
+     * Adds a job to run whenever a project's window opens or closes.
+     * @param transition The edge of the window to run the job at
+     * @param job The job
+     */
+    public void addJob(WindowTransition transition, IApplicationWindowJob job) {
+        jobs.get(transition).add(job);
+    }
+
+    /**
+     * Adds the built-in jobs named in a comma-separated list.
+     * @param names The names of the jobs: "ballot" and/or "archive"
+     */
+    public void configureJobs(String names) {
+        for (String name : names.split(",")) {
+            switch (name.trim().toLowerCase()) {
+                case "":
+                    break;
+                case "ballot":
+                    addJob(WindowTransition.CLOSED, this::runBallot);
+                    break;
+                case "archive":
+                    addJob(WindowTransition.CLOSED, this::archive);
+                    break;
+                default:
+                    System.out.println("Unknown application window job: " + name.trim());
+            }
+        }
+    }
+
+    /**
+     * Schedules every project in the data store, dropping the timers of projects
+     * scheduled before, e.g. before the data was reloaded.
+     */
+    public synchronized void scheduleAll() {
+        for (TimerWheel.Timeout timeout : timeouts.values()) {
+            timeout.cancel();
+        }
+        timeouts.clear();
+        for (BTOProject project : DataStore.getBTOProjectsData().values()) {
+            schedule(project);
+        }
+    }
+
+    /**
+     * Sets a project's open flag from its dates and sets a timer for the next edge of
+     * its window, replacing any timer it had.
+     * @param project The project to schedule
+     */
+    public synchronized void schedule(BTOProject project) {
+        LocalDate today = LocalDate.now(clock);
+        project.setApplicationOpen(project.isWithinApplicationPeriod(today));
+
+        LocalDate nextEdge = null;
+        if (project.isApplicationOpen()) {
+            nextEdge = project.getApplicationClosingDate().plusDays(1);
+        } else if (today.isBefore(project.getApplicationOpeningDate())) {
+            nextEdge = project.getApplicationOpeningDate();
+        }
+
+        TimerWheel.Timeout previous;
+        if (nextEdge == null) {
+            previous = timeouts.remove(project);
+        } else {
+            long delay = Duration.between(clock.instant(), nextEdge.atStartOfDay(clock.getZone())).toNanos();
+            previous = timeouts.put(project, wheel.schedule(() -> onWindowEdge(project), delay, TimeUnit.NANOSECONDS));
+        }
+        if (previous != null) {
+            previous.cancel();
+        }
+    }
+
+    /**
+     * Drops the timer of a project.
+     * @param project The project to stop scheduling
+     */
+    public synchronized void cancel(BTOProject project) {
+        TimerWheel.Timeout timeout = timeouts.remove(project);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    /**
+     * Flips a project's open flag when its window opens or closes, publishes the change
+     * and runs the jobs of that edge, then sets the timer for the next edge.
+     * @param project The project whose timer fired
+     */
+    private void onWindowEdge(BTOProject project) {
+        WindowTransition transition;
+        synchronized (this) {
+            // A project deleted or reloaded since it was scheduled is left alone
+            if (DataStore.getBTOProjectsData().get(project.getProjectName()) != project) {
+                cancel(project);
+                return;
+            }
+            boolean wasOpen = project.isApplicationOpen();
+            schedule(project);
+            if (project.isApplicationOpen() == wasOpen) {
+                return;
+            }
+            transition = project.isApplicationOpen() ? WindowTransition.OPENED : WindowTransition.CLOSED;
+            transitions.increment();
+        }
+
+        EventBus.getInstance().publish(new ApplicationWindowChanged(project, transition));
+        for (IApplicationWindowJob job : jobs.get(transition)) {
+            try {
+                job.run(project);
+            } catch (RuntimeException e) {
+                System.out.println("Application window job failed for " + project.getProjectName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reschedules projects that were created or changed, and stops scheduling deleted ones.
+     * @param events The project updates
+     */
+    private void onProjectsUpdated(List<ProjectUpdated> events) {
+        for (ProjectUpdated event : events) {
+            if (event.isDeleted()) {
+                cancel(event.getProject());
+            } else {
+                schedule(event.getProject());
+            }
+        }
+    }
+
+    /**
+     * Ballots the pending applications of a project whose window closed.
+     * @param project The project
+     */
+    private void runBallot(BTOProject project) {
+        long seed = seeds.nextLong();
+        BallotPlan plan = ballotService.planBallot(project, seed);
+        if (plan.getAllocations().isEmpty()) {
+            return;
+        }
+        int committed = ballotService.commitBallot(plan);
+        System.out.println("Ballot for " + project.getProjectName() + " committed for " + committed +
+                           " application(s) with seed " + seed + ".");
+    }
+
+    /**
+     * Hides a project whose window closed.
+     * @param project The project
+     */
+    private void archive(BTOProject project) {
+        projectManagementService.updateVisibility(project, false);
+    }
+
+    /**
+     * Gets the number of projects with a timer set
+     * @return The number of scheduled projects
+     */
+    public int getScheduledCount() {
+        return timeouts.size();
+    }
+
+    /**
+     * Gets the number of windows opened or closed by the scheduler
+     * @return The number of transitions
+     */
+    public long getTransitionCount() {
+        return transitions.sum();
+    }
+}
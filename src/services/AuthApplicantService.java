@@ -2,9 +2,12 @@ package services;
 
 import java.util.Map;
 
+import enumeration.LoginResult;
+import enumeration.UserType;
 import models.Applicant;
 import stores.AuthStore;
 import stores.DataStore;
+import utils.OperationTimer;
 
 /**
  * The {@link AuthApplicantService} class extends {@link AuthService} and
@@ -15,19 +18,29 @@ public class AuthApplicantService extends AuthService {
      * Constructs an instance of the {@link AuthApplicantService} class.
      */
     public AuthApplicantService() {
+        super(UserType.APPLICANT);
     };
 
     @Override
-    public boolean login(String nric, String password) {
-        Map<String, Applicant> applicantData = DataStore.getApplicantsData();
+    public LoginResult login(String nric, String password) {
+        OperationTimer timer = OperationTimer.start("AuthApplicantService.login");
+        try {
+            if (!isAttemptAllowed(nric))
+                return LoginResult.THROTTLED;
 
-        Applicant applicant = applicantData.get(nric);
+            Map<String, Applicant> applicantData = DataStore.getApplicantsData();
 
-        if (authenticate(applicant, password) == false)
-            return false;
+            Applicant applicant = applicantData.get(nric);
 
-        AuthStore.setCurrentUser(applicant);
-        return true;
+            LoginResult result = authenticate(nric, applicant, password);
+            if (result != LoginResult.SUCCESS)
+                return result;
+
+            AuthStore.setCurrentUser(applicant);
+            return LoginResult.SUCCESS;
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -41,29 +54,40 @@ public class AuthApplicantService extends AuthService {
      * @return true if registration was successful, false otherwise
      */
     public boolean register(String name, String nric, int age, enumeration.MaritalStatus maritalStatus, String password) {
-        Map<String, Applicant> applicantData = DataStore.getApplicantsData();
-        
-        // Check if applicant already exists
-        if (applicantData.containsKey(nric)) {
-            return false;
-        }
-        
-        // Create new applicant with provided values
-        Applicant newApplicant = new Applicant(
-            name,
-            nric,
-            age,
-            maritalStatus,
-            password
-        );
+        OperationTimer timer = OperationTimer.start("AuthApplicantService.register", age, maritalStatus);
+        try {
+            // Rule out NRICs that are already registered before building the applicant
+            if (DataStore.userExists(UserType.APPLICANT, nric)) {
+                return false;
+            }
+
+            // Store only a hash of the password
+            String passwordHash = CredentialService.getInstance().hash(password);
+            if (passwordHash == null) {
+                return false;
+            }
+
+            // Create new applicant with provided values
+            Applicant newApplicant = new Applicant(
+                name,
+                nric,
+                age,
+                maritalStatus,
+                passwordHash
+            );
         
-        // Add to data store
-        applicantData.put(nric, newApplicant);
+            // Add to data store, unless an applicant with this NRIC already exists
+            if (!DataStore.addApplicant(newApplicant)) {
+                return false;
+            }
         
-        // Save changes
-        DataStore.saveData();
+            // Save changes
+            DataStore.saveData();
         
-        return true;
+            return true;
+        } finally {
+            timer.stop();
+        }
     }
 
 }
\ No newline at end of file
@@ -2,9 +2,12 @@ package services;
 
 import java.util.Map;
 
+import enumeration.LoginResult;
+import enumeration.UserType;
 import models.HDBManager;
 import stores.AuthStore;
 import stores.DataStore;
+import utils.OperationTimer;
 
 /**
  * The {@link AuthHDBManagerService} class extends {@link AuthService} and
@@ -15,19 +18,29 @@ public class AuthHDBManagerService extends AuthService {
      * Constructs an instance of the {@link AuthHDBManagerService} class.
      */
     public AuthHDBManagerService() {
+        super(UserType.HDB_MANAGER);
     };
 
     @Override
-    public boolean login(String nric, String password) {
-        Map<String, HDBManager> hdbManagerData = DataStore.getHDBManagersData();
+    public LoginResult login(String nric, String password) {
+        OperationTimer timer = OperationTimer.start("AuthHDBManagerService.login");
+        try {
+            if (!isAttemptAllowed(nric))
+                return LoginResult.THROTTLED;
 
-        HDBManager hdbManager = hdbManagerData.get(nric);
+            Map<String, HDBManager> hdbManagerData = DataStore.getHDBManagersData();
 
-        if (authenticate(hdbManager, password) == false)
-            return false;
+            HDBManager hdbManager = hdbManagerData.get(nric);
 
-        AuthStore.setCurrentUser(hdbManager);
-        return true;
+            LoginResult result = authenticate(nric, hdbManager, password);
+            if (result != LoginResult.SUCCESS)
+                return result;
+
+            AuthStore.setCurrentUser(hdbManager);
+            return LoginResult.SUCCESS;
+        } finally {
+            timer.stop();
+        }
     }
 
 }
\ No newline at end of file
@@ -2,9 +2,12 @@ package services;
 
 import java.util.Map;
 
+import enumeration.LoginResult;
+import enumeration.UserType;
 import models.HDBOfficer;
 import stores.AuthStore;
 import stores.DataStore;
+import utils.OperationTimer;
 
 /**
  * The {@link AuthHDBOfficerService} class extends {@link AuthService} and
@@ -15,19 +18,29 @@ public class AuthHDBOfficerService extends AuthService {
      * Constructs an instance of the {@link AuthHDBOfficerService} class.
      */
     public AuthHDBOfficerService() {
+        super(UserType.HDB_OFFICER);
     };
 
     @Override
-    public boolean login(String nric, String password) {
-        Map<String, HDBOfficer> hdbOfficerData = DataStore.getHDBOfficersData();
+    public LoginResult login(String nric, String password) {
+        OperationTimer timer = OperationTimer.start("AuthHDBOfficerService.login");
+        try {
+            if (!isAttemptAllowed(nric))
+                return LoginResult.THROTTLED;
 
-        HDBOfficer hdbOfficer = hdbOfficerData.get(nric);
+            Map<String, HDBOfficer> hdbOfficerData = DataStore.getHDBOfficersData();
 
-        if (authenticate(hdbOfficer, password) == false)
-            return false;
+            HDBOfficer hdbOfficer = hdbOfficerData.get(nric);
 
-        AuthStore.setCurrentUser(hdbOfficer);
-        return true;
+            LoginResult result = authenticate(nric, hdbOfficer, password);
+            if (result != LoginResult.SUCCESS)
+                return result;
+
+            AuthStore.setCurrentUser(hdbOfficer);
+            return LoginResult.SUCCESS;
+        } finally {
+            timer.stop();
+        }
     }
 
 }
\ No newline at end of file
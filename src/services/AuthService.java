@@ -1,8 +1,15 @@
 package services;
 
+import enumeration.CredentialResult;
+import enumeration.LoginResult;
+import enumeration.UserType;
 import interfaces.IAuthService;
 import models.User;
+import profiling.LoginEvent;
 import stores.AuthStore;
+import stores.LoginThrottle;
+import utils.MetricsRegistry;
+import utils.OperationTimer;
 
 /**
  * The {@link AuthService} class is an abstract class that implements the
@@ -10,32 +17,116 @@ import stores.AuthStore;
  * It provides basic authentication functionalities for user login and logout.
  */
 public abstract class AuthService implements IAuthService {
-    public abstract boolean login(String nric, String password);
+    /**
+     * {@link LoginThrottle} shared by all roles, so failures count against an NRIC
+     * whichever role it tries to log in as.
+     */
+    private static final LoginThrottle loginThrottle = LoginThrottle.fromSystemProperties();
+
+    static {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("LoginThrottle.allowed", loginThrottle::getAllowedCount);
+        metrics.gauge("LoginThrottle.rejectedByNric", loginThrottle::getRejectedByNricCount);
+        metrics.gauge("LoginThrottle.rejectedGlobally", loginThrottle::getRejectedGloballyCount);
+        metrics.gauge("LoginThrottle.failures", loginThrottle::getFailureCount);
+        metrics.gauge("LoginThrottle.trackedNrics", loginThrottle::getTrackedNricCount);
+    }
+
+    /**
+     * The type of user this service logs in.
+     */
+    private final UserType userType;
+
+    public abstract LoginResult login(String nric, String password);
 
     /**
      * Constructs an instance of the {@link AuthService} class.
+     *
+     * @param userType the type of user the service logs in
      */
-    public AuthService() {
+    public AuthService(UserType userType) {
+        this.userType = userType;
     };
 
     @Override
     public boolean logout() {
-        AuthStore.setCurrentUser(null);
-        return true;
-    };
+        OperationTimer timer = OperationTimer.start("AuthService.logout");
+        try {
+            AuthStore.setCurrentUser(null);
+            return true;
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Gets the {@link LoginThrottle} that limits failed logins.
+     *
+     * @return the login throttle
+     */
+    public static LoginThrottle getLoginThrottle() {
+        return loginThrottle;
+    }
+
+    /**
+     * Checks whether a login attempt for the given NRIC may go ahead. Called
+     * before the user is looked up, so throttled attempts cost nothing more.
+     *
+     * @param nric the NRIC trying to log in
+     * @return true if the attempt may go ahead, false if too many logins failed recently
+     */
+    protected boolean isAttemptAllowed(String nric) {
+        if (loginThrottle.isAllowed(nric)) {
+            return true;
+        }
+        LoginEvent event = new LoginEvent(userType.toString());
+        event.begin();
+        event.finish("throttled");
+        return false;
+    }
+
+    /**
+     * Authenticates the given user with the given password, recording the
+     * outcome for the NRIC in the {@link LoginThrottle} and as a {@link LoginEvent}
+     * for Java Flight Recorder. Only a wrong password counts as a failure; a
+     * password that could not be checked because the system was too busy does
+     * not count against the NRIC.
+     *
+     * @param nric     the NRIC the user logged in with
+     * @param user     the user to be authenticated
+     * @param password the password to be used for authentication
+     * @return {@link LoginResult#SUCCESS}, {@link LoginResult#WRONG_CREDENTIALS}
+     *         or {@link LoginResult#BUSY}
+     */
+    protected LoginResult authenticate(String nric, User user, String password) {
+        LoginEvent event = new LoginEvent(userType.toString());
+        event.begin();
+        CredentialResult result = authenticate(user, password);
+        if (result == CredentialResult.BUSY) {
+            event.finish("busy");
+            return LoginResult.BUSY;
+        }
+        if (result == CredentialResult.WRONG) {
+            loginThrottle.recordFailure(nric);
+            event.finish("failure");
+            return LoginResult.WRONG_CREDENTIALS;
+        }
+        loginThrottle.recordSuccess(nric);
+        event.finish("success");
+        return LoginResult.SUCCESS;
+    }
 
     /**
      * Authenticates the given user with the given password.
      * 
      * @param user     the user to be authenticated
      * @param password the password to be used for authentication
-     * @return true if the user is authenticated successfully, false otherwise
+     * @return the {@link CredentialResult} of checking the password, which is
+     *         {@link CredentialResult#WRONG} if there is no such user
      */
-    protected boolean authenticate(User user, String password) {
+    protected CredentialResult authenticate(User user, String password) {
         if (user == null)
-            return false;
-        if (!user.getPassword().equals(password))
-            return false;
-        return true;
+            return CredentialResult.WRONG;
+        return CredentialService.getInstance().verify(user, password);
     }
 }
\ No newline at end of file
@@ -0,0 +1,151 @@
+package services;
+
+import enumeration.BTOApplicationStatus;
+import events.EventBus;
+import events.StatusChanged;
+import java.util.concurrent.atomic.LongAdder;
+import models.BTOApplication;
+import models.WithdrawalRequest;
+import utils.MetricsRegistry;
+import utils.OperationTimer;
+
+/**
+ * Service class for changing the status of BTO applications.
+ *
+ * Status changes are optimistic: a reviewer reads an application's status and version,
+ * decides, and the change only goes through if nobody else changed the application in
+ * the meantime. No lock is held while the reviewer decides, so any number of managers and
+ * officers can review applications at once. Changes that lose a race are counted as
+ * conflicts, so the conflict rate can be watched as the number of reviewers grows.
+ *
+ * The compare-and-set of each change runs under the monitor of its application. A
+ * caller holding that monitor can therefore check the version and act on it, as
+ * {@link FlatBookingService} does before reserving a unit, without another change
+ * slipping in between.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public class BTOApplicationService {
+    private static final LongAdder committedTransitions = new LongAdder();
+    private static final LongAdder conflictedTransitions = new LongAdder();
+    private static final LongAdder invalidTransitions = new LongAdder();
+
+    static {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("BTOApplicationService.committedTransitions", BTOApplicationService::getCommittedTransitions);
+        metrics.gauge("BTOApplicationService.conflictedTransitions", BTOApplicationService::getConflictedTransitions);
+        metrics.gauge("BTOApplicationService.invalidTransitions", BTOApplicationService::getInvalidTransitions);
+    }
+
+    /**
+     * Changes an application's status if it still has the status and version the caller
+     * read before deciding.
+     * @param application The application to update
+     * @param expectedStatus The status the caller read
+     * @param expectedVersion The version the caller read, see {@link BTOApplication#getVersion()}
+     * @param newStatus The new status
+     * @return true if the status was changed, false if the application was changed by someone
+     *         else first or the change is not a valid transition
+     */
+    public boolean changeStatus(BTOApplication application, BTOApplicationStatus expectedStatus,
+                                int expectedVersion, BTOApplicationStatus newStatus) {
+        OperationTimer timer = OperationTimer.start("BTOApplicationService.changeStatus",
+                application, expectedStatus, expectedVersion, newStatus);
+        try {
+            boolean changed;
+            synchronized (application) {
+                changed = application.compareAndSetStatus(expectedStatus, expectedVersion, newStatus);
+            }
+            if (changed) {
+                committedTransitions.increment();
+                EventBus.getInstance().publish(new StatusChanged(application, expectedStatus, newStatus));
+                return true;
+            }
+            conflictedTransitions.increment();
+            return false;
+        } catch (IllegalArgumentException e) {
+            invalidTransitions.increment();
+            return false;
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Approves a withdrawal request, marking its application as unsuccessful if the
+     * application still has the status and version the manager read.
+     * @param request The withdrawal request to approve
+     * @param expectedStatus The application status the manager read
+     * @param expectedVersion The application version the manager read
+     * @param processedBy The name of the HDB manager approving the request
+     * @return true if the withdrawal was approved, false if the application was changed by
+     *         someone else first
+     */
+    public boolean approveWithdrawal(WithdrawalRequest request, BTOApplicationStatus expectedStatus,
+                                     int expectedVersion, String processedBy) {
+        OperationTimer timer = OperationTimer.start("BTOApplicationService.approveWithdrawal",
+                request, expectedStatus, expectedVersion, processedBy);
+        try {
+            if (!changeStatus(request.getApplication(), expectedStatus, expectedVersion, BTOApplicationStatus.UNSUCCESSFUL)) {
+                return false;
+            }
+            request.approve(processedBy);
+            return true;
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Reinstates an unsuccessful application promoted from a waitlist as successful, if it
+     * still has the version the caller read.
+     * @param application The application to reinstate
+     * @param expectedVersion The version the caller read
+     * @return true if the application was reinstated, false if it was changed by someone else first
+     */
+    public boolean reinstate(BTOApplication application, int expectedVersion) {
+        OperationTimer timer = OperationTimer.start("BTOApplicationService.reinstate", application, expectedVersion);
+        try {
+            boolean reinstated;
+            synchronized (application) {
+                reinstated = application.compareAndReinstate(expectedVersion);
+            }
+            if (reinstated) {
+                committedTransitions.increment();
+                EventBus.getInstance().publish(new StatusChanged(application, BTOApplicationStatus.UNSUCCESSFUL,
+                    BTOApplicationStatus.SUCCESSFUL));
+                return true;
+            }
+            conflictedTransitions.increment();
+            return false;
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Gets the number of status changes that went through
+     * @return The number of committed status changes
+     */
+    public static long getCommittedTransitions() {
+        return committedTransitions.sum();
+    }
+
+    /**
+     * Gets the number of status changes rejected because the application was changed by
+     * someone else first
+     * @return The number of conflicting status changes
+     */
+    public static long getConflictedTransitions() {
+        return conflictedTransitions.sum();
+    }
+
+    /**
+     * Gets the number of status changes rejected by the application state machine
+     * @return The number of invalid status changes
+     */
+    public static long getInvalidTransitions() {
+        return invalidTransitions.sum();
+    }
+}
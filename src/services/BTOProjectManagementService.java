@@ -1,6 +1,8 @@
 package services;
 
 import enumeration.FlatType;
+import events.EventBus;
+import events.ProjectUpdated;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -11,6 +13,7 @@ import models.FlatTypeDetails;
 import models.HDBManager;
 import models.ProjectFilter;
 import stores.DataStore;
+import utils.OperationTimer;
 
     /**
      * Create a new BTO project and handles services
@@ -34,7 +37,7 @@ public class BTOProjectManagementService {
      * @param flatTypes Map of flat types and their details
      * @param hdbManager HDB Manager creating the project
      * @param hdbOfficerSlots Number of HDB Officer slots
-     * @return The created project
+     * @return The created project, or null if a project with the same name already exists
      */
     public BTOProject createProject(
         String projectName,
@@ -45,34 +48,51 @@ public class BTOProjectManagementService {
         HDBManager hdbManager,
         int hdbOfficerSlots
     ) {
-        BTOProject project = new BTOProject(
-            projectName,
-            neighborhood,
-            openingDate,
-            closingDate,
-            flatTypes,
-            hdbManager,
-            hdbOfficerSlots,
-            new ArrayList<>(),
-            false
-        );
+        OperationTimer timer = OperationTimer.start("BTOProjectManagementService.createProject",
+                projectName, neighborhood, openingDate, closingDate, flatTypes, hdbManager, hdbOfficerSlots);
+        try {
+            BTOProject project = new BTOProject(
+                projectName,
+                neighborhood,
+                openingDate,
+                closingDate,
+                flatTypes,
+                hdbManager,
+                hdbOfficerSlots,
+                new ArrayList<>(),
+                false
+            );
         
-        DataStore.getBTOProjectsData().put(projectName, project);
-        DataStore.saveData();
+            if (!DataStore.addBTOProject(project)) {
+                return null;
+            }
+            publishUpdate(project);
+            DataStore.saveData();
         
-        return project;
+            return project;
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
      * Update a project's name
      * @param project Project to update
      * @param newName New project name
+     * @return true if the project was renamed, false if the new name is already taken
      */
-    public void updateProjectName(BTOProject project, String newName) {
-        DataStore.getBTOProjectsData().remove(project.getProjectName());
-        project.setProjectName(newName);
-        DataStore.getBTOProjectsData().put(newName, project);
-        DataStore.saveData();
+    public boolean updateProjectName(BTOProject project, String newName) {
+        OperationTimer timer = OperationTimer.start("BTOProjectManagementService.updateProjectName", project, newName);
+        try {
+            if (!DataStore.renameBTOProject(project, newName)) {
+                return false;
+            }
+            publishUpdate(project);
+            DataStore.saveData();
+            return true;
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -81,8 +101,15 @@ public class BTOProjectManagementService {
      * @param newNeighborhood New neighborhood
      */
     public void updateNeighborhood(BTOProject project, String newNeighborhood) {
-        project.setNeighborhood(newNeighborhood);
-        DataStore.saveData();
+        OperationTimer timer = OperationTimer.start("BTOProjectManagementService.updateNeighborhood",
+                project, newNeighborhood);
+        try {
+            project.setNeighborhood(newNeighborhood);
+            publishUpdate(project);
+            DataStore.saveData();
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -92,9 +119,16 @@ public class BTOProjectManagementService {
      * @param newClosingDate New closing date
      */
     public void updateApplicationDates(BTOProject project, LocalDate newOpeningDate, LocalDate newClosingDate) {
-        project.setApplicationOpeningDate(newOpeningDate);
-        project.setApplicationClosingDate(newClosingDate);
-        DataStore.saveData();
+        OperationTimer timer = OperationTimer.start("BTOProjectManagementService.updateApplicationDates",
+                project, newOpeningDate, newClosingDate);
+        try {
+            project.setApplicationOpeningDate(newOpeningDate);
+            project.setApplicationClosingDate(newClosingDate);
+            publishUpdate(project);
+            DataStore.saveData();
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -103,8 +137,15 @@ public class BTOProjectManagementService {
      * @param newFlatTypes New flat types
      */
     public void updateFlatTypes(BTOProject project, Map<FlatType, FlatTypeDetails> newFlatTypes) {
-        project.setFlatTypes(newFlatTypes);
-        DataStore.saveData();
+        OperationTimer timer = OperationTimer.start("BTOProjectManagementService.updateFlatTypes",
+                project, newFlatTypes);
+        try {
+            project.setFlatTypes(newFlatTypes);
+            publishUpdate(project);
+            DataStore.saveData();
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -113,8 +154,15 @@ public class BTOProjectManagementService {
      * @param newSlots New number of slots
      */
     public void updateHDBOfficerSlots(BTOProject project, int newSlots) {
-        project.setHDBOfficerSlots(newSlots);
-        DataStore.saveData();
+        OperationTimer timer = OperationTimer.start("BTOProjectManagementService.updateHDBOfficerSlots",
+                project, newSlots);
+        try {
+            project.setHDBOfficerSlots(newSlots);
+            publishUpdate(project);
+            DataStore.saveData();
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -123,8 +171,15 @@ public class BTOProjectManagementService {
      * @param newVisibility New visibility status
      */
     public void updateVisibility(BTOProject project, boolean newVisibility) {
-        project.setVisible(newVisibility);
-        DataStore.saveData();
+        OperationTimer timer = OperationTimer.start("BTOProjectManagementService.updateVisibility",
+                project, newVisibility);
+        try {
+            project.setVisible(newVisibility);
+            publishUpdate(project);
+            DataStore.saveData();
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -132,8 +187,15 @@ public class BTOProjectManagementService {
      * @param project Project to delete
      */
     public void deleteProject(BTOProject project) {
-        DataStore.getBTOProjectsData().remove(project.getProjectName());
-        DataStore.saveData();
+        OperationTimer timer = OperationTimer.start("BTOProjectManagementService.deleteProject", project);
+        try {
+            if (DataStore.removeBTOProject(project)) {
+                EventBus.getInstance().publish(new ProjectUpdated(project, true));
+            }
+            DataStore.saveData();
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -142,9 +204,14 @@ public class BTOProjectManagementService {
      * @return true if handling an active project, false otherwise
      */
     public boolean isHandlingActiveProject(HDBManager hdbManager) {
-        // Modified to always return false so that HDB manager can create multiple projects
-        // as long as their application dates don't overlap
-        return false;
+        OperationTimer timer = OperationTimer.start("BTOProjectManagementService.isHandlingActiveProject", hdbManager);
+        try {
+            // Modified to always return false so that HDB manager can create multiple projects
+            // as long as their application dates don't overlap
+            return false;
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -155,20 +222,31 @@ public class BTOProjectManagementService {
      * @return true if dates overlap with any existing project, false otherwise
      */
     public boolean hasOverlappingProjectDates(HDBManager hdbManager, LocalDate newOpeningDate, LocalDate newClosingDate) {
-        return DataStore.getBTOProjectsData().values().stream()
-            .filter(project -> project.getHDBManager().equals(hdbManager))
-            .anyMatch(project -> {
-                LocalDate existingOpeningDate = project.getApplicationOpeningDate();
-                LocalDate existingClosingDate = project.getApplicationClosingDate();
+        OperationTimer timer = OperationTimer.start("BTOProjectManagementService.hasOverlappingProjectDates",
+                hdbManager, newOpeningDate, newClosingDate);
+        try {
+            return DataStore.getBTOProjectsData().values().stream()
+                .filter(project -> project.getHDBManager().equals(hdbManager))
+                .anyMatch(project -> {
+                    LocalDate existingOpeningDate = project.getApplicationOpeningDate();
+                    LocalDate existingClosingDate = project.getApplicationClosingDate();
                 
-                // Check if date ranges overlap
-                return (newOpeningDate.isBefore(existingClosingDate) || newOpeningDate.isEqual(existingClosingDate)) && 
-                       (newClosingDate.isAfter(existingOpeningDate) || newClosingDate.isEqual(existingOpeningDate));
-            });
+                    // Check if date ranges overlap
+                    return (newOpeningDate.isBefore(existingClosingDate) || newOpeningDate.isEqual(existingClosingDate)) && 
+                           (newClosingDate.isAfter(existingOpeningDate) || newClosingDate.isEqual(existingOpeningDate));
+                });
+        } finally {
+            timer.stop();
+        }
     }
     
     public boolean isProjectNameUnique(String projectName) {
-        return !DataStore.getBTOProjectsData().containsKey(projectName);
+        OperationTimer timer = OperationTimer.start("BTOProjectManagementService.isProjectNameUnique", projectName);
+        try {
+            return !DataStore.getBTOProjectsData().containsKey(projectName);
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -177,9 +255,14 @@ public class BTOProjectManagementService {
      * @return List of managed projects
      */
     public List<BTOProject> getManagedProjects(HDBManager hdbManager) {
-        return DataStore.getBTOProjectsData().values().stream()
-            .filter(project -> project.getHDBManager().equals(hdbManager))
-            .collect(Collectors.toList());
+        OperationTimer timer = OperationTimer.start("BTOProjectManagementService.getManagedProjects", hdbManager);
+        try {
+            return timer.returned(DataStore.getBTOProjectsData().values().stream()
+                .filter(project -> project.getHDBManager().equals(hdbManager))
+                .collect(Collectors.toList()));
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -189,8 +272,14 @@ public class BTOProjectManagementService {
      * @return Filtered list of managed projects
      */
     public List<BTOProject> getManagedProjects(HDBManager hdbManager, ProjectFilter filter) {
-        List<BTOProject> managedProjects = getManagedProjects(hdbManager);
-        return filter.applyFilter(managedProjects);
+        OperationTimer timer = OperationTimer.start("BTOProjectManagementService.getManagedProjects",
+                hdbManager, filter);
+        try {
+            List<BTOProject> managedProjects = getManagedProjects(hdbManager);
+            return timer.returned(filter.applyFilter(managedProjects));
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -199,7 +288,20 @@ public class BTOProjectManagementService {
      * @return Filtered list of all projects
      */
     public List<BTOProject> getAllProjects(ProjectFilter filter) {
-        List<BTOProject> allProjects = new ArrayList<>(DataStore.getBTOProjectsData().values());
-        return filter.applyFilter(allProjects);
+        OperationTimer timer = OperationTimer.start("BTOProjectManagementService.getAllProjects", filter);
+        try {
+            List<BTOProject> allProjects = new ArrayList<>(DataStore.getBTOProjectsData().values());
+            return timer.returned(filter.applyFilter(allProjects));
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Publishes that a project was created or changed
+     * @param project The project created or changed
+     */
+    private void publishUpdate(BTOProject project) {
+        EventBus.getInstance().publish(new ProjectUpdated(project, false));
     }
-}
\ No newline at end of file
+}
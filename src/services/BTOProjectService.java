@@ -3,8 +3,10 @@ package services;
 import enumeration.BTOApplicationStatus;
 import enumeration.FlatType;
 import enumeration.MaritalStatus;
+import events.ApplicationSubmitted;
+import events.EventBus;
+import events.ProjectUpdated;
 import interfaces.IBTOProjectService;
-import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -18,6 +20,7 @@ import models.HDBOfficer;
 import models.ProjectFilter;
 import models.User;
 import stores.DataStore;
+import utils.OperationTimer;
 
 /**
  * Service class for BTO project operations that can be used by both applicants and HDB officers
@@ -31,56 +34,59 @@ public class BTOProjectService implements IBTOProjectService {
      * @return true if the user is eligible, false otherwise
      */
     public boolean isEligible(User user, BTOProject project) {
-        // HDB Officers and Managers can access all projects regardless of visibility
-        boolean isHDBOfficer = user instanceof HDBOfficer;
-        boolean isHDBManager = user.getUserType() == enumeration.UserType.HDB_MANAGER;
-        boolean isApplicant = user.getUserType() == enumeration.UserType.APPLICANT;
+        OperationTimer timer = OperationTimer.start("BTOProjectService.isEligible", user, project);
+        try {
+            // HDB Officers and Managers can access all projects regardless of visibility
+            boolean isHDBOfficer = user instanceof HDBOfficer;
+            boolean isHDBManager = user.getUserType() == enumeration.UserType.HDB_MANAGER;
+            boolean isApplicant = user.getUserType() == enumeration.UserType.APPLICANT;
         
-        // Check if project is visible (skip check for HDB Officers and HDB Managers)
-        if (!project.isVisible() && !isHDBOfficer && !isHDBManager) {
-            // For applicants, allow access to their own applied projects even if not visible
-            if (isApplicant) {
-                Applicant applicant = (Applicant) user;
-                boolean hasApplied = DataStore.getBTOApplicationsData().values().stream()
-                    .anyMatch(app -> app.getApplicant().equals(applicant) && app.getProject().equals(project));
+            // Check if project is visible (skip check for HDB Officers and HDB Managers)
+            if (!project.isVisible() && !isHDBOfficer && !isHDBManager) {
+                // For applicants, allow access to their own applied projects even if not visible
+                if (isApplicant) {
+                    Applicant applicant = (Applicant) user;
+                    boolean hasApplied = DataStore.getBTOApplicationsData().values().stream()
+                        .anyMatch(app -> app.getApplicant().equals(applicant) && app.getProject().equals(project));
                 
-                if (!hasApplied) {
+                    if (!hasApplied) {
+                        return false;
+                    }
+                } else {
                     return false;
                 }
-            } else {
-                return false;
             }
-        }
-
-        // Check if project is within application period
-        LocalDate today = LocalDate.now();
-        if (today.isBefore(project.getApplicationOpeningDate()) || 
-            today.isAfter(project.getApplicationClosingDate())) {
-            return false;
-        }
 
-        // Check if user already has an existing application
-        if (user instanceof Applicant && hasExistingApplication((Applicant) user)) {
-            return false;
-        }
-        if (user instanceof HDBOfficer && hasExistingApplication((HDBOfficer) user)) {
-            return false;
-        }
+            // Check if project is within application period
+            if (!project.isApplicationOpen()) {
+                return false;
+            }
 
-        // Check if HDB officer is already assigned to the project
-        if (user instanceof HDBOfficer) {
-            HDBOfficer officer = (HDBOfficer) user;
-            // Check if officer is already handling this project
-            if (officer.getHandledProjects().contains(project)) {
+            // Check if user already has an existing application
+            if (user instanceof Applicant && hasExistingApplication((Applicant) user)) {
                 return false;
             }
-            // Check if officer is already assigned to this project
-            if (!canOfficerApplyForProject(project, officer)) {
+            if (user instanceof HDBOfficer && hasExistingApplication((HDBOfficer) user)) {
                 return false;
             }
-        }
 
-        return true;
+            // Check if HDB officer is already assigned to the project
+            if (user instanceof HDBOfficer) {
+                HDBOfficer officer = (HDBOfficer) user;
+                // Check if officer is already handling this project
+                if (officer.getHandledProjects().contains(project)) {
+                    return false;
+                }
+                // Check if officer is already assigned to this project
+                if (!canOfficerApplyForProject(project, officer)) {
+                    return false;
+                }
+            }
+
+            return true;
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -90,9 +96,14 @@ public class BTOProjectService implements IBTOProjectService {
      */
     @Override
     public List<BTOProject> getAvailableProjects(User user) {
-        return DataStore.getBTOProjectsData().values().stream()
-                .filter(project -> isEligible(user, project))
-                .collect(Collectors.toList());
+        OperationTimer timer = OperationTimer.start("BTOProjectService.getAvailableProjects", user);
+        try {
+            return timer.returned(DataStore.getBTOProjectsData().values().stream()
+                    .filter(project -> isEligible(user, project))
+                    .collect(Collectors.toList()));
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -102,8 +113,13 @@ public class BTOProjectService implements IBTOProjectService {
      * @return List of filtered available BTO projects
      */
     public List<BTOProject> getAvailableProjects(User user, ProjectFilter filter) {
-        List<BTOProject> availableProjects = getAvailableProjects(user);
-        return filter.applyFilter(availableProjects);
+        OperationTimer timer = OperationTimer.start("BTOProjectService.getAvailableProjects", user, filter);
+        try {
+            List<BTOProject> availableProjects = getAvailableProjects(user);
+            return timer.returned(filter.applyFilter(availableProjects));
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -112,14 +128,19 @@ public class BTOProjectService implements IBTOProjectService {
      * @return List of all visible BTO projects
      */
     public List<BTOProject> getEnquirableProjects(User user) {
-        boolean isHDBOfficer = user instanceof HDBOfficer;
-        boolean isHDBManager = user.getUserType() == enumeration.UserType.HDB_MANAGER;
+        OperationTimer timer = OperationTimer.start("BTOProjectService.getEnquirableProjects", user);
+        try {
+            boolean isHDBOfficer = user instanceof HDBOfficer;
+            boolean isHDBManager = user.getUserType() == enumeration.UserType.HDB_MANAGER;
         
-        return DataStore.getBTOProjectsData().values().stream()
-            .filter(project -> isHDBOfficer || isHDBManager || project.isVisible() || 
-                              DataStore.getBTOApplicationsData().values().stream()
-                                  .anyMatch(app -> app.getApplicant().equals(user) && app.getProject().equals(project)))
-            .collect(Collectors.toList());
+            return timer.returned(DataStore.getBTOProjectsData().values().stream()
+                .filter(project -> isHDBOfficer || isHDBManager || project.isVisible() || 
+                                  DataStore.getBTOApplicationsData().values().stream()
+                                      .anyMatch(app -> app.getApplicant().equals(user) && app.getProject().equals(project)))
+                .collect(Collectors.toList()));
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -129,8 +150,13 @@ public class BTOProjectService implements IBTOProjectService {
      * @return List of filtered visible BTO projects
      */
     public List<BTOProject> getEnquirableProjects(User user, ProjectFilter filter) {
-        List<BTOProject> enquirableProjects = getEnquirableProjects(user);
-        return filter.applyFilter(enquirableProjects);
+        OperationTimer timer = OperationTimer.start("BTOProjectService.getEnquirableProjects", user, filter);
+        try {
+            List<BTOProject> enquirableProjects = getEnquirableProjects(user);
+            return timer.returned(filter.applyFilter(enquirableProjects));
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -139,8 +165,13 @@ public class BTOProjectService implements IBTOProjectService {
      * @return List of filtered BTO projects
      */
     public List<BTOProject> getAllProjects(ProjectFilter filter) {
-        List<BTOProject> allProjects = new ArrayList<>(DataStore.getBTOProjectsData().values());
-        return filter.applyFilter(allProjects);
+        OperationTimer timer = OperationTimer.start("BTOProjectService.getAllProjects", filter);
+        try {
+            List<BTOProject> allProjects = new ArrayList<>(DataStore.getBTOProjectsData().values());
+            return timer.returned(filter.applyFilter(allProjects));
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -150,25 +181,30 @@ public class BTOProjectService implements IBTOProjectService {
      * @return Map of eligible flat types and their details
      */
     public Map<FlatType, FlatTypeDetails> getEligibleFlatTypes(BTOProject project, Applicant applicant) {
-        Map<FlatType, FlatTypeDetails> allFlatTypes = project.getFlatTypes();
-        Map<FlatType, FlatTypeDetails> eligibleFlatTypes = new HashMap<>();
+        OperationTimer timer = OperationTimer.start("BTOProjectService.getEligibleFlatTypes", project, applicant);
+        try {
+            Map<FlatType, FlatTypeDetails> allFlatTypes = project.getFlatTypes();
+            Map<FlatType, FlatTypeDetails> eligibleFlatTypes = new HashMap<>();
         
-        int age = applicant.getAge();
-        boolean isMarried = applicant.getMaritalStatus() == MaritalStatus.MARRIED;
+            int age = applicant.getAge();
+            boolean isMarried = applicant.getMaritalStatus() == MaritalStatus.MARRIED;
         
-        // Married applicants 21 and above can apply for any flat type
-        if (isMarried && age >= 21) {
-            return allFlatTypes;
-        }
+            // Married applicants 21 and above can apply for any flat type
+            if (isMarried && age >= 21) {
+                return timer.returned(allFlatTypes);
+            }
         
-        // Single applicants 35 and above can only apply for 2-room
-        if (!isMarried && age >= 35) {
-            if (allFlatTypes.containsKey(FlatType.TWO_ROOM)) {
-                eligibleFlatTypes.put(FlatType.TWO_ROOM, allFlatTypes.get(FlatType.TWO_ROOM));
+            // Single applicants 35 and above can only apply for 2-room
+            if (!isMarried && age >= 35) {
+                if (allFlatTypes.containsKey(FlatType.TWO_ROOM)) {
+                    eligibleFlatTypes.put(FlatType.TWO_ROOM, allFlatTypes.get(FlatType.TWO_ROOM));
+                }
             }
-        }
         
-        return eligibleFlatTypes;
+            return timer.returned(eligibleFlatTypes);
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -178,25 +214,30 @@ public class BTOProjectService implements IBTOProjectService {
      * @return Map of eligible flat types and their details
      */
     public Map<FlatType, FlatTypeDetails> getEligibleFlatTypes(BTOProject project, HDBOfficer hdbOfficer) {
-        Map<FlatType, FlatTypeDetails> allFlatTypes = project.getFlatTypes();
-        Map<FlatType, FlatTypeDetails> eligibleFlatTypes = new HashMap<>();
+        OperationTimer timer = OperationTimer.start("BTOProjectService.getEligibleFlatTypes", project, hdbOfficer);
+        try {
+            Map<FlatType, FlatTypeDetails> allFlatTypes = project.getFlatTypes();
+            Map<FlatType, FlatTypeDetails> eligibleFlatTypes = new HashMap<>();
         
-        int age = hdbOfficer.getAge();
-        boolean isMarried = hdbOfficer.getMaritalStatus() == MaritalStatus.MARRIED;
+            int age = hdbOfficer.getAge();
+            boolean isMarried = hdbOfficer.getMaritalStatus() == MaritalStatus.MARRIED;
         
-        // Married applicants 21 and above can apply for any flat type
-        if (isMarried && age >= 21) {
-            return allFlatTypes;
-        }
+            // Married applicants 21 and above can apply for any flat type
+            if (isMarried && age >= 21) {
+                return timer.returned(allFlatTypes);
+            }
         
-        // Single applicants 35 and above can only apply for 2-room
-        if (!isMarried && age >= 35) {
-            if (allFlatTypes.containsKey(FlatType.TWO_ROOM)) {
-                eligibleFlatTypes.put(FlatType.TWO_ROOM, allFlatTypes.get(FlatType.TWO_ROOM));
+            // Single applicants 35 and above can only apply for 2-room
+            if (!isMarried && age >= 35) {
+                if (allFlatTypes.containsKey(FlatType.TWO_ROOM)) {
+                    eligibleFlatTypes.put(FlatType.TWO_ROOM, allFlatTypes.get(FlatType.TWO_ROOM));
+                }
             }
-        }
         
-        return eligibleFlatTypes;
+            return timer.returned(eligibleFlatTypes);
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -204,8 +245,22 @@ public class BTOProjectService implements IBTOProjectService {
      * @param application The BTO application to submit
      */
     public void applyForBTOProject(BTOApplication application) {
-        DataStore.getBTOApplicationsData().put(application.getApplicationId(), application);
-        DataStore.saveData();
+        OperationTimer timer = OperationTimer.start("BTOProjectService.applyForBTOProject", application);
+        try {
+            // An applicant waits for at most one project: applying again leaves earlier waitlists
+            for (BTOApplication previous : DataStore.getBTOApplicationsData().values()) {
+                if (previous.getApplicant() == application.getApplicant() &&
+                    previous.getStatus() == BTOApplicationStatus.UNSUCCESSFUL) {
+                    previous.getProject().getWaitlist().remove(previous);
+                }
+            }
+            if (DataStore.addBTOApplication(application)) {
+                EventBus.getInstance().publish(new ApplicationSubmitted(application));
+            }
+            DataStore.saveData();
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -214,8 +269,13 @@ public class BTOProjectService implements IBTOProjectService {
      * @return true if the applicant has an existing application, false otherwise
      */
     public boolean hasExistingApplication(Applicant applicant) {
-        return DataStore.getBTOApplicationsData().values().stream()
-            .anyMatch(application -> application.getApplicant().equals(applicant) && application.getStatus() != BTOApplicationStatus.UNSUCCESSFUL);
+        OperationTimer timer = OperationTimer.start("BTOProjectService.hasExistingApplication", applicant);
+        try {
+            return DataStore.getBTOApplicationsData().values().stream()
+                .anyMatch(application -> application.getApplicant().equals(applicant) && application.getStatus() != BTOApplicationStatus.UNSUCCESSFUL);
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -224,8 +284,13 @@ public class BTOProjectService implements IBTOProjectService {
      * @return true if the HDB officer has an existing application, false otherwise
      */
     public boolean hasExistingApplication(HDBOfficer hdbOfficer) {
-        return DataStore.getBTOApplicationsData().values().stream()
-            .anyMatch(application -> application.getApplicant().equals(hdbOfficer));
+        OperationTimer timer = OperationTimer.start("BTOProjectService.hasExistingApplication", hdbOfficer);
+        try {
+            return DataStore.getBTOApplicationsData().values().stream()
+                .anyMatch(application -> application.getApplicant().equals(hdbOfficer));
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -234,9 +299,14 @@ public class BTOProjectService implements IBTOProjectService {
      * @return List of BTO applications for the applicant
      */
     public List<BTOApplication> getApplicationsByApplicant(Applicant applicant) {
-        return DataStore.getBTOApplicationsData().values().stream()
-            .filter(application -> application.getApplicant().equals(applicant))
-            .collect(Collectors.toList());
+        OperationTimer timer = OperationTimer.start("BTOProjectService.getApplicationsByApplicant", applicant);
+        try {
+            return timer.returned(DataStore.getBTOApplicationsData().values().stream()
+                .filter(application -> application.getApplicant().equals(applicant))
+                .collect(Collectors.toList()));
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -245,9 +315,14 @@ public class BTOProjectService implements IBTOProjectService {
      * @return List of BTO applications for the HDB officer
      */
     public List<BTOApplication> getApplicationsByApplicant(HDBOfficer hdbOfficer) {
-        return DataStore.getBTOApplicationsData().values().stream()
-            .filter(application -> application.getApplicant().equals(hdbOfficer))
-            .collect(Collectors.toList());
+        OperationTimer timer = OperationTimer.start("BTOProjectService.getApplicationsByApplicant", hdbOfficer);
+        try {
+            return timer.returned(DataStore.getBTOApplicationsData().values().stream()
+                .filter(application -> application.getApplicant().equals(hdbOfficer))
+                .collect(Collectors.toList()));
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -256,11 +331,16 @@ public class BTOProjectService implements IBTOProjectService {
      * @return List of joinable BTO projects
      */
     public List<BTOProject> getJoinableProjects(HDBOfficer hdbOfficer) {
-        return DataStore.getBTOProjectsData().values().stream()
-            .filter(project -> project.isVisible() && 
-                    project.getHDBOfficers().size() < project.getHDBOfficerSlots() &&
-                    !project.getHDBOfficers().contains(hdbOfficer))
-            .collect(Collectors.toList());
+        OperationTimer timer = OperationTimer.start("BTOProjectService.getJoinableProjects", hdbOfficer);
+        try {
+            return timer.returned(DataStore.getBTOProjectsData().values().stream()
+                .filter(project -> project.isVisible() && 
+                        project.getHDBOfficers().size() < project.getHDBOfficerSlots() &&
+                        !project.getHDBOfficers().contains(hdbOfficer))
+                .collect(Collectors.toList()));
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -270,8 +350,13 @@ public class BTOProjectService implements IBTOProjectService {
      * @return List of filtered joinable BTO projects
      */
     public List<BTOProject> getJoinableProjects(HDBOfficer hdbOfficer, ProjectFilter filter) {
-        List<BTOProject> joinableProjects = getJoinableProjects(hdbOfficer);
-        return filter.applyFilter(joinableProjects);
+        OperationTimer timer = OperationTimer.start("BTOProjectService.getJoinableProjects", hdbOfficer, filter);
+        try {
+            List<BTOProject> joinableProjects = getJoinableProjects(hdbOfficer);
+            return timer.returned(filter.applyFilter(joinableProjects));
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -280,9 +365,14 @@ public class BTOProjectService implements IBTOProjectService {
      * @return List of joined BTO projects
      */
     public List<BTOProject> getJoinedProjects(HDBOfficer hdbOfficer) {
-        return DataStore.getBTOProjectsData().values().stream()
-            .filter(project -> project.getHDBOfficers().contains(hdbOfficer))
-            .collect(Collectors.toList());
+        OperationTimer timer = OperationTimer.start("BTOProjectService.getJoinedProjects", hdbOfficer);
+        try {
+            return timer.returned(DataStore.getBTOProjectsData().values().stream()
+                .filter(project -> project.getHDBOfficers().contains(hdbOfficer))
+                .collect(Collectors.toList()));
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -292,8 +382,13 @@ public class BTOProjectService implements IBTOProjectService {
      * @return List of filtered joined BTO projects
      */
     public List<BTOProject> getJoinedProjects(HDBOfficer hdbOfficer, ProjectFilter filter) {
-        List<BTOProject> joinedProjects = getJoinedProjects(hdbOfficer);
-        return filter.applyFilter(joinedProjects);
+        OperationTimer timer = OperationTimer.start("BTOProjectService.getJoinedProjects", hdbOfficer, filter);
+        try {
+            List<BTOProject> joinedProjects = getJoinedProjects(hdbOfficer);
+            return timer.returned(filter.applyFilter(joinedProjects));
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -302,8 +397,14 @@ public class BTOProjectService implements IBTOProjectService {
      * @param hdbOfficer The HDB officer to add
      */
     public void joinProjectAsOfficer(BTOProject project, HDBOfficer hdbOfficer) {
-        project.addHDBOfficer(hdbOfficer);
-        DataStore.saveData();
+        OperationTimer timer = OperationTimer.start("BTOProjectService.joinProjectAsOfficer", project, hdbOfficer);
+        try {
+            project.addHDBOfficer(hdbOfficer);
+            EventBus.getInstance().publish(new ProjectUpdated(project, false));
+            DataStore.saveData();
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -312,8 +413,14 @@ public class BTOProjectService implements IBTOProjectService {
      * @param hdbOfficer The HDB officer to remove
      */
     public void leaveProjectAsOfficer(BTOProject project, HDBOfficer hdbOfficer) {
-        project.removeHDBOfficer(hdbOfficer);
-        DataStore.saveData();
+        OperationTimer timer = OperationTimer.start("BTOProjectService.leaveProjectAsOfficer", project, hdbOfficer);
+        try {
+            project.removeHDBOfficer(hdbOfficer);
+            EventBus.getInstance().publish(new ProjectUpdated(project, false));
+            DataStore.saveData();
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -323,6 +430,11 @@ public class BTOProjectService implements IBTOProjectService {
      * @return true if the HDB officer can apply for the project, false otherwise
      */
     public boolean canOfficerApplyForProject(BTOProject project, HDBOfficer hdbOfficer) {
-        return !project.getHDBOfficers().contains(hdbOfficer);
+        OperationTimer timer = OperationTimer.start("BTOProjectService.canOfficerApplyForProject", project, hdbOfficer);
+        try {
+            return !project.getHDBOfficers().contains(hdbOfficer);
+        } finally {
+            timer.stop();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,278 @@
+package services;
+
+import enumeration.BTOApplicationStatus;
+import enumeration.FlatType;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.random.RandomGenerator;
+import java.util.stream.Collectors;
+import models.Applicant;
+import models.BTOApplication;
+import models.BTOProject;
+import models.BallotPlan;
+import models.FlatTypeDetails;
+import models.HDBOfficer;
+import models.User;
+import stores.DataStore;
+import utils.OperationTimer;
+
+/**
+ * Service class for balloting all pending applications of a BTO project in one go.
+ *
+ * A ballot draws the pending applications in a random order from a seed, and in that
+ * order allocates each application a unit of a flat type it is eligible for while units
+ * remain. Drawing a ballot does not change any data; the resulting {@link BallotPlan} can
+ * be reviewed and then committed, which applies every SUCCESSFUL and UNSUCCESSFUL
+ * transition and saves them in one write.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public class BallotService {
+    private final BTOProjectService projectService = new BTOProjectService();
+    private final BTOApplicationService applicationService = new BTOApplicationService();
+
+    /**
+     * Gets the pending applications of a project, ordered by application ID so a seed
+     * always draws them in the same order.
+     * @param project The project to get pending applications for
+     * @return List of pending applications
+     */
+    public List<BTOApplication> getPendingApplications(BTOProject project) {
+        OperationTimer timer = OperationTimer.start("BallotService.getPendingApplications", project);
+        try {
+            return timer.returned(DataStore.getBTOApplicationsData().values().stream()
+                .filter(application -> application.getProject() == project &&
+                                     application.getStatus() == BTOApplicationStatus.PENDING)
+                .sorted(Comparator.comparing(BTOApplication::getApplicationId))
+                .collect(Collectors.toList()));
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Gets the units of each flat type the ballot can allocate: the units available
+     * less those already promised to successful applications that have chosen the
+     * flat type but not booked yet.
+     * @param project The project to get the capacity of
+     * @param applications The applications of the project
+     * @return Map of flat type to units available to the ballot
+     */
+    public Map<FlatType, Integer> getBallotCapacity(BTOProject project, Iterable<BTOApplication> applications) {
+        OperationTimer timer = OperationTimer.start("BallotService.getBallotCapacity", project, applications);
+        try {
+            Map<FlatType, Integer> capacity = new EnumMap<FlatType, Integer>(FlatType.class);
+            for (Map.Entry<FlatType, FlatTypeDetails> entry : project.getFlatTypes().entrySet()) {
+                capacity.put(entry.getKey(), entry.getValue().getUnits());
+            }
+            for (BTOApplication application : applications) {
+                if (application.getProject() == project &&
+                    application.getStatus() == BTOApplicationStatus.SUCCESSFUL &&
+                    application.getFlatType() != null) {
+                    capacity.computeIfPresent(application.getFlatType(), (flatType, units) -> Math.max(0, units - 1));
+                }
+            }
+            return timer.returned(capacity);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Draws a ballot for all pending applications of a project. No data is changed.
+     * @param project The project to ballot
+     * @param seed The seed to draw with; the same seed draws the same ballot
+     * @return The ballot plan
+     */
+    public BallotPlan planBallot(BTOProject project, long seed) {
+        OperationTimer timer = OperationTimer.start("BallotService.planBallot", project, seed);
+        try {
+            Map<FlatType, Integer> capacity = getBallotCapacity(project, DataStore.getBTOApplicationsData().values());
+            return planBallot(project, getPendingApplications(project), capacity, new Random(seed), seed);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Draws a ballot for the given applications. No data is changed, so this can also
+     * be used for what-if ballots on snapshots of the data.
+     * @param project The project to ballot
+     * @param pendingApplications The applications taking part, in a stable order
+     * @param capacity The units available to the ballot per flat type
+     * @param random The random source to draw with
+     * @param seed The seed of the random source, recorded in the plan
+     * @return The ballot plan
+     */
+    public BallotPlan planBallot(BTOProject project, List<BTOApplication> pendingApplications,
+                                 Map<FlatType, Integer> capacity, RandomGenerator random, long seed) {
+        OperationTimer timer = OperationTimer.start("BallotService.planBallot",
+                project, pendingApplications, capacity, random, seed);
+        try {
+            // Read each version before its status, so a plan never pairs a new status with an old version
+            List<BTOApplication> drawn = new ArrayList<>(pendingApplications.size());
+            List<Integer> versions = new ArrayList<>(pendingApplications.size());
+            for (BTOApplication application : pendingApplications) {
+                int version = application.getVersion();
+                if (application.getStatus() == BTOApplicationStatus.PENDING) {
+                    drawn.add(application);
+                    versions.add(version);
+                }
+            }
+
+            // Fisher-Yates shuffle of the ballot order
+            int[] order = new int[drawn.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            for (int i = order.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = order[i];
+                order[i] = order[j];
+                order[j] = swap;
+            }
+
+            Map<FlatType, Integer> remaining = new EnumMap<FlatType, Integer>(FlatType.class);
+            remaining.putAll(capacity);
+            Map<FlatType, Integer> allocated = new EnumMap<FlatType, Integer>(FlatType.class);
+            for (FlatType flatType : capacity.keySet()) {
+                allocated.put(flatType, 0);
+            }
+
+            List<BallotPlan.Allocation> allocations = new ArrayList<>(order.length);
+            for (int index : order) {
+                BTOApplication application = drawn.get(index);
+                FlatType flatType = chooseFlatType(project, application, remaining);
+                if (flatType != null) {
+                    remaining.merge(flatType, -1, Integer::sum);
+                    allocated.merge(flatType, 1, Integer::sum);
+                }
+                allocations.add(new BallotPlan.Allocation(application, versions.get(index), flatType));
+            }
+
+            return new BallotPlan(project, seed, allocations, capacity, allocated);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Commits a ballot plan: allocated applications become SUCCESSFUL with their flat
+     * type, the others UNSUCCESSFUL and join the project's waitlists, and all changes are
+     * saved in one write. Applications
+     * changed by someone else since the plan was drawn are left untouched.
+     * @param plan The ballot plan to commit
+     * @return The number of applications updated
+     */
+    public int commitBallot(BallotPlan plan) {
+        OperationTimer timer = OperationTimer.start("BallotService.commitBallot", plan);
+        try {
+            int committed = DataStore.withProjectLock(plan.getProject(), () -> {
+                int count = 0;
+                for (BallotPlan.Allocation allocation : plan.getAllocations()) {
+                    BTOApplication application = allocation.getApplication();
+                    BTOApplicationStatus newStatus = allocation.isSuccessful()
+                        ? BTOApplicationStatus.SUCCESSFUL
+                        : BTOApplicationStatus.UNSUCCESSFUL;
+                    // The flat type is in place before the application turns successful, so
+                    // a booking never sees it without one; bookings read it under this monitor
+                    boolean changed;
+                    synchronized (application) {
+                        FlatType requested = application.getFlatType();
+                        if (allocation.isSuccessful()) {
+                            application.setFlatType(allocation.getFlatType());
+                        }
+                        changed = applicationService.changeStatus(application, BTOApplicationStatus.PENDING,
+                                allocation.getVersion(), newStatus);
+                        if (!changed) {
+                            application.setFlatType(requested);
+                        }
+                    }
+                    if (changed) {
+                        if (!allocation.isSuccessful()) {
+                            addToWaitlist(plan.getProject(), application);
+                        }
+                        count++;
+                    }
+                }
+                return count;
+            });
+
+            DataStore.saveData();
+            return committed;
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Puts an application that lost the ballot on the waitlists of the flat types it is
+     * eligible for; only the flat type it asked for if it asked for one.
+     * @param project The project balloted
+     * @param application The unsuccessful application
+     */
+    private void addToWaitlist(BTOProject project, BTOApplication application) {
+        Set<FlatType> eligible = getEligibleFlatTypes(project, application.getApplicant());
+        FlatType requested = application.getFlatType();
+        for (FlatType flatType : FlatType.values()) {
+            if (eligible.contains(flatType) && (requested == null || requested == flatType)) {
+                project.getWaitlist().add(flatType, application);
+            }
+        }
+    }
+
+    /**
+     * Chooses the flat type to allocate to an application: the flat type it asked for
+     * if it is eligible and units remain, otherwise the eligible flat type with the most
+     * units remaining.
+     * @param project The project being balloted
+     * @param application The application to allocate
+     * @param remaining The units remaining per flat type
+     * @return The flat type to allocate, or null if none is available
+     */
+    private FlatType chooseFlatType(BTOProject project, BTOApplication application, Map<FlatType, Integer> remaining) {
+        Set<FlatType> eligible = getEligibleFlatTypes(project, application.getApplicant());
+        FlatType requested = application.getFlatType();
+        if (requested != null) {
+            return eligible.contains(requested) && remaining.getOrDefault(requested, 0) > 0 ? requested : null;
+        }
+
+        FlatType best = null;
+        int bestUnits = 0;
+        for (FlatType flatType : FlatType.values()) {
+            int units = remaining.getOrDefault(flatType, 0);
+            if (eligible.contains(flatType) && units > bestUnits) {
+                best = flatType;
+                bestUnits = units;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Gets the flat types of a project an applicant is eligible for.
+     * @param project The project
+     * @param user The applicant, who may be an HDB officer
+     * @return The eligible flat types
+     */
+    public Set<FlatType> getEligibleFlatTypes(BTOProject project, User user) {
+        OperationTimer timer = OperationTimer.start("BallotService.getEligibleFlatTypes", project, user);
+        try {
+            if (user instanceof Applicant) {
+                return timer.returned(projectService.getEligibleFlatTypes(project, (Applicant) user).keySet());
+            }
+            if (user instanceof HDBOfficer) {
+                return timer.returned(projectService.getEligibleFlatTypes(project, (HDBOfficer) user).keySet());
+            }
+            return timer.returned(Set.of());
+        } finally {
+            timer.stop();
+        }
+    }
+}
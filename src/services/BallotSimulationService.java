@@ -0,0 +1,193 @@
+package services;
+
+import enumeration.BTOApplicationStatus;
+import enumeration.FlatType;
+import enumeration.MaritalStatus;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import models.BTOApplication;
+import models.BTOProject;
+import models.BallotPlan;
+import models.BallotSimulationResult;
+import models.User;
+import stores.DataStore;
+import utils.OperationTimer;
+
+/**
+ * Service class for what-if ballots across every BTO project.
+ *
+ * A simulation takes a snapshot of the pending applications of every project and draws
+ * a number of ballots for each project in parallel, using {@link BallotService} without
+ * committing anything. Every ballot gets its own random stream, split from the seed in a
+ * fixed order before any ballot runs, so the result depends only on the data and the seed
+ * and not on how the ballots are scheduled across threads.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public class BallotSimulationService {
+    private static final int[] AGE_BAND_STARTS = {0, 21, 35, 45, 55};
+    private static final String[] AGE_BAND_NAMES = {"under 21", "21-34", "35-44", "45-54", "55 and above"};
+
+    private final BallotService ballotService = new BallotService();
+
+    /**
+     * Simulates ballots for every project with pending applications. No data is changed.
+     * @param seed The seed to draw with; the same data and seed give the same result
+     * @param trials The number of ballots to draw per project
+     * @return The simulation result
+     */
+    public BallotSimulationResult simulate(long seed, int trials) {
+        OperationTimer timer = OperationTimer.start("BallotSimulationService.simulate", seed, trials);
+        try {
+            long start = System.nanoTime();
+
+            // Snapshot the pending applications of every project in a stable order
+            Map<BTOProject, List<BTOApplication>> applicationsByProject = new HashMap<>();
+            for (BTOApplication application : DataStore.getBTOApplicationsData().values()) {
+                applicationsByProject.computeIfAbsent(application.getProject(), project -> new ArrayList<>()).add(application);
+            }
+            List<BTOProject> projects = new ArrayList<>();
+            List<List<BTOApplication>> pendingByProject = new ArrayList<>();
+            List<Map<FlatType, Integer>> capacityByProject = new ArrayList<>();
+            applicationsByProject.entrySet().stream()
+                .sorted(Comparator.comparing(entry -> entry.getKey().getProjectName()))
+                .forEach(entry -> {
+                    List<BTOApplication> pending = new ArrayList<>();
+                    for (BTOApplication application : entry.getValue()) {
+                        if (application.getStatus() == BTOApplicationStatus.PENDING) {
+                            pending.add(application);
+                        }
+                    }
+                    if (!pending.isEmpty()) {
+                        pending.sort(Comparator.comparing(BTOApplication::getApplicationId));
+                        projects.add(entry.getKey());
+                        pendingByProject.add(pending);
+                        capacityByProject.add(ballotService.getBallotCapacity(entry.getKey(), entry.getValue()));
+                    }
+                });
+
+            // Profile every applicant once
+            Map<BTOApplication, Integer> profileOf = new IdentityHashMap<>();
+            int[] applicantsPerProfile = new int[MaritalStatus.values().length * AGE_BAND_STARTS.length];
+            int applicationCount = 0;
+            for (List<BTOApplication> pending : pendingByProject) {
+                for (BTOApplication application : pending) {
+                    int profile = profileOf(application.getApplicant());
+                    profileOf.put(application, profile);
+                    applicantsPerProfile[profile]++;
+                    applicationCount++;
+                }
+            }
+
+            // Split one stream per ballot up front, so the draws do not depend on scheduling
+            SplittableRandom root = new SplittableRandom(seed);
+            SplittableRandom[] streams = new SplittableRandom[projects.size() * trials];
+            for (int i = 0; i < streams.length; i++) {
+                streams[i] = root.split();
+            }
+
+            int flatTypeCount = FlatType.values().length;
+            long[] allocations = IntStream.range(0, streams.length).parallel()
+                .mapToObj(ballot -> {
+                    int project = ballot / trials;
+                    BallotPlan plan = ballotService.planBallot(projects.get(project), pendingByProject.get(project),
+                        capacityByProject.get(project), streams[ballot], seed);
+                    long[] counts = new long[applicantsPerProfile.length * flatTypeCount];
+                    for (BallotPlan.Allocation allocation : plan.getAllocations()) {
+                        if (allocation.isSuccessful()) {
+                            counts[profileOf.get(allocation.getApplication()) * flatTypeCount + allocation.getFlatType().ordinal()]++;
+                        }
+                    }
+                    return counts;
+                })
+                .reduce(new long[applicantsPerProfile.length * flatTypeCount], (left, right) -> {
+                    long[] sum = new long[left.length];
+                    for (int i = 0; i < sum.length; i++) {
+                        sum[i] = left[i] + right[i];
+                    }
+                    return sum;
+                });
+
+            List<BallotSimulationResult.FlatTypeDemand> demand = new ArrayList<>();
+            for (int project = 0; project < projects.size(); project++) {
+                demand.addAll(getDemand(projects.get(project), pendingByProject.get(project), capacityByProject.get(project)));
+            }
+
+            List<BallotSimulationResult.ProfileOutcome> outcomes = new ArrayList<>();
+            for (int profile = 0; profile < applicantsPerProfile.length; profile++) {
+                if (applicantsPerProfile[profile] == 0) {
+                    continue;
+                }
+                Map<FlatType, Long> profileAllocations = new EnumMap<FlatType, Long>(FlatType.class);
+                for (FlatType flatType : FlatType.values()) {
+                    profileAllocations.put(flatType, allocations[profile * flatTypeCount + flatType.ordinal()]);
+                }
+                outcomes.add(new BallotSimulationResult.ProfileOutcome(getProfileName(profile),
+                    applicantsPerProfile[profile], trials, profileAllocations));
+            }
+
+            return new BallotSimulationResult(seed, trials, applicationCount, System.nanoTime() - start, demand, outcomes);
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Counts the pending applications eligible for each flat type of a project.
+     * @param project The project
+     * @param pending The pending applications of the project
+     * @param capacity The units available to the ballot per flat type
+     * @return The demand of each flat type of the project
+     */
+    private List<BallotSimulationResult.FlatTypeDemand> getDemand(BTOProject project, List<BTOApplication> pending,
+                                                                  Map<FlatType, Integer> capacity) {
+        Map<FlatType, Integer> applicants = new EnumMap<FlatType, Integer>(FlatType.class);
+        for (BTOApplication application : pending) {
+            Set<FlatType> eligible = ballotService.getEligibleFlatTypes(project, application.getApplicant());
+            for (FlatType flatType : eligible) {
+                if (application.getFlatType() == null || application.getFlatType() == flatType) {
+                    applicants.merge(flatType, 1, Integer::sum);
+                }
+            }
+        }
+
+        List<BallotSimulationResult.FlatTypeDemand> demand = new ArrayList<>();
+        for (Map.Entry<FlatType, Integer> entry : capacity.entrySet()) {
+            demand.add(new BallotSimulationResult.FlatTypeDemand(project.getProjectName(), entry.getKey(),
+                entry.getValue(), applicants.getOrDefault(entry.getKey(), 0)));
+        }
+        return demand;
+    }
+
+    /**
+     * Gets the profile of an applicant: their marital status and age band.
+     * @param user The applicant
+     * @return The index of the profile
+     */
+    private static int profileOf(User user) {
+        int band = 0;
+        while (band + 1 < AGE_BAND_STARTS.length && user.getAge() >= AGE_BAND_STARTS[band + 1]) {
+            band++;
+        }
+        return user.getMaritalStatus().ordinal() * AGE_BAND_STARTS.length + band;
+    }
+
+    /**
+     * Gets the description of a profile.
+     * @param profile The index of the profile
+     * @return The description, e.g. "Married, 21-34"
+     */
+    private static String getProfileName(int profile) {
+        MaritalStatus maritalStatus = MaritalStatus.values()[profile / AGE_BAND_STARTS.length];
+        return maritalStatus.getDisplayName() + ", " + AGE_BAND_NAMES[profile % AGE_BAND_STARTS.length];
+    }
+}
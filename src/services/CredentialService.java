@@ -0,0 +1,330 @@
+package services;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import enumeration.CredentialResult;
+import models.User;
+import utils.MetricsRegistry;
+import utils.PasswordHasher;
+
+/**
+ * Service class for hashing and verifying user passwords.
+ *
+ * Passwords are hashed with salted PBKDF2 (see {@link PasswordHasher}), which is slow on
+ * purpose. Hashing runs on a fixed pool of worker threads with a bounded queue, so a burst
+ * of logins cannot take every CPU, and logins beyond the queue are turned away rather than
+ * piling up. After a password is verified, an HMAC of the stored hash and the password under
+ * a key held only in memory is cached for a short time, so logging in again with the same
+ * password skips the hashing. Changing the password changes the stored hash, which invalidates
+ * the cached entry.
+ *
+ * Passwords stored in plain text before hashing was introduced still verify, and are replaced
+ * with a hash on the user's first successful login. The new hash is saved with the next save
+ * of the data.
+ *
+ * The cost and pool are set with the system properties {@code btoms.passwordIterations}
+ * (default 100000), {@code btoms.credentialThreads} (default: number of CPUs),
+ * {@code btoms.credentialQueue} (default 256) and {@code btoms.credentialCacheSeconds}
+ * (default 300).
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public class CredentialService {
+    private static final long HASH_TIMEOUT_SECONDS = 10;
+    private static final int CACHE_SWEEP_INTERVAL = 1024;
+
+    private static final CredentialService instance = new CredentialService(
+            Integer.getInteger("btoms.passwordIterations", 100_000),
+            Integer.getInteger("btoms.credentialThreads", Runtime.getRuntime().availableProcessors()),
+            Integer.getInteger("btoms.credentialQueue", 256),
+            Long.getLong("btoms.credentialCacheSeconds", 300));
+
+    static {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        metrics.gauge("CredentialService.verifications", instance::getVerificationCount);
+        metrics.gauge("CredentialService.cacheHits", instance::getCacheHitCount);
+        metrics.gauge("CredentialService.hashes", instance::getHashCount);
+        metrics.gauge("CredentialService.rehashes", instance::getRehashCount);
+        metrics.gauge("CredentialService.rejections", instance::getRejectionCount);
+        metrics.gauge("CredentialService.failures", instance::getFailureCount);
+        metrics.gauge("CredentialService.queueDepth", instance::getQueueDepth);
+    }
+
+    private final PasswordHasher hasher;
+    private final ThreadPoolExecutor pool;
+    private final long cacheTtlNanos;
+    private final byte[] cacheKey = new byte[32];
+    private final Map<User, Verified> verified = new ConcurrentHashMap<>();
+
+    private final LongAdder verifications = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder rehashes = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder sinceSweep = new LongAdder();
+
+    /**
+     * Constructs a credential service with its own worker pool.
+     * @param iterations The number of PBKDF2 iterations for new hashes
+     * @param threads The number of worker threads hashing passwords
+     * @param queueCapacity The number of hashing requests that can wait for a worker
+     * @param cacheTtlSeconds How long a verified password is remembered, in seconds
+     */
+    public CredentialService(int iterations, int threads, int queueCapacity, long cacheTtlSeconds) {
+        this.hasher = new PasswordHasher(iterations);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "credential-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.cacheTtlNanos = TimeUnit.SECONDS.toNanos(cacheTtlSeconds);
+        new SecureRandom().nextBytes(cacheKey);
+    }
+
+    /**
+     * Gets the credential service shared by the whole application.
+     * @return The shared credential service
+     */
+    public static CredentialService getInstance() {
+        return instance;
+    }
+
+    /**
+     * Checks a user's password, from the cache if it was verified recently and otherwise
+     * by hashing it on a worker thread. A password stored in plain text is replaced with a
+     * hash once it verifies.
+     * @param user The user logging in
+     * @param password The password entered
+     * @return {@link CredentialResult#OK} if the password is correct, {@link CredentialResult#WRONG}
+     *         if it is wrong, or {@link CredentialResult#BUSY} if the workers were too busy to check it
+     */
+    public CredentialResult verify(User user, String password) {
+        if (user == null || password == null) {
+            return CredentialResult.WRONG;
+        }
+        verifications.increment();
+
+        Verified cached = verified.get(user);
+        if (cached != null && System.nanoTime() - cached.expiresAt < 0 &&
+            MessageDigest.isEqual(cached.tag, tag(user.getPassword(), password))) {
+            cacheHits.increment();
+            return CredentialResult.OK;
+        }
+
+        Boolean correct = runOnPool(() -> {
+            String stored = user.getPassword();
+            if (!hasher.verify(password, stored)) {
+                return false;
+            }
+            if (hasher.needsRehash(stored)) {
+                user.setPassword(hasher.hash(password));
+                hashes.increment();
+                rehashes.increment();
+            }
+            return true;
+        });
+        if (correct == null) {
+            return CredentialResult.BUSY;
+        }
+        if (!correct) {
+            return CredentialResult.WRONG;
+        }
+
+        verified.put(user, new Verified(tag(user.getPassword(), password), System.nanoTime() + cacheTtlNanos));
+        sweepCache();
+        return CredentialResult.OK;
+    }
+
+    /**
+     * Hashes a password for a new account on a worker thread.
+     * @param password The password
+     * @return The stored form of the hash, or null if the workers are too busy
+     */
+    public String hash(String password) {
+        String hash = runOnPool(() -> hasher.hash(password));
+        if (hash != null) {
+            hashes.increment();
+        }
+        return hash;
+    }
+
+    /**
+     * Changes a user's password after checking the current one.
+     * @param user The user
+     * @param oldPassword The current password
+     * @param newPassword The new password
+     * @return {@link CredentialResult#OK} if the password was changed, {@link CredentialResult#WRONG}
+     *         if the current password is wrong, or {@link CredentialResult#BUSY} if the workers were
+     *         too busy
+     */
+    public CredentialResult changePassword(User user, String oldPassword, String newPassword) {
+        CredentialResult result = verify(user, oldPassword);
+        if (result != CredentialResult.OK) {
+            return result;
+        }
+        String hash = hash(newPassword);
+        if (hash == null) {
+            return CredentialResult.BUSY;
+        }
+        user.setPassword(hash);
+        verified.remove(user);
+        return CredentialResult.OK;
+    }
+
+    /**
+     * Runs a hashing task on the worker pool and waits for its result. Turned away,
+     * failed and timed out tasks are counted, and left to the caller to report.
+     * @param <T> The type of result
+     * @param task The task
+     * @return The result, or null if the pool was full, the task failed or it timed out
+     */
+    private <T> T runOnPool(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = pool.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            return null;
+        }
+        try {
+            return future.get(HASH_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            failures.increment();
+        }
+        future.cancel(true);
+        return null;
+    }
+
+    /**
+     * Computes the tag remembered for a verified password: an HMAC of the stored hash and
+     * the password under a key that never leaves memory.
+     * @param stored The stored hash
+     * @param password The password
+     * @return The tag
+     */
+    private byte[] tag(String stored, String password) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(cacheKey, "HmacSHA256"));
+            mac.update(stored.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Drops expired entries from the cache every so often, so users who logged in once do
+     * not stay in memory.
+     */
+    private void sweepCache() {
+        sinceSweep.increment();
+        if (sinceSweep.sum() >= CACHE_SWEEP_INTERVAL) {
+            sinceSweep.reset();
+            long now = System.nanoTime();
+            verified.values().removeIf(entry -> now - entry.expiresAt >= 0);
+        }
+    }
+
+    /**
+     * Gets the number of passwords checked
+     * @return The number of verifications
+     */
+    public long getVerificationCount() {
+        return verifications.sum();
+    }
+
+    /**
+     * Gets the number of passwords checked from the cache without hashing
+     * @return The number of cache hits
+     */
+    public long getCacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * Gets the number of new hashes made, for new passwords and rehashed ones
+     * @return The number of hashes
+     */
+    public long getHashCount() {
+        return hashes.sum();
+    }
+
+    /**
+     * Gets the number of stored passwords replaced with a new hash on login
+     * @return The number of rehashes
+     */
+    public long getRehashCount() {
+        return rehashes.sum();
+    }
+
+    /**
+     * Gets the number of requests turned away because the workers were too busy
+     * @return The number of rejected requests
+     */
+    public long getRejectionCount() {
+        return rejections.sum();
+    }
+
+    /**
+     * Gets the number of hashing requests that failed or timed out
+     * @return The number of failed requests
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /**
+     * Gets the number of hashing requests waiting for a worker
+     * @return The queue depth
+     */
+    public int getQueueDepth() {
+        return pool.getQueue().size();
+    }
+
+    /**
+     * Gets the number of PBKDF2 iterations used for new hashes
+     * @return The number of iterations
+     */
+    public int getIterations() {
+        return hasher.getIterations();
+    }
+
+    /**
+     * A password verified recently, remembered as a tag until it expires.
+     */
+    private static class Verified {
+        private final byte[] tag;
+        private final long expiresAt;
+
+        private Verified(byte[] tag, long expiresAt) {
+            this.tag = tag;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
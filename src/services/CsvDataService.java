@@ -1,19 +1,46 @@
 package services;
 
+import enumeration.BTOApplicationStatus;
 import enumeration.FlatType;
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 import interfaces.IFileDataService;
+import interfaces.IImportProgressListener;
 import models.Applicant;
 import models.HDBManager;
 import models.HDBOfficer;
@@ -23,10 +50,16 @@ import models.BTOProject;
 import models.FlatTypeDetails;
 import utils.EnumParser;
 import stores.DataStore;
+import stores.NricMap;
 import models.User;
 import models.HDBOfficerRegistration;
 import models.Enquiry;
 import models.WithdrawalRequest;
+import models.Waitlist;
+import profiling.CsvFileEvent;
+import utils.CsvReader;
+import utils.CsvRecord;
+import utils.CsvRowWriter;
 
 /**
  * The {@link CsvDataService} class implements the {@link IFileDataService}
@@ -75,6 +108,51 @@ public class CsvDataService implements IFileDataService {
 	 */
 	private static List<String> withdrawalRequestCsvHeaders = new ArrayList<String>();
 
+	/**
+	 * The list of headers for the CSV file that stores waitlist data.
+	 */
+	private static List<String> waitlistCsvHeaders = new ArrayList<String>();
+
+	/**
+	 * The file extension used for project shard files.
+	 */
+	private static final String SHARD_FILE_EXTENSION = ".csv";
+
+	/**
+	 * The default minimum size of a chunk for chunked imports, in bytes. Files
+	 * smaller than this are parsed on the calling thread.
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 8 * 1024 * 1024;
+
+	/**
+	 * The size of the buffer used to scan for row boundaries, in bytes.
+	 */
+	private static final int BOUNDARY_SCAN_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * A {@link Map} containing the path of every shard file this service has read
+	 * or written as the key and the digest of its last known content as the value.
+	 * Used to skip rewriting shards whose projects did not change.
+	 */
+	private final Map<String, String> shardDigests = new ConcurrentHashMap<String, String>();
+
+	/**
+	 * Encodes one entity as a CSV row.
+	 *
+	 * @param <T> the type of entity to encode
+	 */
+	@FunctionalInterface
+	private interface RowEncoder<T> {
+		/**
+		 * Writes the fields of the given entity and ends the row.
+		 *
+		 * @param writer the writer to encode the row into
+		 * @param entity the entity to encode
+		 * @throws IOException if the row cannot be written
+		 */
+		void encode(CsvRowWriter writer, T entity) throws IOException;
+	}
+
 	/**
 	 * Constructs an instance of the {@link CsvDataService} class.
 	 */
@@ -96,6 +174,7 @@ public class CsvDataService implements IFileDataService {
 		hdbOfficerRegistrationCsvHeaders.clear();
 		enquiryCsvHeaders.clear();
 		withdrawalRequestCsvHeaders.clear();
+		waitlistCsvHeaders.clear();
 		// User-related headers (Applicant, HDBManager, HDBOfficer)
 		List<String> userHeaders = List.of("Name", "NRIC", "Age", "MaritalStatus", "Password");
 		applicantCsvHeaders.addAll(userHeaders);
@@ -111,7 +190,7 @@ public class CsvDataService implements IFileDataService {
 
 		// BTO Application headers
 		btoApplicationCsvHeaders.addAll(List.of(
-			"ApplicationId", "ApplicantNRIC", "ProjectName", "FlatType", "Status"
+			"ApplicationId", "ApplicantNRIC", "ProjectName", "FlatType", "Status", "SubmittedAt"
 		));
 
 		// HDB Officer Registration headers
@@ -128,124 +207,515 @@ public class CsvDataService implements IFileDataService {
 		withdrawalRequestCsvHeaders.addAll(List.of(
 			"RequestId", "ApplicationId", "RequestedAt", "IsApproved", "ProcessedAt", "ProcessedBy"
 		));
-	}
 
-	/**
-	 * Gets the appropriate headers based on file type
-	 * @param fileType The type of file
-	 * @return List of headers for the given file type
-	 */
-	private List<String> getHeadersForFileType(String fileType) {
-		switch (fileType) {
-			case "applicant":
-				return new ArrayList<>(applicantCsvHeaders);
-			case "hdbManager":
-				return new ArrayList<>(hdbManagerCsvHeaders);
-			case "hdbOfficer":
-				return new ArrayList<>(hdbOfficerCsvHeaders);
-			case "btoProject":
-				return new ArrayList<>(btoProjectCsvHeaders);
-			case "btoApplication":
-				return new ArrayList<>(btoApplicationCsvHeaders);
-			case "hdbOfficerRegistration":
-				return new ArrayList<>(hdbOfficerRegistrationCsvHeaders);
-			case "enquiry":
-				return new ArrayList<>(enquiryCsvHeaders);
-			case "withdrawalRequest":
-				return new ArrayList<>(withdrawalRequestCsvHeaders);
-			default:
-				return new ArrayList<>();
-		}
+		// Waitlist headers
+		waitlistCsvHeaders.addAll(List.of(
+			"ProjectName", "FlatType", "ApplicationId"
+		));
 	}
 
 	/**
 	 * Reads data from the CSV file located at the given file path and returns it as
-	 * a list of string arrays.
+	 * a list of records whose fields can be looked up by column name, so that the
+	 * columns of the file may be reordered or extended without breaking the import.
+	 * A file that does not exist has no records.
 	 *
 	 * @param filePath the file path of the CSV file to read
-	 * @return a list of string arrays containing the CSV data and the headers
+	 * @return a list of records containing the CSV data, without the headers
+	 * @throws UncheckedIOException if the file exists but cannot be read in full,
+	 *                              so that a partial import is never mistaken for
+	 *                              the data
 	 */
-	public List<String[]> readCsvFile(String filePath) {
-		List<String[]> dataList = new ArrayList<String[]>();
-		List<String> headers = new ArrayList<String>();
+	public List<CsvRecord> readCsvRecords(String filePath) {
+		List<CsvRecord> records = new ArrayList<CsvRecord>();
+		CsvFileEvent event = new CsvFileEvent("read", filePath);
+		event.begin();
 
-		try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+		try (CsvReader reader = new CsvReader(Files.newBufferedReader(Paths.get(filePath), StandardCharsets.UTF_8))) {
 			// Headers
-			String headerLine = br.readLine();
-			if (headerLine == null) {
-				// File is empty, generate headers based on file type
-				String fileType = filePath.contains("Applicant") ? "applicant" :
-								filePath.contains("HDBManager") ? "hdbManager" :
-								filePath.contains("HDBOfficer") ? "hdbOfficer" :
-								filePath.contains("BTOProject") ? "btoProject" :
-								filePath.contains("BTOApplication") ? "btoApplication" :
-								filePath.contains("HDBOfficerRegistration") ? "hdbOfficerRegistration" :
-								filePath.contains("Enquiry") ? "enquiry" :
-								filePath.contains("WithdrawalRequest") ? "withdrawalRequest" : "";
-				
-				headers.addAll(getHeadersForFileType(fileType));
-				return dataList;
-			}
-			
-			String[] headerRow = headerLine.split(",");
-			for (String header : headerRow) {
-				headers.add(header);
+			String[] headerRow = reader.readRow();
+			if (headerRow == null) {
+				return records;
 			}
+			Map<String, Integer> columnIndex = CsvRecord.indexColumns(headerRow);
 
 			// Content
-			String line = "";
-			while ((line = br.readLine()) != null) {
-				String[] values = line.split(",");
-				dataList.add(values);
+			String[] row;
+			while ((row = reader.readRow()) != null) {
+				records.add(new CsvRecord(columnIndex, row));
 			}
-
+		} catch (NoSuchFileException e) {
+			System.out.println("Cannot import data! " + filePath + " does not exist.");
 		} catch (IOException e) {
-			System.out.println("Cannot import data!" + filePath);
+			throw new UncheckedIOException("Cannot import data! " + filePath, e);
+		} finally {
+			event.finish(records.size());
 		}
 
-		return dataList;
+		return records;
 	}
 
 	/**
-	 * Writes the given data to a CSV file located at the given file path.
+	 * Streams the given entities to a CSV file located at the given file path. Each
+	 * row is encoded straight into the reusable buffer of a {@link CsvRowWriter},
+	 * so no intermediate line is built per entity.
 	 *
+	 * @param <T>      the type of entity to export
 	 * @param filePath the file path of the CSV file to write
 	 * @param headers  the list of headers for the CSV file
-	 * @param lines    the list of lines to write to the CSV file
+	 * @param entities the entities to export
+	 * @param encoder  encodes one entity as a CSV row
 	 * @return true if the data is written successfully, false otherwise
 	 */
-	public boolean writeCsvFile(String filePath, List<String> headers, List<String> lines) {
-		try (FileWriter writer = new FileWriter(filePath)) {
-			// Write Headers
-			String headerLine = String.join(",", headers);
-			writer.write(headerLine + "\n");
-
-			// Write Content
-			for (String line : lines) {
-				writer.write(line + "\n");
+	private <T> boolean exportRows(String filePath, List<String> headers, Collection<T> entities, RowEncoder<T> encoder) {
+		CsvFileEvent event = new CsvFileEvent("write", filePath);
+		event.begin();
+		try (CsvRowWriter writer = CsvRowWriter.open(filePath)) {
+			writer.row(headers);
+			for (T entity : entities) {
+				encoder.encode(writer, entity);
 			}
 		} catch (IOException e) {
 			System.out.println("Cannot export data!");
 			return false;
+		} finally {
+			event.finish(entities.size());
 		}
 		return true;
 	}
 
+	// ---------- Project shards ---------- //
+	/**
+	 * Checks whether the given shard directory exists and holds at least one shard
+	 * file, i.e. whether the data has already been migrated to the sharded layout.
+	 *
+	 * @param shardDirectoryPath the directory holding one CSV file per project
+	 * @return true if the directory contains shard files, false otherwise
+	 */
+	@Override
+	public boolean hasShards(String shardDirectoryPath) {
+		return !listShardFiles(shardDirectoryPath).isEmpty();
+	}
+
+	/**
+	 * Gets the path of the shard file that stores the rows of the given project.
+	 * Characters that are not safe in file names are replaced with underscores, in
+	 * which case a hash of the original name is appended so that two projects never
+	 * share a shard.
+	 *
+	 * @param shardDirectoryPath the directory holding one CSV file per project
+	 * @param projectName        the name of the project
+	 * @return the path of the project's shard file
+	 */
+	public String getShardFilePath(String shardDirectoryPath, String projectName) {
+		String fileName = projectName.replaceAll("[^A-Za-z0-9-]", "_");
+		if (!fileName.equals(projectName)) {
+			fileName += "-" + String.format("%08x", projectName.hashCode());
+		}
+		return Paths.get(shardDirectoryPath, fileName + SHARD_FILE_EXTENSION).toString();
+	}
+
+	/**
+	 * Lists the shard files in the given directory in a stable order.
+	 *
+	 * @param shardDirectoryPath the directory holding one CSV file per project
+	 * @return the list of shard file paths, empty if the directory does not exist
+	 */
+	private List<String> listShardFiles(String shardDirectoryPath) {
+		List<String> shardFiles = new ArrayList<String>();
+		Path directory = Paths.get(shardDirectoryPath);
+		if (!Files.isDirectory(directory)) {
+			return shardFiles;
+		}
+
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SHARD_FILE_EXTENSION)) {
+			for (Path shard : stream) {
+				shardFiles.add(shard.toString());
+			}
+		} catch (IOException e) {
+			System.out.println("Cannot list shards!" + shardDirectoryPath);
+		}
+
+		shardFiles.sort(Comparator.naturalOrder());
+		return shardFiles;
+	}
+
+	/**
+	 * Reads every shard in the given directory in parallel and parses its rows.
+	 *
+	 * @param <T>                the type of entity stored in the shards
+	 * @param shardDirectoryPath the directory holding one CSV file per project
+	 * @param rowParser          parses one row, returning {@code null} for rows to skip
+	 * @param idOf               gets the map key of a parsed entity
+	 * @return a {@link Map} of the parsed entities with their IDs as keys
+	 */
+	private <T> Map<String, T> importShards(String shardDirectoryPath, Function<CsvRecord, T> rowParser,
+			Function<T, String> idOf) {
+		Map<String, T> entityMap = new ConcurrentHashMap<String, T>();
+
+		listShardFiles(shardDirectoryPath).parallelStream()
+				.forEach(shardFilePath -> importShardFile(shardFilePath, rowParser, idOf, entityMap));
+
+		return new HashMap<String, T>(entityMap);
+	}
+
+	/**
+	 * Reads a single shard file and parses its rows into the given map. The digest
+	 * of the shard is remembered so that it is not rewritten on the next export
+	 * unless its content changed.
+	 *
+	 * @param <T>           the type of entity stored in the shard
+	 * @param shardFilePath the path of the shard file
+	 * @param rowParser     parses one row, returning {@code null} for rows to skip
+	 * @param idOf          gets the map key of a parsed entity
+	 * @param entityMap     the map to add the parsed entities to
+	 */
+	private <T> void importShardFile(String shardFilePath, Function<CsvRecord, T> rowParser,
+			Function<T, String> idOf, Map<String, T> entityMap) {
+		if (!Files.exists(Paths.get(shardFilePath))) {
+			return;
+		}
+
+		for (CsvRecord row : this.readCsvRecords(shardFilePath)) {
+			T entity = rowParser.apply(row);
+			if (entity != null) {
+				entityMap.put(idOf.apply(entity), entity);
+			}
+		}
+
+		try {
+			shardDigests.put(shardFilePath, digest(Files.readAllBytes(Paths.get(shardFilePath))));
+		} catch (IOException e) {
+			shardDigests.remove(shardFilePath);
+		}
+	}
+
+	/**
+	 * Writes the given entities into one shard per project. Rows inside a shard are
+	 * sorted by ID so that the content of an unchanged project is byte-for-byte
+	 * identical between saves; such shards are skipped. Shards previously known to
+	 * this service whose projects no longer have any rows are deleted, while shards
+	 * that were never loaded are left untouched on disk.
+	 *
+	 * @param <T>                the type of entity stored in the shards
+	 * @param shardDirectoryPath the directory holding one CSV file per project
+	 * @param headers            the list of headers for every shard
+	 * @param entities           the entities to export
+	 * @param projectNameOf      gets the project name of an entity
+	 * @param idOf               gets the ID of an entity
+	 * @param encoder            encodes one entity as a CSV row
+	 * @return true if every changed shard is written successfully, false otherwise
+	 */
+	private <T> boolean exportShards(String shardDirectoryPath, List<String> headers, Collection<T> entities,
+			Function<T, String> projectNameOf, Function<T, String> idOf, RowEncoder<T> encoder) {
+		Path directory = Paths.get(shardDirectoryPath);
+		try {
+			Files.createDirectories(directory);
+		} catch (IOException e) {
+			System.out.println("Cannot export data!");
+			return false;
+		}
+
+		// Group entities by shard file
+		Map<String, List<T>> shards = new TreeMap<String, List<T>>();
+		for (T entity : entities) {
+			String shardFilePath = getShardFilePath(shardDirectoryPath, projectNameOf.apply(entity));
+			shards.computeIfAbsent(shardFilePath, key -> new ArrayList<T>()).add(entity);
+		}
+
+		boolean success = true;
+		ByteArrayOutputStream content = new ByteArrayOutputStream();
+		for (Map.Entry<String, List<T>> shard : shards.entrySet()) {
+			List<T> shardEntities = shard.getValue();
+			shardEntities.sort(Comparator.comparing(idOf));
+
+			// Encode the shard in memory first so that unchanged shards are never touched
+			content.reset();
+			MessageDigest contentDigest = newDigest();
+			try (CsvRowWriter writer = new CsvRowWriter(Channels.newChannel(content), contentDigest)) {
+				writer.row(headers);
+				for (T entity : shardEntities) {
+					encoder.encode(writer, entity);
+				}
+			} catch (IOException e) {
+				System.out.println("Cannot export data!");
+				success = false;
+				continue;
+			}
+
+			String hexDigest = toHex(contentDigest.digest());
+			if (hexDigest.equals(shardDigests.get(shard.getKey()))) {
+				continue;
+			}
+
+			CsvFileEvent event = new CsvFileEvent("write", shard.getKey());
+			event.begin();
+			try {
+				Files.write(Paths.get(shard.getKey()), content.toByteArray());
+				shardDigests.put(shard.getKey(), hexDigest);
+			} catch (IOException e) {
+				System.out.println("Cannot export data!");
+				success = false;
+			} finally {
+				event.finish(shardEntities.size());
+			}
+		}
+
+		// Delete known shards of projects that no longer have rows
+		for (String knownShard : new ArrayList<String>(shardDigests.keySet())) {
+			if (!directory.equals(Paths.get(knownShard).getParent()) || shards.containsKey(knownShard)) {
+				continue;
+			}
+			try {
+				Files.deleteIfExists(Paths.get(knownShard));
+				shardDigests.remove(knownShard);
+			} catch (IOException e) {
+				System.out.println("Cannot delete shard!" + knownShard);
+				success = false;
+			}
+		}
+
+		return success;
+	}
+
+	/**
+	 * Computes a hex-encoded SHA-256 digest of the given bytes.
+	 *
+	 * @param content the bytes to digest
+	 * @return the hex-encoded digest
+	 */
+	private static String digest(byte[] content) {
+		return toHex(newDigest().digest(content));
+	}
+
+	/**
+	 * Creates a new SHA-256 {@link MessageDigest}.
+	 *
+	 * @return the digest
+	 */
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			// Every Java platform is required to support SHA-256
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+
+	/**
+	 * Hex-encodes the given hash.
+	 *
+	 * @param hash the hash to encode
+	 * @return the hex-encoded hash
+	 */
+	private static String toHex(byte[] hash) {
+		StringBuilder hex = new StringBuilder(hash.length * 2);
+		for (byte b : hash) {
+			hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+		}
+		return hex.toString();
+	}
+
+	// ---------- Chunked import ---------- //
+	/**
+	 * Reads a CSV file by splitting it into chunks that end on row boundaries and
+	 * parsing them concurrently. The calling thread scans the file for boundaries
+	 * and hands each chunk to a worker as soon as it is found; a worker reads only
+	 * its own byte range, so at most {@code workers} chunks are held in memory at
+	 * a time. The chunks are merged in file order, so when an ID appears more than
+	 * once the last row wins, as in the sequential import.
+	 *
+	 * @param <T>              the type of entity stored in the file
+	 * @param filePath         the file path of the CSV file to read
+	 * @param rowParser        parses one row, returning {@code null} for rows to skip
+	 * @param idOf             gets the map key of a parsed entity
+	 * @param chunkSize        the minimum size of a chunk in bytes
+	 * @param workers          the number of chunks parsed concurrently
+	 * @param progressListener notified after each chunk, or {@code null}
+	 * @return a {@link Map} of the parsed entities with their IDs as keys
+	 * @throws UncheckedIOException if the file cannot be read in full, so that a
+	 *                              partial import is never mistaken for the data
+	 */
+	private <T> Map<String, T> importChunked(String filePath, Function<CsvRecord, T> rowParser,
+			Function<T, String> idOf, int chunkSize, int workers, IImportProgressListener progressListener) {
+		Map<String, T> entityMap = new HashMap<String, T>();
+		long startNanos = System.nanoTime();
+		AtomicLong bytesParsed = new AtomicLong();
+		AtomicLong rowsParsed = new AtomicLong();
+		CsvFileEvent event = new CsvFileEvent("read", filePath);
+		event.begin();
+
+		try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+			long fileSize = channel.size();
+			ByteBuffer scanBuffer = ByteBuffer.allocate(BOUNDARY_SCAN_BUFFER_SIZE);
+
+			// Headers
+			long headerEnd = findRowBoundary(channel, 0, 1, scanBuffer);
+			if (headerEnd == 0) {
+				return entityMap;
+			}
+			String[] headerRow;
+			try (CsvReader reader = new CsvReader(new InputStreamReader(
+					new ByteArrayInputStream(readRange(channel, 0, headerEnd)), StandardCharsets.UTF_8))) {
+				headerRow = reader.readRow();
+			}
+			Map<String, Integer> columnIndex = CsvRecord.indexColumns(headerRow);
+			bytesParsed.set(headerEnd);
+
+			// Content
+			ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, workers));
+			List<Future<Map<String, T>>> chunks = new ArrayList<Future<Map<String, T>>>();
+			try {
+				long chunkStart = headerEnd;
+				while (chunkStart < fileSize) {
+					long start = chunkStart;
+					long end = findRowBoundary(channel, start, Math.max(1, chunkSize), scanBuffer);
+					chunks.add(executor.submit(() -> {
+						Map<String, T> chunkMap = new HashMap<String, T>();
+						long rows = parseChunk(channel, start, end, columnIndex, rowParser, idOf, chunkMap);
+						long bytes = bytesParsed.addAndGet(end - start);
+						long totalRows = rowsParsed.addAndGet(rows);
+						if (progressListener != null) {
+							synchronized (progressListener) {
+								progressListener.onProgress(bytes, fileSize, totalRows, System.nanoTime() - startNanos);
+							}
+						}
+						return chunkMap;
+					}));
+					chunkStart = end;
+				}
+
+				// Merge in file order, so a later row replaces an earlier one with the same ID
+				for (Future<Map<String, T>> chunk : chunks) {
+					entityMap.putAll(chunk.get());
+				}
+			} finally {
+				executor.shutdownNow();
+			}
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new UncheckedIOException("Cannot import data! " + filePath, (IOException) e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new UncheckedIOException("Cannot import data! " + filePath,
+					new InterruptedIOException("Interrupted while importing"));
+		} catch (IOException e) {
+			throw new UncheckedIOException("Cannot import data! " + filePath, e);
+		} finally {
+			event.finish(rowsParsed.get());
+		}
+
+		return entityMap;
+	}
+
+	/**
+	 * Finds the end of the first row that ends at least {@code minLength} bytes
+	 * after the given offset. The offset must be the start of a row. Line breaks
+	 * inside quoted fields are not row boundaries, and since {@code \n} never
+	 * appears inside a multi-byte UTF-8 sequence, a boundary never splits a
+	 * character.
+	 *
+	 * @param channel    the channel of the file to scan
+	 * @param from       the offset of the start of a row
+	 * @param minLength  the minimum number of bytes before the boundary
+	 * @param scanBuffer a reusable buffer for reading the file
+	 * @return the offset just after the row's line break, or the size of the file
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long findRowBoundary(FileChannel channel, long from, long minLength, ByteBuffer scanBuffer)
+			throws IOException {
+		long position = from;
+		boolean inQuotes = false;
+		while (true) {
+			scanBuffer.clear();
+			int read = channel.read(scanBuffer, position);
+			if (read <= 0) {
+				return position;
+			}
+
+			byte[] bytes = scanBuffer.array();
+			for (int i = 0; i < read; i++) {
+				if (bytes[i] == '"') {
+					// Doubled quotes toggle twice, so only real field quotes change the state
+					inQuotes = !inQuotes;
+				} else if (bytes[i] == '\n' && !inQuotes && position + i + 1 - from >= minLength) {
+					return position + i + 1;
+				}
+			}
+			position += read;
+		}
+	}
+
+	/**
+	 * Reads a byte range of a file.
+	 *
+	 * @param channel the channel of the file to read
+	 * @param start   the offset of the first byte
+	 * @param end     the offset just after the last byte
+	 * @return the bytes of the range
+	 * @throws IOException if the file cannot be read or the range is too large
+	 */
+	private static byte[] readRange(FileChannel channel, long start, long end) throws IOException {
+		if (end - start > Integer.MAX_VALUE - 8) {
+			throw new IOException("Chunk too large: " + (end - start) + " bytes");
+		}
+		ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer, start + buffer.position()) < 0) {
+				break;
+			}
+		}
+		return buffer.array();
+	}
+
+	/**
+	 * Parses the rows of one chunk into the given map.
+	 *
+	 * @param <T>         the type of entity stored in the file
+	 * @param channel     the channel of the file to read
+	 * @param start       the offset of the first row of the chunk
+	 * @param end         the offset just after the last row of the chunk
+	 * @param columnIndex the column positions of the file's header row
+	 * @param rowParser   parses one row, returning {@code null} for rows to skip
+	 * @param idOf        gets the map key of a parsed entity
+	 * @param entityMap   the map to add the parsed entities to
+	 * @return the number of rows parsed
+	 * @throws IOException if the chunk cannot be read
+	 */
+	private static <T> long parseChunk(FileChannel channel, long start, long end, Map<String, Integer> columnIndex,
+			Function<CsvRecord, T> rowParser, Function<T, String> idOf, Map<String, T> entityMap) throws IOException {
+		long rows = 0;
+		try (CsvReader reader = new CsvReader(new InputStreamReader(
+				new ByteArrayInputStream(readRange(channel, start, end)), StandardCharsets.UTF_8))) {
+			String[] row;
+			while ((row = reader.readRow()) != null) {
+				T entity = rowParser.apply(new CsvRecord(columnIndex, row));
+				if (entity != null) {
+					entityMap.put(idOf.apply(entity), entity);
+				}
+				rows++;
+			}
+		}
+		return rows;
+	}
+
 	/**
-	 * Parses a string array containing user data and returns a map of user
+	 * Parses a record containing user data and returns a map of user
 	 * information.
 	 *
-	 * @param userRow the string array containing the user data
+	 * @param userRow the record containing the user data
 	 * @return a map of user information, where the keys are "userID", "password",
 	 *         "email", "role", and "name" and the values are the corresponding
-	 *         values in the userRow array
+	 *         values in the userRow record
 	 */
-	private Map<String, String> parseUserRow(String[] userRow) {
-		String name = userRow[0];
-		String nric = userRow[1];
-		String age = userRow[2];
-		MaritalStatus maritalStatus = EnumParser.parseMaritalStatus(userRow[3]);
-		String password = userRow[4];
+	private Map<String, String> parseUserRow(CsvRecord userRow) {
+		String name = userRow.get("Name");
+		String nric = userRow.get("NRIC");
+		String age = userRow.get("Age");
+		MaritalStatus maritalStatus = EnumParser.parseMaritalStatus(userRow.get("MaritalStatus"));
+		String password = userRow.get("Password");
 
 		// Return
 		Map<String, String> userInfoMap = new HashMap<String, String>();
@@ -258,84 +728,94 @@ public class CsvDataService implements IFileDataService {
 		return userInfoMap;
 	}
 
-	private BTOProject parseBTOProjectRow(String[] btoProjectRow) {
-	// ProjectName,Neighborhood,Type1,NumberOfUnitsType1,SellingPriceType1,Type2,NumberOfUnitsType2,SellingPriceType2,ApplicationOpeningDate,ApplicationClosingDate,Manager,OfficerSlot,Officers,Visible
-	String projectName = btoProjectRow[0];
-	String neighborhood = btoProjectRow[1];
+	/**
+	 * Encodes a user as a CSV row.
+	 *
+	 * @param writer the writer to encode the row into
+	 * @param user   the user to encode
+	 * @throws IOException if the row cannot be written
+	 */
+	private void encodeUserRow(CsvRowWriter writer, User user) throws IOException {
+		writer.field(user.getName())
+				.field(user.getNric())
+				.field(user.getAge())
+				.field(user.getMaritalStatus().toString())
+				.field(user.getPassword())
+				.endRow();
+	}
 
-	Map<FlatType, FlatTypeDetails> flatTypes = new HashMap<FlatType, FlatTypeDetails>();
+	/**
+	 * Parses a record containing BTO project data. Files written before the
+	 * {@code Officers} column was quoted hold one column per officer followed by
+	 * the visibility flag; such rows are recognised by their width and read
+	 * positionally from the {@code Officers} column onwards.
+	 *
+	 * @param btoProjectRow the record containing the BTO project data
+	 * @return the BTO project
+	 */
+	private BTOProject parseBTOProjectRow(CsvRecord btoProjectRow) {
+		String projectName = btoProjectRow.get("ProjectName");
+		String neighborhood = btoProjectRow.get("Neighborhood");
+
+		Map<FlatType, FlatTypeDetails> flatTypes = new HashMap<FlatType, FlatTypeDetails>();
+		for (int i = 1; btoProjectRow.hasColumn("Type" + i); i++) {
+			String flatType = btoProjectRow.get("Type" + i);
+			if (flatType == null || flatType.isEmpty()) {
+				continue;
+			}
+			int numberOfUnits = Integer.parseInt(btoProjectRow.get("NumberOfUnitsType" + i));
+			double sellingPrice = Double.parseDouble(btoProjectRow.get("SellingPriceType" + i));
 
-	for (int i = 2; i < 8; i += 3) {
-	FlatType flatType = EnumParser.parseFlatType(btoProjectRow[i]);
-	int numberOfUnits = Integer.parseInt(btoProjectRow[i + 1]);
-	double sellingPrice = Double.parseDouble(btoProjectRow[i + 2]);
+			flatTypes.put(EnumParser.parseFlatType(flatType), new FlatTypeDetails(numberOfUnits, sellingPrice));
+		}
 
-	FlatTypeDetails flatTypeDetails = new FlatTypeDetails(numberOfUnits, sellingPrice);
-	flatTypes.put(flatType, flatTypeDetails);
-	}
+		DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+		LocalDate applicationOpeningDate = LocalDate.parse(btoProjectRow.get("ApplicationOpeningDate"), formatter);
+		LocalDate applicationClosingDate = LocalDate.parse(btoProjectRow.get("ApplicationClosingDate"), formatter);
+
+		String managerName = btoProjectRow.get("Manager");
+		HDBManager manager = null;
+		// Find manager by name
+		for (HDBManager m : DataStore.getHDBManagersData().values()) {
+			if (m.getName().equals(managerName)) {
+				manager = m;
+				break;
+			}
+		}
 
-	DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-	LocalDate applicationOpeningDate = LocalDate.parse(btoProjectRow[8], formatter);
-	LocalDate applicationClosingDate = LocalDate.parse(btoProjectRow[9], formatter);
+		int officerSlots = Integer.parseInt(btoProjectRow.get("OfficerSlot"));
 
-	String managerName = btoProjectRow[10];
-	HDBManager manager = null;
-	// Find manager by name
-	for (HDBManager m : DataStore.getHDBManagersData().values()) {
-	if (m.getName().equals(managerName)) {
-	manager = m;
-	break;
-	}
-	}
-	
-	int officerSlots = Integer.parseInt(btoProjectRow[11]);
-	
-	// Get all officers from remaining columns except the last one (visible)
-	List<HDBOfficer> hdbOfficers = new ArrayList<HDBOfficer>();
-	boolean visible = true; // Default to true if no visible field
-	
-	// Check if we have a visible field (it would be the last element)
-	if (btoProjectRow.length > 12) {
-	String lastElement = btoProjectRow[btoProjectRow.length - 1];
-	// Check if the last element is 'true' or 'false'
-	if (lastElement.equalsIgnoreCase("true") || lastElement.equalsIgnoreCase("false")) {
-	visible = Boolean.parseBoolean(lastElement);
-	 // Process officers from index 12 to length-2
-	  for (int i = 12; i < btoProjectRow.length - 1; i++) {
-					String officerName = btoProjectRow[i];
-	   // Find officer by name
-	for (HDBOfficer o : DataStore.getHDBOfficersData().values()) {
-						if (o.getName().equals(officerName)) {
-							hdbOfficers.add(o);
-							break;
-						}
-					}
+		List<String> officerNames = new ArrayList<String>();
+		boolean visible = true; // Default to true if no visible field
+		if (btoProjectRow.hasColumn("Visible") && btoProjectRow.size() == btoProjectRow.getColumnCount()) {
+			String officers = btoProjectRow.get("Officers");
+			if (officers != null) {
+				officerNames.addAll(List.of(officers.split(",")));
+			}
+			visible = Boolean.parseBoolean(btoProjectRow.get("Visible", "true"));
+		} else {
+			// Legacy layout: one column per officer, optionally followed by the visibility flag
+			int firstOfficer = btoProjectRow.indexOf("Officers");
+			int lastOfficer = btoProjectRow.size() - 1;
+			if (firstOfficer >= 0 && lastOfficer >= firstOfficer) {
+				String lastElement = btoProjectRow.get(lastOfficer);
+				if (lastElement.equalsIgnoreCase("true") || lastElement.equalsIgnoreCase("false")) {
+					visible = Boolean.parseBoolean(lastElement);
+					lastOfficer--;
 				}
-			} else {
-				// No visible field, process all remaining elements as officers
-				for (int i = 12; i < btoProjectRow.length; i++) {
-					String officerName = btoProjectRow[i];
-					// Find officer by name
-					for (HDBOfficer o : DataStore.getHDBOfficersData().values()) {
-						if (o.getName().equals(officerName)) {
-							hdbOfficers.add(o);
-							break;
-						}
-					}
+				for (int i = firstOfficer; i <= lastOfficer; i++) {
+					officerNames.add(btoProjectRow.get(i));
 				}
 			}
-		} else {
-			// No additional fields, just process officers if any
-			if (btoProjectRow.length > 12) {
-				for (int i = 12; i < btoProjectRow.length; i++) {
-					String officerName = btoProjectRow[i];
-					// Find officer by name
-					for (HDBOfficer o : DataStore.getHDBOfficersData().values()) {
-						if (o.getName().equals(officerName)) {
-							hdbOfficers.add(o);
-							break;
-						}
-					}
+		}
+
+		List<HDBOfficer> hdbOfficers = new ArrayList<HDBOfficer>();
+		for (String officerName : officerNames) {
+			// Find officer by name
+			for (HDBOfficer o : DataStore.getHDBOfficersData().values()) {
+				if (o.getName().equals(officerName.trim())) {
+					hdbOfficers.add(o);
+					break;
 				}
 			}
 		}
@@ -348,11 +828,10 @@ public class CsvDataService implements IFileDataService {
 	// Applicant
 	@Override
 	public Map<String, Applicant> importApplicantData(String applicantsFilePath) {
-		Map<String, Applicant> applicantsMap = new HashMap<String, Applicant>();
+		List<CsvRecord> applicantsRows = this.readCsvRecords(applicantsFilePath);
+		Map<String, Applicant> applicantsMap = new NricMap<Applicant>(applicantsRows.size());
 
-		List<String[]> applicantsRows = this.readCsvFile(applicantsFilePath);
-
-		for (String[] applicantRow : applicantsRows) {
+		for (CsvRecord applicantRow : applicantsRows) {
 			Map<String, String> applicantInfoMap = parseUserRow(applicantRow);
 
 			String name = applicantInfoMap.get("name");
@@ -371,32 +850,15 @@ public class CsvDataService implements IFileDataService {
 
 	@Override
 	public boolean exportApplicantData(String applicantsFilePath, Map<String, Applicant> applicantMap) {
-		List<String> applicantLines = new ArrayList<String>();
-
-		// Use data from the map instead of reading from file
-		for (Applicant applicant : applicantMap.values()) {
-			String applicantLine = String.format("%s,%s,%d,%s,%s",
-					applicant.getName(),
-					applicant.getNric(),
-					applicant.getAge(),
-					applicant.getMaritalStatus(),
-					applicant.getPassword());
-
-			applicantLines.add(applicantLine);
-		}
-
-		// Write to CSV
-		boolean success = this.writeCsvFile(applicantsFilePath, applicantCsvHeaders, applicantLines);
-		return success;
+		return this.exportRows(applicantsFilePath, applicantCsvHeaders, applicantMap.values(), this::encodeUserRow);
 	}
 
 	@Override
 	public Map<String, HDBManager> importHDBManagerData(String hdbManagersFilePath) {
-		Map<String, HDBManager> hdbManagersMap = new HashMap<String, HDBManager>();
+		List<CsvRecord> hdbManagersRows = this.readCsvRecords(hdbManagersFilePath);
+		Map<String, HDBManager> hdbManagersMap = new NricMap<HDBManager>(hdbManagersRows.size());
 
-		List<String[]> hdbManagersRows = this.readCsvFile(hdbManagersFilePath);
-
-		for (String[] hdbManagerRow : hdbManagersRows) {
+		for (CsvRecord hdbManagerRow : hdbManagersRows) {
 			Map<String, String> hdbManagerInfoMap = parseUserRow(hdbManagerRow);
 
 			String name = hdbManagerInfoMap.get("name");
@@ -415,32 +877,15 @@ public class CsvDataService implements IFileDataService {
 
 	@Override
 	public boolean exportHDBManagerData(String hdbManagersFilePath, Map<String, HDBManager> hdbManagerMap) {
-		List<String> hdbManagerLines = new ArrayList<String>();
-
-		// Use data from the map instead of reading from file
-		for (HDBManager manager : hdbManagerMap.values()) {
-			String hdbManagerLine = String.format("%s,%s,%d,%s,%s",
-					manager.getName(),
-					manager.getNric(),
-					manager.getAge(),
-					manager.getMaritalStatus(),
-					manager.getPassword());
-
-			hdbManagerLines.add(hdbManagerLine);
-		}
-
-		// Write to CSV
-		boolean success = this.writeCsvFile(hdbManagersFilePath, hdbManagerCsvHeaders, hdbManagerLines);
-		return success;
+		return this.exportRows(hdbManagersFilePath, hdbManagerCsvHeaders, hdbManagerMap.values(), this::encodeUserRow);
 	}
 
 	@Override
 	public Map<String, HDBOfficer> importHDBOfficerData(String hdbOfficersFilePath) {
-		Map<String, HDBOfficer> hdbOfficersMap = new HashMap<String, HDBOfficer>();
-
-		List<String[]> hdbOfficersRows = this.readCsvFile(hdbOfficersFilePath);
+		List<CsvRecord> hdbOfficersRows = this.readCsvRecords(hdbOfficersFilePath);
+		Map<String, HDBOfficer> hdbOfficersMap = new NricMap<HDBOfficer>(hdbOfficersRows.size());
 
-		for (String[] hdbOfficerRow : hdbOfficersRows) {
+		for (CsvRecord hdbOfficerRow : hdbOfficersRows) {
 			Map<String, String> hdbOfficerInfoMap = parseUserRow(hdbOfficerRow);
 
 			String name = hdbOfficerInfoMap.get("name");
@@ -459,32 +904,16 @@ public class CsvDataService implements IFileDataService {
 
 	@Override
 	public boolean exportHDBOfficerData(String hdbOfficersFilePath, Map<String, HDBOfficer> hdbOfficerMap) {
-		List<String> hdbOfficerLines = new ArrayList<String>();
-
-		// Use data from the map instead of reading from file
-		for (HDBOfficer officer : hdbOfficerMap.values()) {
-			String hdbOfficerLine = String.format("%s,%s,%d,%s,%s",
-					officer.getName(),
-					officer.getNric(),
-					officer.getAge(),
-					officer.getMaritalStatus(),
-					officer.getPassword());
-
-			hdbOfficerLines.add(hdbOfficerLine);
-		}
-
-		// Write to CSV
-		boolean success = this.writeCsvFile(hdbOfficersFilePath, hdbOfficerCsvHeaders, hdbOfficerLines);
-		return success;
+		return this.exportRows(hdbOfficersFilePath, hdbOfficerCsvHeaders, hdbOfficerMap.values(), this::encodeUserRow);
 	}
 
 	@Override
 	public Map<String, BTOProject> importBTOProjectData(String btoProjectFilePath) {
 		Map<String, BTOProject> btoProjectsMap = new HashMap<String, BTOProject>();
 
-		List<String[]> btoProjectsRows = this.readCsvFile(btoProjectFilePath);
+		List<CsvRecord> btoProjectsRows = this.readCsvRecords(btoProjectFilePath);
 
-		for (String[] btoProjectRow : btoProjectsRows) {
+		for (CsvRecord btoProjectRow : btoProjectsRows) {
 			BTOProject btoProject = parseBTOProjectRow(btoProjectRow);
 			btoProjectsMap.put(btoProject.getProjectName(), btoProject);
 		}
@@ -494,49 +923,57 @@ public class CsvDataService implements IFileDataService {
 
 	@Override
 	public boolean exportBTOProjectData(String btoProjectFilePath, Map<String, BTOProject> btoProjectMap) {
-		List<String> btoProjectLines = new ArrayList<String>();
-		
-		for (BTOProject project : btoProjectMap.values()) {
-			StringBuilder line = new StringBuilder();
-			line.append(project.getProjectName()).append(",");
-			line.append(project.getNeighborhood()).append(",");
-			
-			Map<FlatType, FlatTypeDetails> flatTypes = project.getFlatTypes();
-			for (Map.Entry<FlatType, FlatTypeDetails> entry : flatTypes.entrySet()) {
-				line.append(entry.getKey().getDisplayName()).append(",");
-				line.append(entry.getValue().getUnits()).append(",");
-				line.append(entry.getValue().getPrice()).append(",");
-			}
-			
-			line.append(project.getApplicationOpeningDate()).append(",");
-			line.append(project.getApplicationClosingDate()).append(",");
-			line.append(project.getHDBManager().getName()).append(",");
-			line.append(project.getHDBOfficerSlots()).append(",");
-			
-			List<HDBOfficer> officers = project.getHDBOfficers();
-			String[] officerNames = officers.stream()
-				.map(HDBOfficer::getName)
-				.toArray(String[]::new);
-			line.append(String.join(",", officerNames));
-			
-			// Add visible field
-			if (officers.size() > 0) {
-				line.append(",");
-			}
-			line.append(project.isVisible());
-			
-			btoProjectLines.add(line.toString());
-		}
-
-		return this.writeCsvFile(btoProjectFilePath, btoProjectCsvHeaders, btoProjectLines);
+		return this.exportRows(btoProjectFilePath, btoProjectCsvHeaders, btoProjectMap.values(), this::encodeBTOProjectRow);
+	}
+
+	/**
+	 * Encodes a BTO project as a CSV row.
+	 *
+	 * @param writer  the writer to encode the row into
+	 * @param project the BTO project to encode
+	 * @throws IOException if the row cannot be written
+	 */
+	private void encodeBTOProjectRow(CsvRowWriter writer, BTOProject project) throws IOException {
+		writer.field(project.getProjectName());
+		writer.field(project.getNeighborhood());
+
+		// One group of columns per flat type in a stable order, left empty if not offered
+		for (FlatType flatType : FlatType.values()) {
+			FlatTypeDetails details = project.getFlatTypes().get(flatType);
+			if (details == null) {
+				writer.field("").field("").field("");
+				continue;
+			}
+			writer.field(flatType.getDisplayName());
+			writer.field(details.getUnits());
+			writer.field(details.getPrice());
+		}
+
+		writer.field(project.getApplicationOpeningDate());
+		writer.field(project.getApplicationClosingDate());
+		writer.field(project.getHDBManager().getName());
+		writer.field(project.getHDBOfficerSlots());
+
+		// All officers share one quoted column
+		StringBuilder officerNames = new StringBuilder();
+		for (HDBOfficer officer : project.getHDBOfficers()) {
+			if (officerNames.length() > 0) {
+				officerNames.append(',');
+			}
+			officerNames.append(officer.getName());
+		}
+		writer.field(officerNames);
+
+		writer.field(project.isVisible());
+		writer.endRow();
 	}
 	
-	private BTOApplication parseBTOApplicationRow(String[] btoApplicationRow) {
-		String applicationId = btoApplicationRow[0];
-		String applicantNric = btoApplicationRow[1];
-		String projectName = btoApplicationRow[2];
-		String flatType = btoApplicationRow[3];
-		String status = btoApplicationRow[4];
+	private BTOApplication parseBTOApplicationRow(CsvRecord btoApplicationRow) {
+		String applicationId = btoApplicationRow.get("ApplicationId");
+		String applicantNric = btoApplicationRow.get("ApplicantNRIC");
+		String projectName = btoApplicationRow.get("ProjectName");
+		String flatType = btoApplicationRow.get("FlatType", "null");
+		String status = btoApplicationRow.get("Status");
 
 		// Check both applicants and HDB officers data stores
 		User applicant = DataStore.getApplicantsData().get(applicantNric);
@@ -556,16 +993,47 @@ public class CsvDataService implements IFileDataService {
 		// Handle "null" flat type
 		FlatType parsedFlatType = "null".equals(flatType) ? null : EnumParser.parseFlatType(flatType);
 		
-		return new BTOApplication(applicationId, applicant, project, parsedFlatType, EnumParser.parseBTOApplicationStatus(status));
+		return new BTOApplication(applicationId, applicant, project, parsedFlatType, EnumParser.parseBTOApplicationStatus(status),
+				parseSubmittedAt(btoApplicationRow.get("SubmittedAt", "null"), applicationId));
+	}
+
+	/**
+	 * Parses the submission time of a BTO application. Files saved before the time
+	 * was recorded fall back to the start of the date the application ID begins with.
+	 *
+	 * @param value         the stored submission time, or {@code null}
+	 * @param applicationId the ID of the application
+	 * @return the submission time, or {@code null} if it cannot be determined
+	 */
+	private static LocalDateTime parseSubmittedAt(String value, String applicationId) {
+		LocalDateTime submittedAt = parseNullableDateTime(value);
+		if (submittedAt != null || applicationId == null || applicationId.length() < 8) {
+			return submittedAt;
+		}
+		try {
+			return LocalDate.parse(applicationId.substring(0, 8), DateTimeFormatter.BASIC_ISO_DATE).atStartOfDay();
+		} catch (DateTimeParseException e) {
+			return null;
+		}
 	}
 
 	@Override
 	public Map<String, BTOApplication> importBTOApplicationData(String btoApplicationFilePath) {
+		// Large files are worth splitting across all cores
+		try {
+			if (Files.size(Paths.get(btoApplicationFilePath)) > DEFAULT_CHUNK_SIZE) {
+				return this.importBTOApplicationData(btoApplicationFilePath, DEFAULT_CHUNK_SIZE,
+						Runtime.getRuntime().availableProcessors(), null);
+			}
+		} catch (IOException e) {
+			// Fall back to the sequential import, which reports the error
+		}
+
 		Map<String, BTOApplication> btoApplicationsMap = new HashMap<String, BTOApplication>();
 
-		List<String[]> btoApplicationsRows = this.readCsvFile(btoApplicationFilePath);
+		List<CsvRecord> btoApplicationsRows = this.readCsvRecords(btoApplicationFilePath);
 
-		for (String[] btoApplicationRow : btoApplicationsRows) {
+		for (CsvRecord btoApplicationRow : btoApplicationsRows) {
 			BTOApplication btoApplication = parseBTOApplicationRow(btoApplicationRow);
 			if (btoApplication != null) {
 				btoApplicationsMap.put(btoApplication.getApplicationId(), btoApplication);
@@ -575,29 +1043,56 @@ public class CsvDataService implements IFileDataService {
 		return btoApplicationsMap;
 	}
 
+	@Override
+	public Map<String, BTOApplication> importBTOApplicationData(String btoApplicationFilePath, int chunkSize, int workers,
+			IImportProgressListener progressListener) {
+		return importChunked(btoApplicationFilePath, this::parseBTOApplicationRow, BTOApplication::getApplicationId,
+				chunkSize, workers, progressListener);
+	}
+
 	@Override
 	public boolean exportBTOApplicationData(String btoApplicationFilePath, Map<String, BTOApplication> btoApplicationMap) {
-		List<String> btoApplicationLines = new ArrayList<String>();
+		return this.exportRows(btoApplicationFilePath, btoApplicationCsvHeaders, btoApplicationMap.values(),
+				this::encodeBTOApplicationRow);
+	}
 
-		for (BTOApplication application : btoApplicationMap.values()) {
-			StringBuilder line = new StringBuilder();
-			line.append(application.getApplicationId()).append(",");
-			line.append(application.getApplicant().getNric()).append(",");
-			line.append(application.getProject().getProjectName()).append(",");
-			line.append(application.getFlatType() != null ? application.getFlatType().getDisplayName() : "null").append(",");
-			line.append(application.getStatus().getDisplayName());
-			
-			btoApplicationLines.add(line.toString());
-		}
+	@Override
+	public Map<String, BTOApplication> importBTOApplicationShards(String btoApplicationShardDirectoryPath) {
+		return importShards(btoApplicationShardDirectoryPath, this::parseBTOApplicationRow,
+				BTOApplication::getApplicationId);
+	}
+
+	@Override
+	public boolean exportBTOApplicationShards(String btoApplicationShardDirectoryPath, Map<String, BTOApplication> btoApplicationMap) {
+		return exportShards(btoApplicationShardDirectoryPath, btoApplicationCsvHeaders, btoApplicationMap.values(),
+				application -> application.getProject().getProjectName(),
+				BTOApplication::getApplicationId,
+				this::encodeBTOApplicationRow);
+	}
 
-		return this.writeCsvFile(btoApplicationFilePath, btoApplicationCsvHeaders, btoApplicationLines);
+	/**
+	 * Encodes a BTO application as a CSV row.
+	 *
+	 * @param writer      the writer to encode the row into
+	 * @param application the BTO application to encode
+	 * @throws IOException if the row cannot be written
+	 */
+	private void encodeBTOApplicationRow(CsvRowWriter writer, BTOApplication application) throws IOException {
+		writer.field(application.getApplicationId())
+				.field(application.getApplicant().getNric())
+				.field(application.getProject().getProjectName())
+				.field(application.getFlatType() != null ? application.getFlatType().getDisplayName() : "null")
+				.field(application.getStatus().getDisplayName())
+				.field(application.getSubmittedAt())
+				.endRow();
 	}
 
-	private HDBOfficerRegistration parseHDBOfficerRegistrationRow(String[] hdbOfficerRegistrationRow) {
-		String registrationId = hdbOfficerRegistrationRow[0];
-		String hdbOfficerNric = hdbOfficerRegistrationRow[1];
-		String projectName = hdbOfficerRegistrationRow[2];
-		String status = hdbOfficerRegistrationRow[3];
+	private HDBOfficerRegistration parseHDBOfficerRegistrationRow(CsvRecord hdbOfficerRegistrationRow) {
+		String registrationId = hdbOfficerRegistrationRow.get("RegistrationID");
+		// Older files name the officer column without the HDB prefix
+		String hdbOfficerNric = hdbOfficerRegistrationRow.get("HDBOfficerNRIC", hdbOfficerRegistrationRow.get("OfficerNRIC"));
+		String projectName = hdbOfficerRegistrationRow.get("ProjectName");
+		String status = hdbOfficerRegistrationRow.get("Status");
 
 		HDBOfficer hdbOfficer = DataStore.getHDBOfficersData().get(hdbOfficerNric);
 		BTOProject project = DataStore.getBTOProjectsData().get(projectName);
@@ -617,9 +1112,9 @@ public class CsvDataService implements IFileDataService {
 	public Map<String, HDBOfficerRegistration> importHDBOfficerRegistrationData(String hdbOfficerRegistrationsFilePath) {
 		Map<String, HDBOfficerRegistration> hdbOfficerRegistrationsMap = new HashMap<String, HDBOfficerRegistration>();
 
-		List<String[]> hdbOfficerRegistrationsRows = this.readCsvFile(hdbOfficerRegistrationsFilePath);
+		List<CsvRecord> hdbOfficerRegistrationsRows = this.readCsvRecords(hdbOfficerRegistrationsFilePath);
 
-		for (String[] hdbOfficerRegistrationRow : hdbOfficerRegistrationsRows) {
+		for (CsvRecord hdbOfficerRegistrationRow : hdbOfficerRegistrationsRows) {
 			HDBOfficerRegistration registration = parseHDBOfficerRegistrationRow(hdbOfficerRegistrationRow);
 			if (registration != null) {
 				hdbOfficerRegistrationsMap.put(registration.getRegistrationId(), registration);
@@ -631,80 +1126,105 @@ public class CsvDataService implements IFileDataService {
 
 	@Override
 	public boolean exportHDBOfficerRegistrationData(String hdbOfficerRegistrationsFilePath, Map<String, HDBOfficerRegistration> hdbOfficerRegistrationMap) {
-		List<String> hdbOfficerRegistrationLines = new ArrayList<String>();
-
-		for (HDBOfficerRegistration registration : hdbOfficerRegistrationMap.values()) {
-			StringBuilder line = new StringBuilder();
-			line.append(registration.getRegistrationId()).append(",");
-			line.append(registration.getHDBOfficer().getNric()).append(",");
-			line.append(registration.getProject().getProjectName()).append(",");
-			line.append(registration.getStatus().getDisplayName());
-			
-			hdbOfficerRegistrationLines.add(line.toString());
-		}
-
-		return this.writeCsvFile(hdbOfficerRegistrationsFilePath, hdbOfficerRegistrationCsvHeaders, hdbOfficerRegistrationLines);
+		return this.exportRows(hdbOfficerRegistrationsFilePath, hdbOfficerRegistrationCsvHeaders,
+				hdbOfficerRegistrationMap.values(),
+				(writer, registration) -> writer.field(registration.getRegistrationId())
+						.field(registration.getHDBOfficer().getNric())
+						.field(registration.getProject().getProjectName())
+						.field(registration.getStatus().getDisplayName())
+						.endRow());
 	}
 
 	@Override
 	public Map<String, Enquiry> importEnquiryData(String enquiryFilePath) {
 		Map<String, Enquiry> enquiryMap = new HashMap<>();
-		List<String[]> enquiryRows = this.readCsvFile(enquiryFilePath);
-
-		for (String[] enquiryRow : enquiryRows) {
-			String enquiryId = enquiryRow[0];
-			String applicantNric = enquiryRow[1];
-			String projectName = enquiryRow[2];
-			String message = enquiryRow[3];
-			String reply = enquiryRow[4];
-			LocalDateTime createdAt = LocalDateTime.parse(enquiryRow[5], DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-			LocalDateTime repliedAt = (enquiryRow.length > 6 && !enquiryRow[6].isEmpty()) ? LocalDateTime.parse(enquiryRow[6], DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null;
-
-			// Get the applicant and project from the data store
-			Applicant applicant = DataStore.getApplicantsData().get(applicantNric);
-			BTOProject project = DataStore.getBTOProjectsData().get(projectName);
-
-			// Skip invalid enquiries where applicant or project is not found
-			if (applicant == null || project == null) {
-				System.out.println("Warning: Skipping invalid enquiry " + enquiryId + 
-					" - " + (applicant == null ? "Applicant not found: " + applicantNric : "") +
-					(project == null ? "Project not found: " + projectName : ""));
-				continue;
-			}
+		List<CsvRecord> enquiryRows = this.readCsvRecords(enquiryFilePath);
 
-			Enquiry enquiry = new Enquiry(enquiryId, applicant, project, message, reply, createdAt, repliedAt);
-			enquiryMap.put(enquiryId, enquiry);
+		for (CsvRecord enquiryRow : enquiryRows) {
+			Enquiry enquiry = parseEnquiryRow(enquiryRow);
+			if (enquiry != null) {
+				enquiryMap.put(enquiry.getEnquiryId(), enquiry);
+			}
 		}
 		return enquiryMap;
 	}
 
+	private Enquiry parseEnquiryRow(CsvRecord enquiryRow) {
+		String enquiryId = enquiryRow.get("EnquiryID");
+		String applicantNric = enquiryRow.get("ApplicantNRIC");
+		String projectName = enquiryRow.get("ProjectName");
+		String message = enquiryRow.get("Message", "");
+		String reply = enquiryRow.get("Reply", null);
+		LocalDateTime createdAt = LocalDateTime.parse(enquiryRow.get("CreatedAt"), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+		String repliedAtValue = enquiryRow.get("RepliedAt", null);
+		LocalDateTime repliedAt = repliedAtValue != null ? LocalDateTime.parse(repliedAtValue, DateTimeFormatter.ISO_LOCAL_DATE_TIME) : null;
+
+		// Get the applicant and project from the data store
+		Applicant applicant = DataStore.getApplicantsData().get(applicantNric);
+		BTOProject project = DataStore.getBTOProjectsData().get(projectName);
+
+		// Skip invalid enquiries where applicant or project is not found
+		if (applicant == null || project == null) {
+			System.out.println("Warning: Skipping invalid enquiry " + enquiryId + 
+				" - " + (applicant == null ? "Applicant not found: " + applicantNric : "") +
+				(project == null ? "Project not found: " + projectName : ""));
+			return null;
+		}
+
+		return new Enquiry(enquiryId, applicant, project, message, reply, createdAt, repliedAt);
+	}
+
 	@Override
 	public boolean exportEnquiryData(String enquiryFilePath, Map<String, Enquiry> enquiryMap) {
-		List<String> enquiryLines = new ArrayList<>();
+		return this.exportRows(enquiryFilePath, enquiryCsvHeaders, enquiryMap.values(), this::encodeEnquiryRow);
+	}
 
-		for (Enquiry enquiry : enquiryMap.values()) {
-			String line = String.format("%s,%s,%s,%s,%s,%s,%s",
-				enquiry.getEnquiryId(),
-				enquiry.getApplicant() != null ? enquiry.getApplicant().getNric() : "",
-				enquiry.getProject() != null ? enquiry.getProject().getProjectName() : "",
-				enquiry.getMessage(),
-				enquiry.getReply() != null ? enquiry.getReply() : "",
-				enquiry.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
-				enquiry.getRepliedAt() != null ? enquiry.getRepliedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : ""
-			);
-			enquiryLines.add(line);
-		}
+	@Override
+	public Map<String, Enquiry> importEnquiryShards(String enquiryShardDirectoryPath) {
+		return importShards(enquiryShardDirectoryPath, this::parseEnquiryRow, Enquiry::getEnquiryId);
+	}
+
+	@Override
+	public Map<String, Enquiry> importEnquiryShard(String enquiryShardDirectoryPath, String projectName) {
+		Map<String, Enquiry> enquiryMap = new HashMap<>();
+		importShardFile(getShardFilePath(enquiryShardDirectoryPath, projectName), this::parseEnquiryRow,
+				Enquiry::getEnquiryId, enquiryMap);
+		return enquiryMap;
+	}
+
+	@Override
+	public boolean exportEnquiryShards(String enquiryShardDirectoryPath, Map<String, Enquiry> enquiryMap) {
+		return exportShards(enquiryShardDirectoryPath, enquiryCsvHeaders, enquiryMap.values(),
+				enquiry -> enquiry.getProject() != null ? enquiry.getProject().getProjectName() : "",
+				Enquiry::getEnquiryId,
+				this::encodeEnquiryRow);
+	}
 
-		return this.writeCsvFile(enquiryFilePath, enquiryCsvHeaders, enquiryLines);
+	/**
+	 * Encodes an enquiry as a CSV row.
+	 *
+	 * @param writer  the writer to encode the row into
+	 * @param enquiry the enquiry to encode
+	 * @throws IOException if the row cannot be written
+	 */
+	private void encodeEnquiryRow(CsvRowWriter writer, Enquiry enquiry) throws IOException {
+		writer.field(enquiry.getEnquiryId())
+				.field(enquiry.getApplicant() != null ? enquiry.getApplicant().getNric() : "")
+				.field(enquiry.getProject() != null ? enquiry.getProject().getProjectName() : "")
+				.field(enquiry.getMessage())
+				.field(enquiry.getReply())
+				.field(enquiry.getCreatedAt())
+				.field(enquiry.getRepliedAt())
+				.endRow();
 	}
 
 	@Override
 	public Map<String, WithdrawalRequest> importWithdrawalRequestData(String withdrawalRequestFilePath) {
 		Map<String, WithdrawalRequest> withdrawalRequestMap = new HashMap<String, WithdrawalRequest>();
 
-		List<String[]> withdrawalRequestRows = this.readCsvFile(withdrawalRequestFilePath);
+		List<CsvRecord> withdrawalRequestRows = this.readCsvRecords(withdrawalRequestFilePath);
 
-		for (String[] withdrawalRequestRow : withdrawalRequestRows) {
+		for (CsvRecord withdrawalRequestRow : withdrawalRequestRows) {
 			WithdrawalRequest request = parseWithdrawalRequestRow(withdrawalRequestRow);
 			if (request != null) {
 				withdrawalRequestMap.put(request.getRequestId(), request);
@@ -714,10 +1234,14 @@ public class CsvDataService implements IFileDataService {
 		return withdrawalRequestMap;
 	}
 
-	private WithdrawalRequest parseWithdrawalRequestRow(String[] withdrawalRequestRow) {
-		String requestId = withdrawalRequestRow[0];
-		String applicationId = withdrawalRequestRow[1];
-		String processedBy = withdrawalRequestRow[5].equals("null") ? null : withdrawalRequestRow[5];
+	private WithdrawalRequest parseWithdrawalRequestRow(CsvRecord withdrawalRequestRow) {
+		String requestId = withdrawalRequestRow.get("RequestId");
+		String applicationId = withdrawalRequestRow.get("ApplicationId");
+		LocalDateTime requestedAt = parseNullableDateTime(withdrawalRequestRow.get("RequestedAt"));
+		boolean isApproved = Boolean.parseBoolean(withdrawalRequestRow.get("IsApproved"));
+		LocalDateTime processedAt = parseNullableDateTime(withdrawalRequestRow.get("ProcessedAt"));
+		String processedBy = withdrawalRequestRow.get("ProcessedBy", "null");
+		processedBy = processedBy.equals("null") ? null : processedBy;
 
 		BTOApplication application = DataStore.getBTOApplicationsData().get(applicationId);
 		if (application == null) {
@@ -726,27 +1250,105 @@ public class CsvDataService implements IFileDataService {
 			return null;
 		}
 
-		WithdrawalRequest request = new WithdrawalRequest(application);
-		request.approve(processedBy);
-		return request;
+		// Restore the stored state; the application status was already updated when the request was processed
+		return new WithdrawalRequest(requestId, application, requestedAt != null ? requestedAt : LocalDateTime.now(),
+				isApproved, processedAt, processedBy);
+	}
+
+	/**
+	 * Parses an ISO date-time that may be missing or written as {@code null}.
+	 *
+	 * @param value the value to parse
+	 * @return the date-time, or {@code null} if the value is missing
+	 */
+	private static LocalDateTime parseNullableDateTime(String value) {
+		if (value == null || value.isEmpty() || value.equals("null")) {
+			return null;
+		}
+		return LocalDateTime.parse(value, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
 	}
 
 	@Override
 	public boolean exportWithdrawalRequestData(String withdrawalRequestFilePath, Map<String, WithdrawalRequest> withdrawalRequestMap) {
-		List<String> withdrawalRequestLines = new ArrayList<String>();
+		return this.exportRows(withdrawalRequestFilePath, withdrawalRequestCsvHeaders, withdrawalRequestMap.values(),
+				this::encodeWithdrawalRequestRow);
+	}
 
-		for (WithdrawalRequest request : withdrawalRequestMap.values()) {
-			StringBuilder line = new StringBuilder();
-			line.append(request.getRequestId()).append(",");
-			line.append(request.getApplication().getApplicationId()).append(",");
-			line.append(request.getRequestedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)).append(",");
-			line.append(request.isApproved()).append(",");
-			line.append(request.getProcessedAt() != null ? request.getProcessedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "null").append(",");
-			line.append(request.getProcessedBy() != null ? request.getProcessedBy() : "null");
-			
-			withdrawalRequestLines.add(line.toString());
+	/**
+	 * Encodes a withdrawal request as a CSV row. Missing processing details are
+	 * written as {@code null}.
+	 *
+	 * @param writer  the writer to encode the row into
+	 * @param request the withdrawal request to encode
+	 * @throws IOException if the row cannot be written
+	 */
+	private void encodeWithdrawalRequestRow(CsvRowWriter writer, WithdrawalRequest request) throws IOException {
+		writer.field(request.getRequestId());
+		writer.field(request.getApplication().getApplicationId());
+		writer.field(request.getRequestedAt());
+		writer.field(request.isApproved());
+		if (request.getProcessedAt() != null) {
+			writer.field(request.getProcessedAt());
+		} else {
+			writer.field("null");
 		}
+		writer.field(request.getProcessedBy() != null ? request.getProcessedBy() : "null");
+		writer.endRow();
+	}
+
+	@Override
+	public Map<String, Waitlist> importWaitlistData(String waitlistFilePath) {
+		Map<String, Waitlist> waitlistMap = new HashMap<String, Waitlist>();
 
-		return this.writeCsvFile(withdrawalRequestFilePath, withdrawalRequestCsvHeaders, withdrawalRequestLines);
+		// Data saved before waitlists existed has no waitlist file
+		if (!Files.exists(Paths.get(waitlistFilePath))) {
+			return waitlistMap;
+		}
+
+		// Rows are stored in waitlist order
+		for (CsvRecord waitlistRow : this.readCsvRecords(waitlistFilePath)) {
+			String projectName = waitlistRow.get("ProjectName");
+			String applicationId = waitlistRow.get("ApplicationId");
+			BTOApplication application = DataStore.getBTOApplicationsData().get(applicationId);
+			if (application == null || !application.getProject().getProjectName().equals(projectName)) {
+				System.out.println("Warning: Skipping invalid waitlist entry for " + projectName +
+					" - Application not found: " + applicationId);
+				continue;
+			}
+			FlatType flatType = EnumParser.parseFlatType(waitlistRow.get("FlatType"));
+			waitlistMap.computeIfAbsent(projectName, name -> new Waitlist()).add(flatType, application);
+		}
+
+		return waitlistMap;
+	}
+
+	@Override
+	public boolean exportWaitlistData(String waitlistFilePath, Map<String, BTOProject> btoProjectMap) {
+		// Applications that were promoted or reapplied elsewhere no longer wait
+		List<Map.Entry<FlatType, BTOApplication>> entries = new ArrayList<Map.Entry<FlatType, BTOApplication>>();
+		for (BTOProject project : btoProjectMap.values()) {
+			for (Map.Entry<FlatType, List<BTOApplication>> waitlist : project.getWaitlist().getEntries().entrySet()) {
+				for (BTOApplication application : waitlist.getValue()) {
+					if (application.getStatus() == BTOApplicationStatus.UNSUCCESSFUL) {
+						entries.add(Map.entry(waitlist.getKey(), application));
+					}
+				}
+			}
+		}
+		return this.exportRows(waitlistFilePath, waitlistCsvHeaders, entries, this::encodeWaitlistRow);
+	}
+
+	/**
+	 * Encodes a waitlist entry as a CSV row.
+	 *
+	 * @param writer the writer to encode the row into
+	 * @param entry  the flat type waited for and the waiting application
+	 * @throws IOException if the row cannot be written
+	 */
+	private void encodeWaitlistRow(CsvRowWriter writer, Map.Entry<FlatType, BTOApplication> entry) throws IOException {
+		writer.field(entry.getValue().getProject().getProjectName())
+				.field(entry.getKey().getDisplayName())
+				.field(entry.getValue().getApplicationId())
+				.endRow();
 	}
 }
@@ -1,12 +1,14 @@
 package services;
 
+import events.EnquiryReplied;
+import events.EventBus;
 import models.Enquiry;
 import models.BTOProject;
 import models.Applicant;
 import stores.DataStore;
-import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
+import utils.OperationTimer;
 
 /**
  * Service class for handling enquiry-related operations in the BTO system.
@@ -25,8 +27,13 @@ public class EnquiryService {
      * @return List of all enquiries
      */
     public List<Enquiry> getAllEnquiries() {
-        return DataStore.getEnquiriesData().values().stream()
-            .collect(Collectors.toList());
+        OperationTimer timer = OperationTimer.start("EnquiryService.getAllEnquiries");
+        try {
+            return timer.returned(DataStore.getEnquiriesData().values().stream()
+                .collect(Collectors.toList()));
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -35,9 +42,14 @@ public class EnquiryService {
      * @return List of enquiries for the project
      */
     public List<Enquiry> getEnquiriesByProject(BTOProject project) {
-        return DataStore.getEnquiriesData().values().stream()
-            .filter(enquiry -> enquiry.getProject().equals(project))
-            .collect(Collectors.toList());
+        OperationTimer timer = OperationTimer.start("EnquiryService.getEnquiriesByProject", project);
+        try {
+            return timer.returned(DataStore.getEnquiriesData(project).values().stream()
+                .filter(enquiry -> enquiry.getProject().equals(project))
+                .collect(Collectors.toList()));
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -46,9 +58,14 @@ public class EnquiryService {
      * @return List of enquiries for the applicant
      */
     public List<Enquiry> getEnquiriesByApplicant(Applicant applicant) {
-        return DataStore.getEnquiriesData().values().stream()
-                .filter(enquiry -> enquiry.getApplicant().equals(applicant))
-                .collect(Collectors.toList());
+        OperationTimer timer = OperationTimer.start("EnquiryService.getEnquiriesByApplicant", applicant);
+        try {
+            return timer.returned(DataStore.getEnquiriesData().values().stream()
+                    .filter(enquiry -> enquiry.getApplicant().equals(applicant))
+                    .collect(Collectors.toList()));
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -59,18 +76,20 @@ public class EnquiryService {
      * @return true if the edit was successful, false if the enquiry already has a reply
      */
     public boolean editEnquiry(Enquiry enquiry, String newMessage) {
-        // Cannot edit if already replied to
-        if (enquiry.hasReply()) {
-            return false;
-        }
-        
-        // Remove commas from the message to prevent CSV parsing issues
-        newMessage = newMessage.replace(",", " ");
+        OperationTimer timer = OperationTimer.start("EnquiryService.editEnquiry", enquiry, newMessage);
+        try {
+            // Cannot edit if already replied to
+            if (enquiry.hasReply()) {
+                return false;
+            }
         
-        enquiry.setMessage(newMessage);
-        DataStore.saveData();
+            enquiry.setMessage(newMessage);
+            DataStore.saveData();
         
-        return true;
+            return true;
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -80,16 +99,21 @@ public class EnquiryService {
      * @return true if deletion was successful, false if the enquiry has a reply or couldn't be found
      */
     public boolean deleteEnquiry(Enquiry enquiry) {
-        // Cannot delete if already replied to
-        if (enquiry.hasReply()) {
-            return false;
-        }
+        OperationTimer timer = OperationTimer.start("EnquiryService.deleteEnquiry", enquiry);
+        try {
+            // Cannot delete if already replied to
+            if (enquiry.hasReply()) {
+                return false;
+            }
         
-        if (DataStore.getEnquiriesData().remove(enquiry.getEnquiryId()) != null) {
-            DataStore.saveData();
-            return true;
+            if (DataStore.removeEnquiry(enquiry)) {
+                DataStore.saveData();
+                return true;
+            }
+            return false;
+        } finally {
+            timer.stop();
         }
-        return false;
     }
 
     /**
@@ -97,9 +121,14 @@ public class EnquiryService {
      * @return List of pending enquiries
      */
     public List<Enquiry> getPendingEnquiries() {
-        return DataStore.getEnquiriesData().values().stream()
-            .filter(enquiry -> !enquiry.hasReply())
-            .collect(Collectors.toList());
+        OperationTimer timer = OperationTimer.start("EnquiryService.getPendingEnquiries");
+        try {
+            return timer.returned(DataStore.getEnquiriesData().values().stream()
+                .filter(enquiry -> !enquiry.hasReply())
+                .collect(Collectors.toList()));
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -110,21 +139,19 @@ public class EnquiryService {
      * @return The created enquiry
      */
     public Enquiry createEnquiry(Applicant applicant, BTOProject project, String message) {
-        String enquiryId = "ENQ" + System.currentTimeMillis();
-        Enquiry enquiry = new Enquiry(
-            enquiryId,
-            applicant,
-            project,
-            message,
-            null,
-            LocalDateTime.now(),
-            null
-        );
+        OperationTimer timer = OperationTimer.start("EnquiryService.createEnquiry", applicant, project, message);
+        try {
+            // Generated IDs are random, so enquiries created in the same millisecond by
+            // concurrent sessions do not collide
+            Enquiry enquiry = new Enquiry(applicant, project, message);
         
-        DataStore.getEnquiriesData().put(enquiryId, enquiry);
-        DataStore.saveData();
+            DataStore.addEnquiry(enquiry);
+            DataStore.saveData();
         
-        return enquiry;
+            return enquiry;
+        } finally {
+            timer.stop();
+        }
     }
 
     /**
@@ -134,16 +161,19 @@ public class EnquiryService {
      * @return true if reply was successful, false otherwise
      */
     public boolean replyToEnquiry(Enquiry enquiry, String reply) {
-        if (enquiry.hasReply()) {
-            return false;
-        }
-        
-        // Remove commas from the reply to prevent CSV parsing issues
-        reply = reply.replace(",", " ");
+        OperationTimer timer = OperationTimer.start("EnquiryService.replyToEnquiry", enquiry, reply);
+        try {
+            if (enquiry.hasReply()) {
+                return false;
+            }
         
-        enquiry.setReply(reply);
-        DataStore.saveData();
+            enquiry.setReply(reply);
+            EventBus.getInstance().publish(new EnquiryReplied(enquiry));
+            DataStore.saveData();
         
-        return true;
+            return true;
+        } finally {
+            timer.stop();
+        }
     }
 } 
\ No newline at end of file
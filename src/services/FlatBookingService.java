@@ -0,0 +1,96 @@
+package services;
+
+import enumeration.BTOApplicationStatus;
+import enumeration.BookingResult;
+import enumeration.FlatType;
+import events.EventBus;
+import events.UnitsBooked;
+import models.BTOApplication;
+import models.BTOProject;
+import models.FlatTypeDetails;
+import utils.OperationTimer;
+
+/**
+ * Service class for booking flats against the unit inventory of BTO projects.
+ *
+ * Each project keeps its available units per flat type in {@link FlatTypeDetails}, which
+ * reserves units with a compare-and-set instead of a lock. Officers booking different
+ * applications of the same project therefore never wait on each other, and a flat type
+ * can never be oversold. The application itself is marked as booked through
+ * {@link BTOApplicationService}, so a booking loses cleanly to a withdrawal or another
+ * officer's booking that changed the application first.
+ *
+ * A booking holds the monitor of its application from the version check until the
+ * status is changed, and every status change takes the same monitor. A booking that
+ * is going to lose therefore never takes a unit, and other applications are never
+ * refused the last unit because of it.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public class FlatBookingService {
+    private final BTOApplicationService applicationService = new BTOApplicationService();
+
+    /**
+     * Gets the number of units still available for a flat type
+     * @param project The project to check
+     * @param flatType The flat type to check
+     * @return The number of available units, or 0 if the project has no such flat type
+     */
+    public int getAvailableUnits(BTOProject project, FlatType flatType) {
+        OperationTimer timer = OperationTimer.start("FlatBookingService.getAvailableUnits", project, flatType);
+        try {
+            FlatTypeDetails details = project.getFlatTypes().get(flatType);
+            return details == null ? 0 : details.getUnits();
+        } finally {
+            timer.stop();
+        }
+    }
+
+    /**
+     * Books a flat for a successful application, taking one unit of the application's
+     * flat type. A unit is only reserved once the application is known to be unchanged
+     * since the officer read it, so two officers cannot book the same application twice
+     * and the officer who loses never holds a unit.
+     * @param application The application to book a flat for
+     * @param expectedVersion The application version the officer read, see
+     *                        {@link BTOApplication#getVersion()}
+     * @return {@link BookingResult#BOOKED} if the flat was booked,
+     *         {@link BookingResult#NO_UNITS_LEFT} if the flat type is sold out, or
+     *         {@link BookingResult#NOT_BOOKABLE} if the application is no longer successful
+     *         or was changed by someone else first
+     */
+    public BookingResult bookFlat(BTOApplication application, int expectedVersion) {
+        OperationTimer timer = OperationTimer.start("FlatBookingService.bookFlat", application, expectedVersion);
+        try {
+            if (application.getStatus() != BTOApplicationStatus.SUCCESSFUL) {
+                return BookingResult.NOT_BOOKABLE;
+            }
+
+            FlatTypeDetails details;
+            synchronized (application) {
+                if (application.getStatus() != BTOApplicationStatus.SUCCESSFUL
+                        || application.getVersion() != expectedVersion) {
+                    // Let the stale change be rejected, so it is counted as a conflict
+                    applicationService.changeStatus(application, BTOApplicationStatus.SUCCESSFUL, expectedVersion,
+                            BTOApplicationStatus.BOOKED);
+                    return BookingResult.NOT_BOOKABLE;
+                }
+
+                details = application.getProject().getFlatTypes().get(application.getFlatType());
+                if (details == null || !details.tryReserve()) {
+                    return BookingResult.NO_UNITS_LEFT;
+                }
+                if (!applicationService.changeStatus(application, BTOApplicationStatus.SUCCESSFUL, expectedVersion,
+                        BTOApplicationStatus.BOOKED)) {
+                    details.release();
+                    return BookingResult.NOT_BOOKABLE;
+                }
+            }
+            EventBus.getInstance().publish(new UnitsBooked(application, application.getFlatType(), details.getUnits()));
+            return BookingResult.BOOKED;
+        } finally {
+            timer.stop();
+        }
+    }
+}
@@ -9,6 +9,7 @@ import enumeration.MaritalStatus;
 import models.BTOApplication;
 import models.BTOProject;
 import stores.DataStore;
+import utils.OperationTimer;
 
 /**
  * Service class for generating reports and statistical analysis of BTO applications.
@@ -27,9 +28,12 @@ public class ReportService {
      * @return List of successful applications
      */
     public List<BTOApplication> getAllSuccessfulApplications() {
-        return DataStore.getBTOApplicationsData().values().stream()
-            .filter(application -> application.getStatus() == BTOApplicationStatus.SUCCESSFUL)
-            .collect(Collectors.toList());
+        OperationTimer timer = OperationTimer.start("ReportService.getAllSuccessfulApplications");
+        try {
+            return timer.returned(DataStore.getBTOApplicationsByStatus(BTOApplicationStatus.SUCCESSFUL));
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -37,11 +41,14 @@ public class ReportService {
      * @return List of successful and booked applications
      */
     public List<BTOApplication> getAllSuccessfulAndBookedApplications() {
-        return DataStore.getBTOApplicationsData().values().stream()
-            .filter(application -> 
-                application.getStatus() == BTOApplicationStatus.SUCCESSFUL || 
-                application.getStatus() == BTOApplicationStatus.BOOKED)
-            .collect(Collectors.toList());
+        OperationTimer timer = OperationTimer.start("ReportService.getAllSuccessfulAndBookedApplications");
+        try {
+            List<BTOApplication> applications = DataStore.getBTOApplicationsByStatus(BTOApplicationStatus.SUCCESSFUL);
+            applications.addAll(DataStore.getBTOApplicationsByStatus(BTOApplicationStatus.BOOKED));
+            return timer.returned(applications);
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -51,9 +58,14 @@ public class ReportService {
      * @return Filtered list of applications
      */
     public List<BTOApplication> filterByProject(List<BTOApplication> applications, BTOProject project) {
-        return applications.stream()
-            .filter(application -> application.getProject().equals(project))
-            .collect(Collectors.toList());
+        OperationTimer timer = OperationTimer.start("ReportService.filterByProject", applications, project);
+        try {
+            return timer.returned(applications.stream()
+                .filter(application -> application.getProject().equals(project))
+                .collect(Collectors.toList()));
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -63,9 +75,14 @@ public class ReportService {
      * @return Filtered list of applications
      */
     public List<BTOApplication> filterByFlatType(List<BTOApplication> applications, FlatType flatType) {
-        return applications.stream()
-            .filter(application -> application.getFlatType() == flatType)
-            .collect(Collectors.toList());
+        OperationTimer timer = OperationTimer.start("ReportService.filterByFlatType", applications, flatType);
+        try {
+            return timer.returned(applications.stream()
+                .filter(application -> application.getFlatType() == flatType)
+                .collect(Collectors.toList()));
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -75,9 +92,14 @@ public class ReportService {
      * @return Filtered list of applications
      */
     public List<BTOApplication> filterByMaritalStatus(List<BTOApplication> applications, MaritalStatus maritalStatus) {
-        return applications.stream()
-            .filter(application -> application.getApplicant().getMaritalStatus() == maritalStatus)
-            .collect(Collectors.toList());
+        OperationTimer timer = OperationTimer.start("ReportService.filterByMaritalStatus", applications, maritalStatus);
+        try {
+            return timer.returned(applications.stream()
+                .filter(application -> application.getApplicant().getMaritalStatus() == maritalStatus)
+                .collect(Collectors.toList()));
+        } finally {
+            timer.stop();
+        }
     }
     
     /**
@@ -88,11 +110,16 @@ public class ReportService {
      * @return Filtered list of applications
      */
     public List<BTOApplication> filterByAgeRange(List<BTOApplication> applications, int minAge, int maxAge) {
-        return applications.stream()
-            .filter(application -> {
-                int age = application.getApplicant().getAge();
-                return age >= minAge && age <= maxAge;
-            })
-            .collect(Collectors.toList());
+        OperationTimer timer = OperationTimer.start("ReportService.filterByAgeRange", applications, minAge, maxAge);
+        try {
+            return timer.returned(applications.stream()
+                .filter(application -> {
+                    int age = application.getApplicant().getAge();
+                    return age >= minAge && age <= maxAge;
+                })
+                .collect(Collectors.toList()));
+        } finally {
+            timer.stop();
+        }
     }
 }
\ No newline at end of file
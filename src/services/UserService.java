@@ -1,9 +1,11 @@
 package services;
 
+import enumeration.CredentialResult;
 import interfaces.IUserService;
 import models.User;
 import stores.AuthStore;
 import stores.DataStore;
+import utils.OperationTimer;
 
 /**
  * The {@link UserService} class implements the {@link IUserService} interface
@@ -19,12 +21,18 @@ public class UserService implements IUserService {
     };
 
     @Override
-    public boolean changePassword(String oldPassword, String newPassword) {
+    public CredentialResult changePassword(String oldPassword, String newPassword) {
         User user = AuthStore.getCurrentUser();
-        if (!user.setPassword(oldPassword, newPassword))
-            return false;
+        OperationTimer timer = OperationTimer.start("UserService.changePassword", user);
+        try {
+            CredentialResult result = CredentialService.getInstance().changePassword(user, oldPassword, newPassword);
+            if (result != CredentialResult.OK)
+                return result;
         
-        DataStore.saveData(); // save new password to database
-        return true;
+            DataStore.saveData(); // save new password to database
+            return CredentialResult.OK;
+        } finally {
+            timer.stop();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,65 @@
+package services;
+
+import enumeration.BTOApplicationStatus;
+import enumeration.FlatType;
+import models.BTOApplication;
+import models.BTOProject;
+import stores.DataStore;
+import utils.OperationTimer;
+
+/**
+ * Service class for the waitlists of BTO projects.
+ *
+ * Applications that lose a ballot only because the units of their flat type ran out are
+ * put on the project's waitlist for that flat type in ballot order (see
+ * {@link BallotService#commitBallot}). When a successful application is withdrawn its
+ * unit is released, and the first application still waiting for that flat type is
+ * promoted to successful in its place.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public class WaitlistService {
+    private final BallotService ballotService = new BallotService();
+    private final BTOApplicationService applicationService = new BTOApplicationService();
+
+    /**
+     * Promotes the first application waiting for a flat type of a project to successful,
+     * after a unit of that flat type was released. Applications that are no longer
+     * unsuccessful or no longer eligible are dropped from the waitlist on the way.
+     * The caller saves the change together with the change that released the unit.
+     * @param project The project whose unit was released
+     * @param flatType The flat type of the released unit
+     * @return The promoted application, or null if no application was waiting
+     */
+    public BTOApplication promoteNext(BTOProject project, FlatType flatType) {
+        OperationTimer timer = OperationTimer.start("WaitlistService.promoteNext", project, flatType);
+        try {
+            return DataStore.withProjectLock(project, () -> {
+                while (true) {
+                    int[] version = new int[1];
+                    BTOApplication next = project.getWaitlist().poll(flatType, application -> {
+                        version[0] = application.getVersion();
+                        return application.getStatus() == BTOApplicationStatus.UNSUCCESSFUL &&
+                               ballotService.getEligibleFlatTypes(project, application.getApplicant()).contains(flatType);
+                    });
+                    if (next == null) {
+                        return null;
+                    }
+                    // The flat type is in place before the application turns successful, so
+                    // a booking never reserves a unit of its old one
+                    synchronized (next) {
+                        FlatType previous = next.getFlatType();
+                        next.setFlatType(flatType);
+                        if (applicationService.reinstate(next, version[0])) {
+                            return next;
+                        }
+                        next.setFlatType(previous);
+                    }
+                }
+            });
+        } finally {
+            timer.stop();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package services;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import enumeration.FlatType;
+import enumeration.MaritalStatus;
+import models.Applicant;
+import models.BTOApplication;
+import models.BTOProject;
+import models.ProjectFilter;
+import stores.DataStore;
+import utils.MetricsRegistry;
+
+/**
+ * Service class for warming up the application before the first user arrives.
+ *
+ * The first calls of a method run in the interpreter and only get fast once the JIT
+ * compiler has compiled them, which takes thousands of calls. Warming up calls the
+ * paths every session uses, such as the eligibility check, project filters and the
+ * applicant report, over the loaded data for a set time, so they are compiled before
+ * the first user logs in. It only reads the data. Timing is turned off while it runs,
+ * so the calls are not recorded in the timers of the {@code MetricsRegistry} or in the
+ * slow operation log.
+ *
+ * @author BTOMS Team
+ * @version 1.0
+ */
+public class WarmUpService {
+    private static final int MAX_SAMPLE_APPLICANTS = 32;
+
+    private final BTOProjectService projectService = new BTOProjectService();
+    private final BTOProjectManagementService projectManagementService = new BTOProjectManagementService();
+    private final ReportService reportService = new ReportService();
+
+    /**
+     * Sink for the results of the calls, so the JIT compiler cannot leave them out.
+     */
+    private long sink;
+
+    /**
+     * Calls the hot paths repeatedly for about the given time.
+     * @param budget How long to warm up for
+     * @return The number of rounds of calls made
+     */
+    public int run(Duration budget) {
+        List<Applicant> applicants = new ArrayList<>();
+        for (Applicant applicant : DataStore.getApplicantsData().values()) {
+            if (applicants.size() == MAX_SAMPLE_APPLICANTS) {
+                break;
+            }
+            applicants.add(applicant);
+        }
+        List<BTOProject> projects = new ArrayList<>(DataStore.getBTOProjectsData().values());
+        List<ProjectFilter> filters = sampleFilters(projects);
+
+        long deadline = System.nanoTime() + budget.toNanos();
+        int rounds = 0;
+        boolean wasRecording = MetricsRegistry.isRecording();
+        MetricsRegistry.setRecording(false);
+        try {
+            while (System.nanoTime() - deadline < 0) {
+                warmUpProjects(applicants, projects, filters);
+                warmUpReport(projects);
+                rounds++;
+            }
+        } finally {
+            MetricsRegistry.setRecording(wasRecording);
+        }
+        return rounds;
+    }
+
+    /**
+     * Builds filters like the ones users set: none, by flat type, by neighbourhood
+     * and by name.
+     * @param projects The projects
+     * @return The filters
+     */
+    private List<ProjectFilter> sampleFilters(List<BTOProject> projects) {
+        List<ProjectFilter> filters = new ArrayList<>();
+        filters.add(new ProjectFilter());
+        for (FlatType flatType : FlatType.values()) {
+            ProjectFilter filter = new ProjectFilter();
+            filter.setFlatTypeFilter(flatType);
+            filters.add(filter);
+        }
+        if (!projects.isEmpty()) {
+            ProjectFilter byNeighborhood = new ProjectFilter();
+            byNeighborhood.setNeighborhoodFilter(projects.get(0).getNeighborhood());
+            filters.add(byNeighborhood);
+            ProjectFilter byName = new ProjectFilter();
+            byName.setNameFilter(projects.get(0).getProjectName());
+            filters.add(byName);
+        }
+        return filters;
+    }
+
+    /**
+     * Lists the projects available to each applicant under each filter, and the flat
+     * types each applicant may apply for.
+     */
+    private void warmUpProjects(List<Applicant> applicants, List<BTOProject> projects, List<ProjectFilter> filters) {
+        for (Applicant applicant : applicants) {
+            for (ProjectFilter filter : filters) {
+                sink += projectService.getAvailableProjects(applicant, filter).size();
+            }
+            for (BTOProject project : projects) {
+                if (projectService.isEligible(applicant, project)) {
+                    sink += projectService.getEligibleFlatTypes(project, applicant).size();
+                }
+            }
+        }
+        for (ProjectFilter filter : filters) {
+            sink += projectManagementService.getAllProjects(filter).size();
+        }
+    }
+
+    /**
+     * Builds the applicant report with each of its filters.
+     */
+    private void warmUpReport(List<BTOProject> projects) {
+        List<BTOApplication> applications = reportService.getAllSuccessfulAndBookedApplications();
+        for (FlatType flatType : FlatType.values()) {
+            sink += reportService.filterByFlatType(applications, flatType).size();
+        }
+        for (MaritalStatus maritalStatus : MaritalStatus.values()) {
+            sink += reportService.filterByMaritalStatus(applications, maritalStatus).size();
+        }
+        sink += reportService.filterByAgeRange(applications, 21, 65).size();
+        for (BTOProject project : projects) {
+            sink += reportService.filterByProject(applications, project).size();
+        }
+    }
+
+    /**
+     * Gets a value derived from every result, which only exists so the calls cannot
+     * be optimised away.
+     * @return The sum of the sizes of the results
+     */
+    public long getSink() {
+        return sink;
+    }
+}
@@ -0,0 +1,404 @@
+package stores;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.LongSupplier;
+
+import enumeration.BTOApplicationStatus;
+import models.BTOApplication;
+
+/**
+ * The {@link ApplicationWorkQueue} class hands out the pending applications of
+ * one {@link models.BTOProject} to reviewers, oldest submission first. A
+ * reviewer claims an application for a limited time and must renew the claim
+ * while deciding; a claim that is not renewed in time expires and the
+ * application goes back to its place in the queue. Any number of reviewers can
+ * claim from the same queue and never receive the same application.
+ *
+ * Applications decided outside the queue, for example by a ballot, are taken
+ * out with {@link #remove} when their status change is published.
+ */
+public class ApplicationWorkQueue {
+	/**
+	 * Orders applications by submission time, then by ID. Applications saved
+	 * without a submission time come first.
+	 */
+	private static final Comparator<Entry> SUBMISSION_ORDER = Comparator
+			.comparingLong((Entry entry) -> entry.submittedAt)
+			.thenComparing(entry -> entry.application.getApplicationId());
+
+	/**
+	 * How long a claim lasts without being renewed, in nanoseconds.
+	 */
+	private final long leaseNanos;
+
+	/**
+	 * The source of the current time, in nanoseconds.
+	 */
+	private final LongSupplier clock;
+
+	/**
+	 * The applications waiting to be claimed.
+	 */
+	private final PriorityQueue<Entry> ready = new PriorityQueue<Entry>(SUBMISSION_ORDER);
+
+	/**
+	 * The applications in the queue, waiting or claimed. Applications have no
+	 * equality of their own, so they are compared by identity.
+	 */
+	private final Map<BTOApplication, Entry> entries = new IdentityHashMap<BTOApplication, Entry>();
+
+	/**
+	 * The claims that have not been completed, released or expired.
+	 */
+	private final Map<BTOApplication, Lease> leases = new IdentityHashMap<BTOApplication, Lease>();
+
+	/**
+	 * The number of entries in {@link #ready} that were removed and are skipped
+	 * when they reach the head.
+	 */
+	private int removedEntries = 0;
+
+	private long claimed = 0;
+	private long expired = 0;
+	private long completed = 0;
+	private long totalWaitNanos = 0;
+	private long maxWaitNanos = 0;
+
+	/**
+	 * Constructs an empty {@link ApplicationWorkQueue}.
+	 *
+	 * @param leaseDuration how long a claim lasts without being renewed
+	 */
+	public ApplicationWorkQueue(Duration leaseDuration) {
+		this(leaseDuration, System::nanoTime);
+	}
+
+	/**
+	 * Constructs an empty {@link ApplicationWorkQueue} with its own clock, so
+	 * expiry can be simulated.
+	 *
+	 * @param leaseDuration how long a claim lasts without being renewed
+	 * @param clock         the source of the current time, in nanoseconds
+	 */
+	public ApplicationWorkQueue(Duration leaseDuration, LongSupplier clock) {
+		this.leaseNanos = leaseDuration.toNanos();
+		this.clock = clock;
+	}
+
+	/**
+	 * Adds a pending application to the queue. Applications already in the queue
+	 * and applications that are no longer pending are ignored.
+	 *
+	 * @param application the application to add
+	 * @return {@code true} if the application was added, {@code false} otherwise
+	 */
+	public synchronized boolean offer(BTOApplication application) {
+		if (application.getStatus() != BTOApplicationStatus.PENDING || entries.containsKey(application)) {
+			return false;
+		}
+		Entry entry = new Entry(application, clock.getAsLong());
+		entries.put(application, entry);
+		ready.add(entry);
+		return true;
+	}
+
+	/**
+	 * Claims the oldest pending application that nobody else holds.
+	 *
+	 * @param holder the name of the reviewer claiming the application
+	 * @return the claim, or {@code null} if no application is waiting
+	 */
+	public synchronized Lease claim(String holder) {
+		long now = clock.getAsLong();
+		expireLeases(now);
+
+		Entry entry;
+		while ((entry = ready.poll()) != null) {
+			if (entry.removed) {
+				removedEntries--;
+				continue;
+			}
+			if (entry.application.getStatus() != BTOApplicationStatus.PENDING) {
+				entries.remove(entry.application);
+				continue;
+			}
+			long waitNanos = now - entry.enqueuedAt;
+			Lease lease = new Lease(entry.application, holder, waitNanos, now + leaseNanos);
+			leases.put(entry.application, lease);
+			claimed++;
+			totalWaitNanos += waitNanos;
+			maxWaitNanos = Math.max(maxWaitNanos, waitNanos);
+			return lease;
+		}
+		return null;
+	}
+
+	/**
+	 * Renews a claim for another lease duration.
+	 *
+	 * @param lease the claim to renew
+	 * @return {@code true} if the claim was renewed, {@code false} if it had
+	 *         already expired, been completed or been released
+	 */
+	public synchronized boolean heartbeat(Lease lease) {
+		long now = clock.getAsLong();
+		expireLeases(now);
+		if (leases.get(lease.application) != lease) {
+			return false;
+		}
+		lease.expiresAt = now + leaseNanos;
+		return true;
+	}
+
+	/**
+	 * Checks whether a claim is still held, without renewing it.
+	 *
+	 * @param lease the claim to check
+	 * @return {@code true} if the claim is still held, {@code false} otherwise
+	 */
+	public synchronized boolean isHeld(Lease lease) {
+		expireLeases(clock.getAsLong());
+		return leases.get(lease.application) == lease;
+	}
+
+	/**
+	 * Completes a claim once its application has been decided, removing the
+	 * application from the queue.
+	 *
+	 * @param lease the claim to complete
+	 * @return {@code true} if the claim was completed, {@code false} if it was no
+	 *         longer held
+	 */
+	public synchronized boolean complete(Lease lease) {
+		expireLeases(clock.getAsLong());
+		if (leases.get(lease.application) != lease) {
+			return false;
+		}
+		leases.remove(lease.application);
+		entries.remove(lease.application);
+		completed++;
+		return true;
+	}
+
+	/**
+	 * Gives up a claim without deciding its application, which goes back to its
+	 * place in the queue.
+	 *
+	 * @param lease the claim to release
+	 * @return {@code true} if the claim was released, {@code false} if it was no
+	 *         longer held
+	 */
+	public synchronized boolean release(Lease lease) {
+		expireLeases(clock.getAsLong());
+		if (leases.remove(lease.application, lease)) {
+			requeue(lease.application);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Takes an application that was decided elsewhere out of the queue. Claimed
+	 * applications are left to their reviewer. Removing from the middle of the
+	 * queue would take linear time, so the entry is only marked and skipped when
+	 * it reaches the head.
+	 *
+	 * @param application the application to remove
+	 * @return {@code true} if the application was waiting, {@code false} otherwise
+	 */
+	public synchronized boolean remove(BTOApplication application) {
+		Entry entry = entries.get(application);
+		if (entry == null || leases.containsKey(application)) {
+			return false;
+		}
+		entries.remove(application);
+		entry.removed = true;
+		removedEntries++;
+		return true;
+	}
+
+	/**
+	 * Returns the applications of claims that have run out to the queue. There
+	 * are at most as many claims as reviewers, so they are simply scanned.
+	 *
+	 * @param now the current time, in nanoseconds
+	 */
+	private void expireLeases(long now) {
+		Iterator<Lease> iterator = leases.values().iterator();
+		while (iterator.hasNext()) {
+			Lease lease = iterator.next();
+			if (now - lease.expiresAt >= 0) {
+				iterator.remove();
+				requeue(lease.application);
+				expired++;
+			}
+		}
+	}
+
+	/**
+	 * Puts a claimed application back in the queue if it is still pending. It
+	 * keeps the time it was first queued, so waiting time is not reset.
+	 *
+	 * @param application the application to put back
+	 */
+	private void requeue(BTOApplication application) {
+		if (application.getStatus() == BTOApplicationStatus.PENDING) {
+			ready.add(entries.get(application));
+		} else {
+			entries.remove(application);
+		}
+	}
+
+	/**
+	 * Gets the number of applications waiting to be claimed.
+	 *
+	 * @return the queue depth
+	 */
+	public synchronized int getDepth() {
+		expireLeases(clock.getAsLong());
+		return ready.size() - removedEntries;
+	}
+
+	/**
+	 * Gets the number of applications currently claimed.
+	 *
+	 * @return the number of claims held
+	 */
+	public synchronized int getLeasedCount() {
+		expireLeases(clock.getAsLong());
+		return leases.size();
+	}
+
+	/**
+	 * Gets how long the application at the head of the queue has been waiting.
+	 *
+	 * @return the waiting time, or {@link Duration#ZERO} if none is waiting
+	 */
+	public synchronized Duration getOldestWait() {
+		long now = clock.getAsLong();
+		expireLeases(now);
+		Entry head = ready.peek();
+		while (head != null && head.removed) {
+			ready.poll();
+			removedEntries--;
+			head = ready.peek();
+		}
+		return head == null ? Duration.ZERO : Duration.ofNanos(now - head.enqueuedAt);
+	}
+
+	/**
+	 * Gets the average time applications waited before they were claimed.
+	 *
+	 * @return the average waiting time, or {@link Duration#ZERO} if none was claimed
+	 */
+	public synchronized Duration getAverageWait() {
+		return claimed == 0 ? Duration.ZERO : Duration.ofNanos(totalWaitNanos / claimed);
+	}
+
+	/**
+	 * Gets the longest time an application waited before it was claimed.
+	 *
+	 * @return the longest waiting time
+	 */
+	public synchronized Duration getMaxWait() {
+		return Duration.ofNanos(maxWaitNanos);
+	}
+
+	/**
+	 * Gets the number of claims made.
+	 *
+	 * @return the number of claims
+	 */
+	public synchronized long getClaimedCount() {
+		return claimed;
+	}
+
+	/**
+	 * Gets the number of claims that ran out before they were completed.
+	 *
+	 * @return the number of expired claims
+	 */
+	public synchronized long getExpiredCount() {
+		expireLeases(clock.getAsLong());
+		return expired;
+	}
+
+	/**
+	 * Gets the number of claims completed.
+	 *
+	 * @return the number of completed claims
+	 */
+	public synchronized long getCompletedCount() {
+		return completed;
+	}
+
+	/**
+	 * An application in the queue, its submission time as a number so the queue
+	 * can be ordered cheaply, and the time it was first queued.
+	 */
+	private static class Entry {
+		private final BTOApplication application;
+		private final long submittedAt;
+		private final long enqueuedAt;
+		private boolean removed = false;
+
+		private Entry(BTOApplication application, long enqueuedAt) {
+			LocalDateTime submitted = application.getSubmittedAt();
+			this.application = application;
+			this.submittedAt = submitted == null ? Long.MIN_VALUE
+					: submitted.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + submitted.getNano();
+			this.enqueuedAt = enqueuedAt;
+		}
+	}
+
+	/**
+	 * A reviewer's time-limited claim on one application.
+	 */
+	public static class Lease {
+		private final BTOApplication application;
+		private final String holder;
+		private final long waitNanos;
+		private long expiresAt;
+
+		private Lease(BTOApplication application, String holder, long waitNanos, long expiresAt) {
+			this.application = application;
+			this.holder = holder;
+			this.waitNanos = waitNanos;
+			this.expiresAt = expiresAt;
+		}
+
+		/**
+		 * Gets the claimed application.
+		 *
+		 * @return the application
+		 */
+		public BTOApplication getApplication() {
+			return application;
+		}
+
+		/**
+		 * Gets the name of the reviewer holding the claim.
+		 *
+		 * @return the holder
+		 */
+		public String getHolder() {
+			return holder;
+		}
+
+		/**
+		 * Gets how long the application waited in the queue before it was claimed.
+		 *
+		 * @return the waiting time
+		 */
+		public Duration getWait() {
+			return Duration.ofNanos(waitNanos);
+		}
+	}
+}
@@ -5,14 +5,11 @@ import models.User;
 /**
  * The {@link AuthStore} class provides utility methods for managing the current
  * authenticated user within the application. It offers methods to set and get
- * the current user, as well as check if the user is logged in.
+ * the current user, as well as check if the user is logged in. The user is kept
+ * in the {@link SessionContext} of the current session, so concurrent sessions
+ * each see their own user.
  */
 public class AuthStore {
-	/**
-	 * The currently authenticated user.
-	 */
-	private static User currentUser;
-
 	/**
 	 * Private constructor to prevent instantiation of the class.
 	 */
@@ -25,7 +22,7 @@ public class AuthStore {
 	 * @param currentUser the {@link User} instance to set as the current user
 	 */
 	public static void setCurrentUser(User currentUser) {
-		AuthStore.currentUser = currentUser;
+		SessionContext.current().setCurrentUser(currentUser);
 	}
 
 	/**
@@ -34,7 +31,7 @@ public class AuthStore {
 	 * @return {@code true} if the user is logged in, {@code false} otherwise
 	 */
 	public static boolean isLoggedIn() {
-		return currentUser != null;
+		return SessionContext.current().getCurrentUser() != null;
 	}
 
 	// ---------- Get Methods ---------- //
@@ -44,6 +41,6 @@ public class AuthStore {
 	 * @return the current {@link User} instance, or {@code null} if not logged in
 	 */
 	public static User getCurrentUser() {
-		return AuthStore.currentUser;
+		return SessionContext.current().getCurrentUser();
 	}
-}
\ No newline at end of file
+}
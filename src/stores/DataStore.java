@@ -1,8 +1,27 @@
 package stores;
 
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
 
+import enumeration.BTOApplicationStatus;
+import enumeration.UserType;
+import events.ApplicationSubmitted;
+import events.EventBus;
+import events.StatusChanged;
 import interfaces.IFileDataService;
 import models.Applicant;
 import models.BTOProject;
@@ -12,12 +31,30 @@ import models.BTOApplication;
 import models.HDBOfficerRegistration;
 import models.Enquiry;
 import models.WithdrawalRequest;
+import models.User;
+import models.Waitlist;
+import profiling.DataStoreEvent;
+import utils.BloomFilter;
+import utils.MetricsRegistry;
+import utils.ObjectLayout;
 
 /**
  * The {@link DataStore} class provides utility methods for managing data
  * storage within the application. It offers methods to initialize the data
  * store, import and export data to and from the file system, and interact with
  * data maps for various data types.
+ *
+ * <p>
+ * Concurrent sessions read the data without locking. Users are held in
+ * {@link NricMap}s; projects, applications and officer registrations in
+ * {@link ConcurrentHashMap}s; enquiries and withdrawal requests in
+ * {@link LazyStore}s, which copy what they load into a
+ * {@link ConcurrentHashMap} of their own. The getters return read-only views;
+ * entities are added and removed through the write methods of each data type.
+ * Updates that span several entities of one project run under that project's
+ * lock, see
+ * {@link #withProjectLock(BTOProject, Supplier)}.
+ * </p>
  */
 public class DataStore {
 	/**
@@ -30,62 +67,192 @@ public class DataStore {
 	 */
 	private static Map<String, String> filePathsMap;
 
+	/**
+	 * Whether the data was loaded in full. Data that was not is never saved, so the
+	 * files are not overwritten with only some of their rows.
+	 */
+	private static volatile boolean loaded = false;
+
 	/**
 	 * A {@link Map} containing applicant ID as the key and {@link Applicant}
 	 * objects as the value.
 	 */
-	private static Map<String, Applicant> applicantsData = new HashMap<String, Applicant>();
+	private static Map<String, Applicant> applicantsData = new NricMap<Applicant>();
 
 	/**
 	 * A {@link Map} containing HDB manager ID as the key and {@link HDBManager}
 	 * objects as the value.
 	 */
-	private static Map<String, HDBManager> hdbManagersData = new HashMap<String, HDBManager>();
+	private static Map<String, HDBManager> hdbManagersData = new NricMap<HDBManager>();
 
 	/**
 	 * A {@link Map} containing HDB officer ID as the key and
 	 * {@link HDBOfficer} objects as the value.
 	 */
-	private static Map<String, HDBOfficer> hdbOfficersData = new HashMap<String, HDBOfficer>();
+	private static Map<String, HDBOfficer> hdbOfficersData = new NricMap<HDBOfficer>();
+
+	/**
+	 * The target false positive rate of the {@link BloomFilter}s over the NRICs of
+	 * each type of user.
+	 */
+	private static final double USER_FILTER_FALSE_POSITIVE_RATE = 0.01;
+
+	/**
+	 * A {@link Map} containing the type of user as the key and a
+	 * {@link BloomFilter} over their NRICs as the value, used to rule out
+	 * unknown NRICs without searching the users.
+	 */
+	private static final Map<UserType, BloomFilter> userFilters = new ConcurrentHashMap<UserType, BloomFilter>();
+
+	/**
+	 * The lock held while adding to or rebuilding a {@link BloomFilter} over
+	 * NRICs, so that no user added during a rebuild is missed.
+	 */
+	private static final Object userFiltersLock = new Object();
 
 	/**
 	 * A {@link Map} containing BTO project ID as the key and {@link BTOProject}
 	 * objects as the value.
 	 */
-	private static Map<String, BTOProject> btoProjectsData = new HashMap<String, BTOProject>();
+	private static Map<String, BTOProject> btoProjectsData = new ConcurrentHashMap<String, BTOProject>();
 
 	/**
 	 * A {@link Map} containing BTO application ID as the key and {@link BTOApplication}
 	 * objects as the value.
 	 */
-	private static Map<String, BTOApplication> btoApplicationsData = new HashMap<String, BTOApplication>();
+	private static Map<String, BTOApplication> btoApplicationsData = new ConcurrentHashMap<String, BTOApplication>();
 
 	/**
 	 * A {@link Map} containing HDB officer registration ID as the key and {@link HDBOfficerRegistration}
 	 * objects as the value.
 	 */
-	private static Map<String, HDBOfficerRegistration> hdbOfficerRegistrationsData = new HashMap<String, HDBOfficerRegistration>();
+	private static Map<String, HDBOfficerRegistration> hdbOfficerRegistrationsData = new ConcurrentHashMap<String, HDBOfficerRegistration>();
 
 	/**
-	 * A {@link Map} containing enquiry ID as the key and {@link Enquiry}
-	 * objects as the value.
+	 * A {@link LazyStore} holding enquiry ID as the key and {@link Enquiry}
+	 * objects as the value. Enquiries are only parsed on first access. The store
+	 * is empty until {@link #initDataStore(IFileDataService, Map)} replaces it with
+	 * one that loads the enquiry files.
 	 */
-	private static Map<String, Enquiry> enquiriesData = new HashMap<String, Enquiry>();
+	private static LazyStore<Enquiry> enquiriesStore = new LazyStore<Enquiry>("enquiry", HashMap::new);
 
 	/**
-	 * A {@link Map} containing withdrawal request ID as the key and {@link WithdrawalRequest}
-	 * objects as the value.
+	 * A {@link LazyStore} holding withdrawal request ID as the key and
+	 * {@link WithdrawalRequest} objects as the value. Withdrawal requests are only
+	 * parsed on first access. The store is empty until
+	 * {@link #initDataStore(IFileDataService, Map)} replaces it with one that loads
+	 * the withdrawal request file.
+	 */
+	private static LazyStore<WithdrawalRequest> withdrawalRequestsStore = new LazyStore<WithdrawalRequest>("withdrawalRequest", HashMap::new);
+
+	/**
+	 * A {@link Map} containing the name of each eagerly imported data type, or of
+	 * another step of loading, as the key and the time taken, in nanoseconds, as
+	 * the value.
 	 */
-	private static Map<String, WithdrawalRequest> withdrawalRequestsData = new HashMap<>();
+	private static final Map<String, Long> importTimings = new LinkedHashMap<String, Long>();
 
-	/**	 * Private constructor to prevent instantiation of the class.
+	/**
+	 * The locks guarding updates that span several entities of one
+	 * {@link BTOProject}.
+	 */
+	private static final StripedLocks projectLocks = new StripedLocks(64);
+
+	/**
+	 * How long a reviewer's claim on a pending application lasts without being
+	 * renewed.
+	 */
+	private static final Duration APPLICATION_LEASE_DURATION = Duration.ofMinutes(5);
+
+	/**
+	 * A {@link Map} holding each {@link BTOProject} that has been reviewed as the
+	 * key and the queue of its pending applications as the value. Projects have no
+	 * equality of their own, so they are compared by identity.
+	 */
+	private static final Map<BTOProject, ApplicationWorkQueue> applicationQueues = new ConcurrentHashMap<BTOProject, ApplicationWorkQueue>();
+
+	/**
+	 * A {@link Map} holding each {@link BTOApplicationStatus} as the key and the
+	 * BTO applications with that status as the value, kept up to date from the
+	 * published {@link ApplicationSubmitted} and {@link StatusChanged} events.
+	 * Built the first time it is asked for, and {@code null} until then.
+	 */
+	private static Map<BTOApplicationStatus, Set<BTOApplication>> applicationsByStatus = null;
+
+	/**
+	 * The lock guarding {@link #applicationsByStatus}.
+	 */
+	private static final Object applicationsByStatusLock = new Object();
+
+	/**
+	 * How long an estimate of the heap footprint is reused for the metrics before
+	 * it is measured again, in nanoseconds.
+	 */
+	private static final long FOOTPRINT_MAX_AGE_NANOS = 60_000_000_000L;
+
+	/**
+	 * The parts of the heap footprint, by name: each store of entities, the
+	 * project filters, and each index and cache.
+	 */
+	private static final Map<String, FootprintPart> footprintParts = new LinkedHashMap<String, FootprintPart>();
+
+	/**
+	 * The last estimate of the heap footprint, by part, and when it was measured.
+	 */
+	private static volatile Map<String, long[]> lastFootprint = null;
+	private static volatile long lastFootprintNanos = 0;
+
+	static {
+		EventBus.getInstance().subscribe(ApplicationSubmitted.class, DataStore::onApplicationsSubmitted);
+		EventBus.getInstance().subscribe(StatusChanged.class, DataStore::onStatusesChanged);
+
+		MetricsRegistry metrics = MetricsRegistry.getInstance();
+		metrics.gauge("DataStore.applicants", () -> applicantsData.size());
+		metrics.gauge("DataStore.hdbManagers", () -> hdbManagersData.size());
+		metrics.gauge("DataStore.hdbOfficers", () -> hdbOfficersData.size());
+		metrics.gauge("DataStore.btoProjects", () -> btoProjectsData.size());
+		metrics.gauge("DataStore.btoApplications", () -> btoApplicationsData.size());
+		metrics.gauge("DataStore.hdbOfficerRegistrations", () -> hdbOfficerRegistrationsData.size());
+		metrics.gauge("DataStore.pendingApplications", () -> applicationQueues.values().stream().mapToInt(ApplicationWorkQueue::getDepth).sum());
+		for (UserType userType : UserType.values()) {
+			String prefix = "DataStore.userFilter." + userType.name() + ".";
+			metrics.gauge(prefix + "queries", () -> userFilterStat(userType, BloomFilter::getQueryCount));
+			metrics.gauge(prefix + "negatives", () -> userFilterStat(userType, BloomFilter::getNegativeCount));
+			metrics.gauge(prefix + "observedFalsePositiveRate", () -> userFilterStat(userType, BloomFilter::getObservedFalsePositiveRate));
+		}
+
+		footprintPart("applicants", Applicant.class, () -> applicantsData, () -> applicantsData.size());
+		footprintPart("hdbOfficers", HDBOfficer.class, () -> hdbOfficersData, () -> hdbOfficersData.size());
+		footprintPart("hdbManagers", HDBManager.class, () -> hdbManagersData, () -> hdbManagersData.size());
+		footprintPart("btoProjects", BTOProject.class, () -> btoProjectsData, () -> btoProjectsData.size());
+		footprintPart("btoApplications", BTOApplication.class, () -> btoApplicationsData, () -> btoApplicationsData.size());
+		footprintPart("hdbOfficerRegistrations", HDBOfficerRegistration.class, () -> hdbOfficerRegistrationsData, () -> hdbOfficerRegistrationsData.size());
+		footprintPart("enquiries", Enquiry.class, () -> enquiriesStore, () -> enquiriesStore.getLoaded().size());
+		footprintPart("withdrawalRequests", WithdrawalRequest.class, () -> withdrawalRequestsStore, () -> withdrawalRequestsStore.getLoaded().size());
+		footprintPart("projectFilters", null, FilterStore::getProjectFilters, () -> FilterStore.getProjectFilters().size());
+		footprintPart("index.userFilters", null, () -> userFilters, () -> userFilters.size());
+		footprintPart("index.applicationsByStatus", null, () -> applicationsByStatus, () -> {
+			Map<BTOApplicationStatus, Set<BTOApplication>> index = applicationsByStatus;
+			return index == null ? 0 : index.values().stream().mapToInt(Set::size).sum();
+		});
+		footprintPart("index.applicationQueues", null, () -> applicationQueues, () -> applicationQueues.size());
+		footprintPart("index.projectLocks", null, () -> projectLocks, () -> 0);
+		for (String part : footprintParts.keySet()) {
+			metrics.gauge("DataStore.footprint." + part + ".bytes", () -> footprintBytes(part));
+		}
+		metrics.gauge("DataStore.footprint.totalBytes", () -> footprintBytes(null));
+	}
+
+	/**
+	 * Private constructor to prevent instantiation of the class.
 	 */
 	private DataStore() {
 	}
 
 	/**
 	 * Initializes the DataStore by setting up the file data service, file paths
-	 * map, and importing data from the file system.
+	 * map, and importing data from the file system. If a file cannot be read in
+	 * full, the data is not saved until it has been loaded again.
 	 *
 	 * @param fileDataService the {@link IFileDataService} instance to use for data
 	 *                        operations
@@ -95,58 +262,346 @@ public class DataStore {
 	 *         otherwise
 	 */
 	public static boolean initDataStore(IFileDataService fileDataService, Map<String, String> filePathsMap) {
-		// Initialize fileDataService and filePathsMap
+		// Initialize fileDataService and filePathsMap, timing every import and export
+		IFileDataService timedService = MetricsRegistry.getInstance().instrument(IFileDataService.class, fileDataService);
 		DataStore.filePathsMap = filePathsMap;
-		DataStore.fileDataService = fileDataService;
+		DataStore.fileDataService = timedService;
 
 		// Import data
-		DataStore.applicantsData = fileDataService.importApplicantData(filePathsMap.get("applicant"));
-		DataStore.hdbManagersData = fileDataService.importHDBManagerData(filePathsMap.get("hdbManager"));
-		DataStore.hdbOfficersData = fileDataService.importHDBOfficerData(filePathsMap.get("hdbOfficer"));
-		DataStore.btoProjectsData = fileDataService.importBTOProjectData(filePathsMap.get("btoProject"));
-		DataStore.btoApplicationsData = fileDataService.importBTOApplicationData(filePathsMap.get("btoApplication"));
-		DataStore.hdbOfficerRegistrationsData = fileDataService.importHDBOfficerRegistrationData(filePathsMap.get("hdbOfficerRegistrations"));
-		DataStore.enquiriesData = fileDataService.importEnquiryData(filePathsMap.get("enquiry"));
-		DataStore.withdrawalRequestsData = fileDataService.importWithdrawalRequestData(filePathsMap.get("withdrawalRequest"));
+		DataStoreEvent event = new DataStoreEvent("load", "all", filePathsMap.values().toArray(new String[0]));
+		event.begin();
+		importTimings.clear();
+		applicationQueues.clear();
+		synchronized (applicationsByStatusLock) {
+			applicationsByStatus = null;
+		}
+		loaded = false;
+		Map<String, Waitlist> waitlists;
+		try {
+			DataStore.applicantsData = timedUserImport("applicant", filePathsMap.get("applicant"), timedService::importApplicantData);
+			DataStore.hdbManagersData = timedUserImport("hdbManager", filePathsMap.get("hdbManager"), timedService::importHDBManagerData);
+			DataStore.hdbOfficersData = timedUserImport("hdbOfficer", filePathsMap.get("hdbOfficer"), timedService::importHDBOfficerData);
+			DataStore.btoProjectsData = timedImport("btoProject", filePathsMap.get("btoProject"), timedService::importBTOProjectData);
+			String btoApplicationShardDirectoryPath = filePathsMap.get("btoApplicationShards");
+			DataStore.btoApplicationsData = timedService.hasShards(btoApplicationShardDirectoryPath)
+					? timedImport("btoApplication", btoApplicationShardDirectoryPath, timedService::importBTOApplicationShards)
+					: timedImport("btoApplication", filePathsMap.get("btoApplication"), timedService::importBTOApplicationData);
+			DataStore.hdbOfficerRegistrationsData = timedImport("hdbOfficerRegistration", filePathsMap.get("hdbOfficerRegistrations"), timedService::importHDBOfficerRegistrationData);
+			waitlists = timedImport("waitlist", filePathsMap.get("waitlist"), timedService::importWaitlistData);
+			for (Map.Entry<String, Waitlist> waitlist : waitlists.entrySet()) {
+				BTOProject project = btoProjectsData.get(waitlist.getKey());
+				if (project == null) {
+					System.out.println("Warning: Skipping waitlist - Project not found: " + waitlist.getKey());
+					continue;
+				}
+				project.setWaitlist(waitlist.getValue());
+			}
+		} catch (UncheckedIOException e) {
+			// Keep the files as they are rather than save a partial import over them
+			System.out.println(e.getMessage());
+			event.finish(0);
+			return false;
+		}
+
+		long filtersStart = System.nanoTime();
+		for (UserType userType : UserType.values()) {
+			rebuildUserFilter(userType);
+		}
+		importTimings.put("userFilters", System.nanoTime() - filtersStart);
+
+		// Defer enquiries and withdrawal requests until they are first accessed
+		String enquiryShardDirectoryPath = filePathsMap.get("enquiryShards");
+		if (timedService.hasShards(enquiryShardDirectoryPath)) {
+			DataStore.enquiriesStore = new LazyStore<Enquiry>("enquiry",
+					() -> timedService.importEnquiryShards(enquiryShardDirectoryPath),
+					projectName -> timedService.importEnquiryShard(enquiryShardDirectoryPath, projectName),
+					enquiry -> enquiry.getProject().getProjectName());
+		} else {
+			DataStore.enquiriesStore = new LazyStore<Enquiry>("enquiry",
+					() -> timedService.importEnquiryData(filePathsMap.get("enquiry")));
+		}
+		DataStore.withdrawalRequestsStore = new LazyStore<WithdrawalRequest>("withdrawalRequest",
+				() -> timedService.importWithdrawalRequestData(filePathsMap.get("withdrawalRequest")));
 
 		// Set up handled projects for HDB officers
+		long linksStart = System.nanoTime();
 		for (BTOProject project : btoProjectsData.values()) {
 			for (HDBOfficer officer : project.getHDBOfficers()) {
 				officer.addHandledProject(project);
 			}
 		}
+		importTimings.put("officerProjectLinks", System.nanoTime() - linksStart);
 
+		event.finish(applicantsData.size() + hdbManagersData.size() + hdbOfficersData.size() + btoProjectsData.size()
+				+ btoApplicationsData.size() + hdbOfficerRegistrationsData.size() + waitlists.size());
+		loaded = true;
 		return true;
 	}
 
 	/**
-	 * Saves the data from the DataStore to the file system.
+	 * Saves the data from the DataStore to the file system. Sessions served
+	 * concurrently save one at a time, so a file is never written by two threads.
 	 *
 	 * @return {@code true} if the data is saved successfully, {@code false}
-	 *         otherwise
+	 *         otherwise, or if it was not loaded in full
 	 */
-	public static boolean saveData() {
-		DataStore.setApplicantsData(applicantsData);
-		DataStore.setHDBManagersData(hdbManagersData);
-		DataStore.setHDBOfficersData(hdbOfficersData);
-		DataStore.setBTOProjectsData(btoProjectsData);
-		DataStore.setBTOApplicationsData(btoApplicationsData);
-		DataStore.setHDBOfficerRegistrationsData(hdbOfficerRegistrationsData);
-		DataStore.setEnquiriesData(enquiriesData);
-		DataStore.setWithdrawalRequestsData(withdrawalRequestsData);
+	public static synchronized boolean saveData() {
+		if (!loaded) {
+			return false;
+		}
+		DataStoreEvent event = new DataStoreEvent("save", "all", filePathsMap.values().toArray(new String[0]));
+		event.begin();
+		long rows = 0;
+		rows += timedExport("applicant", filePathsMap.get("applicant"), applicantsData, fileDataService::exportApplicantData);
+		rows += timedExport("hdbManager", filePathsMap.get("hdbManager"), hdbManagersData, fileDataService::exportHDBManagerData);
+		rows += timedExport("hdbOfficer", filePathsMap.get("hdbOfficer"), hdbOfficersData, fileDataService::exportHDBOfficerData);
+		rows += timedExport("btoProject", filePathsMap.get("btoProject"), btoProjectsData, fileDataService::exportBTOProjectData);
+		rows += timedExport("btoApplication", filePathsMap.get("btoApplicationShards"), btoApplicationsData, fileDataService::exportBTOApplicationShards);
+		rows += timedExport("hdbOfficerRegistration", filePathsMap.get("hdbOfficerRegistrations"), hdbOfficerRegistrationsData, fileDataService::exportHDBOfficerRegistrationData);
+		rows += timedExport("waitlist", filePathsMap.get("waitlist"), btoProjectsData, fileDataService::exportWaitlistData);
 
+		// Lazily loaded data that was never accessed cannot have changed
+		if (enquiriesStore.isLoaded()) {
+			rows += timedExport("enquiry", filePathsMap.get("enquiryShards"), enquiriesStore.getLoaded(), fileDataService::exportEnquiryShards);
+		}
+		if (withdrawalRequestsStore.isLoaded()) {
+			rows += timedExport("withdrawalRequest", filePathsMap.get("withdrawalRequest"), withdrawalRequestsStore.getLoaded(), fileDataService::exportWithdrawalRequestData);
+		}
+
+		event.finish(rows);
 		return true;
 	}
 
+	/**
+	 * Imports a data type into a concurrent map and records the time taken, also
+	 * as a {@link DataStoreEvent} for Java Flight Recorder.
+	 *
+	 * @param <V>      the type of entity imported
+	 * @param name     the name of the data type
+	 * @param path     the file or shard directory to import from
+	 * @param importer imports the data map from the path
+	 * @return the imported data map
+	 */
+	private static <V> Map<String, V> timedImport(String name, String path, Function<String, Map<String, V>> importer) {
+		long start = System.nanoTime();
+		DataStoreEvent event = new DataStoreEvent("load", name, path);
+		event.begin();
+		Map<String, V> data = new ConcurrentHashMap<String, V>(importer.apply(path));
+		event.finish(data.size());
+		importTimings.put(name, System.nanoTime() - start);
+		return data;
+	}
+
+	/**
+	 * Imports a type of user into an {@link NricMap}, recording how long it took,
+	 * also as a {@link DataStoreEvent} for Java Flight Recorder.
+	 *
+	 * @param <V>      the type of user imported
+	 * @param name     the name of the data type
+	 * @param path     the file to import from
+	 * @param importer imports the users from the path
+	 * @return the imported users, keyed by NRIC
+	 */
+	private static <V> Map<String, V> timedUserImport(String name, String path, Function<String, Map<String, V>> importer) {
+		long start = System.nanoTime();
+		DataStoreEvent event = new DataStoreEvent("load", name, path);
+		event.begin();
+		Map<String, V> imported = importer.apply(path);
+		Map<String, V> data = imported instanceof NricMap ? imported : new NricMap<V>(imported);
+		event.finish(data.size());
+		importTimings.put(name, System.nanoTime() - start);
+		return data;
+	}
+
+	/**
+	 * Exports a data type, recording it as a {@link DataStoreEvent} for Java
+	 * Flight Recorder.
+	 *
+	 * @param <V>      the type of entity exported
+	 * @param name     the name of the data type
+	 * @param path     the file or shard directory to export to
+	 * @param data     the data map to export
+	 * @param exporter exports the data map to the path
+	 * @return the number of entities exported
+	 */
+	private static <V> int timedExport(String name, String path, Map<String, V> data, BiConsumer<String, Map<String, V>> exporter) {
+		DataStoreEvent event = new DataStoreEvent("save", name, path);
+		event.begin();
+		exporter.accept(path, data);
+		event.finish(data.size());
+		return data.size();
+	}
+
+	/**
+	 * Replaces the contents of a data map. The source is copied first, so it may
+	 * be a view of the target.
+	 *
+	 * @param <V>    the type of entity held
+	 * @param target the data map to update
+	 * @param source the new contents
+	 */
+	private static <V> void replaceContents(Map<String, V> target, Map<String, V> source) {
+		Map<String, V> copy = new HashMap<String, V>(source);
+		target.clear();
+		target.putAll(copy);
+	}
+
+	/**
+	 * Runs an update that spans several entities of a project while holding the
+	 * project's lock. Updates of the same project run one at a time; updates of
+	 * different projects usually run in parallel. Reads never take the lock.
+	 *
+	 * @param <T>     the type of result
+	 * @param project the {@link BTOProject} being updated
+	 * @param update  the update to run
+	 * @return the result of the update
+	 */
+	public static <T> T withProjectLock(BTOProject project, Supplier<T> update) {
+		return projectLocks.withLock(project, update);
+	}
+
+	/**
+	 * Gets a report of how long each data type took to load, and the other steps
+	 * of loading such as linking officers to their projects, listing the data
+	 * types whose loading was deferred and whether they have been loaded since.
+	 *
+	 * @return a {@link List} of report lines
+	 */
+	public static List<String> getLoadReport() {
+		List<String> report = new ArrayList<String>();
+		for (Map.Entry<String, Long> timing : importTimings.entrySet()) {
+			report.add(String.format("%-24s %8.2f ms", timing.getKey(), timing.getValue() / 1_000_000.0));
+		}
+		for (LazyStore<?> store : List.of(enquiriesStore, withdrawalRequestsStore)) {
+			String state;
+			if (store.isFullyLoaded()) {
+				state = String.format("%8.2f ms (loaded on demand)", store.getLoadNanos() / 1_000_000.0);
+			} else if (store.isLoaded()) {
+				state = String.format("%8.2f ms (%d project shard(s) loaded on demand)",
+						store.getLoadNanos() / 1_000_000.0, store.getLoadedProjects().size());
+			} else {
+				state = "deferred";
+			}
+			report.add(String.format("%-24s %s", store.getName(), state));
+		}
+		return report;
+	}
+
+	/**
+	 * Adds a part to the heap footprint.
+	 *
+	 * @param name    the name of the part
+	 * @param owned   the type of entity the part holds, or {@code null} for an
+	 *                index or cache that only refers to entities held elsewhere
+	 * @param root    reads the object holding the part
+	 * @param entries reads the number of entries in the part
+	 */
+	private static void footprintPart(String name, Class<?> owned, Supplier<Object> root, IntSupplier entries) {
+		footprintParts.put(name, new FootprintPart(owned, root, entries));
+	}
+
+	/**
+	 * Checks whether an object is an entity held by one of the stores.
+	 *
+	 * @param object the object
+	 * @return {@code true} for a user, project, application, officer
+	 *         registration, enquiry or withdrawal request
+	 */
+	private static boolean isEntity(Object object) {
+		return object instanceof User || object instanceof BTOProject || object instanceof BTOApplication
+				|| object instanceof HDBOfficerRegistration || object instanceof Enquiry
+				|| object instanceof WithdrawalRequest;
+	}
+
+	/**
+	 * Estimates the bytes of heap retained by each store of entities, the project
+	 * filters, and each index and cache, by sampling the layout of their objects
+	 * with {@link ObjectLayout}. A store counts its entities and everything only
+	 * they refer to, but not the entities of other stores they refer to; an
+	 * index or cache counts its own structure but not the entities it refers to.
+	 * A part that changed too much while it was measured is left out.
+	 *
+	 * @return the number of entries and the estimated bytes of each part, by
+	 *         name, in a two-element array
+	 */
+	public static Map<String, long[]> getHeapFootprint() {
+		ObjectLayout layout = ObjectLayout.getInstance();
+		Map<String, long[]> footprint = new LinkedHashMap<String, long[]>();
+		for (Map.Entry<String, FootprintPart> part : footprintParts.entrySet()) {
+			Class<?> owned = part.getValue().owned;
+			try {
+				long bytes = layout.retainedSizeOf(part.getValue().root.get(),
+						object -> isEntity(object) && (owned == null || !owned.isInstance(object)));
+				footprint.put(part.getKey(), new long[] { part.getValue().entries.getAsInt(), bytes });
+			} catch (RuntimeException e) {
+				System.out.println("Error measuring the heap footprint of " + part.getKey() + ": " + e);
+			}
+		}
+		lastFootprint = footprint;
+		lastFootprintNanos = System.nanoTime();
+		return footprint;
+	}
+
+	/**
+	 * Gets the estimated bytes of a part of the heap footprint for a metric, from
+	 * the last estimate if it is recent enough and otherwise from a new one.
+	 *
+	 * @param part the name of the part, or {@code null} for the sum of all parts
+	 * @return the estimated bytes
+	 */
+	private static long footprintBytes(String part) {
+		Map<String, long[]> footprint = lastFootprint;
+		if (footprint == null || System.nanoTime() - lastFootprintNanos > FOOTPRINT_MAX_AGE_NANOS) {
+			footprint = getHeapFootprint();
+		}
+		if (part != null) {
+			long[] figures = footprint.get(part);
+			return figures == null ? 0 : figures[1];
+		}
+		return footprint.values().stream().mapToLong(figures -> figures[1]).sum();
+	}
+
+	/**
+	 * Gets a report of the estimated heap footprint of each part of the data:
+	 * its entries, bytes and bytes per entry, and the total against the heap in
+	 * use.
+	 *
+	 * @return a {@link List} of report lines
+	 */
+	public static List<String> getHeapFootprintReport() {
+		long start = System.nanoTime();
+		Map<String, long[]> footprint = getHeapFootprint();
+		long elapsedNanos = System.nanoTime() - start;
+
+		List<String> report = new ArrayList<String>();
+		report.add(String.format("%-28s %10s %14s %12s", "Part", "Entries", "Bytes", "Bytes/entry"));
+		long total = 0;
+		for (Map.Entry<String, long[]> part : footprint.entrySet()) {
+			long entries = part.getValue()[0];
+			long bytes = part.getValue()[1];
+			report.add(String.format("%-28s %10d %14d %12s", part.getKey(), entries, bytes,
+					entries == 0 ? "-" : String.format("%.1f", (double) bytes / entries)));
+			total += bytes;
+		}
+		Runtime runtime = Runtime.getRuntime();
+		report.add(String.format("%-28s %10s %14d", "Total", "", total));
+		report.add(String.format("%-28s %10s %14d", "Heap in use", "", runtime.totalMemory() - runtime.freeMemory()));
+
+		ObjectLayout layout = ObjectLayout.getInstance();
+		report.add(String.format("Estimated in %.1f ms from up to %d sampled entries per collection, with %d-byte headers, %d-byte references and %d-byte alignment.",
+				elapsedNanos / 1e6, ObjectLayout.SAMPLE_SIZE, layout.getHeaderSize(), layout.getReferenceSize(), layout.getAlignment()));
+		return report;
+	}
+
 	// ---------- Student ---------- //
 	/**
 	 * Gets the applicants data map.
 	 *
-	 * @return a {@link Map} containing student ID as the key and {@link Student}
+	 * @return a read-only {@link Map} containing student ID as the key and {@link Student}
 	 *         objects as the value
 	 */
 	public static Map<String, Applicant> getApplicantsData() {
-		return DataStore.applicantsData;
+		return Collections.unmodifiableMap(DataStore.applicantsData);
 	}
 
 	/**
@@ -156,19 +611,122 @@ public class DataStore {
 	 *                     {@link Student} objects as the value
 	 */
 	public static void setApplicantsData(Map<String, Applicant> applicantsData) {
-		DataStore.applicantsData = applicantsData;
-		fileDataService.exportApplicantData(filePathsMap.get("applicant"), applicantsData);
+		replaceContents(DataStore.applicantsData, applicantsData);
+		rebuildUserFilter(UserType.APPLICANT);
+		fileDataService.exportApplicantData(filePathsMap.get("applicant"), DataStore.applicantsData);
+	}
+
+	/**
+	 * Adds a new applicant unless one with the same NRIC already exists.
+	 *
+	 * @param applicant the {@link Applicant} to add
+	 * @return {@code true} if the applicant was added, {@code false} if the NRIC
+	 *         is already registered
+	 */
+	public static boolean addApplicant(Applicant applicant) {
+		if (applicantsData.putIfAbsent(applicant.getNric(), applicant) != null) {
+			return false;
+		}
+		synchronized (userFiltersLock) {
+			BloomFilter filter = userFilters.get(UserType.APPLICANT);
+			if (filter.isOverCapacity()) {
+				rebuildUserFilter(UserType.APPLICANT);
+			} else {
+				filter.add(applicant.getNric());
+			}
+		}
+		return true;
+	}
+
+	// ---------- User ---------- //
+	/**
+	 * Checks whether a user of a type is registered with an NRIC. NRICs ruled out
+	 * by the type's {@link BloomFilter} are answered without searching the users.
+	 * A user being added concurrently may not be seen until it has been added.
+	 *
+	 * @param userType the type of user
+	 * @param nric     the NRIC to look for
+	 * @return {@code true} if such a user exists, {@code false} otherwise
+	 */
+	public static boolean userExists(UserType userType, String nric) {
+		BloomFilter filter = userFilters.get(userType);
+		if (filter != null && !filter.mightContain(nric)) {
+			return false;
+		}
+		boolean exists = usersOf(userType).containsKey(nric);
+		if (!exists && filter != null) {
+			filter.recordFalsePositive();
+		}
+		return exists;
+	}
+
+	/**
+	 * Gets the {@link BloomFilter} over the NRICs of a type of user, for its
+	 * counters.
+	 *
+	 * @param userType the type of user
+	 * @return the filter
+	 */
+	public static BloomFilter getUserFilter(UserType userType) {
+		return userFilters.get(userType);
+	}
+
+	/**
+	 * Reads a figure of the {@link BloomFilter} over the NRICs of a type of user,
+	 * for a gauge.
+	 *
+	 * @param userType the type of user
+	 * @param stat     reads the figure from the filter
+	 * @return the figure, or {@code null} if the filter has not been built yet
+	 */
+	private static Number userFilterStat(UserType userType, Function<BloomFilter, Number> stat) {
+		BloomFilter filter = userFilters.get(userType);
+		return filter == null ? null : stat.apply(filter);
+	}
+
+	/**
+	 * Builds a new {@link BloomFilter} over the NRICs of a type of user, sized for
+	 * twice the current number of users so registrations can be added for a while.
+	 *
+	 * @param userType the type of user
+	 */
+	private static void rebuildUserFilter(UserType userType) {
+		synchronized (userFiltersLock) {
+			Map<String, ? extends User> users = usersOf(userType);
+			BloomFilter filter = new BloomFilter(Math.max(1024, users.size() * 2), USER_FILTER_FALSE_POSITIVE_RATE);
+			for (User user : users.values()) {
+				filter.add(user.getNric());
+			}
+			userFilters.put(userType, filter);
+		}
+	}
+
+	/**
+	 * Gets the data map of a type of user.
+	 *
+	 * @param userType the type of user
+	 * @return the users of that type, keyed by NRIC
+	 */
+	private static Map<String, ? extends User> usersOf(UserType userType) {
+		switch (userType) {
+			case HDB_OFFICER:
+				return hdbOfficersData;
+			case HDB_MANAGER:
+				return hdbManagersData;
+			default:
+				return applicantsData;
+		}
 	}
 
 	// ---------- HDB Manager ---------- //
 	/**
 	 * Gets the HDB Managers data map.
 	 *
-	 * @return a {@link Map} containing HDB Manager ID as the key and
+	 * @return a read-only {@link Map} containing HDB Manager ID as the key and
 	 *         {@link HDB Manager} objects as the value
 	 */
 	public static Map<String, HDBManager> getHDBManagersData() {
-		return DataStore.hdbManagersData;
+		return Collections.unmodifiableMap(DataStore.hdbManagersData);
 	}
 
 	/**
@@ -178,19 +736,20 @@ public class DataStore {
 	 *                        {@link HDB Manager} objects as the value
 	 */
 	public static void setHDBManagersData(Map<String, HDBManager> hdbManagersData) {
-		DataStore.hdbManagersData = hdbManagersData;
-		fileDataService.exportHDBManagerData(filePathsMap.get("hdbManager"), hdbManagersData);
+		replaceContents(DataStore.hdbManagersData, hdbManagersData);
+		rebuildUserFilter(UserType.HDB_MANAGER);
+		fileDataService.exportHDBManagerData(filePathsMap.get("hdbManager"), DataStore.hdbManagersData);
 	}
 
 
 	/**
 	 * Gets the coordinators data map.
 	 *
-	 * @return a {@link Map} containing coordinator ID as the key and
+	 * @return a read-only {@link Map} containing coordinator ID as the key and
 	 *         {@link Officer Coordinator} objects as the value
 	 */
 	public static Map<String, HDBOfficer> getHDBOfficersData() {
-		return DataStore.hdbOfficersData;
+		return Collections.unmodifiableMap(DataStore.hdbOfficersData);
 	}
 
 	/**
@@ -201,19 +760,20 @@ public class DataStore {
 	 *                            value
 	 */
 	public static void setHDBOfficersData(Map<String, HDBOfficer> hdbOfficersData) {
-		DataStore.hdbOfficersData = hdbOfficersData;
-		fileDataService.exportHDBOfficerData(filePathsMap.get("hdbOfficer"), hdbOfficersData);
+		replaceContents(DataStore.hdbOfficersData, hdbOfficersData);
+		rebuildUserFilter(UserType.HDB_OFFICER);
+		fileDataService.exportHDBOfficerData(filePathsMap.get("hdbOfficer"), DataStore.hdbOfficersData);
 	}
 
 	// ---------- BTO Project ---------- //
 	/**
 	 * Gets the BTO projects data map.
 	 *
-	 * @return a {@link Map} containing BTO project ID as the key and
+	 * @return a read-only {@link Map} containing BTO project ID as the key and
 	 *         {@link BTOProject} objects as the value
 	 */
 	public static Map<String, BTOProject> getBTOProjectsData() {
-		return DataStore.btoProjectsData;
+		return Collections.unmodifiableMap(DataStore.btoProjectsData);
 	}
 
 	/**
@@ -223,40 +783,219 @@ public class DataStore {
 	 *                        {@link BTOProject} objects as the value
 	 */
 	public static void setBTOProjectsData(Map<String, BTOProject> btoProjectsData) {
-		DataStore.btoProjectsData = btoProjectsData;
-		fileDataService.exportBTOProjectData(filePathsMap.get("btoProject"), btoProjectsData);
+		replaceContents(DataStore.btoProjectsData, btoProjectsData);
+		fileDataService.exportBTOProjectData(filePathsMap.get("btoProject"), DataStore.btoProjectsData);
+	}
+
+	/**
+	 * Adds a new BTO project unless one with the same name already exists.
+	 *
+	 * @param project the {@link BTOProject} to add
+	 * @return {@code true} if the project was added, {@code false} if the name is
+	 *         taken
+	 */
+	public static boolean addBTOProject(BTOProject project) {
+		return btoProjectsData.putIfAbsent(project.getProjectName(), project) == null;
+	}
+
+	/**
+	 * Renames a BTO project. The new name is claimed before the old one is
+	 * released, so two projects can never end up with the same name. The
+	 * project's enquiries are loaded under the old name first, so they are saved
+	 * into the shard of the new name.
+	 *
+	 * @param project the {@link BTOProject} to rename
+	 * @param newName the new project name
+	 * @return {@code true} if the project was renamed, {@code false} if the new
+	 *         name is taken
+	 */
+	public static boolean renameBTOProject(BTOProject project, String newName) {
+		enquiriesStore.get(project.getProjectName());
+		return withProjectLock(project, () -> {
+			if (btoProjectsData.putIfAbsent(newName, project) != null) {
+				return false;
+			}
+			btoProjectsData.remove(project.getProjectName(), project);
+			project.setProjectName(newName);
+			return true;
+		});
+	}
+
+	/**
+	 * Removes a BTO project.
+	 *
+	 * @param project the {@link BTOProject} to remove
+	 * @return {@code true} if the project was removed, {@code false} if it was not
+	 *         in the store
+	 */
+	public static boolean removeBTOProject(BTOProject project) {
+		return withProjectLock(project, () -> {
+			applicationQueues.remove(project);
+			return btoProjectsData.remove(project.getProjectName(), project);
+		});
 	}
 	
 	// ---------- BTO Application ---------- //
 	/**
 	 * Gets the BTO applications data map.
 	 *
-	 * @return a {@link Map} containing BTO application ID as the key and
+	 * @return a read-only {@link Map} containing BTO application ID as the key and
 	 *         {@link BTOApplication} objects as the value
 	 */
 	public static Map<String, BTOApplication> getBTOApplicationsData() {
-		return DataStore.btoApplicationsData;
+		return Collections.unmodifiableMap(DataStore.btoApplicationsData);
 	}
 
 	/**
 	 * Sets the BTO applications data map and saves the data to the file system.
+	 * Applications are written into one shard per {@link BTOProject}, so only the
+	 * shards of projects whose applications changed are rewritten. The legacy
+	 * single file is only read when no shards exist yet.
 	 *
 	 * @param btoApplicationsData a {@link Map} containing BTO application ID as the key and
 	 *                           {@link BTOApplication} objects as the value
 	 */
 	public static void setBTOApplicationsData(Map<String, BTOApplication> btoApplicationsData) {
-		DataStore.btoApplicationsData = btoApplicationsData;
-		fileDataService.exportBTOApplicationData(filePathsMap.get("btoApplication"), btoApplicationsData);
+		replaceContents(DataStore.btoApplicationsData, btoApplicationsData);
+		// Queues and the status index are rebuilt from the new data when next asked for
+		applicationQueues.clear();
+		synchronized (applicationsByStatusLock) {
+			applicationsByStatus = null;
+		}
+		fileDataService.exportBTOApplicationShards(filePathsMap.get("btoApplicationShards"), DataStore.btoApplicationsData);
+	}
+
+	/**
+	 * Adds a new BTO application under the lock of its project.
+	 *
+	 * @param application the {@link BTOApplication} to add
+	 * @return {@code true} if the application was added, {@code false} if one
+	 *         with the same ID already exists
+	 */
+	public static boolean addBTOApplication(BTOApplication application) {
+		return withProjectLock(application.getProject(), () -> {
+			if (btoApplicationsData.putIfAbsent(application.getApplicationId(), application) != null) {
+				return false;
+			}
+			ApplicationWorkQueue queue = applicationQueues.get(application.getProject());
+			if (queue != null) {
+				queue.offer(application);
+			}
+			return true;
+		});
+	}
+
+	/**
+	 * Gets the queue of a project's pending applications for reviewers to claim
+	 * from. The queue is built from the project's pending applications the first
+	 * time it is asked for, and new applications join it as they are added.
+	 *
+	 * @param project the {@link BTOProject}
+	 * @return the project's {@link ApplicationWorkQueue}
+	 */
+	public static ApplicationWorkQueue getApplicationQueue(BTOProject project) {
+		ApplicationWorkQueue queue = applicationQueues.get(project);
+		if (queue != null) {
+			return queue;
+		}
+		// Built under the project lock, so no application added meanwhile is missed
+		return withProjectLock(project, () -> applicationQueues.computeIfAbsent(project, key -> {
+			ApplicationWorkQueue newQueue = new ApplicationWorkQueue(APPLICATION_LEASE_DURATION);
+			for (BTOApplication application : btoApplicationsData.values()) {
+				if (application.getProject() == project) {
+					newQueue.offer(application);
+				}
+			}
+			return newQueue;
+		}));
+	}
+
+	/**
+	 * Gets the BTO applications that currently have a status. Every change
+	 * published before the call is reflected.
+	 *
+	 * @param status the {@link BTOApplicationStatus}
+	 * @return a {@link List} of the applications with the status
+	 */
+	public static List<BTOApplication> getBTOApplicationsByStatus(BTOApplicationStatus status) {
+		EventBus.getInstance().flush();
+		synchronized (applicationsByStatusLock) {
+			if (applicationsByStatus == null) {
+				applicationsByStatus = new EnumMap<BTOApplicationStatus, Set<BTOApplication>>(BTOApplicationStatus.class);
+				for (BTOApplicationStatus value : BTOApplicationStatus.values()) {
+					applicationsByStatus.put(value, new HashSet<BTOApplication>());
+				}
+				for (BTOApplication application : btoApplicationsData.values()) {
+					applicationsByStatus.get(application.getStatus()).add(application);
+				}
+			}
+			return new ArrayList<BTOApplication>(applicationsByStatus.get(status));
+		}
+	}
+
+	/**
+	 * Adds submitted applications to the status index.
+	 *
+	 * @param events the {@link ApplicationSubmitted} events
+	 */
+	private static void onApplicationsSubmitted(List<ApplicationSubmitted> events) {
+		synchronized (applicationsByStatusLock) {
+			for (ApplicationSubmitted event : events) {
+				reindex(event.getApplication());
+			}
+		}
+	}
+
+	/**
+	 * Moves applications whose status changed to their new status in the status
+	 * index, and takes decided applications out of their project's review queue.
+	 *
+	 * @param events the {@link StatusChanged} events
+	 */
+	private static void onStatusesChanged(List<StatusChanged> events) {
+		synchronized (applicationsByStatusLock) {
+			for (StatusChanged event : events) {
+				reindex(event.getApplication());
+			}
+		}
+		for (StatusChanged event : events) {
+			if (event.getOldStatus() == BTOApplicationStatus.PENDING) {
+				ApplicationWorkQueue queue = applicationQueues.get(event.getApplication().getProject());
+				if (queue != null) {
+					queue.remove(event.getApplication());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Files an application in the status index under its current status. Events
+	 * may arrive after the index was built from newer data, so the current status
+	 * is used rather than the one in the event. Must hold
+	 * {@link #applicationsByStatusLock}.
+	 *
+	 * @param application the {@link BTOApplication} to file
+	 */
+	private static void reindex(BTOApplication application) {
+		if (applicationsByStatus == null) {
+			return;
+		}
+		for (Set<BTOApplication> applications : applicationsByStatus.values()) {
+			applications.remove(application);
+		}
+		if (btoApplicationsData.get(application.getApplicationId()) == application) {
+			applicationsByStatus.get(application.getStatus()).add(application);
+		}
 	}
 
 	/**
 	 * Gets the map of HDB officer registrations data
 	 * 
-	 * @return a {@link Map} containing registration ID as the key and
+	 * @return a read-only {@link Map} containing registration ID as the key and
 	 *         {@link HDBOfficerRegistration} objects as the value
 	 */
 	public static Map<String, HDBOfficerRegistration> getHDBOfficerRegistrationsData() {
-		return hdbOfficerRegistrationsData;
+		return Collections.unmodifiableMap(DataStore.hdbOfficerRegistrationsData);
 	}
 
 	/**
@@ -266,39 +1005,88 @@ public class DataStore {
 	 *                                  {@link HDBOfficerRegistration} objects as the value
 	 */
 	public static void setHDBOfficerRegistrationsData(Map<String, HDBOfficerRegistration> hdbOfficerRegistrationsData) {
-		DataStore.hdbOfficerRegistrationsData = hdbOfficerRegistrationsData;
-		fileDataService.exportHDBOfficerRegistrationData(filePathsMap.get("hdbOfficerRegistrations"), hdbOfficerRegistrationsData);
+		replaceContents(DataStore.hdbOfficerRegistrationsData, hdbOfficerRegistrationsData);
+		fileDataService.exportHDBOfficerRegistrationData(filePathsMap.get("hdbOfficerRegistrations"), DataStore.hdbOfficerRegistrationsData);
 	}
 
 	/**
-	 * Gets the map of enquiries data
+	 * Adds a new HDB officer registration.
+	 *
+	 * @param registration the {@link HDBOfficerRegistration} to add
+	 * @return {@code true} if the registration was added, {@code false} if one
+	 *         with the same ID already exists
+	 */
+	public static boolean addHDBOfficerRegistration(HDBOfficerRegistration registration) {
+		return hdbOfficerRegistrationsData.putIfAbsent(registration.getRegistrationId(), registration) == null;
+	}
+
+	/**
+	 * Gets the map of enquiries data, loading every enquiry on first access
 	 * 
-	 * @return a {@link Map} containing enquiry ID as the key and
+	 * @return a read-only {@link Map} containing enquiry ID as the key and
 	 *         {@link Enquiry} objects as the value
 	 */
 	public static Map<String, Enquiry> getEnquiriesData() {
-		return enquiriesData;
+		return Collections.unmodifiableMap(enquiriesStore.get());
+	}
+
+	/**
+	 * Gets a map of enquiries data that contains at least every enquiry of the
+	 * given project. When enquiries are sharded, only that project's shard is
+	 * loaded.
+	 * 
+	 * @param project the {@link BTOProject} whose enquiries are needed
+	 * @return a read-only {@link Map} containing enquiry ID as the key and
+	 *         {@link Enquiry} objects as the value
+	 */
+	public static Map<String, Enquiry> getEnquiriesData(BTOProject project) {
+		return Collections.unmodifiableMap(enquiriesStore.get(project.getProjectName()));
 	}
 
 	/**
-	 * Sets the map of enquiries data and saves to the file system
+	 * Sets the map of enquiries data and saves to the file system, one shard
+	 * per project
 	 * 
 	 * @param enquiriesData a {@link Map} containing enquiry ID as the key and
 	 *                    {@link Enquiry} objects as the value
 	 */
 	public static void setEnquiriesData(Map<String, Enquiry> enquiriesData) {
-		DataStore.enquiriesData = enquiriesData;
-		fileDataService.exportEnquiryData(filePathsMap.get("enquiry"), enquiriesData);
+		enquiriesStore.set(enquiriesData);
+		fileDataService.exportEnquiryShards(filePathsMap.get("enquiryShards"), enquiriesStore.getLoaded());
+	}
+
+	/**
+	 * Adds a new enquiry. Only the shard of the enquiry's project is loaded.
+	 *
+	 * @param enquiry the {@link Enquiry} to add
+	 * @return {@code true} if the enquiry was added, {@code false} if one with the
+	 *         same ID already exists
+	 */
+	public static boolean addEnquiry(Enquiry enquiry) {
+		Map<String, Enquiry> enquiriesData = enquiriesStore.get(enquiry.getProject().getProjectName());
+		return enquiriesData.putIfAbsent(enquiry.getEnquiryId(), enquiry) == null;
 	}
 
 	/**
-	 * Gets the map of withdrawal requests data
+	 * Removes an enquiry.
+	 *
+	 * @param enquiry the {@link Enquiry} to remove
+	 * @return {@code true} if the enquiry was removed, {@code false} if it was not
+	 *         in the store
+	 */
+	public static boolean removeEnquiry(Enquiry enquiry) {
+		Map<String, Enquiry> enquiriesData = enquiriesStore.get(enquiry.getProject().getProjectName());
+		return enquiriesData.remove(enquiry.getEnquiryId(), enquiry);
+	}
+
+	/**
+	 * Gets the map of withdrawal requests data, loading it on first access
 	 * 
-	 * @return a {@link Map} containing withdrawal request ID as the key and
+	 * @return a read-only {@link Map} containing withdrawal request ID as the key and
 	 *         {@link WithdrawalRequest} objects as the value
 	 */
 	public static Map<String, WithdrawalRequest> getWithdrawalRequestsData() {
-		return withdrawalRequestsData;
+		return Collections.unmodifiableMap(withdrawalRequestsStore.get());
 	}
 
 	/**
@@ -308,7 +1096,33 @@ public class DataStore {
 	 *                             {@link WithdrawalRequest} objects as the value
 	 */
 	public static void setWithdrawalRequestsData(Map<String, WithdrawalRequest> withdrawalRequestsData) {
-		DataStore.withdrawalRequestsData = withdrawalRequestsData;
-		fileDataService.exportWithdrawalRequestData(filePathsMap.get("withdrawalRequest"), withdrawalRequestsData);
+		withdrawalRequestsStore.set(withdrawalRequestsData);
+		fileDataService.exportWithdrawalRequestData(filePathsMap.get("withdrawalRequest"), withdrawalRequestsStore.getLoaded());
+	}
+
+	/**
+	 * Adds a new withdrawal request.
+	 *
+	 * @param withdrawalRequest the {@link WithdrawalRequest} to add
+	 * @return {@code true} if the request was added, {@code false} if one with the
+	 *         same ID already exists
+	 */
+	public static boolean addWithdrawalRequest(WithdrawalRequest withdrawalRequest) {
+		return withdrawalRequestsStore.get().putIfAbsent(withdrawalRequest.getRequestId(), withdrawalRequest) == null;
+	}
+
+	/**
+	 * A part of the heap footprint.
+	 */
+	private static class FootprintPart {
+		private final Class<?> owned;
+		private final Supplier<Object> root;
+		private final IntSupplier entries;
+
+		private FootprintPart(Class<?> owned, Supplier<Object> root, IntSupplier entries) {
+			this.owned = owned;
+			this.root = root;
+			this.entries = entries;
+		}
 	}
 }
\ No newline at end of file
@@ -3,8 +3,8 @@ package stores;
 import models.ProjectFilter;
 import models.User;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages and persists project filter settings for users across the application.
@@ -18,7 +18,7 @@ import java.util.Map;
  * @version 1.0
  */
 public class FilterStore {
-    private static final Map<String, ProjectFilter> userFilters = new HashMap<>();
+    private static final Map<String, ProjectFilter> userFilters = new ConcurrentHashMap<>();
     
     /**
      * Get the project filter for a user
@@ -26,11 +26,8 @@ public class FilterStore {
      * @return The user's project filter
      */
     public static ProjectFilter getProjectFilter(User user) {
-        String userId = user.getNric();
-        if (!userFilters.containsKey(userId)) {
-            userFilters.put(userId, new ProjectFilter()); // Create default filter
-        }
-        return userFilters.get(userId);
+        // Create default filter
+        return userFilters.computeIfAbsent(user.getNric(), userId -> new ProjectFilter());
     }
     
     /**
@@ -50,4 +47,12 @@ public class FilterStore {
         ProjectFilter filter = new ProjectFilter();
         userFilters.put(user.getNric(), filter);
     }
+    
+    /**
+     * Get the project filters of all users, for estimating their heap footprint
+     * @return The project filters by NRIC
+     */
+    static Map<String, ProjectFilter> getProjectFilters() {
+        return userFilters;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,229 @@
+package stores;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The {@link LazyStore} class holds a data map that is only parsed from the file
+ * system the first time it is accessed. When the underlying data is sharded by
+ * project, a single project's shard can be loaded on its own; loading the full
+ * data later only parses the shards that have not been loaded yet.
+ *
+ * @param <V> the type of entity held by the store
+ */
+public class LazyStore<V> {
+	/**
+	 * The name of the store, used for startup instrumentation.
+	 */
+	private final String name;
+
+	/**
+	 * Loads the full data map from the file system.
+	 */
+	private final Supplier<Map<String, V>> fullLoader;
+
+	/**
+	 * Loads the data of a single project, or {@code null} if the data is not
+	 * sharded by project.
+	 */
+	private final Function<String, Map<String, V>> projectLoader;
+
+	/**
+	 * Gets the project name of an entity.
+	 */
+	private final Function<V, String> projectNameOf;
+
+	/**
+	 * The loaded data. The map instance never changes once created, so callers may
+	 * hold on to it across partial and full loads.
+	 */
+	private final Map<String, V> data = new ConcurrentHashMap<String, V>();
+
+	/**
+	 * The names of the projects whose shards have been loaded.
+	 */
+	private final Set<String> loadedProjects = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Whether the full data has been loaded.
+	 */
+	private volatile boolean fullyLoaded = false;
+
+	/**
+	 * The total time spent loading data, in nanoseconds.
+	 */
+	private long loadNanos = 0;
+
+	/**
+	 * Constructs a {@link LazyStore} whose data can only be loaded in full.
+	 *
+	 * @param name       the name of the store
+	 * @param fullLoader loads the full data map
+	 */
+	public LazyStore(String name, Supplier<Map<String, V>> fullLoader) {
+		this(name, fullLoader, null, null);
+	}
+
+	/**
+	 * Constructs a {@link LazyStore} whose data is sharded by project.
+	 *
+	 * @param name          the name of the store
+	 * @param fullLoader    loads the full data map
+	 * @param projectLoader loads the data of a single project, or {@code null} if
+	 *                      the data is not sharded
+	 * @param projectNameOf gets the project name of an entity
+	 */
+	public LazyStore(String name, Supplier<Map<String, V>> fullLoader,
+			Function<String, Map<String, V>> projectLoader, Function<V, String> projectNameOf) {
+		this.name = name;
+		this.fullLoader = fullLoader;
+		this.projectLoader = projectLoader;
+		this.projectNameOf = projectNameOf;
+	}
+
+	/**
+	 * Gets the full data map, loading it on first access.
+	 *
+	 * @return a {@link Map} containing the entity ID as the key and the entity as
+	 *         the value
+	 */
+	public Map<String, V> get() {
+		if (!fullyLoaded) {
+			loadFull();
+		}
+		return data;
+	}
+
+	/**
+	 * Gets a data map that contains at least every entity of the given project. If
+	 * the data is sharded, only that project's shard is loaded.
+	 *
+	 * @param projectName the name of the project
+	 * @return a {@link Map} containing the entity ID as the key and the entity as
+	 *         the value
+	 */
+	public Map<String, V> get(String projectName) {
+		if (fullyLoaded || loadedProjects.contains(projectName)) {
+			return data;
+		}
+		if (projectLoader == null) {
+			return get();
+		}
+		loadProject(projectName);
+		return data;
+	}
+
+	/**
+	 * Replaces the data held by the store and marks it as fully loaded.
+	 *
+	 * @param newData the new data map
+	 */
+	public synchronized void set(Map<String, V> newData) {
+		if (newData != data) {
+			data.clear();
+			data.putAll(newData);
+		}
+		fullyLoaded = true;
+	}
+
+	/**
+	 * Checks whether any data has been loaded, i.e. whether the store may hold
+	 * changes that need to be saved.
+	 *
+	 * @return {@code true} if any data has been loaded, {@code false} otherwise
+	 */
+	public boolean isLoaded() {
+		return fullyLoaded || !loadedProjects.isEmpty();
+	}
+
+	/**
+	 * Checks whether the full data has been loaded.
+	 *
+	 * @return {@code true} if the full data has been loaded, {@code false}
+	 *         otherwise
+	 */
+	public boolean isFullyLoaded() {
+		return fullyLoaded;
+	}
+
+	/**
+	 * Gets the data map without loading anything.
+	 *
+	 * @return the data loaded so far
+	 */
+	public Map<String, V> getLoaded() {
+		return data;
+	}
+
+	/**
+	 * Gets the names of the projects whose shards have been loaded on their own.
+	 *
+	 * @return an unmodifiable {@link Set} of project names
+	 */
+	public Set<String> getLoadedProjects() {
+		return Collections.unmodifiableSet(loadedProjects);
+	}
+
+	/**
+	 * Gets the name of the store.
+	 *
+	 * @return the name of the store
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Gets the total time spent loading data.
+	 *
+	 * @return the load time in nanoseconds
+	 */
+	public synchronized long getLoadNanos() {
+		return loadNanos;
+	}
+
+	/**
+	 * Loads the full data. Entities of projects whose shards were already loaded
+	 * on their own are kept, since they may hold unsaved changes.
+	 */
+	private synchronized void loadFull() {
+		if (fullyLoaded) {
+			return;
+		}
+
+		long start = System.nanoTime();
+		Map<String, V> loaded = fullLoader.get();
+		for (Map.Entry<String, V> entry : loaded.entrySet()) {
+			if (projectNameOf != null && loadedProjects.contains(projectNameOf.apply(entry.getValue()))) {
+				continue;
+			}
+			data.putIfAbsent(entry.getKey(), entry.getValue());
+		}
+		fullyLoaded = true;
+		loadNanos += System.nanoTime() - start;
+	}
+
+	/**
+	 * Loads a single project's shard.
+	 *
+	 * @param projectName the name of the project
+	 */
+	private synchronized void loadProject(String projectName) {
+		if (fullyLoaded || loadedProjects.contains(projectName)) {
+			return;
+		}
+
+		long start = System.nanoTime();
+		for (Map.Entry<String, V> entry : projectLoader.apply(projectName).entrySet()) {
+			if (projectName.equals(projectNameOf.apply(entry.getValue()))) {
+				data.putIfAbsent(entry.getKey(), entry.getValue());
+			}
+		}
+		loadedProjects.add(projectName);
+		loadNanos += System.nanoTime() - start;
+	}
+}
@@ -0,0 +1,313 @@
+package stores;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import utils.CsvReader;
+import utils.CsvRecord;
+
+/**
+ * The {@link LoginThrottle} class keeps the recent failed logins in memory and
+ * rejects login attempts once too many have failed within a sliding window,
+ * both for a single NRIC and for the whole system. Each window remembers only
+ * the times of its last failures, as many as its limit allows, so checking an
+ * attempt looks at a single timestamp: the oldest remembered failure. If it is
+ * still inside the window, the limit has been reached and the attempt is
+ * rejected until it slides out. A successful login clears the failures of its
+ * NRIC.
+ *
+ * The failures are rebuilt at startup with {@link #replay} from the failed
+ * login log, so restarting the system does not lift a lockout.
+ */
+public class LoginThrottle {
+	/**
+	 * The format of the timestamps in the failed login log.
+	 */
+	private static final DateTimeFormatter LOG_TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+	/**
+	 * How many failures are recorded between sweeps of NRICs whose failures have
+	 * all slid out of the window.
+	 */
+	private static final int SWEEP_INTERVAL = 1024;
+
+	private final int maxFailuresPerNric;
+	private final long nricWindowMillis;
+	private final long globalWindowMillis;
+
+	/**
+	 * The source of the current time, in milliseconds since the epoch. Wall-clock
+	 * time is used so the failures read back from the log line up with new ones.
+	 */
+	private final LongSupplier clock;
+
+	/**
+	 * The recent failures of every NRIC that has failed to log in.
+	 */
+	private final Map<String, FailureWindow> nricFailures = new ConcurrentHashMap<String, FailureWindow>();
+
+	/**
+	 * The recent failures of all NRICs together.
+	 */
+	private final FailureWindow globalFailures;
+
+	private final LongAdder allowed = new LongAdder();
+	private final LongAdder rejectedByNric = new LongAdder();
+	private final LongAdder rejectedGlobally = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private final LongAdder sinceSweep = new LongAdder();
+
+	/**
+	 * Constructs a {@link LoginThrottle} with the given limits.
+	 *
+	 * @param maxFailuresPerNric the failures of one NRIC allowed within its window
+	 * @param nricWindow         the length of the window of one NRIC
+	 * @param maxFailuresGlobal  the failures of all NRICs allowed within the
+	 *                           global window
+	 * @param globalWindow       the length of the global window
+	 * @param clock              the source of the current time, in milliseconds
+	 *                           since the epoch
+	 */
+	public LoginThrottle(int maxFailuresPerNric, Duration nricWindow, int maxFailuresGlobal, Duration globalWindow,
+			LongSupplier clock) {
+		this.maxFailuresPerNric = maxFailuresPerNric;
+		this.nricWindowMillis = nricWindow.toMillis();
+		this.globalWindowMillis = globalWindow.toMillis();
+		this.globalFailures = new FailureWindow(maxFailuresGlobal);
+		this.clock = clock;
+	}
+
+	/**
+	 * Constructs a {@link LoginThrottle} with the limits given by the system
+	 * properties {@code btoms.loginMaxFailures} (default 5) and
+	 * {@code btoms.loginWindowSeconds} (default 900) for each NRIC, and
+	 * {@code btoms.loginGlobalMaxFailures} (default 200) and
+	 * {@code btoms.loginGlobalWindowSeconds} (default 60) for the whole system.
+	 *
+	 * @return the {@link LoginThrottle}
+	 */
+	public static LoginThrottle fromSystemProperties() {
+		return new LoginThrottle(
+				Integer.getInteger("btoms.loginMaxFailures", 5),
+				Duration.ofSeconds(Long.getLong("btoms.loginWindowSeconds", 900)),
+				Integer.getInteger("btoms.loginGlobalMaxFailures", 200),
+				Duration.ofSeconds(Long.getLong("btoms.loginGlobalWindowSeconds", 60)),
+				System::currentTimeMillis);
+	}
+
+	/**
+	 * Checks whether a login attempt for an NRIC may go ahead, counting the
+	 * outcome.
+	 *
+	 * @param nric the NRIC trying to log in
+	 * @return {@code true} if the attempt may go ahead, {@code false} if too many
+	 *         logins have failed recently
+	 */
+	public boolean isAllowed(String nric) {
+		long now = clock.getAsLong();
+		if (globalFailures.isFull(now, globalWindowMillis)) {
+			rejectedGlobally.increment();
+			return false;
+		}
+		FailureWindow window = nricFailures.get(nric);
+		if (window != null && window.isFull(now, nricWindowMillis)) {
+			rejectedByNric.increment();
+			return false;
+		}
+		allowed.increment();
+		return true;
+	}
+
+	/**
+	 * Gets how long an NRIC has to wait before it may try to log in again.
+	 *
+	 * @param nric the NRIC
+	 * @return the time left, or {@link Duration#ZERO} if it may try now
+	 */
+	public Duration getRetryAfter(String nric) {
+		long now = clock.getAsLong();
+		long wait = 0;
+		if (globalFailures.isFull(now, globalWindowMillis)) {
+			wait = globalFailures.oldest() + globalWindowMillis - now;
+		}
+		FailureWindow window = nricFailures.get(nric);
+		if (window != null && window.isFull(now, nricWindowMillis)) {
+			wait = Math.max(wait, window.oldest() + nricWindowMillis - now);
+		}
+		return Duration.ofMillis(wait);
+	}
+
+	/**
+	 * Records a failed login for an NRIC now.
+	 *
+	 * @param nric the NRIC that failed to log in
+	 */
+	public void recordFailure(String nric) {
+		recordFailure(nric, clock.getAsLong());
+	}
+
+	/**
+	 * Records a failed login for an NRIC at the given time.
+	 *
+	 * @param nric   the NRIC that failed to log in
+	 * @param millis the time of the failure, in milliseconds since the epoch
+	 */
+	public void recordFailure(String nric, long millis) {
+		nricFailures.computeIfAbsent(nric, key -> new FailureWindow(maxFailuresPerNric)).record(millis);
+		globalFailures.record(millis);
+		failures.increment();
+
+		sinceSweep.increment();
+		if (sinceSweep.sum() >= SWEEP_INTERVAL) {
+			sinceSweep.reset();
+			long cutoff = clock.getAsLong() - nricWindowMillis;
+			nricFailures.values().removeIf(window -> window.newest() < cutoff);
+		}
+	}
+
+	/**
+	 * Clears the failures of an NRIC after it logged in.
+	 *
+	 * @param nric the NRIC that logged in
+	 */
+	public void recordSuccess(String nric) {
+		nricFailures.remove(nric);
+	}
+
+	/**
+	 * Rebuilds the recent failures from failed login logs, oldest file first.
+	 * Failures older than the longer window are skipped. Files that do not exist
+	 * are ignored.
+	 *
+	 * @param files the failed login logs, oldest first
+	 * @return the number of failures replayed
+	 */
+	public int replay(Path... files) {
+		long cutoff = clock.getAsLong() - Math.max(nricWindowMillis, globalWindowMillis);
+		int replayed = 0;
+		for (Path file : files) {
+			if (!Files.exists(file)) {
+				continue;
+			}
+			try (CsvReader reader = new CsvReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+				String[] headers = reader.readRow();
+				if (headers == null) {
+					continue;
+				}
+				Map<String, Integer> columns = CsvRecord.indexColumns(headers);
+				String[] row;
+				while ((row = reader.readRow()) != null) {
+					CsvRecord record = new CsvRecord(columns, row);
+					long millis;
+					try {
+						millis = LocalDateTime.parse(record.get("Timestamp"), LOG_TIMESTAMP)
+								.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+					} catch (DateTimeParseException e) {
+						continue;
+					}
+					if (millis >= cutoff) {
+						recordFailure(record.get("NRIC"), millis);
+						replayed++;
+					}
+				}
+			} catch (IOException e) {
+				System.out.println("Error reading failed login log " + file + ": " + e.getMessage());
+			}
+		}
+		return replayed;
+	}
+
+	/**
+	 * Gets the number of login attempts allowed to go ahead.
+	 *
+	 * @return the number of allowed attempts
+	 */
+	public long getAllowedCount() {
+		return allowed.sum();
+	}
+
+	/**
+	 * Gets the number of login attempts rejected because their NRIC failed too
+	 * often.
+	 *
+	 * @return the number of attempts rejected for one NRIC
+	 */
+	public long getRejectedByNricCount() {
+		return rejectedByNric.sum();
+	}
+
+	/**
+	 * Gets the number of login attempts rejected because too many logins failed
+	 * across the system.
+	 *
+	 * @return the number of attempts rejected globally
+	 */
+	public long getRejectedGloballyCount() {
+		return rejectedGlobally.sum();
+	}
+
+	/**
+	 * Gets the number of failed logins recorded.
+	 *
+	 * @return the number of failures
+	 */
+	public long getFailureCount() {
+		return failures.sum();
+	}
+
+	/**
+	 * Gets the number of NRICs with failures being tracked.
+	 *
+	 * @return the number of tracked NRICs
+	 */
+	public int getTrackedNricCount() {
+		return nricFailures.size();
+	}
+
+	/**
+	 * The times of the most recent failures of one window, as many as its limit,
+	 * in a ring that overwrites the oldest.
+	 */
+	private static class FailureWindow {
+		private final long[] times;
+		private int next = 0;
+		private int count = 0;
+
+		private FailureWindow(int limit) {
+			this.times = new long[Math.max(1, limit)];
+		}
+
+		private synchronized void record(long millis) {
+			times[next] = millis;
+			next = (next + 1) % times.length;
+			count = Math.min(count + 1, times.length);
+		}
+
+		/**
+		 * Checks whether the limit has been reached, i.e. whether the oldest of
+		 * the remembered failures is still inside the window.
+		 */
+		private synchronized boolean isFull(long now, long windowMillis) {
+			return count == times.length && times[next] > now - windowMillis;
+		}
+
+		private synchronized long oldest() {
+			return count < times.length ? times[0] : times[next];
+		}
+
+		private synchronized long newest() {
+			return times[(next + times.length - 1) % times.length];
+		}
+	}
+}
@@ -0,0 +1,461 @@
+package stores;
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+import utils.NricCodec;
+
+/**
+ * The {@link NricMap} class is a thread-safe {@link Map} from NRICs to users
+ * that stores each NRIC packed into a {@code long} by {@link NricCodec}, in an
+ * open-addressing table of parallel key and value arrays with linear probing.
+ * An entry costs a {@code long} and a reference in the arrays, instead of a
+ * hash map node pointing at a {@link String} key, and a lookup probes
+ * consecutive slots of one array instead of following node pointers.
+ *
+ * Lookups read the table optimistically without locking and only take the
+ * read lock if a write happened meanwhile; writes take the write lock. Keys
+ * that are not NRICs are kept in a small ordinary map, so the map accepts any
+ * key. Null values are not allowed. Iteration works on a snapshot taken when
+ * the iterator is created.
+ *
+ * @param <V> the type of user held
+ */
+public class NricMap<V> extends AbstractMap<String, V> {
+	/**
+	 * The smallest number of slots in the table.
+	 */
+	private static final int MIN_CAPACITY = 16;
+
+	/**
+	 * The lock guarding the table and {@link #others}.
+	 */
+	private final StampedLock lock = new StampedLock();
+
+	/**
+	 * The entries whose key is an NRIC. Replaced as a whole when it grows.
+	 */
+	private Table table;
+
+	/**
+	 * The entries whose key is not an NRIC.
+	 */
+	private final Map<String, V> others = new HashMap<String, V>();
+
+	/**
+	 * The number of entries in the table and in {@link #others}.
+	 */
+	private volatile int size = 0;
+
+	/**
+	 * Constructs an empty {@link NricMap}.
+	 */
+	public NricMap() {
+		this(0);
+	}
+
+	/**
+	 * Constructs an empty {@link NricMap} sized to hold the given number of
+	 * entries without growing.
+	 *
+	 * @param expectedSize the number of entries expected
+	 */
+	public NricMap(int expectedSize) {
+		this.table = new Table(capacityFor(expectedSize));
+	}
+
+	/**
+	 * Constructs an {@link NricMap} holding the entries of another map.
+	 *
+	 * @param source the map to copy
+	 */
+	public NricMap(Map<String, ? extends V> source) {
+		this(source.size());
+		putAll(source);
+	}
+
+	/**
+	 * Gets the user with a packed NRIC.
+	 *
+	 * @param nric the NRIC packed by {@link NricCodec#encode}
+	 * @return the user, or {@code null} if there is none
+	 */
+	public V get(long nric) {
+		long stamp = lock.tryOptimisticRead();
+		V value = table.find(nric);
+		if (!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				value = table.find(nric);
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return value;
+	}
+
+	@Override
+	public V get(Object key) {
+		if (!(key instanceof String)) {
+			return null;
+		}
+		long nric = NricCodec.encode((String) key);
+		if (nric != NricCodec.INVALID) {
+			return get(nric);
+		}
+		long stamp = lock.readLock();
+		try {
+			return others.get(key);
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key) != null;
+	}
+
+	@Override
+	public V put(String key, V value) {
+		return put(key, value, false);
+	}
+
+	@Override
+	public V putIfAbsent(String key, V value) {
+		return put(key, value, true);
+	}
+
+	/**
+	 * Adds or replaces an entry while holding the write lock.
+	 *
+	 * @param key          the NRIC
+	 * @param value        the user
+	 * @param onlyIfAbsent whether to keep an existing entry
+	 * @return the previous user, or {@code null} if there was none
+	 */
+	private V put(String key, V value, boolean onlyIfAbsent) {
+		if (key == null || value == null) {
+			throw new NullPointerException();
+		}
+		long nric = NricCodec.encode(key);
+		long stamp = lock.writeLock();
+		try {
+			V previous;
+			if (nric == NricCodec.INVALID) {
+				previous = onlyIfAbsent ? others.putIfAbsent(key, value) : others.put(key, value);
+			} else {
+				if ((size + 1) * 3L > table.keys.length * 2L) {
+					table = table.resize(table.keys.length * 2);
+				}
+				previous = table.put(nric, value, onlyIfAbsent);
+			}
+			if (previous == null) {
+				size++;
+			}
+			return previous;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public V remove(Object key) {
+		if (!(key instanceof String)) {
+			return null;
+		}
+		long nric = NricCodec.encode((String) key);
+		long stamp = lock.writeLock();
+		try {
+			V previous = nric == NricCodec.INVALID ? others.remove(key) : table.remove(nric);
+			if (previous != null) {
+				size--;
+			}
+			return previous;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public void clear() {
+		long stamp = lock.writeLock();
+		try {
+			table = new Table(MIN_CAPACITY);
+			others.clear();
+			size = 0;
+		} finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the number of slots in the table, for estimating its memory.
+	 *
+	 * @return the table capacity
+	 */
+	public int getCapacity() {
+		long stamp = lock.readLock();
+		try {
+			return table.keys.length;
+		} finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public Set<Entry<String, V>> entrySet() {
+		return new AbstractSet<Entry<String, V>>() {
+			@Override
+			public Iterator<Entry<String, V>> iterator() {
+				return new SnapshotIterator<Entry<String, V>>() {
+					@Override
+					protected Entry<String, V> element(int index) {
+						return new SimpleImmutableEntry<String, V>(keyAt(index), valueAt(index));
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return NricMap.this.size();
+			}
+		};
+	}
+
+	/**
+	 * Gets the users in the map. Unlike {@link #entrySet()}, iterating the users
+	 * does not turn the packed NRICs back into strings.
+	 */
+	@Override
+	public Collection<V> values() {
+		return new AbstractCollection<V>() {
+			@Override
+			public Iterator<V> iterator() {
+				return new SnapshotIterator<V>() {
+					@Override
+					protected V element(int index) {
+						return valueAt(index);
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return NricMap.this.size();
+			}
+		};
+	}
+
+	/**
+	 * Gets the number of slots needed to hold the given number of entries with
+	 * the table at most two thirds full.
+	 *
+	 * @param expectedSize the number of entries
+	 * @return the number of slots, a power of two
+	 */
+	private static int capacityFor(int expectedSize) {
+		int capacity = MIN_CAPACITY;
+		while (capacity * 2L < expectedSize * 3L) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	/**
+	 * Iterates over a snapshot of the entries, taken under the read lock when the
+	 * iterator is created. Removing through the iterator removes from the map.
+	 *
+	 * @param <T> the type of element returned
+	 */
+	private abstract class SnapshotIterator<T> implements Iterator<T> {
+		private final long[] keys;
+		private final Object[] values;
+		private final String[] otherKeys;
+		private int next = 0;
+		private int last = -1;
+
+		private SnapshotIterator() {
+			long stamp = lock.readLock();
+			try {
+				int count = size - others.size();
+				keys = new long[count];
+				values = new Object[count + others.size()];
+				int i = 0;
+				for (int slot = 0; slot < table.keys.length; slot++) {
+					if (table.keys[slot] != 0) {
+						keys[i] = table.keys[slot];
+						values[i++] = table.values[slot];
+					}
+				}
+				otherKeys = others.keySet().toArray(new String[0]);
+				for (String key : otherKeys) {
+					values[i++] = others.get(key);
+				}
+			} finally {
+				lock.unlockRead(stamp);
+			}
+		}
+
+		/**
+		 * Makes the element returned for an entry of the snapshot.
+		 *
+		 * @param index the position of the entry in the snapshot
+		 * @return the element
+		 */
+		protected abstract T element(int index);
+
+		@Override
+		public boolean hasNext() {
+			return next < values.length;
+		}
+
+		@Override
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			last = next++;
+			return element(last);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			NricMap.this.remove(keyAt(last));
+			last = -1;
+		}
+
+		protected String keyAt(int index) {
+			return index < keys.length ? NricCodec.decode(keys[index]) : otherKeys[index - keys.length];
+		}
+
+		@SuppressWarnings("unchecked")
+		protected V valueAt(int index) {
+			return (V) values[index];
+		}
+	}
+
+	/**
+	 * Parallel arrays of packed NRICs and users, with zero marking an empty slot.
+	 */
+	private static final class Table {
+		private final long[] keys;
+		private final Object[] values;
+
+		private Table(int capacity) {
+			this.keys = new long[capacity];
+			this.values = new Object[capacity];
+		}
+
+		/**
+		 * Gets the slot an NRIC is placed in when there is no collision.
+		 */
+		private int home(long nric) {
+			return (int) ((nric * 0x9E3779B97F4A7C15L) >>> 32) & (keys.length - 1);
+		}
+
+		/**
+		 * Finds the user with a packed NRIC. The number of probes is bounded so
+		 * that an optimistic read racing a write always ends.
+		 */
+		@SuppressWarnings("unchecked")
+		private <V> V find(long nric) {
+			int mask = keys.length - 1;
+			int slot = home(nric);
+			for (int probes = 0; probes < keys.length; probes++) {
+				long key = keys[slot];
+				if (key == nric) {
+					return (V) values[slot];
+				}
+				if (key == 0) {
+					return null;
+				}
+				slot = (slot + 1) & mask;
+			}
+			return null;
+		}
+
+		@SuppressWarnings("unchecked")
+		private <V> V put(long nric, V value, boolean onlyIfAbsent) {
+			int mask = keys.length - 1;
+			int slot = home(nric);
+			while (keys[slot] != 0) {
+				if (keys[slot] == nric) {
+					V previous = (V) values[slot];
+					if (!onlyIfAbsent) {
+						values[slot] = value;
+					}
+					return previous;
+				}
+				slot = (slot + 1) & mask;
+			}
+			keys[slot] = nric;
+			values[slot] = value;
+			return null;
+		}
+
+		/**
+		 * Removes an entry, shifting back the entries after it that probed past
+		 * its slot so no lookup stops early at the gap.
+		 */
+		@SuppressWarnings("unchecked")
+		private <V> V remove(long nric) {
+			int mask = keys.length - 1;
+			int slot = home(nric);
+			while (keys[slot] != nric) {
+				if (keys[slot] == 0) {
+					return null;
+				}
+				slot = (slot + 1) & mask;
+			}
+			V previous = (V) values[slot];
+
+			int gap = slot;
+			int next = slot;
+			while (true) {
+				next = (next + 1) & mask;
+				long key = keys[next];
+				if (key == 0) {
+					break;
+				}
+				// Move the entry into the gap unless its home lies cyclically in (gap, next]
+				int home = home(key);
+				boolean stays = gap <= next ? (gap < home && home <= next) : (gap < home || home <= next);
+				if (!stays) {
+					keys[gap] = key;
+					values[gap] = values[next];
+					gap = next;
+				}
+			}
+			keys[gap] = 0;
+			values[gap] = null;
+			return previous;
+		}
+
+		private Table resize(int capacity) {
+			Table resized = new Table(capacity);
+			for (int slot = 0; slot < keys.length; slot++) {
+				if (keys[slot] != 0) {
+					resized.put(keys[slot], values[slot], false);
+				}
+			}
+			return resized;
+		}
+	}
+}
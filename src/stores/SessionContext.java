@@ -0,0 +1,278 @@
+package stores;
+
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+
+import interfaces.IAuthService;
+import models.User;
+
+/**
+ * The {@link SessionContext} class holds the state of one terminal session: the
+ * authenticated user and the service that logged them in, the input and output streams of the terminal, the number
+ * of failed login attempts and the time spent waiting for input. Each thread
+ * serving a session binds its own context, so several sessions can run against
+ * the shared {@link DataStore} in one JVM. Threads without a bound context use
+ * the console session, which reads from {@link System#in} and writes to the
+ * standard output captured when this class was loaded.
+ */
+public class SessionContext {
+	/**
+	 * The context bound to the current thread, if any.
+	 */
+	private static final ThreadLocal<SessionContext> currentSession = new ThreadLocal<SessionContext>();
+
+	/**
+	 * The context of the local console.
+	 */
+	private static final SessionContext consoleSession = new SessionContext("console", "127.0.0.1", System.in,
+			System.out, false);
+
+	/**
+	 * The identifier of the session.
+	 */
+	private final String sessionId;
+
+	/**
+	 * The address of the client, used for logging.
+	 */
+	private final String remoteAddress;
+
+	/**
+	 * The stream the session reads input from.
+	 */
+	private final InputStream in;
+
+	/**
+	 * The stream the session writes output to.
+	 */
+	private final PrintStream out;
+
+	/**
+	 * Whether the session is served over the network rather than the local
+	 * console.
+	 */
+	private final boolean remote;
+
+	/**
+	 * The scanner reading the session's input, created on first use.
+	 */
+	private Scanner scanner;
+
+	/**
+	 * The currently authenticated user of the session.
+	 */
+	private User currentUser;
+
+	/**
+	 * The {@link IAuthService} that logged the current user in, used to log them
+	 * out when the session ends.
+	 */
+	private IAuthService authService;
+
+	/**
+	 * The number of failed login attempts in the session.
+	 */
+	private int failedAttempts = 0;
+
+	/**
+	 * The total time the session has spent waiting for input, in nanoseconds.
+	 */
+	private volatile long inputWaitNanos = 0;
+
+	/**
+	 * Whether the session has been closed.
+	 */
+	private volatile boolean closed = false;
+
+	/**
+	 * Constructs a {@link SessionContext}.
+	 *
+	 * @param sessionId     the identifier of the session
+	 * @param remoteAddress the address of the client
+	 * @param in            the stream to read input from
+	 * @param out           the stream to write output to
+	 * @param remote        whether the session is served over the network
+	 */
+	public SessionContext(String sessionId, String remoteAddress, InputStream in, PrintStream out, boolean remote) {
+		this.sessionId = sessionId;
+		this.remoteAddress = remoteAddress;
+		this.in = in;
+		this.out = out;
+		this.remote = remote;
+	}
+
+	/**
+	 * Gets the context of the session served by the current thread.
+	 *
+	 * @return the bound {@link SessionContext}, or the console session if none is
+	 *         bound
+	 */
+	public static SessionContext current() {
+		SessionContext session = currentSession.get();
+		return session != null ? session : consoleSession;
+	}
+
+	/**
+	 * Binds a context to the current thread.
+	 *
+	 * @param session the {@link SessionContext} to bind
+	 */
+	public static void bind(SessionContext session) {
+		currentSession.set(session);
+	}
+
+	/**
+	 * Removes the context bound to the current thread.
+	 */
+	public static void unbind() {
+		currentSession.remove();
+	}
+
+	/**
+	 * Gets the scanner reading the session's input.
+	 *
+	 * @return the {@link Scanner} of the session
+	 */
+	public synchronized Scanner getScanner() {
+		if (scanner == null) {
+			scanner = new Scanner(in, StandardCharsets.UTF_8);
+		}
+		return scanner;
+	}
+
+	/**
+	 * Gets the stream the session writes output to.
+	 *
+	 * @return the {@link PrintStream} of the session
+	 */
+	public PrintStream getOut() {
+		return out;
+	}
+
+	/**
+	 * Gets the currently authenticated user of the session.
+	 *
+	 * @return the current {@link User}, or {@code null} if not logged in
+	 */
+	public User getCurrentUser() {
+		return currentUser;
+	}
+
+	/**
+	 * Sets the currently authenticated user of the session.
+	 *
+	 * @param currentUser the {@link User} to set, or {@code null} to log out
+	 */
+	public void setCurrentUser(User currentUser) {
+		this.currentUser = currentUser;
+	}
+
+	/**
+	 * Gets the {@link IAuthService} that logged the current user in.
+	 *
+	 * @return the auth service, or {@code null} if not logged in
+	 */
+	public IAuthService getAuthService() {
+		return authService;
+	}
+
+	/**
+	 * Sets the {@link IAuthService} that logged the current user in.
+	 *
+	 * @param authService the auth service, or {@code null} once logged out
+	 */
+	public void setAuthService(IAuthService authService) {
+		this.authService = authService;
+	}
+
+	/**
+	 * Records a failed login attempt.
+	 *
+	 * @return the number of failed login attempts in the session so far
+	 */
+	public int incrementFailedAttempts() {
+		return ++failedAttempts;
+	}
+
+	/**
+	 * Gets the number of failed login attempts in the session.
+	 *
+	 * @return the number of failed login attempts
+	 */
+	public int getFailedAttempts() {
+		return failedAttempts;
+	}
+
+	/**
+	 * Clears the failed login attempts after a successful login.
+	 */
+	public void resetFailedAttempts() {
+		failedAttempts = 0;
+	}
+
+	/**
+	 * Adds the time spent waiting for a line or token of input. Only the thread
+	 * serving the session reads its input, so the total needs no lock.
+	 *
+	 * @param nanos the time waited, in nanoseconds
+	 */
+	public void addInputWaitNanos(long nanos) {
+		inputWaitNanos += nanos;
+	}
+
+	/**
+	 * Gets the total time the session has spent waiting for input, so that time
+	 * can be left out when timing an operation that prompts the user.
+	 *
+	 * @return the time waited, in nanoseconds
+	 */
+	public long getInputWaitNanos() {
+		return inputWaitNanos;
+	}
+
+	/**
+	 * Gets the identifier of the session.
+	 *
+	 * @return the session identifier
+	 */
+	public String getSessionId() {
+		return sessionId;
+	}
+
+	/**
+	 * Gets the address of the client.
+	 *
+	 * @return the client address
+	 */
+	public String getRemoteAddress() {
+		return remoteAddress;
+	}
+
+	/**
+	 * Checks whether the session is served over the network.
+	 *
+	 * @return {@code true} for a remote session, {@code false} for the console
+	 */
+	public boolean isRemote() {
+		return remote;
+	}
+
+	/**
+	 * Marks the session as closed. The server disconnects the client once the
+	 * session's controllers have returned.
+	 */
+	public void close() {
+		closed = true;
+	}
+
+	/**
+	 * Checks whether the session has been closed.
+	 *
+	 * @return {@code true} if the session has been closed, {@code false} otherwise
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+}
@@ -0,0 +1,72 @@
+package stores;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * The {@link StripedLocks} class guards updates that span several entities of
+ * the same key, such as a project and its applications, with a fixed number of
+ * locks. Each key maps to one stripe, so updates of unrelated keys rarely wait
+ * on each other while the number of locks stays bounded however many keys
+ * exist.
+ */
+public class StripedLocks {
+	/**
+	 * The locks, one per stripe. The length is a power of two.
+	 */
+	private final ReentrantLock[] stripes;
+
+	/**
+	 * Constructs a {@link StripedLocks}.
+	 *
+	 * @param stripeCount the minimum number of stripes, rounded up to a power of
+	 *                    two
+	 */
+	public StripedLocks(int stripeCount) {
+		int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+		this.stripes = new ReentrantLock[size];
+		for (int i = 0; i < size; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+	}
+
+	/**
+	 * Runs an action while holding the stripe of a key.
+	 *
+	 * @param <T>    the type of result
+	 * @param key    the key to lock
+	 * @param action the action to run
+	 * @return the result of the action
+	 */
+	public <T> T withLock(Object key, Supplier<T> action) {
+		ReentrantLock lock = stripes[indexOf(key)];
+		lock.lock();
+		try {
+			return action.get();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Gets the number of stripes.
+	 *
+	 * @return the number of stripes
+	 */
+	public int getStripeCount() {
+		return stripes.length;
+	}
+
+	/**
+	 * Gets the stripe of a key. The hash is spread so keys whose hashes only
+	 * differ in the high bits still land on different stripes.
+	 *
+	 * @param key the key
+	 * @return the index of the key's stripe
+	 */
+	private int indexOf(Object key) {
+		int h = key.hashCode();
+		h ^= (h >>> 16);
+		return h & (stripes.length - 1);
+	}
+}
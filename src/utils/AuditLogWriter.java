@@ -0,0 +1,392 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@link AuditLogWriter} class appends audit records to a CSV file without
+ * making the caller wait for the disk. Records are put on a bounded queue and
+ * a background thread writes everything queued as one batch through a single
+ * open {@link CsvRowWriter}, flushing at least once per flush interval. When
+ * the queue is full the record is dropped and counted rather than blocking the
+ * caller. When the file grows past its size limit it is rotated: the file
+ * becomes {@code name.1.csv}, older backups move up by one, the oldest is
+ * deleted, and a new file is started with the header row.
+ */
+public class AuditLogWriter implements AutoCloseable {
+	/**
+	 * The file records are appended to.
+	 */
+	private final Path file;
+
+	/**
+	 * The header row written at the top of every new file.
+	 */
+	private final List<String> header;
+
+	/**
+	 * The records waiting to be written, with the time they were queued.
+	 */
+	private final BlockingQueue<Record> queue;
+
+	/**
+	 * The longest time a queued record waits before it is written, in
+	 * nanoseconds.
+	 */
+	private final long flushIntervalNanos;
+
+	/**
+	 * The size in bytes past which the file is rotated.
+	 */
+	private final long maxBytes;
+
+	/**
+	 * The number of rotated files kept.
+	 */
+	private final int maxBackups;
+
+	/**
+	 * The thread that writes the queued records.
+	 */
+	private final Thread worker;
+
+	/**
+	 * The writer of the current file, opened by the worker when needed.
+	 */
+	private CsvRowWriter writer;
+
+	/**
+	 * The channel of the current file, used to check its size.
+	 */
+	private FileChannel channel;
+
+	private volatile boolean closed = false;
+	private volatile boolean flushRequested = false;
+	private final AtomicLong queued = new AtomicLong();
+	private final LongAdder dropped = new LongAdder();
+	private volatile long written = 0;
+	private volatile long failed = 0;
+	private volatile long flushes = 0;
+	private volatile long rotations = 0;
+	private volatile long totalFlushLatencyNanos = 0;
+	private volatile long maxFlushLatencyNanos = 0;
+
+	/**
+	 * Constructs an {@link AuditLogWriter} and starts its thread.
+	 *
+	 * @param filePath      the file path of the CSV file to append to
+	 * @param header        the header row of the file
+	 * @param capacity      the number of records that can wait to be written
+	 * @param flushInterval the longest time a record waits before it is written
+	 * @param unit          the unit of the flush interval
+	 * @param maxBytes      the size in bytes past which the file is rotated
+	 * @param maxBackups    the number of rotated files kept
+	 */
+	public AuditLogWriter(String filePath, List<String> header, int capacity, long flushInterval, TimeUnit unit,
+			long maxBytes, int maxBackups) {
+		this.file = Paths.get(filePath);
+		this.header = header;
+		this.queue = new ArrayBlockingQueue<Record>(capacity);
+		this.flushIntervalNanos = unit.toNanos(flushInterval);
+		this.maxBytes = maxBytes;
+		this.maxBackups = maxBackups;
+		this.worker = new Thread(this::run, "audit-log-writer");
+		this.worker.setDaemon(true);
+		this.worker.start();
+	}
+
+	/**
+	 * Queues a record to be written. Never blocks.
+	 *
+	 * @param fields the fields of the record
+	 * @return {@code true} if the record was queued, {@code false} if it was
+	 *         dropped because the queue was full or the writer was closed
+	 */
+	public boolean append(List<String> fields) {
+		if (closed || !queue.offer(new Record(fields, System.nanoTime()))) {
+			dropped.increment();
+			return false;
+		}
+		queued.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * Waits until every record queued before the call has been written, or
+	 * until the timeout passes.
+	 *
+	 * @param timeout the longest time to wait
+	 * @param unit    the unit of the timeout
+	 * @return {@code true} if the records were written, {@code false} if the
+	 *         timeout passed first
+	 */
+	public boolean flush(long timeout, TimeUnit unit) {
+		long target = queued.get();
+		long deadline = System.nanoTime() + unit.toNanos(timeout);
+		flushRequested = true;
+		LockSupport.unpark(worker);
+		while (written + failed < target) {
+			if (System.nanoTime() - deadline >= 0) {
+				return false;
+			}
+			try {
+				Thread.sleep(1);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Stops accepting records, writes the records still queued and closes the
+	 * file.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		LockSupport.unpark(worker);
+		try {
+			worker.join(TimeUnit.SECONDS.toMillis(5));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Waits for records and writes them in batches until the writer is closed
+	 * and the queue is empty. A batch is written once its oldest record has
+	 * waited for the flush interval, so a burst of records shares one write.
+	 * The thread parks rather than being interrupted, since interrupting a
+	 * thread in the middle of a write would close the file channel.
+	 */
+	private void run() {
+		List<Record> batch = new ArrayList<Record>();
+		while (true) {
+			Record head = queue.peek();
+			if (head == null) {
+				if (closed) {
+					break;
+				}
+				LockSupport.parkNanos(this, flushIntervalNanos);
+				continue;
+			}
+			long waitNanos = flushIntervalNanos - (System.nanoTime() - head.queuedAt);
+			if (waitNanos > 0 && !closed && !flushRequested) {
+				LockSupport.parkNanos(this, waitNanos);
+				continue;
+			}
+			flushRequested = false;
+			queue.drainTo(batch);
+			write(batch);
+			batch.clear();
+		}
+		closeFile();
+	}
+
+	/**
+	 * Writes a batch of records, flushes them and rotates the file if it has
+	 * grown too large. Records that cannot be written are counted as failed.
+	 *
+	 * @param batch the records to write, oldest first
+	 */
+	private void write(List<Record> batch) {
+		try {
+			if (writer == null) {
+				openFile();
+			}
+			for (Record record : batch) {
+				writer.row(record.fields);
+			}
+			writer.flush();
+			long latency = System.nanoTime() - batch.get(0).queuedAt;
+			totalFlushLatencyNanos += latency;
+			maxFlushLatencyNanos = Math.max(maxFlushLatencyNanos, latency);
+			flushes++;
+			written += batch.size();
+		} catch (IOException e) {
+			failed += batch.size();
+			System.err.println("Error writing audit log " + file + ": " + e.getMessage());
+			closeFile();
+			return;
+		}
+
+		try {
+			if (channel.size() >= maxBytes) {
+				rotate();
+			}
+		} catch (IOException e) {
+			System.err.println("Error rotating audit log " + file + ": " + e.getMessage());
+			closeFile();
+		}
+	}
+
+	/**
+	 * Opens the file for appending, writing the header row if the file is new.
+	 *
+	 * @throws IOException if the file cannot be opened
+	 */
+	private void openFile() throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND,
+				StandardOpenOption.WRITE);
+		writer = new CsvRowWriter(channel, null);
+		if (channel.size() == 0) {
+			writer.row(header);
+			writer.flush();
+		}
+	}
+
+	/**
+	 * Moves the current file to the first backup, shifting older backups up and
+	 * deleting the oldest. The next batch starts a new file.
+	 *
+	 * @throws IOException if a file cannot be moved
+	 */
+	private void rotate() throws IOException {
+		closeFile();
+		Files.deleteIfExists(getBackupPath(maxBackups));
+		for (int i = maxBackups - 1; i >= 1; i--) {
+			if (Files.exists(getBackupPath(i))) {
+				Files.move(getBackupPath(i), getBackupPath(i + 1), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		if (maxBackups > 0) {
+			Files.move(file, getBackupPath(1), StandardCopyOption.REPLACE_EXISTING);
+		} else {
+			Files.delete(file);
+		}
+		rotations++;
+	}
+
+	/**
+	 * Gets the path of a rotated file, e.g. {@code name.1.csv} for {@code name.csv}.
+	 *
+	 * @param index the number of the backup, starting from 1 for the newest
+	 * @return the path of the backup
+	 */
+	public Path getBackupPath(int index) {
+		String name = file.getFileName().toString();
+		int dot = name.lastIndexOf('.');
+		String backupName = dot < 0 ? name + "." + index
+				: name.substring(0, dot) + "." + index + name.substring(dot);
+		return file.resolveSibling(backupName);
+	}
+
+	/**
+	 * Closes the current file, if one is open.
+	 */
+	private void closeFile() {
+		if (writer == null) {
+			return;
+		}
+		try {
+			writer.close();
+		} catch (IOException e) {
+			System.err.println("Error closing audit log " + file + ": " + e.getMessage());
+		}
+		writer = null;
+		channel = null;
+	}
+
+	/**
+	 * Gets the number of records waiting to be written.
+	 *
+	 * @return the queue depth
+	 */
+	public int getQueueDepth() {
+		return queue.size();
+	}
+
+	/**
+	 * Gets the number of records written to the file.
+	 *
+	 * @return the number of records written
+	 */
+	public long getWrittenCount() {
+		return written;
+	}
+
+	/**
+	 * Gets the number of records dropped because the queue was full.
+	 *
+	 * @return the number of records dropped
+	 */
+	public long getDroppedCount() {
+		return dropped.sum();
+	}
+
+	/**
+	 * Gets the number of records lost because the file could not be written.
+	 *
+	 * @return the number of records that failed to be written
+	 */
+	public long getFailedCount() {
+		return failed;
+	}
+
+	/**
+	 * Gets the number of batches written and flushed.
+	 *
+	 * @return the number of flushes
+	 */
+	public long getFlushCount() {
+		return flushes;
+	}
+
+	/**
+	 * Gets the number of times the file was rotated.
+	 *
+	 * @return the number of rotations
+	 */
+	public long getRotationCount() {
+		return rotations;
+	}
+
+	/**
+	 * Gets the average time from the first record of a batch being queued to the
+	 * batch being flushed to the file.
+	 *
+	 * @return the average flush latency, in nanoseconds
+	 */
+	public long getAverageFlushLatencyNanos() {
+		long count = flushes;
+		return count == 0 ? 0 : totalFlushLatencyNanos / count;
+	}
+
+	/**
+	 * Gets the longest time from the first record of a batch being queued to the
+	 * batch being flushed to the file.
+	 *
+	 * @return the longest flush latency, in nanoseconds
+	 */
+	public long getMaxFlushLatencyNanos() {
+		return maxFlushLatencyNanos;
+	}
+
+	/**
+	 * A record waiting to be written and the time it was queued.
+	 */
+	private static class Record {
+		private final List<String> fields;
+		private final long queuedAt;
+
+		private Record(List<String> fields, long queuedAt) {
+			this.fields = fields;
+			this.queuedAt = queuedAt;
+		}
+	}
+}
@@ -0,0 +1,215 @@
+package utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@link BloomFilter} class answers whether a key might be in a set
+ * without holding the keys themselves. A key sets a few bits chosen by hashing
+ * it; a key whose bits are not all set was never added, so the set does not
+ * have to be searched for it. A key whose bits are all set may still be absent
+ * (a false positive), which the caller finds out by searching the set and
+ * reports with {@link #recordFalsePositive()}, so the observed rate can be
+ * compared with the expected one.
+ *
+ * NRICs are hashed from their packed form (see {@link NricCodec}). Adding and
+ * checking are thread-safe and never block.
+ */
+public class BloomFilter {
+	/**
+	 * The bits of the filter.
+	 */
+	private final AtomicLongArray bits;
+
+	/**
+	 * The number of bits, a power of two.
+	 */
+	private final int bitCount;
+
+	/**
+	 * The number of bits set per key.
+	 */
+	private final int hashCount;
+
+	/**
+	 * The number of keys the filter was sized for.
+	 */
+	private final int capacity;
+
+	private final LongAdder added = new LongAdder();
+	private final LongAdder queries = new LongAdder();
+	private final LongAdder negatives = new LongAdder();
+	private final LongAdder falsePositives = new LongAdder();
+
+	/**
+	 * Constructs an empty {@link BloomFilter} sized so that, holding the given
+	 * number of keys, it wrongly reports a key as present at about the given
+	 * rate.
+	 *
+	 * @param capacity          the number of keys expected
+	 * @param falsePositiveRate the target rate of false positives, between 0 and 1
+	 */
+	public BloomFilter(int capacity, double falsePositiveRate) {
+		int expected = Math.max(1, capacity);
+		double optimalBits = -expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+		int size = 64;
+		while (size < optimalBits && size < (1 << 30)) {
+			size <<= 1;
+		}
+		this.bitCount = size;
+		this.bits = new AtomicLongArray(size / 64);
+		// The size is rounded up, so use the number of hashes that is optimal for
+		// the target rate rather than for the size; more would only cost probes
+		this.hashCount = Math.max(1, (int) Math.round(-Math.log(falsePositiveRate) / Math.log(2)));
+		this.capacity = expected;
+	}
+
+	/**
+	 * Adds a key to the filter.
+	 *
+	 * @param key the key to add
+	 */
+	public void add(String key) {
+		long hash = hash(key);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 0; i < hashCount; i++) {
+			int bit = (h1 + i * h2) & (bitCount - 1);
+			long mask = 1L << bit;
+			int word = bit >>> 6;
+			if ((bits.get(word) & mask) == 0) {
+				bits.getAndUpdate(word, value -> value | mask);
+			}
+		}
+		added.increment();
+	}
+
+	/**
+	 * Checks whether a key might have been added.
+	 *
+	 * @param key the key to check
+	 * @return {@code false} if the key was definitely never added, {@code true}
+	 *         if it might have been
+	 */
+	public boolean mightContain(String key) {
+		queries.increment();
+		long hash = hash(key);
+		int h1 = (int) hash;
+		int h2 = (int) (hash >>> 32);
+		for (int i = 0; i < hashCount; i++) {
+			int bit = (h1 + i * h2) & (bitCount - 1);
+			if ((bits.get(bit >>> 6) & (1L << bit)) == 0) {
+				negatives.increment();
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Records that a key reported as possibly present turned out to be absent.
+	 */
+	public void recordFalsePositive() {
+		falsePositives.increment();
+	}
+
+	/**
+	 * Hashes a key to 64 bits, from which the bit positions are derived by
+	 * double hashing.
+	 *
+	 * @param key the key
+	 * @return the hash
+	 */
+	private static long hash(String key) {
+		long packed = NricCodec.encode(key);
+		long hash = packed != NricCodec.INVALID ? packed : key.hashCode();
+		// Finalizer of MurmurHash3, spreading every input bit over the output
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		// An odd step visits distinct bits
+		return hash | (1L << 32);
+	}
+
+	/**
+	 * Checks whether more keys were added than the filter was sized for, so its
+	 * false positive rate is above target and it should be rebuilt larger.
+	 *
+	 * @return {@code true} if the filter is over capacity, {@code false} otherwise
+	 */
+	public boolean isOverCapacity() {
+		return added.sum() > capacity;
+	}
+
+	/**
+	 * Gets the false positive rate expected from the share of bits set.
+	 *
+	 * @return the expected false positive rate
+	 */
+	public double getExpectedFalsePositiveRate() {
+		long set = 0;
+		for (int i = 0; i < bits.length(); i++) {
+			set += Long.bitCount(bits.get(i));
+		}
+		return Math.pow((double) set / bitCount, hashCount);
+	}
+
+	/**
+	 * Gets the share of checks of absent keys that wrongly reported the key as
+	 * possibly present, as reported with {@link #recordFalsePositive()}.
+	 *
+	 * @return the observed false positive rate, or 0 if no absent key was checked
+	 */
+	public double getObservedFalsePositiveRate() {
+		long wrong = falsePositives.sum();
+		long absent = wrong + negatives.sum();
+		return absent == 0 ? 0 : (double) wrong / absent;
+	}
+
+	/**
+	 * Gets the number of checks made.
+	 *
+	 * @return the number of checks
+	 */
+	public long getQueryCount() {
+		return queries.sum();
+	}
+
+	/**
+	 * Gets the number of checks answered without searching the set.
+	 *
+	 * @return the number of definite negatives
+	 */
+	public long getNegativeCount() {
+		return negatives.sum();
+	}
+
+	/**
+	 * Gets the number of false positives reported.
+	 *
+	 * @return the number of false positives
+	 */
+	public long getFalsePositiveCount() {
+		return falsePositives.sum();
+	}
+
+	/**
+	 * Gets the number of bits in the filter.
+	 *
+	 * @return the size of the filter, in bits
+	 */
+	public int getBitCount() {
+		return bitCount;
+	}
+
+	/**
+	 * Gets the number of bits set per key.
+	 *
+	 * @return the number of hash functions
+	 */
+	public int getHashCount() {
+		return hashCount;
+	}
+}
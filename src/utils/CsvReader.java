@@ -0,0 +1,256 @@
+package utils;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@link CsvReader} class parses RFC 4180 CSV text in a single pass over a
+ * reusable character buffer. Fields may be quoted with {@code "}, in which case
+ * they can contain commas, line breaks and doubled {@code ""} quotes. Rows may
+ * end with {@code \n} or {@code \r\n}; blank lines are skipped.
+ *
+ * <p>
+ * The parser is a small state machine with four states: at the start of a
+ * field, inside an unquoted field, inside a quoted field, and right after a
+ * quote inside a quoted field. Malformed input is read leniently: a quote in
+ * the middle of an unquoted field is kept as-is, and an unterminated quoted
+ * field ends at the end of the input.
+ */
+public class CsvReader implements AutoCloseable {
+	/**
+	 * The default size of the reusable buffer, in characters.
+	 */
+	private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The parser is at the start of a field.
+	 */
+	private static final int FIELD_START = 0;
+
+	/**
+	 * The parser is inside an unquoted field.
+	 */
+	private static final int UNQUOTED = 1;
+
+	/**
+	 * The parser is inside a quoted field.
+	 */
+	private static final int QUOTED = 2;
+
+	/**
+	 * The parser has read a quote inside a quoted field, which either closes the
+	 * field or starts an escaped quote.
+	 */
+	private static final int QUOTE_IN_QUOTED = 3;
+
+	/**
+	 * The reader the CSV text is read from.
+	 */
+	private final Reader reader;
+
+	/**
+	 * The reusable buffer holding characters that have not been parsed yet.
+	 */
+	private final char[] buffer;
+
+	/**
+	 * The position of the next character to parse in the buffer.
+	 */
+	private int position = 0;
+
+	/**
+	 * The number of valid characters in the buffer.
+	 */
+	private int limit = 0;
+
+	/**
+	 * Collects the characters of a field that spans buffer refills or contains
+	 * escaped quotes.
+	 */
+	private final StringBuilder field = new StringBuilder();
+
+	/**
+	 * The fields of the row being parsed.
+	 */
+	private final List<String> fields = new ArrayList<String>();
+
+	/**
+	 * Constructs a {@link CsvReader} that reads from the given reader.
+	 *
+	 * @param reader the reader to read from
+	 */
+	public CsvReader(Reader reader) {
+		this.reader = reader;
+		this.buffer = new char[DEFAULT_BUFFER_SIZE];
+	}
+
+	/**
+	 * Reads the next row.
+	 *
+	 * @return the fields of the row, or {@code null} at the end of the input
+	 * @throws IOException if the input cannot be read
+	 */
+	public String[] readRow() throws IOException {
+		// Skip blank lines
+		while (true) {
+			if (position == limit && !fill()) {
+				return null;
+			}
+			char c = buffer[position];
+			if (c != '\n' && c != '\r') {
+				break;
+			}
+			position++;
+		}
+
+		fields.clear();
+		field.setLength(0);
+		int state = FIELD_START;
+		int fieldStart = position;
+
+		while (true) {
+			if (position == limit) {
+				// Keep the pending part of an unquoted field before the buffer is refilled
+				if (state == UNQUOTED) {
+					field.append(buffer, fieldStart, position - fieldStart);
+				}
+				if (!fill()) {
+					fields.add(field.toString());
+					return fields.toArray(new String[0]);
+				}
+				fieldStart = 0;
+			}
+
+			switch (state) {
+				case FIELD_START:
+					if (buffer[position] == '"') {
+						state = QUOTED;
+						position++;
+						fieldStart = position;
+						break;
+					}
+					// The unquoted field is scanned on the next pass
+					state = UNQUOTED;
+					fieldStart = position;
+					break;
+				case UNQUOTED: {
+					// Scan the whole run up to the next separator at once
+					int end = position;
+					char c = 0;
+					while (end < limit) {
+						c = buffer[end];
+						if (c == ',' || c == '\n' || c == '\r') {
+							break;
+						}
+						end++;
+					}
+					position = end;
+					if (end == limit) {
+						break;
+					}
+
+					if (field.length() == 0) {
+						fields.add(new String(buffer, fieldStart, position - fieldStart));
+					} else {
+						fields.add(field.append(buffer, fieldStart, position - fieldStart).toString());
+						field.setLength(0);
+					}
+					position++;
+					if (c != ',') {
+						return endRow(c);
+					}
+					state = FIELD_START;
+					fieldStart = position;
+					break;
+				}
+				case QUOTED: {
+					// Copy the whole run up to the next quote at once
+					int end = position;
+					while (end < limit && buffer[end] != '"') {
+						end++;
+					}
+					field.append(buffer, position, end - position);
+					position = end;
+					if (end < limit) {
+						state = QUOTE_IN_QUOTED;
+						position++;
+					}
+					break;
+				}
+				case QUOTE_IN_QUOTED:
+					if (buffer[position] == '"') {
+						// Escaped quote
+						field.append('"');
+						state = QUOTED;
+						position++;
+					} else {
+						// Closing quote; anything up to the next separator belongs to the field
+						state = UNQUOTED;
+						fieldStart = position;
+					}
+					break;
+				default:
+					throw new IllegalStateException("Unknown CSV parser state: " + state);
+			}
+		}
+	}
+
+	/**
+	 * Reads every remaining row.
+	 *
+	 * @return the list of rows
+	 * @throws IOException if the input cannot be read
+	 */
+	public List<String[]> readAll() throws IOException {
+		List<String[]> rows = new ArrayList<String[]>();
+		String[] row;
+		while ((row = readRow()) != null) {
+			rows.add(row);
+		}
+		return rows;
+	}
+
+	/**
+	 * Closes the underlying reader.
+	 *
+	 * @throws IOException if the reader cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		reader.close();
+	}
+
+	/**
+	 * Finishes the current row after its line break, consuming the {@code \n} of a
+	 * {@code \r\n} pair.
+	 *
+	 * @param lineBreak the line break character that ended the row
+	 * @return the fields of the row
+	 * @throws IOException if the input cannot be read
+	 */
+	private String[] endRow(char lineBreak) throws IOException {
+		if (lineBreak == '\r' && (position < limit || fill()) && buffer[position] == '\n') {
+			position++;
+		}
+		return fields.toArray(new String[0]);
+	}
+
+	/**
+	 * Refills the buffer from the reader.
+	 *
+	 * @return {@code true} if characters were read, {@code false} at the end of the
+	 *         input
+	 * @throws IOException if the input cannot be read
+	 */
+	private boolean fill() throws IOException {
+		int read;
+		do {
+			read = reader.read(buffer, 0, buffer.length);
+		} while (read == 0);
+		position = 0;
+		limit = Math.max(read, 0);
+		return read > 0;
+	}
+}
@@ -0,0 +1,127 @@
+package utils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The {@link CsvRecord} class is a row of a CSV file whose fields can be looked
+ * up by the name of their column in the header row, so that parsing does not
+ * depend on the position of each column.
+ */
+public class CsvRecord {
+	/**
+	 * A {@link Map} containing the column name as the key and its position as the
+	 * value. Shared by every record of the same file.
+	 */
+	private final Map<String, Integer> columnIndex;
+
+	/**
+	 * The fields of the row.
+	 */
+	private final String[] values;
+
+	/**
+	 * Constructs a {@link CsvRecord}.
+	 *
+	 * @param columnIndex the column positions built with {@link #indexColumns(String[])}
+	 * @param values      the fields of the row
+	 */
+	public CsvRecord(Map<String, Integer> columnIndex, String[] values) {
+		this.columnIndex = columnIndex;
+		this.values = values;
+	}
+
+	/**
+	 * Builds the column positions of a header row. Column names are trimmed; if a
+	 * name appears twice, the first column wins.
+	 *
+	 * @param headers the header row
+	 * @return an unmodifiable {@link Map} containing the column name as the key and
+	 *         its position as the value
+	 */
+	public static Map<String, Integer> indexColumns(String[] headers) {
+		Map<String, Integer> columnIndex = new HashMap<String, Integer>();
+		for (int i = 0; i < headers.length; i++) {
+			columnIndex.putIfAbsent(headers[i].trim(), i);
+		}
+		return Collections.unmodifiableMap(columnIndex);
+	}
+
+	/**
+	 * Gets the field of the given column.
+	 *
+	 * @param column the name of the column
+	 * @return the field, or {@code null} if the file has no such column or the row
+	 *         is too short
+	 */
+	public String get(String column) {
+		Integer index = columnIndex.get(column);
+		if (index == null || index >= values.length) {
+			return null;
+		}
+		return values[index];
+	}
+
+	/**
+	 * Gets the field of the given column, falling back to a default value.
+	 *
+	 * @param column       the name of the column
+	 * @param defaultValue the value to return if the field is missing or empty
+	 * @return the field, or the default value
+	 */
+	public String get(String column, String defaultValue) {
+		String value = get(column);
+		return value == null || value.isEmpty() ? defaultValue : value;
+	}
+
+	/**
+	 * Gets the field at the given position.
+	 *
+	 * @param index the position of the field
+	 * @return the field
+	 */
+	public String get(int index) {
+		return values[index];
+	}
+
+	/**
+	 * Checks whether the file has the given column.
+	 *
+	 * @param column the name of the column
+	 * @return {@code true} if the header row contains the column, {@code false}
+	 *         otherwise
+	 */
+	public boolean hasColumn(String column) {
+		return columnIndex.containsKey(column);
+	}
+
+	/**
+	 * Gets the position of the given column.
+	 *
+	 * @param column the name of the column
+	 * @return the position, or {@code -1} if the file has no such column
+	 */
+	public int indexOf(String column) {
+		Integer index = columnIndex.get(column);
+		return index == null ? -1 : index;
+	}
+
+	/**
+	 * Gets the number of fields in the row.
+	 *
+	 * @return the number of fields
+	 */
+	public int size() {
+		return values.length;
+	}
+
+	/**
+	 * Gets the number of columns in the header row.
+	 *
+	 * @return the number of columns
+	 */
+	public int getColumnCount() {
+		return columnIndex.size();
+	}
+}
@@ -0,0 +1,411 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * The {@link CsvRowWriter} class encodes CSV rows field by field straight into a
+ * reusable UTF-8 byte buffer that is drained into a {@link WritableByteChannel}
+ * whenever it fills up. Numbers and dates are written digit by digit, so
+ * exporting a row does not build an intermediate {@link String} for the line or
+ * parse a format string. Text fields that contain a comma, a quote or a line
+ * break are quoted as described in RFC 4180, so they can be read back with
+ * {@link CsvReader}.
+ */
+public class CsvRowWriter implements AutoCloseable {
+	/**
+	 * The default size of the reusable buffer, in bytes.
+	 */
+	private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The channel the encoded rows are written to.
+	 */
+	private final WritableByteChannel channel;
+
+	/**
+	 * The reusable buffer holding encoded bytes that have not been written yet.
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * The digest updated with every byte written, or {@code null} if not needed.
+	 */
+	private final MessageDigest digest;
+
+	/**
+	 * Whether the next field is the first field of a row.
+	 */
+	private boolean atRowStart = true;
+
+	/**
+	 * Scratch space used to write integers from the least significant digit.
+	 */
+	private final byte[] digits = new byte[20];
+
+	/**
+	 * Constructs a {@link CsvRowWriter} that writes to the given channel.
+	 *
+	 * @param channel the channel to write to
+	 * @param digest  the digest to update with every byte written, or {@code null}
+	 */
+	public CsvRowWriter(WritableByteChannel channel, MessageDigest digest) {
+		this.channel = channel;
+		this.digest = digest;
+		this.buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Opens a {@link CsvRowWriter} that replaces the content of the given file.
+	 *
+	 * @param filePath the file path of the CSV file to write
+	 * @return the {@link CsvRowWriter}
+	 * @throws IOException if the file cannot be opened
+	 */
+	public static CsvRowWriter open(String filePath) throws IOException {
+		FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		return new CsvRowWriter(channel, null);
+	}
+
+	/**
+	 * Writes a full row made of the given fields.
+	 *
+	 * @param fields the fields of the row
+	 * @throws IOException if the row cannot be written
+	 */
+	public void row(List<String> fields) throws IOException {
+		for (String field : fields) {
+			field(field);
+		}
+		endRow();
+	}
+
+	/**
+	 * Writes a text field, quoting it if needed. A {@code null} value is written as
+	 * an empty field.
+	 *
+	 * @param value the value of the field
+	 * @return this writer
+	 * @throws IOException if the field cannot be written
+	 */
+	public CsvRowWriter field(CharSequence value) throws IOException {
+		separator();
+		if (value == null) {
+			return this;
+		}
+		if (!needsQuoting(value)) {
+			writeChars(value);
+			return this;
+		}
+
+		ensureCapacity(1);
+		buffer.put((byte) '"');
+		int start = 0;
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) == '"') {
+				// Escape quotes by doubling them
+				writeChars(value.subSequence(start, i + 1));
+				start = i;
+			}
+		}
+		writeChars(value.subSequence(start, value.length()));
+		ensureCapacity(1);
+		buffer.put((byte) '"');
+		return this;
+	}
+
+	/**
+	 * Writes an integer field.
+	 *
+	 * @param value the value of the field
+	 * @return this writer
+	 * @throws IOException if the field cannot be written
+	 */
+	public CsvRowWriter field(long value) throws IOException {
+		separator();
+		writeLong(value);
+		return this;
+	}
+
+	/**
+	 * Writes a decimal field in the same format as {@link Double#toString(double)}.
+	 *
+	 * @param value the value of the field
+	 * @return this writer
+	 * @throws IOException if the field cannot be written
+	 */
+	public CsvRowWriter field(double value) throws IOException {
+		separator();
+		writeChars(Double.toString(value));
+		return this;
+	}
+
+	/**
+	 * Writes a boolean field as {@code true} or {@code false}.
+	 *
+	 * @param value the value of the field
+	 * @return this writer
+	 * @throws IOException if the field cannot be written
+	 */
+	public CsvRowWriter field(boolean value) throws IOException {
+		separator();
+		writeChars(value ? "true" : "false");
+		return this;
+	}
+
+	/**
+	 * Writes a date field as {@code yyyy-MM-dd}. A {@code null} value is written
+	 * as an empty field.
+	 *
+	 * @param value the value of the field
+	 * @return this writer
+	 * @throws IOException if the field cannot be written
+	 */
+	public CsvRowWriter field(LocalDate value) throws IOException {
+		separator();
+		if (value != null) {
+			writeDate(value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+		}
+		return this;
+	}
+
+	/**
+	 * Writes a date-time field in the same format as
+	 * {@link java.time.format.DateTimeFormatter#ISO_LOCAL_DATE_TIME}. A
+	 * {@code null} value is written as an empty field.
+	 *
+	 * @param value the value of the field
+	 * @return this writer
+	 * @throws IOException if the field cannot be written
+	 */
+	public CsvRowWriter field(LocalDateTime value) throws IOException {
+		separator();
+		if (value != null) {
+			writeDateTime(value);
+		}
+		return this;
+	}
+
+	/**
+	 * Ends the current row.
+	 *
+	 * @throws IOException if the row cannot be written
+	 */
+	public void endRow() throws IOException {
+		ensureCapacity(1);
+		buffer.put((byte) '\n');
+		atRowStart = true;
+	}
+
+	/**
+	 * Writes any buffered bytes to the channel.
+	 *
+	 * @throws IOException if the bytes cannot be written
+	 */
+	public void flush() throws IOException {
+		buffer.flip();
+		if (digest != null) {
+			digest.update(buffer.array(), buffer.arrayOffset(), buffer.limit());
+		}
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Flushes the buffered bytes and closes the channel.
+	 *
+	 * @throws IOException if the bytes cannot be written or the channel cannot be
+	 *                     closed
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Writes a field separator unless the next field starts a row.
+	 *
+	 * @throws IOException if the separator cannot be written
+	 */
+	private void separator() throws IOException {
+		if (atRowStart) {
+			atRowStart = false;
+			return;
+		}
+		ensureCapacity(1);
+		buffer.put((byte) ',');
+	}
+
+	/**
+	 * Makes sure the buffer has room for the given number of bytes, flushing it if
+	 * needed.
+	 *
+	 * @param bytes the number of bytes needed
+	 * @throws IOException if the buffer cannot be flushed
+	 */
+	private void ensureCapacity(int bytes) throws IOException {
+		if (buffer.remaining() < bytes) {
+			flush();
+		}
+	}
+
+	/**
+	 * Checks whether a text field has to be quoted.
+	 *
+	 * @param value the value of the field
+	 * @return {@code true} if the value contains a comma, a quote or a line break,
+	 *         {@code false} otherwise
+	 */
+	private static boolean needsQuoting(CharSequence value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Encodes characters as UTF-8 into the buffer.
+	 *
+	 * @param value the characters to encode
+	 * @throws IOException if the buffer cannot be flushed
+	 */
+	private void writeChars(CharSequence value) throws IOException {
+		int length = value.length();
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+			ensureCapacity(4);
+			if (c < 0x80) {
+				buffer.put((byte) c);
+			} else if (c < 0x800) {
+				buffer.put((byte) (0xC0 | (c >> 6)));
+				buffer.put((byte) (0x80 | (c & 0x3F)));
+			} else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+				int codePoint = Character.toCodePoint(c, value.charAt(++i));
+				buffer.put((byte) (0xF0 | (codePoint >> 18)));
+				buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+				buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+				buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+			} else if (Character.isSurrogate(c)) {
+				buffer.put((byte) '?');
+			} else {
+				buffer.put((byte) (0xE0 | (c >> 12)));
+				buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+				buffer.put((byte) (0x80 | (c & 0x3F)));
+			}
+		}
+	}
+
+	/**
+	 * Writes a long value in decimal.
+	 *
+	 * @param value the value to write
+	 * @throws IOException if the buffer cannot be flushed
+	 */
+	private void writeLong(long value) throws IOException {
+		ensureCapacity(digits.length);
+		if (value == Long.MIN_VALUE) {
+			writeChars(Long.toString(value));
+			return;
+		}
+		if (value < 0) {
+			buffer.put((byte) '-');
+			value = -value;
+		}
+		int count = 0;
+		do {
+			digits[count++] = (byte) ('0' + (value % 10));
+			value /= 10;
+		} while (value != 0);
+		while (count > 0) {
+			buffer.put(digits[--count]);
+		}
+	}
+
+	/**
+	 * Writes a zero-padded number with the given width.
+	 *
+	 * @param value the non-negative value to write
+	 * @param width the minimum number of digits
+	 */
+	private void writePadded(int value, int width) {
+		int count = 0;
+		do {
+			digits[count++] = (byte) ('0' + (value % 10));
+			value /= 10;
+		} while (value != 0);
+		for (int i = count; i < width; i++) {
+			buffer.put((byte) '0');
+		}
+		while (count > 0) {
+			buffer.put(digits[--count]);
+		}
+	}
+
+	/**
+	 * Writes a date as {@code yyyy-MM-dd}.
+	 *
+	 * @param year  the year
+	 * @param month the month of the year
+	 * @param day   the day of the month
+	 * @throws IOException if the buffer cannot be flushed
+	 */
+	private void writeDate(int year, int month, int day) throws IOException {
+		if (year < 0 || year > 9999) {
+			writeChars(LocalDate.of(year, month, day).toString());
+			return;
+		}
+		ensureCapacity(10);
+		writePadded(year, 4);
+		buffer.put((byte) '-');
+		writePadded(month, 2);
+		buffer.put((byte) '-');
+		writePadded(day, 2);
+	}
+
+	/**
+	 * Writes a date-time as {@code yyyy-MM-ddTHH:mm:ss} followed by the
+	 * fraction of the second without trailing zeros, if any.
+	 *
+	 * @param value the date-time to write
+	 * @throws IOException if the buffer cannot be flushed
+	 */
+	private void writeDateTime(LocalDateTime value) throws IOException {
+		writeDate(value.getYear(), value.getMonthValue(), value.getDayOfMonth());
+		ensureCapacity(19);
+		buffer.put((byte) 'T');
+		writePadded(value.getHour(), 2);
+		buffer.put((byte) ':');
+		writePadded(value.getMinute(), 2);
+		buffer.put((byte) ':');
+		writePadded(value.getSecond(), 2);
+
+		int nano = value.getNano();
+		if (nano != 0) {
+			int width = 9;
+			while (nano % 10 == 0) {
+				nano /= 10;
+				width--;
+			}
+			buffer.put((byte) '.');
+			writePadded(nano, width);
+		}
+	}
+}
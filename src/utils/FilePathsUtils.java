@@ -39,9 +39,12 @@ public class FilePathsUtils {
 		filePathsMap.put("hdbOfficers", "data/HDBOfficer.csv");
 		filePathsMap.put("btoProject", "data/BTOProjectList.csv");
 		filePathsMap.put("btoApplication", "data/BTOApplicationList.csv");
+		filePathsMap.put("btoApplicationShards", "data/shards/BTOApplication");
 		filePathsMap.put("hdbOfficerRegistrations", "data/HDBOfficerRegistrationList.csv");
 		filePathsMap.put("enquiry", "data/EnquiryList.csv");
+		filePathsMap.put("enquiryShards", "data/shards/Enquiry");
 		filePathsMap.put("withdrawalRequest", "data/WithdrawalRequestList.csv");
+		filePathsMap.put("waitlist", "data/WaitlistList.csv");
 
 		return filePathsMap;
 	}
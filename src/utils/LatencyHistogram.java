@@ -0,0 +1,161 @@
+package utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The {@link LatencyHistogram} class counts durations in buckets whose width
+ * grows with the duration, in the manner of an HDR histogram: every power of
+ * two is split into {@value #SUB_BUCKETS} equal buckets, so a percentile is
+ * reported to within about 3% of the true duration whether it is a few
+ * nanoseconds or several minutes, in a fixed amount of memory.
+ *
+ * Recording is thread-safe and never blocks. Durations longer than about 73
+ * minutes are counted in the last bucket.
+ */
+public class LatencyHistogram {
+	/**
+	 * The number of bits of a duration kept exactly within its power of two.
+	 */
+	private static final int SUB_BUCKET_BITS = 5;
+
+	/**
+	 * The number of buckets each power of two is split into.
+	 */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	/**
+	 * The longest duration given a bucket of its own, in nanoseconds.
+	 */
+	private static final long MAX_TRACKABLE = (1L << 42) - 1;
+
+	/**
+	 * The number of durations recorded in each bucket.
+	 */
+	private final AtomicLongArray buckets = new AtomicLongArray(indexOf(MAX_TRACKABLE) + 1);
+
+	private final LongAdder count = new LongAdder();
+	private final LongAdder total = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Records a duration.
+	 *
+	 * @param nanos the duration, in nanoseconds
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		buckets.incrementAndGet(indexOf(Math.min(value, MAX_TRACKABLE)));
+		count.increment();
+		total.add(value);
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value)) {
+			current = max.get();
+		}
+	}
+
+	/**
+	 * Records the time elapsed since a start time.
+	 *
+	 * @param startNanos the start time, from {@link System#nanoTime()}
+	 */
+	public void recordSince(long startNanos) {
+		record(System.nanoTime() - startNanos);
+	}
+
+	/**
+	 * Gets the bucket a duration is counted in. Durations below twice
+	 * {@value #SUB_BUCKETS} nanoseconds each have a bucket of their own; above
+	 * that, the bucket is found from the position of the highest bit and the
+	 * {@link #SUB_BUCKET_BITS} bits below it.
+	 *
+	 * @param value the duration, in nanoseconds
+	 * @return the index of the bucket
+	 */
+	private static int indexOf(long value) {
+		int magnitude = 63 - Long.numberOfLeadingZeros(value | (2 * SUB_BUCKETS - 1));
+		int shift = magnitude - SUB_BUCKET_BITS;
+		return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+	}
+
+	/**
+	 * Gets the longest duration counted in a bucket.
+	 *
+	 * @param index the index of the bucket
+	 * @return the upper bound of the bucket, in nanoseconds
+	 */
+	private static long upperBoundOf(int index) {
+		if (index < 2 * SUB_BUCKETS) {
+			return index;
+		}
+		int shift = (index >>> SUB_BUCKET_BITS) - 1;
+		long mantissa = (index & (SUB_BUCKETS - 1)) | SUB_BUCKETS;
+		return ((mantissa + 1) << shift) - 1;
+	}
+
+	/**
+	 * Gets the duration that the given share of recorded durations did not
+	 * exceed, to the precision of its bucket.
+	 *
+	 * @param percentile the share, between 0 and 100
+	 * @return the duration, in nanoseconds, or 0 if nothing was recorded
+	 */
+	public long getPercentile(double percentile) {
+		long recorded = 0;
+		long[] counts = new long[buckets.length()];
+		for (int i = 0; i < counts.length; i++) {
+			counts[i] = buckets.get(i);
+			recorded += counts[i];
+		}
+		if (recorded == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(recorded * Math.min(100, Math.max(0, percentile)) / 100));
+		long seen = 0;
+		for (int i = 0; i < counts.length; i++) {
+			seen += counts[i];
+			if (seen >= rank) {
+				return Math.min(upperBoundOf(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * Gets the number of durations recorded.
+	 *
+	 * @return the number of durations
+	 */
+	public long getCount() {
+		return count.sum();
+	}
+
+	/**
+	 * Gets the sum of the durations recorded.
+	 *
+	 * @return the total duration, in nanoseconds
+	 */
+	public long getTotalNanos() {
+		return total.sum();
+	}
+
+	/**
+	 * Gets the average of the durations recorded.
+	 *
+	 * @return the mean duration, in nanoseconds, or 0 if nothing was recorded
+	 */
+	public long getMeanNanos() {
+		long recorded = count.sum();
+		return recorded == 0 ? 0 : total.sum() / recorded;
+	}
+
+	/**
+	 * Gets the longest duration recorded.
+	 *
+	 * @return the maximum duration, in nanoseconds
+	 */
+	public long getMaxNanos() {
+		return max.get();
+	}
+}
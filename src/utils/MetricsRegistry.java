@@ -0,0 +1,347 @@
+package utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ObjectName;
+
+/**
+ * The {@link MetricsRegistry} class holds the named counters, gauges and
+ * timers of the application. A counter is a {@link LongAdder} incremented by
+ * its owner; a gauge reads a value its owner already keeps when it is asked
+ * for; a timer is a {@link LatencyHistogram} of how long a call took.
+ *
+ * The registry is registered with the platform MBean server as
+ * {@code btoms:type=Metrics}, where every metric is an attribute: a counter or
+ * gauge under its own name, and a timer as its count and its mean, median,
+ * 99th percentile and maximum in microseconds, so the metrics can be watched
+ * from JConsole or any JMX client. The same figures are printed by
+ * {@link #getReport()}.
+ *
+ * Timing can be turned off for a thread with {@link #setRecording(boolean)},
+ * so synthetic calls such as the warm-up leave the timers as they were.
+ */
+public class MetricsRegistry implements DynamicMBean {
+	/**
+	 * The name the registry is registered under with the platform MBean server.
+	 */
+	public static final String OBJECT_NAME = "btoms:type=Metrics";
+
+	private static final MetricsRegistry instance = new MetricsRegistry();
+
+	/**
+	 * The suffixes of the attributes a timer is exposed as.
+	 */
+	private static final String[] TIMER_ATTRIBUTES = { "count", "meanMicros", "p50Micros", "p99Micros", "maxMicros" };
+
+	private final Map<String, LongAdder> counters = new ConcurrentSkipListMap<String, LongAdder>();
+	private final Map<String, Supplier<? extends Number>> gauges = new ConcurrentSkipListMap<String, Supplier<? extends Number>>();
+	private final Map<String, LatencyHistogram> timers = new ConcurrentSkipListMap<String, LatencyHistogram>();
+
+	/**
+	 * Whether the calls made by each thread are timed.
+	 */
+	private static final ThreadLocal<Boolean> recording = ThreadLocal.withInitial(() -> Boolean.TRUE);
+
+	/**
+	 * Constructs the registry and registers it with the platform MBean server.
+	 * Starting the MBean server takes a few hundred milliseconds, so it is done in
+	 * the background rather than holding up startup. The metrics are still kept
+	 * and reported if JMX is unavailable.
+	 */
+	private MetricsRegistry() {
+		Thread registration = new Thread(() -> {
+			try {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+			} catch (JMException | SecurityException e) {
+				System.out.println("Metrics are not available over JMX: " + e.getMessage());
+			}
+		}, "metrics-jmx-registration");
+		registration.setDaemon(true);
+		registration.start();
+	}
+
+	/**
+	 * Gets the registry shared by the whole application.
+	 *
+	 * @return the shared registry
+	 */
+	public static MetricsRegistry getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Gets a counter, creating it the first time it is asked for.
+	 *
+	 * @param name the name of the counter
+	 * @return the counter
+	 */
+	public LongAdder counter(String name) {
+		return counters.computeIfAbsent(name, key -> new LongAdder());
+	}
+
+	/**
+	 * Registers a gauge, replacing any gauge with the same name.
+	 *
+	 * @param name  the name of the gauge
+	 * @param value reads the current value
+	 */
+	public void gauge(String name, Supplier<? extends Number> value) {
+		gauges.put(name, value);
+	}
+
+	/**
+	 * Gets a timer, creating it the first time it is asked for.
+	 *
+	 * @param name the name of the timer, conventionally {@code Class.method}
+	 * @return the timer
+	 */
+	public LatencyHistogram timer(String name) {
+		LatencyHistogram timer = timers.get(name);
+		return timer != null ? timer : timers.computeIfAbsent(name, key -> new LatencyHistogram());
+	}
+
+	/**
+	 * Records the time elapsed since a start time in a timer of the shared
+	 * registry. Meant to be called from a {@code finally} block around the body
+	 * of the method being timed.
+	 *
+	 * @param name       the name of the timer
+	 * @param startNanos the start time, from {@link System#nanoTime()}
+	 */
+	public static void recordSince(String name, long startNanos) {
+		if (isRecording()) {
+			instance.timer(name).recordSince(startNanos);
+		}
+	}
+
+	/**
+	 * Turns timing of the calls made by the current thread on or off. Calls made
+	 * while it is off are neither recorded in the timers nor logged as slow.
+	 *
+	 * @param enabled whether the calls are timed
+	 */
+	public static void setRecording(boolean enabled) {
+		recording.set(enabled);
+	}
+
+	/**
+	 * Checks whether the calls made by the current thread are timed.
+	 *
+	 * @return {@code true} unless timing was turned off for the thread
+	 */
+	public static boolean isRecording() {
+		return recording.get();
+	}
+
+	/**
+	 * Wraps an implementation of an interface so that every call through the
+	 * interface is timed under {@code Implementation.method}.
+	 *
+	 * @param <T>    the type of the interface
+	 * @param type   the interface
+	 * @param target the implementation
+	 * @return an implementation of the interface timing each call to the target
+	 */
+	public <T> T instrument(Class<T> type, T target) {
+		String prefix = target.getClass().getSimpleName() + ".";
+		InvocationHandler handler = (proxy, method, args) -> {
+			if (method.getDeclaringClass() == Object.class) {
+				return method.invoke(target, args);
+			}
+			long start = System.nanoTime();
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			} finally {
+				recordSince(prefix + method.getName(), start);
+			}
+		};
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+	}
+
+	/**
+	 * Gets the counters, by name.
+	 *
+	 * @return a read-only view of the counters, sorted by name
+	 */
+	public Map<String, LongAdder> getCounters() {
+		return Collections.unmodifiableMap(counters);
+	}
+
+	/**
+	 * Gets the gauges, by name.
+	 *
+	 * @return a read-only view of the gauges, sorted by name
+	 */
+	public Map<String, Supplier<? extends Number>> getGauges() {
+		return Collections.unmodifiableMap(gauges);
+	}
+
+	/**
+	 * Gets the timers, by name.
+	 *
+	 * @return a read-only view of the timers, sorted by name
+	 */
+	public Map<String, LatencyHistogram> getTimers() {
+		return Collections.unmodifiableMap(timers);
+	}
+
+	/**
+	 * Gets a report of every metric: the timers that have been called, slowest
+	 * in total first, then the counters and gauges.
+	 *
+	 * @return a {@link List} of report lines
+	 */
+	public List<String> getReport() {
+		List<String> report = new ArrayList<String>();
+		List<Map.Entry<String, LatencyHistogram>> called = new ArrayList<Map.Entry<String, LatencyHistogram>>();
+		for (Map.Entry<String, LatencyHistogram> timer : timers.entrySet()) {
+			if (timer.getValue().getCount() > 0) {
+				called.add(timer);
+			}
+		}
+		called.sort((a, b) -> Long.compare(b.getValue().getTotalNanos(), a.getValue().getTotalNanos()));
+
+		report.add(String.format("%-55s %9s %10s %10s %10s %10s", "Timer", "Calls", "Mean(us)", "p50(us)", "p99(us)", "Max(us)"));
+		for (Map.Entry<String, LatencyHistogram> timer : called) {
+			LatencyHistogram histogram = timer.getValue();
+			report.add(String.format("%-55s %9d %10.1f %10.1f %10.1f %10.1f", timer.getKey(), histogram.getCount(),
+					histogram.getMeanNanos() / 1e3, histogram.getPercentile(50) / 1e3,
+					histogram.getPercentile(99) / 1e3, histogram.getMaxNanos() / 1e3));
+		}
+		if (called.isEmpty()) {
+			report.add("(no calls timed yet)");
+		}
+
+		report.add("");
+		report.add(String.format("%-55s %s", "Counter / gauge", "Value"));
+		Map<String, Object> values = new TreeMap<String, Object>();
+		for (Map.Entry<String, LongAdder> counter : counters.entrySet()) {
+			values.put(counter.getKey(), counter.getValue().sum());
+		}
+		for (String name : gauges.keySet()) {
+			values.put(name, readGauge(name));
+		}
+		for (Map.Entry<String, Object> value : values.entrySet()) {
+			Object number = value.getValue();
+			report.add(String.format("%-55s %s", value.getKey(),
+					number instanceof Double || number instanceof Float ? String.format("%.4f", number) : number));
+		}
+		return report;
+	}
+
+	/**
+	 * Reads a gauge, reporting a gauge that fails as not available rather than
+	 * failing the whole report.
+	 *
+	 * @param name the name of the gauge
+	 * @return the value, or {@code "n/a"} if it could not be read
+	 */
+	private Object readGauge(String name) {
+		Supplier<? extends Number> gauge = gauges.get(name);
+		try {
+			Number value = gauge == null ? null : gauge.get();
+			return value == null ? "n/a" : value;
+		} catch (RuntimeException e) {
+			return "n/a";
+		}
+	}
+
+	@Override
+	public Object getAttribute(String attribute) throws AttributeNotFoundException {
+		LongAdder counter = counters.get(attribute);
+		if (counter != null) {
+			return counter.sum();
+		}
+		if (gauges.containsKey(attribute)) {
+			Object value = readGauge(attribute);
+			return value instanceof Number ? ((Number) value).doubleValue() : Double.NaN;
+		}
+		int dot = attribute.lastIndexOf('.');
+		LatencyHistogram timer = dot < 0 ? null : timers.get(attribute.substring(0, dot));
+		if (timer != null) {
+			switch (attribute.substring(dot + 1)) {
+			case "count":
+				return timer.getCount();
+			case "meanMicros":
+				return timer.getMeanNanos() / 1e3;
+			case "p50Micros":
+				return timer.getPercentile(50) / 1e3;
+			case "p99Micros":
+				return timer.getPercentile(99) / 1e3;
+			case "maxMicros":
+				return timer.getMaxNanos() / 1e3;
+			default:
+				break;
+			}
+		}
+		throw new AttributeNotFoundException(attribute);
+	}
+
+	@Override
+	public AttributeList getAttributes(String[] attributes) {
+		AttributeList list = new AttributeList();
+		for (String attribute : attributes) {
+			try {
+				list.add(new Attribute(attribute, getAttribute(attribute)));
+			} catch (AttributeNotFoundException e) {
+				// Left out of the list, as the JMX contract allows
+			}
+		}
+		return list;
+	}
+
+	@Override
+	public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+		throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+	}
+
+	@Override
+	public AttributeList setAttributes(AttributeList attributes) {
+		return new AttributeList();
+	}
+
+	@Override
+	public Object invoke(String actionName, Object[] params, String[] signature) {
+		throw new UnsupportedOperationException(actionName);
+	}
+
+	@Override
+	public MBeanInfo getMBeanInfo() {
+		List<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>();
+		for (String name : counters.keySet()) {
+			attributes.add(new MBeanAttributeInfo(name, "java.lang.Long", "Counter", true, false, false));
+		}
+		for (String name : gauges.keySet()) {
+			attributes.add(new MBeanAttributeInfo(name, "java.lang.Double", "Gauge", true, false, false));
+		}
+		for (String name : timers.keySet()) {
+			for (String suffix : TIMER_ATTRIBUTES) {
+				String type = suffix.equals("count") ? "java.lang.Long" : "java.lang.Double";
+				attributes.add(new MBeanAttributeInfo(name + "." + suffix, type, "Timer", true, false, false));
+			}
+		}
+		return new MBeanInfo(getClass().getName(), "BTOMS metrics", attributes.toArray(new MBeanAttributeInfo[0]),
+				null, new MBeanOperationInfo[0], null);
+	}
+}
@@ -0,0 +1,76 @@
+package utils;
+
+/**
+ * The {@link NricCodec} class packs an NRIC such as {@code S1234567A} into a
+ * single {@code long}: the prefix letter, the seven digits as a number and the
+ * checksum letter. The packed value is never zero, so zero can mark an empty
+ * slot in a table of packed NRICs.
+ */
+public class NricCodec {
+	/**
+	 * The value returned for strings that are not NRICs.
+	 */
+	public static final long INVALID = -1;
+
+	private static final int DIGITS_BITS = 24;
+	private static final int LETTER_BITS = 5;
+
+	/**
+	 * A bit set in every packed NRIC so that none of them is zero.
+	 */
+	private static final long PRESENT = 1L << (DIGITS_BITS + 2 * LETTER_BITS);
+
+	/**
+	 * Private constructor to prevent instantiation of the class.
+	 */
+	private NricCodec() {
+	}
+
+	/**
+	 * Packs an NRIC into a {@code long}.
+	 *
+	 * @param nric the NRIC: an uppercase letter, seven ASCII digits and an
+	 *             uppercase letter
+	 * @return the packed NRIC, or {@link #INVALID} if the string is not an NRIC
+	 */
+	public static long encode(String nric) {
+		if (nric == null || nric.length() != 9) {
+			return INVALID;
+		}
+		char prefix = nric.charAt(0);
+		char suffix = nric.charAt(8);
+		if (prefix < 'A' || prefix > 'Z' || suffix < 'A' || suffix > 'Z') {
+			return INVALID;
+		}
+		int digits = 0;
+		for (int i = 1; i < 8; i++) {
+			char c = nric.charAt(i);
+			if (c < '0' || c > '9') {
+				return INVALID;
+			}
+			digits = digits * 10 + (c - '0');
+		}
+		return PRESENT
+				| ((long) (prefix - 'A') << (DIGITS_BITS + LETTER_BITS))
+				| ((long) digits << LETTER_BITS)
+				| (suffix - 'A');
+	}
+
+	/**
+	 * Unpacks an NRIC packed by {@link #encode}.
+	 *
+	 * @param packed the packed NRIC
+	 * @return the NRIC
+	 */
+	public static String decode(long packed) {
+		char[] nric = new char[9];
+		nric[0] = (char) ('A' + ((packed >>> (DIGITS_BITS + LETTER_BITS)) & 0x1F));
+		int digits = (int) ((packed >>> LETTER_BITS) & ((1 << DIGITS_BITS) - 1));
+		for (int i = 7; i >= 1; i--) {
+			nric[i] = (char) ('0' + digits % 10);
+			digits /= 10;
+		}
+		nric[8] = (char) ('A' + (packed & 0x1F));
+		return new String(nric);
+	}
+}
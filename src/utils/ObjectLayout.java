@@ -0,0 +1,470 @@
+package utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicStampedReference;
+import java.util.function.Predicate;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+/**
+ * The {@link ObjectLayout} class estimates how many bytes of heap an object
+ * graph retains, from the layout the JVM gives each class: an object header,
+ * its instance fields and padding to the object alignment, with the header,
+ * reference size and alignment read from the running JVM's options.
+ *
+ * The application's own classes are walked field by field. The JDK's classes
+ * cannot be read by reflection, so strings, collections, maps and a few other
+ * common classes are measured from their public state and a model of their
+ * internals, such as the table and nodes of a {@link HashMap}; any other JDK
+ * object counts its own fields only.
+ *
+ * Collections, maps and arrays with more than {@value #SAMPLE_SIZE} elements
+ * are not walked in full: the elements of a sample are measured, and the
+ * result scaled up to the size of the collection, so the graph of millions of
+ * entities is estimated in a bounded time. Objects the caller reports as
+ * shared, such as entities held by another store, are not counted, and
+ * neither are enum constants, classes and lambdas. An object reachable from
+ * several sampled elements is counted once; an object shared by elements
+ * that were not sampled is counted as if each had its own.
+ */
+public class ObjectLayout {
+	/**
+	 * The number of elements of a collection, map or array that are measured
+	 * before the rest are estimated from them.
+	 */
+	public static final int SAMPLE_SIZE = 256;
+
+	private static final ObjectLayout instance = new ObjectLayout();
+
+	private final int referenceSize;
+	private final int headerSize;
+	private final int arrayHeaderSize;
+	private final int alignment;
+
+	/**
+	 * The shallow size of each class measured so far.
+	 */
+	private final Map<Class<?>, Long> shallowSizes = new ConcurrentHashMap<Class<?>, Long>();
+
+	/**
+	 * The walkable reference fields of each application class measured so far.
+	 */
+	private final Map<Class<?>, List<Field>> referenceFields = new ConcurrentHashMap<Class<?>, List<Field>>();
+
+	/**
+	 * Constructs an {@link ObjectLayout} for the running JVM. Compressed
+	 * references and class pointers and 8-byte alignment are assumed if the JVM
+	 * options cannot be read.
+	 */
+	private ObjectLayout() {
+		boolean compressedOops = true;
+		boolean compressedClassPointers = true;
+		int alignment = 8;
+		try {
+			HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+			compressedOops = Boolean.parseBoolean(hotSpot.getVMOption("UseCompressedOops").getValue());
+			compressedClassPointers = Boolean.parseBoolean(hotSpot.getVMOption("UseCompressedClassPointers").getValue());
+			alignment = Integer.parseInt(hotSpot.getVMOption("ObjectAlignmentInBytes").getValue());
+		} catch (RuntimeException e) {
+			// Not a HotSpot JVM: keep the defaults of a 64-bit JVM with a heap under 32 GB
+		}
+		this.referenceSize = compressedOops ? 4 : 8;
+		this.headerSize = compressedClassPointers ? 12 : 16;
+		this.arrayHeaderSize = headerSize + 4;
+		this.alignment = alignment;
+	}
+
+	/**
+	 * Gets the layout of the running JVM.
+	 *
+	 * @return the shared {@link ObjectLayout}
+	 */
+	public static ObjectLayout getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Gets the size of a reference.
+	 *
+	 * @return 4 with compressed references, otherwise 8
+	 */
+	public int getReferenceSize() {
+		return referenceSize;
+	}
+
+	/**
+	 * Gets the size of an object header.
+	 *
+	 * @return the header size in bytes
+	 */
+	public int getHeaderSize() {
+		return headerSize;
+	}
+
+	/**
+	 * Gets the alignment of objects on the heap.
+	 *
+	 * @return the alignment in bytes
+	 */
+	public int getAlignment() {
+		return alignment;
+	}
+
+	/**
+	 * Estimates the bytes retained by an object graph.
+	 *
+	 * @param root   the object to measure
+	 * @param shared whether an object belongs to some other owner and is not
+	 *               counted, along with everything reachable only through it
+	 * @return the estimated retained size, in bytes
+	 */
+	public long retainedSizeOf(Object root, Predicate<Object> shared) {
+		return new Walk(shared).sizeOf(root);
+	}
+
+	/**
+	 * Gets the size of an instance of a class without the objects it refers to:
+	 * the header and the instance fields of the class and its superclasses,
+	 * padded to the alignment.
+	 *
+	 * @param type the class
+	 * @return the shallow size, in bytes
+	 */
+	public long shallowSizeOf(Class<?> type) {
+		Long size = shallowSizes.get(type);
+		if (size == null) {
+			long fields = 0;
+			for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+				for (Field field : c.getDeclaredFields()) {
+					if (!Modifier.isStatic(field.getModifiers())) {
+						fields += sizeOfType(field.getType());
+					}
+				}
+			}
+			size = align(headerSize + fields);
+			shallowSizes.put(type, size);
+		}
+		return size;
+	}
+
+	/**
+	 * Gets the size of an array without the objects it refers to.
+	 *
+	 * @param componentType the type of the elements
+	 * @param length        the number of elements
+	 * @return the size, in bytes
+	 */
+	public long sizeOfArray(Class<?> componentType, int length) {
+		return align(arrayHeaderSize + (long) length * sizeOfType(componentType));
+	}
+
+	/**
+	 * Gets the number of bytes a field or array element of a type takes.
+	 *
+	 * @param type the type
+	 * @return the size, in bytes
+	 */
+	private int sizeOfType(Class<?> type) {
+		if (!type.isPrimitive()) {
+			return referenceSize;
+		} else if (type == long.class || type == double.class) {
+			return 8;
+		} else if (type == int.class || type == float.class) {
+			return 4;
+		} else if (type == short.class || type == char.class) {
+			return 2;
+		}
+		return 1;
+	}
+
+	/**
+	 * Pads a size to the object alignment.
+	 *
+	 * @param size the size, in bytes
+	 * @return the padded size, in bytes
+	 */
+	private long align(long size) {
+		return (size + alignment - 1) / alignment * alignment;
+	}
+
+	/**
+	 * Gets the number of buckets a hash table grows to for a number of entries
+	 * at the default load factor.
+	 *
+	 * @param entries the number of entries
+	 * @return the number of buckets, a power of two
+	 */
+	private static int tableSizeFor(int entries) {
+		if (entries == 0) {
+			return 0;
+		}
+		int needed = (int) Math.min(1 << 30, (long) Math.ceil(entries / 0.75));
+		return Math.max(16, Integer.highestOneBit(needed - 1) << 1);
+	}
+
+	/**
+	 * Gets the walkable reference fields of an application class and its
+	 * application superclasses.
+	 *
+	 * @param type the class
+	 * @return the reference fields that could be made accessible
+	 */
+	private List<Field> referenceFieldsOf(Class<?> type) {
+		List<Field> fields = referenceFields.get(type);
+		if (fields == null) {
+			fields = new ArrayList<Field>();
+			for (Class<?> c = type; c != null && isApplicationClass(c); c = c.getSuperclass()) {
+				for (Field field : c.getDeclaredFields()) {
+					if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()
+							&& field.trySetAccessible()) {
+						fields.add(field);
+					}
+				}
+			}
+			referenceFields.put(type, fields);
+		}
+		return fields;
+	}
+
+	/**
+	 * Checks whether a class belongs to the application rather than the JDK.
+	 *
+	 * @param type the class
+	 * @return {@code true} if the class is in the same module as this one
+	 */
+	private static boolean isApplicationClass(Class<?> type) {
+		return type.getModule() == ObjectLayout.class.getModule();
+	}
+
+	/**
+	 * Gets the shallow size of a JDK class by name, for the internal nodes of
+	 * collections.
+	 *
+	 * @param className the binary name of the class
+	 * @param fallback  the size to use if the class cannot be found
+	 * @return the shallow size, in bytes
+	 */
+	private long shallowSizeOf(String className, long fallback) {
+		try {
+			return shallowSizeOf(Class.forName(className));
+		} catch (ClassNotFoundException e) {
+			return fallback;
+		}
+	}
+
+	/**
+	 * One walk of an object graph, counting each object once.
+	 */
+	private class Walk {
+		private final Predicate<Object> shared;
+		private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+
+		private Walk(Predicate<Object> shared) {
+			this.shared = shared;
+		}
+
+		/**
+		 * Measures an object and everything it refers to that has not been counted
+		 * yet.
+		 *
+		 * @param object the object
+		 * @return the estimated retained size, in bytes
+		 */
+		private long sizeOf(Object object) {
+			if (object == null || object instanceof Enum || object instanceof Class || object.getClass().isHidden()
+					|| shared.test(object) || !visited.add(object)) {
+				return 0;
+			}
+			Class<?> type = object.getClass();
+			if (type.isArray()) {
+				return sizeOfArrayObject(object);
+			} else if (isApplicationClass(type)) {
+				long size = shallowSizeOf(type);
+				for (Field field : referenceFieldsOf(type)) {
+					try {
+						size += sizeOf(field.get(object));
+					} catch (IllegalAccessException e) {
+						// Counted as a reference only
+					}
+				}
+				return size;
+			} else if (object instanceof String) {
+				String string = (String) object;
+				boolean latin1 = string.chars().allMatch(c -> c < 256);
+				return shallowSizeOf(type) + sizeOfArray(byte.class, latin1 ? string.length() : 2 * string.length());
+			} else if (object instanceof Map) {
+				Map<?, ?> map = (Map<?, ?>) object;
+				return shallowSizeOf(type) + sizeOfMapInternals(map) + sizeOfSample(map.entrySet(), true);
+			} else if (object instanceof Collection) {
+				Collection<?> collection = (Collection<?>) object;
+				return shallowSizeOf(type) + sizeOfCollectionInternals(collection) + sizeOfSample(collection, false);
+			} else if (object instanceof LocalDateTime) {
+				return shallowSizeOf(type) + shallowSizeOf(LocalDate.class) + shallowSizeOf(LocalTime.class);
+			} else if (object instanceof AtomicStampedReference) {
+				return shallowSizeOf(type) + shallowSizeOf("java.util.concurrent.atomic.AtomicStampedReference$Pair", 24)
+						+ sizeOf(((AtomicStampedReference<?>) object).getReference());
+			} else if (object instanceof AtomicLongArray) {
+				return shallowSizeOf(type) + sizeOfArray(long.class, ((AtomicLongArray) object).length());
+			} else if (object instanceof AtomicIntegerArray) {
+				return shallowSizeOf(type) + sizeOfArray(int.class, ((AtomicIntegerArray) object).length());
+			} else if (object instanceof AtomicReference) {
+				return shallowSizeOf(type) + sizeOf(((AtomicReference<?>) object).get());
+			}
+			return shallowSizeOf(type);
+		}
+
+		/**
+		 * Measures an array and, for an array of objects, its elements.
+		 *
+		 * @param array the array
+		 * @return the estimated retained size, in bytes
+		 */
+		private long sizeOfArrayObject(Object array) {
+			Class<?> componentType = array.getClass().getComponentType();
+			int length = Array.getLength(array);
+			long size = sizeOfArray(componentType, length);
+			if (componentType.isPrimitive() || length == 0) {
+				return size;
+			}
+			Object[] elements = (Object[]) array;
+			int step = Math.max(1, length / SAMPLE_SIZE);
+			long sampled = 0;
+			int count = 0;
+			for (int i = 0; i < length; i += step) {
+				sampled += sizeOf(elements[i]);
+				count++;
+			}
+			return size + sampled * length / count;
+		}
+
+		/**
+		 * Measures the elements of a collection, or the keys and values of the
+		 * entries of a map, from a sample when there are many.
+		 *
+		 * @param elements the elements
+		 * @param entries  whether the elements are map entries, whose key and value
+		 *                 are measured rather than the entry itself
+		 * @return the estimated size of the elements, in bytes
+		 */
+		private long sizeOfSample(Collection<?> elements, boolean entries) {
+			int size = elements.size();
+			if (size == 0) {
+				return 0;
+			}
+			long sampled = 0;
+			int count = 0;
+			if (!entries && elements instanceof List && elements instanceof RandomAccess) {
+				List<?> list = (List<?>) elements;
+				int step = Math.max(1, size / SAMPLE_SIZE);
+				for (int i = 0; i < size; i += step) {
+					sampled += sizeOf(list.get(i));
+					count++;
+				}
+			} else {
+				// Hash and concurrent collections iterate in an order unrelated to the
+				// elements, so the first elements are a fair sample
+				Iterator<?> iterator = elements.iterator();
+				while (iterator.hasNext() && count < SAMPLE_SIZE) {
+					Object element = iterator.next();
+					if (entries) {
+						Map.Entry<?, ?> entry = (Map.Entry<?, ?>) element;
+						sampled += sizeOf(entry.getKey()) + sizeOf(entry.getValue());
+					} else {
+						sampled += sizeOf(element);
+					}
+					count++;
+				}
+			}
+			return count == 0 ? 0 : sampled * size / count;
+		}
+
+		/**
+		 * Estimates the internal table and nodes of a JDK map, apart from the
+		 * map object itself and its keys and values.
+		 *
+		 * @param map the map
+		 * @return the estimated size, in bytes
+		 */
+		private long sizeOfMapInternals(Map<?, ?> map) {
+			int size = map.size();
+			if (map instanceof ConcurrentHashMap) {
+				return sizeOfArray(Object.class, tableSizeFor(size))
+						+ size * shallowSizeOf("java.util.concurrent.ConcurrentHashMap$Node", 32);
+			} else if (map instanceof LinkedHashMap) {
+				return sizeOfArray(Object.class, tableSizeFor(size))
+						+ size * shallowSizeOf("java.util.LinkedHashMap$Entry", 40);
+			} else if (map instanceof HashMap) {
+				return sizeOfArray(Object.class, tableSizeFor(size))
+						+ size * shallowSizeOf("java.util.HashMap$Node", 32);
+			} else if (map instanceof TreeMap) {
+				return size * shallowSizeOf("java.util.TreeMap$Entry", 40);
+			} else if (map instanceof EnumMap) {
+				if (size == 0) {
+					return 0;
+				}
+				Object key = map.keySet().iterator().next();
+				return sizeOfArray(Object.class, ((Enum<?>) key).getDeclaringClass().getEnumConstants().length);
+			}
+			return sizeOfArray(Object.class, size);
+		}
+
+		/**
+		 * Estimates the internal arrays or nodes of a JDK collection, apart from
+		 * the collection object itself and its elements.
+		 *
+		 * @param collection the collection
+		 * @return the estimated size, in bytes
+		 */
+		private long sizeOfCollectionInternals(Collection<?> collection) {
+			int size = collection.size();
+			if (collection instanceof ConcurrentHashMap.KeySetView) {
+				Map<?, ?> map = ((ConcurrentHashMap.KeySetView<?, ?>) collection).getMap();
+				return visited.add(map) ? shallowSizeOf(map.getClass()) + sizeOfMapInternals(map) : 0;
+			} else if (collection instanceof LinkedHashSet) {
+				return shallowSizeOf(LinkedHashMap.class) + sizeOfArray(Object.class, tableSizeFor(size))
+						+ size * shallowSizeOf("java.util.LinkedHashMap$Entry", 40);
+			} else if (collection instanceof HashSet) {
+				return shallowSizeOf(HashMap.class) + sizeOfArray(Object.class, tableSizeFor(size))
+						+ size * shallowSizeOf("java.util.HashMap$Node", 32);
+			} else if (collection instanceof TreeSet) {
+				return shallowSizeOf(TreeMap.class) + size * shallowSizeOf("java.util.TreeMap$Entry", 40);
+			} else if (collection instanceof LinkedList) {
+				return size * shallowSizeOf("java.util.LinkedList$Node", 24);
+			} else if (collection instanceof ArrayDeque) {
+				return sizeOfArray(Object.class, Math.max(16, Integer.highestOneBit(size) << 1));
+			} else if (collection instanceof EnumSet) {
+				return 0;
+			}
+			return sizeOfArray(Object.class, size);
+		}
+	}
+}
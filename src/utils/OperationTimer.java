@@ -0,0 +1,144 @@
+package utils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collection;
+import java.util.Map;
+
+import stores.SessionContext;
+
+/**
+ * The {@link OperationTimer} class times one service call or menu action. It
+ * records the wall time in the operation's timer in the {@link MetricsRegistry},
+ * and when the operation took longer than its threshold, hands it to the
+ * {@link SlowOperationLog} with the bytes the thread allocated during it, a
+ * summary of its arguments and the size of its result.
+ *
+ * The time compared with the threshold leaves out the time spent waiting for
+ * the user to type, so a menu action is slow because of the work it did, not
+ * because the user was slow to answer a prompt. The arguments are kept as they
+ * are and only summarized if the operation is logged.
+ *
+ * Meant to be used from a {@code try}/{@code finally} block around the body of
+ * the operation:
+ *
+ * <pre>
+ * OperationTimer timer = OperationTimer.start("Service.method", project);
+ * try {
+ * 	return timer.returned(result);
+ * } finally {
+ * 	timer.stop();
+ * }
+ * </pre>
+ */
+public class OperationTimer {
+	/**
+	 * Reads the bytes allocated by the current thread, or {@code null} if the
+	 * JVM cannot.
+	 */
+	private static final com.sun.management.ThreadMXBean allocationCounter = allocationCounter();
+
+	private final String name;
+	private final Object[] arguments;
+	private final SessionContext session;
+	private final long startNanos;
+	private final long startInputWaitNanos;
+	private final long startAllocatedBytes;
+	private int resultSize = -1;
+	private boolean stopped = false;
+
+	/**
+	 * Constructs an {@link OperationTimer} started now.
+	 *
+	 * @param name      the name of the operation
+	 * @param arguments the arguments of the operation
+	 */
+	private OperationTimer(String name, Object[] arguments) {
+		this.name = name;
+		this.arguments = arguments;
+		this.session = SessionContext.current();
+		this.startInputWaitNanos = session.getInputWaitNanos();
+		this.startAllocatedBytes = allocatedBytes();
+		this.startNanos = System.nanoTime();
+	}
+
+	/**
+	 * Starts timing an operation.
+	 *
+	 * @param name      the name of the operation, conventionally
+	 *                  {@code Class.method}
+	 * @param arguments the arguments of the operation, summarized if it is slow;
+	 *                  never passwords, which the timer would hold until it stops
+	 * @return the started timer
+	 */
+	public static OperationTimer start(String name, Object... arguments) {
+		return new OperationTimer(name, arguments);
+	}
+
+	/**
+	 * Notes the result of the operation, so its size is logged if the operation
+	 * is slow.
+	 *
+	 * @param <T>    the type of the result
+	 * @param result the result of the operation
+	 * @return the result, unchanged
+	 */
+	public <T> T returned(T result) {
+		if (result instanceof Collection) {
+			resultSize = ((Collection<?>) result).size();
+		} else if (result instanceof Map) {
+			resultSize = ((Map<?, ?>) result).size();
+		}
+		return result;
+	}
+
+	/**
+	 * Stops timing the operation, records it and logs it if it was slow. Only the
+	 * first call has any effect, and none if timing is turned off for the thread,
+	 * see {@link MetricsRegistry#setRecording(boolean)}.
+	 */
+	public void stop() {
+		if (stopped) {
+			return;
+		}
+		stopped = true;
+		if (!MetricsRegistry.isRecording()) {
+			return;
+		}
+		long wallNanos = System.nanoTime() - startNanos;
+		MetricsRegistry.getInstance().timer(name).record(wallNanos);
+
+		SlowOperationLog slowLog = SlowOperationLog.getInstance();
+		long busyNanos = wallNanos - (session.getInputWaitNanos() - startInputWaitNanos);
+		if (busyNanos >= slowLog.getThresholdNanos(name)) {
+			long allocated = startAllocatedBytes < 0 ? -1 : allocatedBytes() - startAllocatedBytes;
+			slowLog.log(name, session.getSessionId(), busyNanos, wallNanos, allocated, arguments, resultSize);
+		}
+	}
+
+	/**
+	 * Gets the number of bytes the current thread has allocated so far.
+	 *
+	 * @return the number of bytes, or -1 if the JVM cannot tell
+	 */
+	private static long allocatedBytes() {
+		return allocationCounter == null ? -1 : allocationCounter.getCurrentThreadAllocatedBytes();
+	}
+
+	/**
+	 * Gets the thread bean that reads allocated bytes, if the JVM supports it and
+	 * it is enabled.
+	 *
+	 * @return the thread bean, or {@code null}
+	 */
+	private static com.sun.management.ThreadMXBean allocationCounter() {
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+			if (counter.isThreadAllocatedMemorySupported() && counter.isThreadAllocatedMemoryEnabled()) {
+				return counter;
+			}
+		}
+		return null;
+	}
+}
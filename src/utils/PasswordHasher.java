@@ -0,0 +1,134 @@
+package utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * The {@link PasswordHasher} class hashes passwords with salted PBKDF2
+ * (HMAC-SHA256) and checks passwords against stored hashes. A stored hash is
+ * kept as {@code pbkdf2$<iterations>$<salt>$<hash>} with the salt and hash in
+ * Base64, so hashes made with an older cost still verify after the cost is
+ * raised. Passwords saved before hashing was introduced are stored as they
+ * were typed; they still verify and are reported by {@link #needsRehash} so
+ * they can be replaced with a hash.
+ */
+public class PasswordHasher {
+	private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+	private static final String PREFIX = "pbkdf2$";
+	private static final int SALT_BYTES = 16;
+	private static final int HASH_BITS = 256;
+
+	/**
+	 * The number of PBKDF2 iterations used for new hashes.
+	 */
+	private final int iterations;
+
+	private final SecureRandom random = new SecureRandom();
+
+	/**
+	 * Constructs a {@link PasswordHasher} that hashes with the given cost.
+	 *
+	 * @param iterations the number of PBKDF2 iterations for new hashes
+	 */
+	public PasswordHasher(int iterations) {
+		this.iterations = iterations;
+	}
+
+	/**
+	 * Hashes a password with a new random salt.
+	 *
+	 * @param password the password
+	 * @return the stored form of the hash
+	 */
+	public String hash(String password) {
+		byte[] salt = new byte[SALT_BYTES];
+		random.nextBytes(salt);
+		Base64.Encoder base64 = Base64.getEncoder();
+		return PREFIX + iterations + "$" + base64.encodeToString(salt) + "$"
+				+ base64.encodeToString(pbkdf2(password, salt, iterations));
+	}
+
+	/**
+	 * Checks a password against a stored hash, or against a password stored
+	 * before hashing was introduced. The comparison takes the same time wherever
+	 * the first difference is.
+	 *
+	 * @param password the password to check
+	 * @param stored   the stored hash or password
+	 * @return {@code true} if the password matches, {@code false} otherwise
+	 */
+	public boolean verify(String password, String stored) {
+		if (password == null || stored == null) {
+			return false;
+		}
+		if (!stored.startsWith(PREFIX)) {
+			return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8),
+					stored.getBytes(StandardCharsets.UTF_8));
+		}
+		String[] parts = stored.split("\\$");
+		if (parts.length != 4) {
+			return false;
+		}
+		try {
+			int storedIterations = Integer.parseInt(parts[1]);
+			Base64.Decoder base64 = Base64.getDecoder();
+			byte[] expected = base64.decode(parts[3]);
+			return MessageDigest.isEqual(expected, pbkdf2(password, base64.decode(parts[2]), storedIterations));
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Checks whether a stored password should be replaced with a new hash,
+	 * because it is not hashed or was hashed with a lower cost.
+	 *
+	 * @param stored the stored hash or password
+	 * @return {@code true} if it should be rehashed, {@code false} otherwise
+	 */
+	public boolean needsRehash(String stored) {
+		if (stored == null || !stored.startsWith(PREFIX)) {
+			return true;
+		}
+		String[] parts = stored.split("\\$");
+		try {
+			return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+		} catch (NumberFormatException e) {
+			return true;
+		}
+	}
+
+	/**
+	 * Gets the number of PBKDF2 iterations used for new hashes.
+	 *
+	 * @return the number of iterations
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Derives the PBKDF2 hash of a password.
+	 *
+	 * @param password   the password
+	 * @param salt       the salt
+	 * @param iterations the number of iterations
+	 * @return the hash
+	 */
+	private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+		PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+		try {
+			return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("PBKDF2 is not available: " + e.getMessage(), e);
+		} finally {
+			spec.clearPassword();
+		}
+	}
+}
@@ -0,0 +1,209 @@
+package utils;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Locale;
+
+import stores.SessionContext;
+
+/**
+ * The {@link SessionPrintStream} class is installed as {@link System#out} in
+ * server mode. Every call is forwarded to the output stream of the session
+ * served by the current thread, so the existing {@code System.out} calls in
+ * controllers and views reach the right terminal. Calls are forwarded whole
+ * rather than byte by byte, so sessions never wait on each other's output.
+ */
+public class SessionPrintStream extends PrintStream {
+	/**
+	 * Constructs a {@link SessionPrintStream}.
+	 *
+	 * @param console the stream of the local console, which must not be this
+	 *                stream
+	 */
+	public SessionPrintStream(PrintStream console) {
+		super(console, true);
+	}
+
+	/**
+	 * Gets the stream of the session served by the current thread.
+	 *
+	 * @return the session's {@link PrintStream}
+	 */
+	private static PrintStream target() {
+		return SessionContext.current().getOut();
+	}
+
+	@Override
+	public void flush() {
+		target().flush();
+	}
+
+	/**
+	 * Does nothing; each session's stream is closed by its server.
+	 */
+	@Override
+	public void close() {
+	}
+
+	@Override
+	public boolean checkError() {
+		return target().checkError();
+	}
+
+	@Override
+	public void write(int b) {
+		target().write(b);
+	}
+
+	@Override
+	public void write(byte[] buf, int off, int len) {
+		target().write(buf, off, len);
+	}
+
+	@Override
+	public void write(byte[] buf) throws IOException {
+		target().write(buf);
+	}
+
+	@Override
+	public void writeBytes(byte[] buf) {
+		target().writeBytes(buf);
+	}
+
+	@Override
+	public void print(boolean b) {
+		target().print(b);
+	}
+
+	@Override
+	public void print(char c) {
+		target().print(c);
+	}
+
+	@Override
+	public void print(int i) {
+		target().print(i);
+	}
+
+	@Override
+	public void print(long l) {
+		target().print(l);
+	}
+
+	@Override
+	public void print(float f) {
+		target().print(f);
+	}
+
+	@Override
+	public void print(double d) {
+		target().print(d);
+	}
+
+	@Override
+	public void print(char[] s) {
+		target().print(s);
+	}
+
+	@Override
+	public void print(String s) {
+		target().print(s);
+	}
+
+	@Override
+	public void print(Object obj) {
+		target().print(obj);
+	}
+
+	@Override
+	public void println() {
+		target().println();
+	}
+
+	@Override
+	public void println(boolean x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(char x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(int x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(long x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(float x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(double x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(char[] x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(String x) {
+		target().println(x);
+	}
+
+	@Override
+	public void println(Object x) {
+		target().println(x);
+	}
+
+	@Override
+	public PrintStream printf(String format, Object... args) {
+		target().printf(format, args);
+		return this;
+	}
+
+	@Override
+	public PrintStream printf(Locale l, String format, Object... args) {
+		target().printf(l, format, args);
+		return this;
+	}
+
+	@Override
+	public PrintStream format(String format, Object... args) {
+		target().format(format, args);
+		return this;
+	}
+
+	@Override
+	public PrintStream format(Locale l, String format, Object... args) {
+		target().format(l, format, args);
+		return this;
+	}
+
+	@Override
+	public PrintStream append(CharSequence csq) {
+		target().append(csq);
+		return this;
+	}
+
+	@Override
+	public PrintStream append(CharSequence csq, int start, int end) {
+		target().append(csq, start, end);
+		return this;
+	}
+
+	@Override
+	public PrintStream append(char c) {
+		target().append(c);
+		return this;
+	}
+}
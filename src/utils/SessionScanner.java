@@ -0,0 +1,48 @@
+package utils;
+
+import java.util.Scanner;
+
+import stores.SessionContext;
+
+/**
+ * The {@link SessionScanner} class reads input from the terminal of the session
+ * served by the current thread. It replaces a {@link Scanner} over
+ * {@link System#in} in controllers and views, so the same code can serve the
+ * local console and remote sessions. Pending output is flushed before reading,
+ * so prompts printed without a line break reach remote clients. The time spent
+ * waiting for input is added to the session, so timings of menu actions can
+ * leave it out.
+ */
+public class SessionScanner {
+	/**
+	 * Reads the next line of input.
+	 *
+	 * @return the line, without the line separator
+	 */
+	public String nextLine() {
+		SessionContext session = SessionContext.current();
+		session.getOut().flush();
+		long start = System.nanoTime();
+		try {
+			return session.getScanner().nextLine();
+		} finally {
+			session.addInputWaitNanos(System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Reads the next token of input.
+	 *
+	 * @return the token
+	 */
+	public String next() {
+		SessionContext session = SessionContext.current();
+		session.getOut().flush();
+		long start = System.nanoTime();
+		try {
+			return session.getScanner().next();
+		} finally {
+			session.addInputWaitNanos(System.nanoTime() - start);
+		}
+	}
+}
@@ -0,0 +1,217 @@
+package utils;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import models.BTOApplication;
+import models.BTOProject;
+import models.BallotPlan;
+import models.Enquiry;
+import models.HDBOfficerRegistration;
+import models.User;
+import models.WithdrawalRequest;
+
+/**
+ * The {@link SlowOperationLog} class appends the service calls and menu actions
+ * that took longer than their threshold to {@code data/SlowOperations.csv},
+ * through an {@link AuditLogWriter}, so the log is written in the background
+ * and rotated once it reaches 1 MB. Each entry has the operation, the session,
+ * the time spent working and the wall time in milliseconds, the bytes the
+ * thread allocated, a summary of the arguments and the size of the result.
+ *
+ * The arguments are summarized without personal data: a project by its name, a
+ * user by their user type, an application, enquiry or request by its project,
+ * a collection by its size, and text by its length only, since it may be an
+ * NRIC or a password.
+ *
+ * The threshold is set in milliseconds with the system property
+ * {@code btoms.slowOpMillis} (default 100), and for a single operation with
+ * {@code btoms.slowOpMillis.<operation>}, for example
+ * {@code -Dbtoms.slowOpMillis.HDBManagerController.menu12=500}.
+ */
+public class SlowOperationLog {
+	/**
+	 * The file the slow operations are appended to.
+	 */
+	public static final String SLOW_OPERATION_LOG = "data/SlowOperations.csv";
+
+	private static final String THRESHOLD_PROPERTY = "btoms.slowOpMillis";
+	private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+	private static final SlowOperationLog instance = new SlowOperationLog(
+			Long.getLong(THRESHOLD_PROPERTY, 100));
+
+	static {
+		MetricsRegistry metrics = MetricsRegistry.getInstance();
+		metrics.gauge("SlowOperationLog.logged", instance::getLoggedCount);
+		metrics.gauge("SlowOperationLog.written", instance.writer::getWrittenCount);
+		metrics.gauge("SlowOperationLog.dropped", instance.writer::getDroppedCount);
+	}
+
+	/**
+	 * Appends the entries in the background, flushing every 500 ms and rotating
+	 * the file once it reaches 1 MB.
+	 */
+	private final AuditLogWriter writer = new AuditLogWriter(SLOW_OPERATION_LOG,
+			List.of("Timestamp", "Operation", "Session", "BusyMillis", "WallMillis", "AllocatedBytes", "Arguments",
+					"ResultSize"),
+			1024, 500, TimeUnit.MILLISECONDS, 1024 * 1024, 5);
+
+	/**
+	 * The threshold of each operation seen so far, in nanoseconds.
+	 */
+	private final Map<String, Long> thresholds = new ConcurrentHashMap<String, Long>();
+
+	private final long defaultThresholdNanos;
+	private final LongAdder logged = new LongAdder();
+
+	/**
+	 * Constructs a {@link SlowOperationLog}.
+	 *
+	 * @param defaultThresholdMillis the threshold of operations without their own,
+	 *                               in milliseconds
+	 */
+	private SlowOperationLog(long defaultThresholdMillis) {
+		this.defaultThresholdNanos = TimeUnit.MILLISECONDS.toNanos(defaultThresholdMillis);
+	}
+
+	/**
+	 * Gets the slow operation log shared by the whole application.
+	 *
+	 * @return the shared log
+	 */
+	public static SlowOperationLog getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Gets the time past which an operation is logged. The system property of the
+	 * operation is read the first time it is asked for.
+	 *
+	 * @param operation the name of the operation
+	 * @return the threshold, in nanoseconds
+	 */
+	public long getThresholdNanos(String operation) {
+		Long threshold = thresholds.get(operation);
+		if (threshold == null) {
+			Long millis = Long.getLong(THRESHOLD_PROPERTY + "." + operation);
+			threshold = millis == null ? defaultThresholdNanos : TimeUnit.MILLISECONDS.toNanos(millis);
+			thresholds.put(operation, threshold);
+		}
+		return threshold;
+	}
+
+	/**
+	 * Queues an entry for a slow operation. Never blocks.
+	 *
+	 * @param operation      the name of the operation
+	 * @param sessionId      the session the operation ran in
+	 * @param busyNanos      the time spent working, without waiting for input, in
+	 *                       nanoseconds
+	 * @param wallNanos      the wall time, in nanoseconds
+	 * @param allocatedBytes the bytes allocated by the thread, or -1 if not known
+	 * @param arguments      the arguments of the operation
+	 * @param resultSize     the size of the result, or -1 if it has none
+	 */
+	public void log(String operation, String sessionId, long busyNanos, long wallNanos, long allocatedBytes,
+			Object[] arguments, int resultSize) {
+		logged.increment();
+		List<String> fields = new ArrayList<String>(8);
+		fields.add(LocalDateTime.now().format(TIMESTAMP));
+		fields.add(operation);
+		fields.add(sessionId);
+		fields.add(String.format("%.3f", busyNanos / 1e6));
+		fields.add(String.format("%.3f", wallNanos / 1e6));
+		fields.add(allocatedBytes < 0 ? "" : Long.toString(allocatedBytes));
+		fields.add(summarize(arguments));
+		fields.add(resultSize < 0 ? "" : Integer.toString(resultSize));
+		writer.append(fields);
+	}
+
+	/**
+	 * Summarizes the arguments of an operation without personal data.
+	 *
+	 * @param arguments the arguments
+	 * @return the summaries of the arguments, separated by semicolons
+	 */
+	private static String summarize(Object[] arguments) {
+		StringJoiner summary = new StringJoiner("; ");
+		if (arguments != null) {
+			for (Object argument : arguments) {
+				summary.add(summarize(argument));
+			}
+		}
+		return summary.toString();
+	}
+
+	/**
+	 * Summarizes one argument of an operation without personal data.
+	 *
+	 * @param argument the argument
+	 * @return the summary
+	 */
+	private static String summarize(Object argument) {
+		if (argument == null) {
+			return "null";
+		} else if (argument instanceof BTOProject) {
+			return "project=" + ((BTOProject) argument).getProjectName();
+		} else if (argument instanceof User) {
+			return "user=" + ((User) argument).getUserType();
+		} else if (argument instanceof BTOApplication) {
+			return "application of " + summarize(((BTOApplication) argument).getProject());
+		} else if (argument instanceof WithdrawalRequest) {
+			return "withdrawal of " + summarize(((WithdrawalRequest) argument).getApplication());
+		} else if (argument instanceof Enquiry) {
+			return "enquiry on " + summarize(((Enquiry) argument).getProject());
+		} else if (argument instanceof HDBOfficerRegistration) {
+			return "registration for " + summarize(((HDBOfficerRegistration) argument).getProject());
+		} else if (argument instanceof BallotPlan) {
+			return "ballot of " + summarize(((BallotPlan) argument).getProject());
+		} else if (argument instanceof Collection) {
+			return "collection of " + ((Collection<?>) argument).size();
+		} else if (argument instanceof Map) {
+			return "map of " + ((Map<?, ?>) argument).size();
+		} else if (argument instanceof CharSequence) {
+			return "text of " + ((CharSequence) argument).length();
+		} else if (argument instanceof Number || argument instanceof Boolean || argument instanceof Enum
+				|| argument instanceof TemporalAccessor) {
+			return argument.toString();
+		}
+		return argument.getClass().getSimpleName();
+	}
+
+	/**
+	 * Gets the number of slow operations logged.
+	 *
+	 * @return the number of entries queued or dropped
+	 */
+	public long getLoggedCount() {
+		return logged.sum();
+	}
+
+	/**
+	 * Gets the writer of the log, for its counters.
+	 *
+	 * @return the log writer
+	 */
+	public AuditLogWriter getWriter() {
+		return writer;
+	}
+
+	/**
+	 * Writes the entries still queued and closes the log. Called when the system
+	 * shuts down.
+	 */
+	public void close() {
+		writer.close();
+	}
+}
@@ -0,0 +1,183 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The {@link TimerWheel} class runs tasks after a delay using a hashed timing
+ * wheel. Time is divided into ticks and each task is dropped into the bucket of
+ * the tick it is due in, counting how many turns of the wheel remain before
+ * then. Scheduling and cancelling take constant time however many tasks are
+ * waiting, and each tick only looks at one bucket. Tasks run at most one tick
+ * late, never early, on the wheel's own thread, one at a time, so they should
+ * be short.
+ */
+public class TimerWheel {
+	/**
+	 * The length of a tick, in nanoseconds.
+	 */
+	private final long tickNanos;
+
+	/**
+	 * The buckets of the wheel. The length is a power of two.
+	 */
+	private final List<List<Timeout>> wheel;
+
+	/**
+	 * Tasks scheduled since the last tick, moved into their buckets by the wheel
+	 * thread so that the buckets are only touched by one thread.
+	 */
+	private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<Timeout>();
+
+	/**
+	 * The time the wheel started, in nanoseconds.
+	 */
+	private final long startNanos;
+
+	/**
+	 * The thread that turns the wheel and runs due tasks.
+	 */
+	private final Thread worker;
+
+	/**
+	 * The number of tasks run so far.
+	 */
+	private volatile long firedCount = 0;
+
+	/**
+	 * Constructs a {@link TimerWheel} and starts its thread.
+	 *
+	 * @param name       the name of the wheel's thread
+	 * @param tick       the length of a tick
+	 * @param tickUnit   the unit of the tick length
+	 * @param wheelSize  the minimum number of buckets, rounded up to a power of
+	 *                   two
+	 */
+	public TimerWheel(String name, long tick, TimeUnit tickUnit, int wheelSize) {
+		int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+		this.tickNanos = tickUnit.toNanos(tick);
+		this.wheel = new ArrayList<List<Timeout>>(size);
+		for (int i = 0; i < size; i++) {
+			wheel.add(new ArrayList<Timeout>());
+		}
+		this.startNanos = System.nanoTime();
+		this.worker = new Thread(this::run, name);
+		this.worker.setDaemon(true);
+		this.worker.start();
+	}
+
+	/**
+	 * Schedules a task to run once after a delay.
+	 *
+	 * @param task  the task to run
+	 * @param delay the delay; zero or less runs the task on the next tick
+	 * @param unit  the unit of the delay
+	 * @return a {@link Timeout} that can cancel the task
+	 */
+	public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+		long elapsed = System.nanoTime() - startNanos;
+		long deadline = elapsed + Math.max(0, unit.toNanos(delay));
+		// Round up, so a task never runs before its deadline
+		Timeout timeout = new Timeout(task, (deadline + tickNanos - 1) / tickNanos);
+		scheduled.add(timeout);
+		return timeout;
+	}
+
+	/**
+	 * Gets the number of tasks run so far.
+	 *
+	 * @return the number of tasks run
+	 */
+	public long getFiredCount() {
+		return firedCount;
+	}
+
+	/**
+	 * Turns the wheel one tick at a time, sleeping until each tick is due.
+	 */
+	private void run() {
+		int mask = wheel.size() - 1;
+		long tick = 0;
+		while (true) {
+			long tickStart = startNanos + tick * tickNanos;
+			long sleep;
+			while ((sleep = tickStart - System.nanoTime()) > 0) {
+				LockSupport.parkNanos(this, sleep);
+			}
+
+			// Place the tasks scheduled since the last tick
+			Timeout timeout;
+			while ((timeout = scheduled.poll()) != null) {
+				long dueTick = Math.max(timeout.dueTick, tick);
+				timeout.remainingRounds = (dueTick - tick) / wheel.size();
+				wheel.get((int) (dueTick & mask)).add(timeout);
+			}
+
+			// Run the tasks of this tick's bucket that are due on this turn
+			Iterator<Timeout> iterator = wheel.get((int) (tick & mask)).iterator();
+			while (iterator.hasNext()) {
+				timeout = iterator.next();
+				if (timeout.cancelled) {
+					iterator.remove();
+				} else if (timeout.remainingRounds > 0) {
+					timeout.remainingRounds--;
+				} else {
+					iterator.remove();
+					fire(timeout);
+				}
+			}
+			tick++;
+		}
+	}
+
+	/**
+	 * Runs a due task. A failing task does not stop the wheel.
+	 *
+	 * @param timeout the task to run
+	 */
+	private void fire(Timeout timeout) {
+		firedCount++;
+		try {
+			timeout.task.run();
+		} catch (RuntimeException e) {
+			System.out.println("Scheduled task failed: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * A task waiting on the wheel.
+	 */
+	public static class Timeout {
+		private final Runnable task;
+		private final long dueTick;
+		private long remainingRounds;
+		private volatile boolean cancelled = false;
+
+		private Timeout(Runnable task, long dueTick) {
+			this.task = task;
+			this.dueTick = dueTick;
+		}
+
+		/**
+		 * Cancels the task if it has not run yet. The task is dropped from its
+		 * bucket the next time the wheel passes it.
+		 */
+		public void cancel() {
+			cancelled = true;
+		}
+
+		/**
+		 * Checks whether the task was cancelled.
+		 *
+		 * @return {@code true} if the task was cancelled, {@code false} otherwise
+		 */
+		public boolean isCancelled() {
+			return cancelled;
+		}
+	}
+}
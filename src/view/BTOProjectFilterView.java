@@ -2,23 +2,23 @@ package view;
 
 import enumeration.FlatType;
 import java.util.List;
-import java.util.Scanner;
 import models.BTOProject;
 import models.ProjectFilter;
 import models.User;
 import stores.AuthStore;
 import stores.FilterStore;
+import utils.SessionScanner;
 
 /**
  * View class for managing project filters
  */
 public class BTOProjectFilterView {
     private BTOProjectView projectView;
-    private Scanner scanner;
+    private SessionScanner scanner;
 
     public BTOProjectFilterView() {
         this.projectView = new BTOProjectView();
-        this.scanner = new Scanner(System.in);
+        this.scanner = new SessionScanner();
     }
 
     /**
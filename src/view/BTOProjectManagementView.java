@@ -7,17 +7,17 @@ import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Scanner;
 import models.BTOProject;
 import models.FlatTypeDetails;
 import models.ProjectFilter;
+import utils.SessionScanner;
 
 /**
  * View class for BTO project management operations
  */
 public class BTOProjectManagementView {
     
-    private static final Scanner sc = new Scanner(System.in);
+    private static final SessionScanner sc = new SessionScanner();
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     
     /**
@@ -1,17 +1,17 @@
 package view;
 
 import java.util.List;
-import java.util.Scanner;
 
 import models.BTOApplication;
 import models.BTOProject;
 import enumeration.FlatType;
 import enumeration.MaritalStatus;
+import utils.SessionScanner;
 /**
  * View class for Reports
  */
 public class ReportView {
-    private static final Scanner sc = new Scanner(System.in);
+    private static final SessionScanner sc = new SessionScanner();
     
     /**
      * Display filter options and get user choice
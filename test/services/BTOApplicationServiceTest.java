@@ -0,0 +1,150 @@
+package services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import enumeration.BTOApplicationStatus;
+import enumeration.BookingResult;
+import enumeration.FlatType;
+import models.BTOApplication;
+import models.BTOProject;
+import models.FlatTypeDetails;
+import models.WithdrawalRequest;
+import utils.MetricsRegistry;
+
+/**
+ * Checks that {@link BTOApplicationService} only changes an application that
+ * still has the status and version its caller read. A decision made on a stale
+ * read is rejected and counted as a conflict, and when an officer books and a
+ * manager approves a withdrawal of the same application at once, exactly one of
+ * them wins.
+ */
+public class BTOApplicationServiceTest {
+    private static final int APPLICATIONS = 10_000;
+
+    private BTOApplicationServiceTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        // Keep the status changes out of the timers and the slow operation log
+        MetricsRegistry.setRecording(false);
+        BTOApplicationService service = new BTOApplicationService();
+
+        checkStaleDecisions(service);
+        checkBookingAgainstWithdrawal(service);
+        System.out.println("BTOApplicationServiceTest: every stale decision rejected");
+    }
+
+    /**
+     * Replays decisions made on an old read of an application, one at a time.
+     */
+    private static void checkStaleDecisions(BTOApplicationService service) {
+        BTOApplication application = new BTOApplication("A", null, project(1), FlatType.TWO_ROOM, BTOApplicationStatus.PENDING);
+        long committed = BTOApplicationService.getCommittedTransitions();
+        long conflicted = BTOApplicationService.getConflictedTransitions();
+        long invalid = BTOApplicationService.getInvalidTransitions();
+
+        int read = application.getVersion();
+        check(service.changeStatus(application, BTOApplicationStatus.PENDING, read, BTOApplicationStatus.SUCCESSFUL),
+                "a current decision was rejected");
+        check(application.getVersion() == read + 1, "a status change kept the version");
+
+        // A second manager decided on the same read
+        check(!service.changeStatus(application, BTOApplicationStatus.PENDING, read, BTOApplicationStatus.UNSUCCESSFUL),
+                "a decision on a stale status went through");
+        // The status matches again, but the version shows it was changed since
+        check(!service.changeStatus(application, BTOApplicationStatus.SUCCESSFUL, read, BTOApplicationStatus.UNSUCCESSFUL),
+                "a decision on a stale version went through");
+        WithdrawalRequest request = new WithdrawalRequest(application);
+        check(!service.approveWithdrawal(request, BTOApplicationStatus.SUCCESSFUL, read, "Manager"),
+                "a withdrawal was approved on a stale version");
+        check(!request.isApproved(), "a rejected withdrawal was marked as approved");
+        check(application.getStatus() == BTOApplicationStatus.SUCCESSFUL, "a stale decision changed the status");
+
+        check(!service.changeStatus(application, BTOApplicationStatus.SUCCESSFUL, application.getVersion(),
+                BTOApplicationStatus.PENDING), "an invalid status change went through");
+
+        check(BTOApplicationService.getCommittedTransitions() - committed == 1, "committed changes miscounted");
+        check(BTOApplicationService.getConflictedTransitions() - conflicted == 3, "conflicts miscounted");
+        check(BTOApplicationService.getInvalidTransitions() - invalid == 1, "invalid changes miscounted");
+    }
+
+    /**
+     * Has an officer book and a manager withdraw every application at once, both
+     * deciding on the version read before either started.
+     */
+    private static void checkBookingAgainstWithdrawal(BTOApplicationService service) throws InterruptedException {
+        FlatBookingService bookingService = new FlatBookingService();
+        BTOProject project = project(APPLICATIONS);
+        List<BTOApplication> applications = new ArrayList<>(APPLICATIONS);
+        for (int i = 0; i < APPLICATIONS; i++) {
+            applications.add(new BTOApplication("A" + i, null, project, FlatType.TWO_ROOM, BTOApplicationStatus.SUCCESSFUL));
+        }
+        long committed = BTOApplicationService.getCommittedTransitions();
+
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger withdrawn = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread officer = new Thread(() -> {
+            awaitQuietly(start);
+            for (BTOApplication application : applications) {
+                if (bookingService.bookFlat(application, 0) == BookingResult.BOOKED) {
+                    booked.incrementAndGet();
+                }
+            }
+        });
+        Thread manager = new Thread(() -> {
+            awaitQuietly(start);
+            for (BTOApplication application : applications) {
+                if (service.changeStatus(application, BTOApplicationStatus.SUCCESSFUL, 0, BTOApplicationStatus.UNSUCCESSFUL)) {
+                    withdrawn.incrementAndGet();
+                }
+            }
+        });
+        officer.start();
+        manager.start();
+        start.countDown();
+        officer.join();
+        manager.join();
+
+        int bookedApplications = 0;
+        for (BTOApplication application : applications) {
+            check(application.getStatus() != BTOApplicationStatus.SUCCESSFUL, "an application was left undecided");
+            check(application.getVersion() == 1, "an application was changed more than once");
+            if (application.getStatus() == BTOApplicationStatus.BOOKED) {
+                bookedApplications++;
+            }
+        }
+        check(booked.get() + withdrawn.get() == APPLICATIONS,
+                booked.get() + " bookings and " + withdrawn.get() + " withdrawals of " + APPLICATIONS + " applications");
+        check(bookedApplications == booked.get(), bookedApplications + " booked applications for " + booked.get() + " bookings");
+        check(project.getFlatTypes().get(FlatType.TWO_ROOM).getUnits() == APPLICATIONS - booked.get(),
+                "units taken do not match the bookings");
+        check(BTOApplicationService.getCommittedTransitions() - committed == APPLICATIONS, "committed changes miscounted");
+    }
+
+    private static BTOProject project(int units) {
+        Map<FlatType, FlatTypeDetails> flatTypes = new EnumMap<>(FlatType.class);
+        flatTypes.put(FlatType.TWO_ROOM, new FlatTypeDetails(units, 1));
+        return new BTOProject("Test", "Yishun", LocalDate.now(), LocalDate.now(), flatTypes, null, 10, new ArrayList<>(), true);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void check(boolean condition, String failure) {
+        if (!condition) {
+            throw new AssertionError(failure);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package services;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import enumeration.CredentialResult;
+import enumeration.MaritalStatus;
+import models.Applicant;
+import utils.MetricsRegistry;
+import utils.PasswordHasher;
+
+/**
+ * Measures logins per second through {@link CredentialService} at the
+ * configured cost, {@code btoms.passwordIterations} (default 100000). A cold
+ * login hashes the password on a worker thread; a repeat login within the
+ * cache lifetime skips the hashing. Both are measured from 1 and 4 session
+ * threads.
+ *
+ * It also checks that passwords stored in plain text are rehashed on their
+ * first login, that wrong passwords are rejected even for a cached user, and
+ * that a burst beyond the queue is turned away as busy rather than queued.
+ */
+public class CredentialServiceBenchmark {
+    private static final int ITERATIONS = Integer.getInteger("btoms.passwordIterations", 100_000);
+    private static final int USERS = 32;
+    private static final int COLD_LOGINS = 40;
+    private static final int CACHED_LOGINS = 200_000;
+
+    private CredentialServiceBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // Keep the logins out of the timers and the slow operation log
+        MetricsRegistry.setRecording(false);
+        int cpus = Runtime.getRuntime().availableProcessors();
+        PasswordHasher hasher = new PasswordHasher(ITERATIONS);
+        List<Applicant> plainText = new ArrayList<>();
+        List<Applicant> hashed = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            plainText.add(new Applicant("Applicant" + i, String.format("S%07dA", i), 35, MaritalStatus.SINGLE, "password"));
+            hashed.add(new Applicant("Applicant" + i, String.format("T%07dA", i), 35, MaritalStatus.SINGLE, hasher.hash(password(i))));
+        }
+
+        CredentialService service = new CredentialService(ITERATIONS, cpus, 256, 300);
+        for (Applicant applicant : plainText) {
+            check(service.verify(applicant, "password") == CredentialResult.OK, "a plain text password did not verify");
+            check(applicant.getPassword().startsWith("pbkdf2$"), "a plain text password was not rehashed");
+        }
+        check(service.verify(hashed.get(0), "wrong") == CredentialResult.WRONG, "a wrong password verified");
+        check(service.verify(plainText.get(0), "wrong") == CredentialResult.WRONG, "a wrong password verified from the cache");
+
+        for (int threads : new int[] { 1, 4 }) {
+            // Without a cache lifetime, every login hashes
+            CredentialService cold = new CredentialService(ITERATIONS, cpus, 256, 0);
+            double coldPerSecond = measure(cold, hashed, threads, COLD_LOGINS);
+            for (int i = 0; i < USERS; i++) {
+                service.verify(hashed.get(i), password(i));
+            }
+            double cachedPerSecond = measure(service, hashed, threads, CACHED_LOGINS);
+            System.out.printf("%d session thread(s) at %d iterations: %.1f cold logins/s, %.0f cached logins/s%n",
+                    threads, ITERATIONS, coldPerSecond, cachedPerSecond);
+        }
+
+        checkBurst(hashed);
+        System.out.println("CredentialServiceBenchmark: every login verified or was turned away as busy");
+    }
+
+    /**
+     * Logs in the given number of times, spread over the users and the session
+     * threads, and returns the logins per second.
+     */
+    private static double measure(CredentialService service, List<Applicant> users, int threads, int logins)
+            throws Exception {
+        ExecutorService sessions = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            long start = System.nanoTime();
+            for (int t = 0; t < threads; t++) {
+                int first = t;
+                done.add(sessions.submit(() -> {
+                    MetricsRegistry.setRecording(false);
+                    for (int i = first; i < logins; i += threads) {
+                        int user = i % USERS;
+                        check(service.verify(users.get(user), password(user)) == CredentialResult.OK, "a login failed");
+                    }
+                }));
+            }
+            for (Future<?> future : done) {
+                future.get();
+            }
+            return logins / ((System.nanoTime() - start) / 1e9);
+        } finally {
+            sessions.shutdown();
+        }
+    }
+
+    /**
+     * Sends 16 logins at once to 1 worker with room for 4 more in its queue.
+     */
+    private static void checkBurst(List<Applicant> users) throws Exception {
+        CredentialService small = new CredentialService(ITERATIONS, 1, 4, 0);
+        ExecutorService sessions = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<CredentialResult>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                int user = i;
+                results.add(sessions.submit(() -> small.verify(users.get(user), password(user))));
+            }
+            int verified = 0;
+            int busy = 0;
+            for (Future<CredentialResult> result : results) {
+                CredentialResult credentialResult = result.get();
+                if (credentialResult == CredentialResult.OK) {
+                    verified++;
+                } else if (credentialResult == CredentialResult.BUSY) {
+                    busy++;
+                }
+            }
+            System.out.printf("burst of 16 logins on 1 worker with a queue of 4: %d verified, %d turned away%n", verified, busy);
+            check(verified + busy == 16, "a login in the burst was rejected as wrong");
+            check(busy > 0, "a burst beyond the queue was not turned away");
+        } finally {
+            sessions.shutdown();
+        }
+    }
+
+    private static String password(int user) {
+        return "password" + user;
+    }
+
+    private static void check(boolean condition, String failure) {
+        if (!condition) {
+            throw new AssertionError(failure);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package services;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import enumeration.MaritalStatus;
+import models.Applicant;
+import models.Enquiry;
+import utils.MetricsRegistry;
+
+/**
+ * Measures the bytes allocated and the time taken per row when
+ * {@link CsvDataService} exports applicants and enquiries. Each export runs 10
+ * times to warm up, then 10 times measured with the allocation counter of the
+ * current thread. The rows are encoded straight into the reusable buffer of the
+ * row writer, so the check fails if a row allocates more than a few bytes on
+ * average.
+ */
+public class CsvExportBenchmark {
+    private static final int ROWS = 50_000;
+    private static final int WARM_UP_EXPORTS = 10;
+    private static final int MEASURED_EXPORTS = 10;
+    private static final double MAX_BYTES_PER_ROW = 64;
+
+    private CsvExportBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        // Keep the exports out of the timers and the slow operation log
+        MetricsRegistry.setRecording(false);
+        Map<String, Applicant> applicants = new HashMap<>();
+        Map<String, Enquiry> enquiries = new HashMap<>();
+        for (int i = 0; i < ROWS; i++) {
+            String nric = String.format("S%07dA", i);
+            Applicant applicant = new Applicant("Applicant" + i, nric, 20 + i % 50, MaritalStatus.SINGLE, "password");
+            applicants.put(nric, applicant);
+            boolean replied = i % 2 == 0;
+            enquiries.put("E" + i, new Enquiry("E" + i, applicant, null, "When is the key collection date for unit " + i,
+                    replied ? "Next year" : null, LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_000_000),
+                    replied ? LocalDateTime.of(2025, 3, 2, 9, 0) : null));
+        }
+
+        CsvDataService service = new CsvDataService();
+        Path directory = Files.createTempDirectory("CsvExportBenchmark");
+        String applicantPath = directory.resolve("ApplicantList.csv").toString();
+        String enquiryPath = directory.resolve("EnquiryList.csv").toString();
+        try {
+            for (int i = 0; i < WARM_UP_EXPORTS; i++) {
+                service.exportApplicantData(applicantPath, applicants);
+                service.exportEnquiryData(enquiryPath, enquiries);
+            }
+            measure("applicant", () -> service.exportApplicantData(applicantPath, applicants));
+            measure("enquiry", () -> service.exportEnquiryData(enquiryPath, enquiries));
+        } finally {
+            Files.deleteIfExists(Path.of(applicantPath));
+            Files.deleteIfExists(Path.of(enquiryPath));
+            Files.delete(directory);
+        }
+        System.out.println("CsvExportBenchmark: every export allocated under " + (int) MAX_BYTES_PER_ROW + " bytes per row");
+    }
+
+    /**
+     * Runs an export of {@link #ROWS} rows {@link #MEASURED_EXPORTS} times and
+     * prints the bytes allocated and the time taken per row.
+     */
+    private static void measure(String name, BooleanSupplier export) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_EXPORTS; i++) {
+            check(export.getAsBoolean(), "the " + name + " export failed");
+        }
+        long elapsed = System.nanoTime() - start;
+        double rows = (double) ROWS * MEASURED_EXPORTS;
+        double bytesPerRow = (threads.getThreadAllocatedBytes(threadId) - bytesBefore) / rows;
+
+        System.out.printf("%s export: %.1f B/row, %.0f ns/row%n", name, bytesPerRow, elapsed / rows);
+        check(bytesPerRow < MAX_BYTES_PER_ROW, String.format("the %s export allocated %.1f B/row", name, bytesPerRow));
+    }
+
+    private static void check(boolean condition, String failure) {
+        if (!condition) {
+            throw new AssertionError(failure);
+        }
+    }
+}
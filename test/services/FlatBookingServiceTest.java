@@ -0,0 +1,133 @@
+package services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import enumeration.BTOApplicationStatus;
+import enumeration.BookingResult;
+import enumeration.FlatType;
+import models.BTOApplication;
+import models.BTOProject;
+import models.FlatTypeDetails;
+import utils.MetricsRegistry;
+
+/**
+ * Checks that {@link FlatBookingService} sells exactly the units a flat type
+ * has, with more applications than units. The applications are booked once by
+ * officers working at the same time, then by two officers each at once: no
+ * application may be booked twice, and an officer who loses a booking must not
+ * keep a unit from the other applications, even for a moment.
+ */
+public class FlatBookingServiceTest {
+    private static final int UNITS_PER_FLAT_TYPE = 2_500;
+    private static final int APPLICATIONS = 12_000;
+    private static final int OFFICERS = 8;
+
+    private FlatBookingServiceTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        // Keep the bookings out of the timers and the slow operation log
+        MetricsRegistry.setRecording(false);
+        FlatBookingService service = new FlatBookingService();
+
+        checkSingleBooking(service);
+        checkConcurrentBookings(service, 1);
+        checkConcurrentBookings(service, 2);
+        System.out.println("FlatBookingServiceTest: no unit oversold");
+    }
+
+    /**
+     * Books the last unit of a flat type one call at a time.
+     */
+    private static void checkSingleBooking(FlatBookingService service) {
+        BTOProject project = project(1);
+        BTOApplication pending = new BTOApplication("P", null, project, FlatType.TWO_ROOM, BTOApplicationStatus.PENDING);
+        check(service.bookFlat(pending, pending.getVersion()) == BookingResult.NOT_BOOKABLE, "a pending application was booked");
+
+        BTOApplication first = new BTOApplication("A", null, project, FlatType.TWO_ROOM, BTOApplicationStatus.SUCCESSFUL);
+        BTOApplication second = new BTOApplication("B", null, project, FlatType.TWO_ROOM, BTOApplicationStatus.SUCCESSFUL);
+        check(service.bookFlat(first, first.getVersion() + 1) == BookingResult.NOT_BOOKABLE,
+                "an application was booked with a stale version");
+        check(units(project, FlatType.TWO_ROOM) == 1, "a failed booking kept its unit");
+
+        check(service.bookFlat(first, first.getVersion()) == BookingResult.BOOKED, "the last unit could not be booked");
+        check(first.getStatus() == BTOApplicationStatus.BOOKED, "a booked application is not marked as booked");
+        check(service.bookFlat(second, second.getVersion()) == BookingResult.NO_UNITS_LEFT, "a sold-out flat type was booked");
+        check(second.getStatus() == BTOApplicationStatus.SUCCESSFUL, "a sold-out booking changed its application");
+        check(units(project, FlatType.TWO_ROOM) == 0, "units left after the last booking");
+    }
+
+    /**
+     * Has every application booked by one or more officers at once, with more
+     * applications than units.
+     */
+    private static void checkConcurrentBookings(FlatBookingService service, int officersPerApplication)
+            throws InterruptedException {
+        BTOProject project = project(UNITS_PER_FLAT_TYPE);
+        List<BTOApplication> applications = new ArrayList<>(APPLICATIONS);
+        for (int i = 0; i < APPLICATIONS; i++) {
+            FlatType flatType = i % 2 == 0 ? FlatType.TWO_ROOM : FlatType.THREE_ROOM;
+            applications.add(new BTOApplication("A" + i, null, project, flatType, BTOApplicationStatus.SUCCESSFUL));
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger booked = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> officers = new ArrayList<>();
+        for (int t = 0; t < OFFICERS; t++) {
+            Thread officer = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                int i;
+                while ((i = next.getAndIncrement() / officersPerApplication) < APPLICATIONS) {
+                    BTOApplication application = applications.get(i);
+                    if (service.bookFlat(application, 0) == BookingResult.BOOKED) {
+                        booked.incrementAndGet();
+                    }
+                }
+            });
+            officer.start();
+            officers.add(officer);
+        }
+        start.countDown();
+        for (Thread officer : officers) {
+            officer.join();
+        }
+
+        int bookedApplications = 0;
+        for (BTOApplication application : applications) {
+            if (application.getStatus() == BTOApplicationStatus.BOOKED) {
+                bookedApplications++;
+            }
+        }
+        check(booked.get() == 2 * UNITS_PER_FLAT_TYPE, booked.get() + " bookings for " + 2 * UNITS_PER_FLAT_TYPE + " units");
+        check(bookedApplications == booked.get(), bookedApplications + " booked applications for " + booked.get() + " bookings");
+        check(units(project, FlatType.TWO_ROOM) == 0 && units(project, FlatType.THREE_ROOM) == 0, "units left unsold");
+    }
+
+    private static BTOProject project(int unitsPerFlatType) {
+        Map<FlatType, FlatTypeDetails> flatTypes = new EnumMap<>(FlatType.class);
+        flatTypes.put(FlatType.TWO_ROOM, new FlatTypeDetails(unitsPerFlatType, 1));
+        flatTypes.put(FlatType.THREE_ROOM, new FlatTypeDetails(unitsPerFlatType, 1));
+        return new BTOProject("Test", "Yishun", LocalDate.now(), LocalDate.now(), flatTypes, null, 10, new ArrayList<>(), true);
+    }
+
+    private static int units(BTOProject project, FlatType flatType) {
+        return project.getFlatTypes().get(flatType).getUnits();
+    }
+
+    private static void check(boolean condition, String failure) {
+        if (!condition) {
+            throw new AssertionError(failure);
+        }
+    }
+}
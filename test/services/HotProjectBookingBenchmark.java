@@ -0,0 +1,113 @@
+package services;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import enumeration.BTOApplicationStatus;
+import enumeration.BookingResult;
+import enumeration.FlatType;
+import models.BTOApplication;
+import models.BTOProject;
+import models.FlatTypeDetails;
+import utils.MetricsRegistry;
+
+/**
+ * Measures bookings per second when every officer books flats of one hot
+ * project at once, with more applications than units. {@link FlatBookingService}
+ * takes each unit with a compare-and-set, so bookings of different
+ * applications only meet at the unit counter. Every run must sell exactly the
+ * units there are.
+ */
+public class HotProjectBookingBenchmark {
+    private static final int UNITS_PER_FLAT_TYPE = 400_000;
+    private static final int APPLICATIONS = 1_000_000;
+    private static final int RUNS = 3;
+
+    private HotProjectBookingBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        // Keep the bookings out of the timers and the slow operation log
+        MetricsRegistry.setRecording(false);
+        FlatBookingService service = new FlatBookingService();
+
+        for (int threads = 1; threads <= 8; threads *= 2) {
+            double best = 0;
+            for (int run = 0; run < RUNS; run++) {
+                best = Math.max(best, measure(service, threads));
+            }
+            System.out.printf("%d officer thread(s): %.2f M bookings/s%n", threads, best / 1e6);
+        }
+        System.out.println("HotProjectBookingBenchmark: every run sold exactly " + 2 * UNITS_PER_FLAT_TYPE + " units");
+    }
+
+    /**
+     * Has the given number of officers book every application of a new project
+     * once, and returns the bookings tried per second.
+     */
+    private static double measure(FlatBookingService service, int threads) throws InterruptedException {
+        BTOProject project = project();
+        List<BTOApplication> applications = new ArrayList<>(APPLICATIONS);
+        for (int i = 0; i < APPLICATIONS; i++) {
+            FlatType flatType = i % 2 == 0 ? FlatType.TWO_ROOM : FlatType.THREE_ROOM;
+            applications.add(new BTOApplication("A" + i, null, project, flatType, BTOApplicationStatus.SUCCESSFUL));
+        }
+
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger booked = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> officers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread officer = new Thread(() -> {
+                MetricsRegistry.setRecording(false);
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                int i;
+                while ((i = next.getAndIncrement()) < APPLICATIONS) {
+                    BTOApplication application = applications.get(i);
+                    if (service.bookFlat(application, application.getVersion()) == BookingResult.BOOKED) {
+                        booked.incrementAndGet();
+                    }
+                }
+            });
+            officer.start();
+            officers.add(officer);
+        }
+        long startTime = System.nanoTime();
+        start.countDown();
+        for (Thread officer : officers) {
+            officer.join();
+        }
+        long elapsed = System.nanoTime() - startTime;
+
+        int unitsLeft = units(project, FlatType.TWO_ROOM) + units(project, FlatType.THREE_ROOM);
+        check(booked.get() == 2 * UNITS_PER_FLAT_TYPE && unitsLeft == 0,
+                booked.get() + " bookings for " + 2 * UNITS_PER_FLAT_TYPE + " units, " + unitsLeft + " left");
+        return APPLICATIONS / (elapsed / 1e9);
+    }
+
+    private static BTOProject project() {
+        Map<FlatType, FlatTypeDetails> flatTypes = new EnumMap<>(FlatType.class);
+        flatTypes.put(FlatType.TWO_ROOM, new FlatTypeDetails(UNITS_PER_FLAT_TYPE, 1));
+        flatTypes.put(FlatType.THREE_ROOM, new FlatTypeDetails(UNITS_PER_FLAT_TYPE, 1));
+        return new BTOProject("Hot", "Yishun", LocalDate.now(), LocalDate.now(), flatTypes, null, 10, new ArrayList<>(), true);
+    }
+
+    private static int units(BTOProject project, FlatType flatType) {
+        return project.getFlatTypes().get(flatType).getUnits();
+    }
+
+    private static void check(boolean condition, String failure) {
+        if (!condition) {
+            throw new AssertionError(failure);
+        }
+    }
+}
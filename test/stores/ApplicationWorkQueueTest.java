@@ -0,0 +1,96 @@
+package stores;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import enumeration.BTOApplicationStatus;
+import models.BTOApplication;
+
+/**
+ * Checks the claims of an {@link ApplicationWorkQueue} against a simulated
+ * clock: a claim that is not renewed expires exactly at the end of its lease and
+ * its application goes back to its place in the queue, an expired claim can no
+ * longer be renewed or completed, and applications decided elsewhere are never
+ * handed out again.
+ */
+public class ApplicationWorkQueueTest {
+	private static final Duration LEASE = Duration.ofMinutes(5);
+
+	private ApplicationWorkQueueTest() {
+	}
+
+	public static void main(String[] args) {
+		AtomicLong now = new AtomicLong();
+		ApplicationWorkQueue queue = new ApplicationWorkQueue(LEASE, now::get);
+		BTOApplication first = application("A1", 0);
+		BTOApplication second = application("A2", 1);
+		BTOApplication third = application("A3", 2);
+		queue.offer(third);
+		queue.offer(first);
+		queue.offer(second);
+		check(!queue.offer(first), "an application was queued twice");
+
+		// Two reviewers never receive the same application, oldest submission first
+		ApplicationWorkQueue.Lease leaseA = queue.claim("A");
+		ApplicationWorkQueue.Lease leaseB = queue.claim("B");
+		check(leaseA.getApplication() == first && leaseB.getApplication() == second, "claimed out of submission order");
+
+		// A renews at 4 minutes, B does not and expires at exactly 5
+		advance(now, Duration.ofMinutes(4));
+		check(queue.heartbeat(leaseA), "a live claim could not be renewed");
+		advance(now, Duration.ofMinutes(1).minusNanos(1));
+		check(queue.isHeld(leaseB), "a claim expired before the end of its lease");
+		advance(now, Duration.ofNanos(1));
+		check(!queue.isHeld(leaseB), "a claim outlived its lease");
+		check(queue.isHeld(leaseA), "a renewed claim expired");
+		check(queue.getExpiredCount() == 1 && queue.getDepth() == 2, "the expired application was not queued again");
+		check(!queue.heartbeat(leaseB) && !queue.complete(leaseB), "an expired claim was renewed or completed");
+
+		// B's application is reclaimed ahead of newer ones, keeping its waiting time
+		ApplicationWorkQueue.Lease leaseC = queue.claim("C");
+		check(leaseC.getApplication() == second, "an expired application lost its place in the queue");
+		check(leaseC.getWait().equals(Duration.ofMinutes(5)), "an expired application had its waiting time reset");
+		check(queue.complete(leaseC), "a reclaimed application could not be completed");
+
+		// A's application is decided elsewhere, so it is dropped once A's claim runs out
+		first.compareAndSetStatus(BTOApplicationStatus.PENDING, first.getVersion(), BTOApplicationStatus.SUCCESSFUL);
+		advance(now, Duration.ofMinutes(4));
+		check(!queue.isHeld(leaseA), "a claim outlived its renewed lease");
+		ApplicationWorkQueue.Lease leaseD = queue.claim("D");
+		check(leaseD.getApplication() == third, "a decided application was handed out again");
+
+		// A released claim goes straight back, and a claimed application cannot be removed
+		check(queue.release(leaseD), "a live claim could not be released");
+		ApplicationWorkQueue.Lease leaseE = queue.claim("E");
+		check(leaseE.getApplication() == third, "a released application was not queued again");
+		check(!queue.remove(third), "a claimed application was removed from under its reviewer");
+		check(queue.complete(leaseE), "a claim could not be completed");
+
+		// A waiting application removed from the queue is skipped
+		BTOApplication fourth = application("A4", 3);
+		queue.offer(fourth);
+		check(queue.remove(fourth), "a waiting application could not be removed");
+		check(queue.claim("F") == null, "a removed application was handed out");
+
+		check(queue.getDepth() == 0 && queue.getLeasedCount() == 0, "applications left in the queue");
+		check(queue.getClaimedCount() == 5 && queue.getExpiredCount() == 2 && queue.getCompletedCount() == 2,
+				"claims miscounted");
+		System.out.println("ApplicationWorkQueueTest: every claim expired and was reclaimed on time");
+	}
+
+	private static BTOApplication application(String applicationId, int minute) {
+		return new BTOApplication(applicationId, null, null, null, BTOApplicationStatus.PENDING,
+				LocalDateTime.of(2025, 3, 5, 9, minute));
+	}
+
+	private static void advance(AtomicLong now, Duration duration) {
+		now.addAndGet(duration.toNanos());
+	}
+
+	private static void check(boolean condition, String failure) {
+		if (!condition) {
+			throw new AssertionError(failure);
+		}
+	}
+}
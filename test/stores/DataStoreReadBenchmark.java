@@ -0,0 +1,216 @@
+package stores;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import enumeration.FlatType;
+import enumeration.MaritalStatus;
+import models.Applicant;
+import models.BTOProject;
+import models.FlatTypeDetails;
+import services.CsvDataService;
+import utils.FilePathsUtils;
+
+/**
+ * Measures how lookups in the {@link DataStore} scale with the number of
+ * reader threads, from one thread up to twice the number of CPUs. Reads take no
+ * lock, so the reads per second should grow with the threads until every CPU
+ * is busy, and stay level after that.
+ *
+ * Before measuring, it checks the writes that readers race against: sessions
+ * registering the same NRICs at once add each applicant exactly once, and
+ * projects renamed to the same name at once leave exactly one of them with it.
+ */
+public class DataStoreReadBenchmark {
+	private static final int APPLICANTS = 100_000;
+	private static final int PROJECTS = 64;
+	private static final int WRITER_THREADS = 16;
+	private static final int CONTESTED_NRICS = 1_000;
+	private static final long MEASURE_MILLIS = 1_000;
+	private static final int RUNS = 3;
+
+	private DataStoreReadBenchmark() {
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		Path directory = Files.createTempDirectory("DataStoreReadBenchmark");
+		Map<String, String> filePathsMap = FilePathsUtils.csvFilePaths();
+		for (Map.Entry<String, String> filePath : filePathsMap.entrySet()) {
+			filePath.setValue(directory.resolve(Path.of(filePath.getValue()).getFileName()).toString());
+		}
+		try {
+			// Start from empty files rather than the sample data
+			for (String filePath : filePathsMap.values()) {
+				Files.createFile(Path.of(filePath));
+			}
+			check(DataStore.initDataStore(new CsvDataService(), filePathsMap), "the empty data could not be loaded");
+
+			checkConcurrentRegistrations();
+			checkConcurrentRenames();
+			measureReads();
+		} finally {
+			for (String filePath : filePathsMap.values()) {
+				Files.deleteIfExists(Path.of(filePath));
+			}
+			Files.delete(directory);
+		}
+		System.out.println("DataStoreReadBenchmark: every lookup found its entity");
+	}
+
+	/**
+	 * Has {@link #WRITER_THREADS} threads register the same NRICs at once.
+	 */
+	private static void checkConcurrentRegistrations() throws InterruptedException {
+		AtomicInteger added = new AtomicInteger();
+		runAll(WRITER_THREADS, () -> {
+			for (int i = 0; i < CONTESTED_NRICS; i++) {
+				if (DataStore.addApplicant(applicant(i))) {
+					added.incrementAndGet();
+				}
+			}
+		});
+		check(added.get() == CONTESTED_NRICS, added.get() + " registrations of " + CONTESTED_NRICS + " NRICs");
+		check(DataStore.getApplicantsData().size() == CONTESTED_NRICS, "applicants lost or duplicated");
+
+		for (int i = CONTESTED_NRICS; i < APPLICANTS; i++) {
+			DataStore.addApplicant(applicant(i));
+		}
+	}
+
+	/**
+	 * Renames every project to the same name at once.
+	 */
+	private static void checkConcurrentRenames() throws InterruptedException {
+		List<BTOProject> projects = new ArrayList<BTOProject>();
+		for (int i = 0; i < PROJECTS; i++) {
+			BTOProject project = project("Project" + i);
+			check(DataStore.addBTOProject(project), "a new project could not be added");
+			projects.add(project);
+		}
+
+		AtomicInteger next = new AtomicInteger();
+		AtomicInteger renamed = new AtomicInteger();
+		runAll(PROJECTS, () -> {
+			if (DataStore.renameBTOProject(projects.get(next.getAndIncrement()), "Contested")) {
+				renamed.incrementAndGet();
+			}
+		});
+		check(renamed.get() == 1, renamed.get() + " projects renamed to one name");
+		check(DataStore.getBTOProjectsData().size() == PROJECTS, "projects lost or duplicated by renaming");
+	}
+
+	/**
+	 * Looks up projects and applicants from more and more threads, keeping the
+	 * best of {@link #RUNS} runs for each number of threads.
+	 */
+	private static void measureReads() throws InterruptedException {
+		String[] projectNames = DataStore.getBTOProjectsData().keySet().toArray(new String[0]);
+		String[] nrics = DataStore.getApplicantsData().keySet().toArray(new String[0]);
+		int cpus = Runtime.getRuntime().availableProcessors();
+		double single = 0;
+		for (int threads = 1; threads <= Math.max(8, 2 * cpus); threads *= 2) {
+			long best = 0;
+			for (int run = 0; run < RUNS; run++) {
+				best = Math.max(best, countReads(threads, projectNames, nrics));
+			}
+			double perSecond = best * 1000.0 / MEASURE_MILLIS;
+			if (threads == 1) {
+				single = perSecond;
+			}
+			System.out.printf("%d reader thread(s): %.1f M reads/s, %.1fx one thread (at most %dx on %d CPU(s))%n",
+					threads, perSecond / 1e6, perSecond / single, Math.min(threads, cpus), cpus);
+		}
+	}
+
+	/**
+	 * Counts the lookups made by the given number of threads in
+	 * {@link #MEASURE_MILLIS} milliseconds.
+	 */
+	private static long countReads(int threads, String[] projectNames, String[] nrics) throws InterruptedException {
+		LongAdder reads = new LongAdder();
+		AtomicBoolean stop = new AtomicBoolean();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> readers = new ArrayList<Thread>();
+		for (int t = 0; t < threads; t++) {
+			int offset = t * 7919;
+			Thread reader = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				long count = 0;
+				int i = offset;
+				while (!stop.get()) {
+					for (int k = 0; k < 1_000; k++, i++) {
+						BTOProject project = DataStore.getBTOProjectsData().get(projectNames[i % projectNames.length]);
+						Applicant applicant = DataStore.getApplicantsData().get(nrics[i % nrics.length]);
+						check(project != null && applicant != null, "a lookup missed");
+					}
+					count += 2_000;
+				}
+				reads.add(count);
+			});
+			reader.start();
+			readers.add(reader);
+		}
+		start.countDown();
+		Thread.sleep(MEASURE_MILLIS);
+		stop.set(true);
+		for (Thread reader : readers) {
+			reader.join();
+		}
+		return reads.sum();
+	}
+
+	/**
+	 * Runs a task on the given number of threads, all started at once.
+	 */
+	private static void runAll(int threads, Runnable task) throws InterruptedException {
+		CountDownLatch start = new CountDownLatch(1);
+		List<Thread> workers = new ArrayList<Thread>();
+		for (int t = 0; t < threads; t++) {
+			Thread worker = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				task.run();
+			});
+			worker.start();
+			workers.add(worker);
+		}
+		start.countDown();
+		for (Thread worker : workers) {
+			worker.join();
+		}
+	}
+
+	private static Applicant applicant(int i) {
+		return new Applicant("Applicant" + i, String.format("S%07dA", i), 35, MaritalStatus.SINGLE, "password");
+	}
+
+	private static BTOProject project(String projectName) {
+		Map<FlatType, FlatTypeDetails> flatTypes = new EnumMap<FlatType, FlatTypeDetails>(FlatType.class);
+		flatTypes.put(FlatType.TWO_ROOM, new FlatTypeDetails(100, 1));
+		return new BTOProject(projectName, "Yishun", LocalDate.now(), LocalDate.now(), flatTypes, null, 10,
+				new ArrayList<>(), true);
+	}
+
+	private static void check(boolean condition, String failure) {
+		if (!condition) {
+			throw new AssertionError(failure);
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package stores;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks the sliding windows of a {@link LoginThrottle} against a simulated
+ * clock: an NRIC is locked out by its last few failures until the oldest of
+ * them slides out of the window, to the millisecond, and a new failure right
+ * after locks it out again rather than starting a fresh window. The same holds
+ * for the global window across NRICs, and for failures replayed from the
+ * failed login log after a restart.
+ */
+public class LoginThrottleTest {
+	private static final String NRIC = "S1234567A";
+	private static final LocalDateTime START = LocalDateTime.of(2025, 3, 5, 9, 0);
+
+	private LoginThrottleTest() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		checkNricWindow();
+		checkGlobalWindow();
+		checkReplay();
+		System.out.println("LoginThrottleTest: every lockout lifted exactly when its window slid past");
+	}
+
+	/**
+	 * Locks out one NRIC with 3 failures in 15 minutes.
+	 */
+	private static void checkNricWindow() {
+		AtomicLong now = new AtomicLong(millis(START));
+		LoginThrottle throttle = new LoginThrottle(3, Duration.ofMinutes(15), 1000, Duration.ofMinutes(1), now::get);
+
+		throttle.recordFailure(NRIC);
+		advance(now, Duration.ofMinutes(1));
+		throttle.recordFailure(NRIC);
+		check(throttle.isAllowed(NRIC), "locked out before the limit");
+		advance(now, Duration.ofMinutes(1));
+		throttle.recordFailure(NRIC);
+		check(!throttle.isAllowed(NRIC), "not locked out at the limit");
+		check(throttle.isAllowed("T7654321B"), "another NRIC was locked out");
+		check(throttle.getRetryAfter(NRIC).equals(Duration.ofMinutes(13)), "wrong time to wait");
+
+		// The first failure slides out at exactly 15 minutes
+		advance(now, Duration.ofMinutes(13).minusMillis(1));
+		check(!throttle.isAllowed(NRIC), "lockout lifted early");
+		advance(now, Duration.ofMillis(1));
+		check(throttle.isAllowed(NRIC), "lockout outlived its window");
+
+		// The two later failures are still in the window, so one more locks out again
+		throttle.recordFailure(NRIC);
+		check(!throttle.isAllowed(NRIC), "the window was reset instead of sliding");
+		check(throttle.getRetryAfter(NRIC).equals(Duration.ofMinutes(1)), "wrong time to wait after sliding");
+
+		throttle.recordSuccess(NRIC);
+		check(throttle.isAllowed(NRIC), "a successful login did not clear the failures");
+		check(throttle.getAllowedCount() == 4 && throttle.getRejectedByNricCount() == 3, "attempts miscounted");
+	}
+
+	/**
+	 * Locks out every NRIC with 5 failures of different NRICs in a minute.
+	 */
+	private static void checkGlobalWindow() {
+		AtomicLong now = new AtomicLong(millis(START));
+		LoginThrottle throttle = new LoginThrottle(3, Duration.ofMinutes(15), 5, Duration.ofMinutes(1), now::get);
+
+		for (int i = 0; i < 5; i++) {
+			throttle.recordFailure("S000000" + i + "A");
+			advance(now, Duration.ofSeconds(1));
+		}
+		check(!throttle.isAllowed(NRIC), "not locked out globally at the limit");
+		check(throttle.getRetryAfter(NRIC).equals(Duration.ofSeconds(55)), "wrong time to wait globally");
+		advance(now, Duration.ofSeconds(55));
+		check(throttle.isAllowed(NRIC), "global lockout outlived its window");
+		check(throttle.getRejectedGloballyCount() == 1, "global rejections miscounted");
+	}
+
+	/**
+	 * Rebuilds a lockout from the failed login log, skipping failures older than
+	 * the window.
+	 */
+	private static void checkReplay() throws IOException {
+		DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+		Path log = Files.createTempFile("FailedLoginAttempts", ".csv");
+		try {
+			Files.write(log, List.of("Timestamp,NRIC,RoleAttempted,IPAddress",
+					START.minusMinutes(20).format(format) + "," + NRIC + ",APPLICANT,127.0.0.1",
+					START.minusMinutes(10).format(format) + "," + NRIC + ",APPLICANT,127.0.0.1",
+					START.minusMinutes(5).format(format) + "," + NRIC + ",APPLICANT,127.0.0.1",
+					START.format(format) + "," + NRIC + ",APPLICANT,127.0.0.1"), StandardCharsets.UTF_8);
+
+			AtomicLong now = new AtomicLong(millis(START));
+			LoginThrottle throttle = new LoginThrottle(3, Duration.ofMinutes(15), 1000, Duration.ofMinutes(1), now::get);
+			check(throttle.replay(log) == 3, "failures outside the window were replayed");
+			check(!throttle.isAllowed(NRIC), "a restart lifted the lockout");
+			check(throttle.getRetryAfter(NRIC).equals(Duration.ofMinutes(5)), "wrong time to wait after a restart");
+		} finally {
+			Files.delete(log);
+		}
+	}
+
+	private static long millis(LocalDateTime time) {
+		return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+	}
+
+	private static void advance(AtomicLong now, Duration duration) {
+		now.addAndGet(duration.toMillis());
+	}
+
+	private static void check(boolean condition, String failure) {
+		if (!condition) {
+			throw new AssertionError(failure);
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Checks that rows written by {@link CsvRowWriter} are read back unchanged by
+ * {@link CsvReader}. The rows are generated from a fixed seed out of the
+ * characters that need quoting (separators, quotes and both line breaks),
+ * accented letters and characters outside the Basic Multilingual Plane. Some
+ * fields are longer than the reader's buffer, so both quoted and unquoted
+ * fields are split across refills.
+ */
+public class CsvRoundTripTest {
+	private static final String ALPHABET = "ab,\"\n\r x\u00e9";
+	private static final String SURROGATE_PAIR = "\uD83D\uDE00";
+
+	private CsvRoundTripTest() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		Random random = new Random(42);
+		List<String[]> rows = new ArrayList<String[]>();
+		for (int i = 0; i < 20_000; i++) {
+			rows.add(randomRow(random));
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (CsvRowWriter writer = new CsvRowWriter(Channels.newChannel(out), null)) {
+			for (String[] row : rows) {
+				writer.row(Arrays.asList(row));
+			}
+		}
+
+		int read = 0;
+		try (CsvReader reader = new CsvReader(
+				new InputStreamReader(new ByteArrayInputStream(out.toByteArray()), StandardCharsets.UTF_8))) {
+			String[] row;
+			while ((row = reader.readRow()) != null) {
+				if (read == rows.size()) {
+					throw new AssertionError("Read more rows than were written");
+				}
+				if (!Arrays.equals(row, rows.get(read))) {
+					throw new AssertionError("Row " + read + " read back as " + Arrays.toString(row) + ", expected "
+							+ Arrays.toString(rows.get(read)));
+				}
+				read++;
+			}
+		}
+		if (read != rows.size()) {
+			throw new AssertionError("Read " + read + " rows, expected " + rows.size());
+		}
+		System.out.println("CsvRoundTripTest: " + read + " rows (" + out.size() + " bytes) read back unchanged");
+	}
+
+	/**
+	 * Generates a row of one to six fields.
+	 *
+	 * @param random the source of randomness
+	 * @return the row
+	 */
+	private static String[] randomRow(Random random) {
+		String[] row = new String[1 + random.nextInt(6)];
+		for (int i = 0; i < row.length; i++) {
+			// One field in a thousand is longer than the reader's buffer
+			int length = random.nextInt(1000) == 0 ? 70_000 + random.nextInt(10_000) : random.nextInt(30);
+			StringBuilder field = new StringBuilder(length);
+			boolean special = random.nextBoolean();
+			for (int j = 0; j < length; j++) {
+				if (random.nextInt(50) == 0) {
+					field.append(SURROGATE_PAIR);
+				} else if (special) {
+					field.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+				} else {
+					field.append((char) ('a' + random.nextInt(26)));
+				}
+			}
+			row[i] = field.toString();
+		}
+		// A row of one empty field is written as a blank line, which the reader skips
+		if (row.length == 1 && row[0].isEmpty()) {
+			row[0] = "z";
+		}
+		return row;
+	}
+}